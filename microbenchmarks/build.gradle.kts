@@ -0,0 +1,27 @@
+// JMH benchmarks for the hot paths of Tai-e.
+// Run all benchmarks by:
+//   ./gradlew :microbenchmarks:jmh
+// or run the benchmarks whose names match a regular expression by:
+//   ./gradlew :microbenchmarks:jmh -PjmhIncludes=BitSetBenchmark
+// The results are written to microbenchmarks/build/results/jmh/results.json.
+
+plugins {
+    id("tai-e.conventions")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    findProperty("jmhIncludes")?.let { includes.add(it as String) }
+    // benchmarks analyze the test programs of the root project
+    jvmArgsAppend.add("-Dtaie.root=${rootDir.absolutePath}")
+    jvmArgsAppend.add("-Xss8m")
+}
@@ -0,0 +1,54 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie;
+
+import java.nio.file.Path;
+
+/**
+ * Utility methods shared by JMH benchmarks.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * @return path of the test programs for pointer analysis.
+     */
+    public static String getPTATestDir(String dir) {
+        String root = System.getProperty("taie.root", "..");
+        return Path.of(root, "src", "test", "resources", "pta", dir).toString();
+    }
+
+    /**
+     * Builds the world for the given pointer analysis test program.
+     */
+    public static void buildWorld(String dir, String mainClass) {
+        World.reset();
+        String outputDir = Path.of(System.getProperty("java.io.tmpdir"),
+                "tai-e-jmh").toString();
+        Main.buildWorld("-pp", "-cp", getPTATestDir(dir),
+                "-m", mainClass, "--output-dir", outputDir);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pascal.taie.Benchmarks;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigManager;
+import pascal.taie.config.Configs;
+import pascal.taie.config.PlanConfig;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks full runs of pointer analysis (with the default solver
+ * unless specified by options) on the test programs.
+ * <p>
+ * Besides time, it reports the heap retained by each analysis result
+ * as secondary result {@code retainedHeapKB}, i.e., the used heap after
+ * the analysis minus the used heap before it (both measured after a full
+ * GC), which compares the memory footprint of options, e.g., the default
+ * points-to sets and the shared ones ({@code shared-pts:true}) under
+ * {@code 2-obj}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointerAnalysisBenchmark {
+
+    /**
+     * Test program, in form of "dir/MainClass".
+     */
+    @Param({"basic/RedBlackBST", "contextsensitivity/LinkedQueue"})
+    private String program;
+
+    @Param({"ci", "2-obj"})
+    private String cs;
+
+    /**
+     * Extra options of pointer analysis, in form of "key:value;key:value".
+     */
+    @Param({"", "shared-pts:true"})
+    private String options;
+
+    private AnalysisConfig config;
+
+    /**
+     * Result of the last invocation, kept alive until its retained
+     * heap is measured.
+     */
+    private PointerAnalysisResult result;
+
+    /**
+     * Used heap (in bytes) before the current invocation.
+     */
+    private long baselineHeap;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public long retainedHeapKB;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedHeapKB = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] splits = program.split("/");
+        Benchmarks.buildWorld(splits[0], splits[1]);
+        List<AnalysisConfig> configs = AnalysisConfig.parseConfigs(
+                Configs.getAnalysisConfig());
+        Map<String, Object> optionMap = Maps.newLinkedHashMap();
+        optionMap.put("cs", cs);
+        for (String option : options.split(";")) {
+            if (!option.isBlank()) {
+                int i = option.indexOf(':');
+                optionMap.put(option.substring(0, i),
+                        parseValue(option.substring(i + 1)));
+            }
+        }
+        new ConfigManager(configs).overwriteOptions(List.of(
+                new PlanConfig(PointerAnalysis.ID, new AnalysisOptions(optionMap))));
+        config = configs.stream()
+                .filter(c -> c.getId().equals(PointerAnalysis.ID))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Object parseValue(String value) {
+        if (value.equals("true") || value.equals("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Measures the baseline of retained heap after all setup, which
+     * includes the world and the IRs built by previous invocations.
+     */
+    @Setup(Level.Invocation)
+    public void measureBaselineHeap() {
+        baselineHeap = usedHeapAfterGC();
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        result = new PointerAnalysis(config).analyze();
+        return result;
+    }
+
+    /**
+     * Measures the heap retained by the result out of the timed section,
+     * i.e., the growth of used heap since {@link #measureBaselineHeap()}.
+     */
+    @TearDown(Level.Invocation)
+    public void measureRetainedHeap(HeapCounters counters) {
+        long retained = usedHeapAfterGC() - baselineHeap;
+        counters.retainedHeapKB = Math.max(retained, 0) / 1024;
+        result = null;
+    }
+
+    private static long usedHeapAfterGC() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation and lookup of k-limited contexts,
+ * which is performed by context selectors on every call edge
+ * and allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+    @Param({"trie", "compact"})
+    private String factoryKind;
+
+    /**
+     * Limit of context length.
+     */
+    @Param({"2", "3"})
+    private int limit;
+
+    /**
+     * Number of distinct context elements.
+     */
+    @Param({"1024"})
+    private int elementCount;
+
+    private static final int APPENDS = 100_000;
+
+    private Object[] elements;
+
+    /**
+     * Indexes of elements to be appended, in order.
+     */
+    private int[] sequence;
+
+    /**
+     * Factory which already contains the contexts created by
+     * {@link #appendAll}, for looking up existing contexts.
+     */
+    private ContextFactory<Object> populated;
+
+    @Setup(Level.Trial)
+    public void setUpElements() {
+        elements = new Object[elementCount];
+        for (int i = 0; i < elementCount; ++i) {
+            elements[i] = "e" + i;
+        }
+        Random random = new Random(elementCount);
+        sequence = new int[APPENDS];
+        for (int i = 0; i < APPENDS; ++i) {
+            sequence[i] = random.nextInt(elementCount);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpFactory() {
+        populated = newFactory();
+        appendAll(populated);
+    }
+
+    private ContextFactory<Object> newFactory() {
+        return switch (factoryKind) {
+            case "trie" -> new TrieContext.Factory<>();
+            case "compact" -> new CompactContext.Factory<>();
+            default -> throw new IllegalArgumentException(factoryKind);
+        };
+    }
+
+    /**
+     * Creates contexts from a fresh factory.
+     */
+    @Benchmark
+    @OperationsPerInvocation(APPENDS)
+    public Context create() {
+        return appendAll(newFactory());
+    }
+
+    /**
+     * Looks up the contexts which already exist in the factory,
+     * which dominates in real analyses as most contexts already exist.
+     */
+    @Benchmark
+    @OperationsPerInvocation(APPENDS)
+    public Context lookup() {
+        return appendAll(populated);
+    }
+
+    private Context appendAll(ContextFactory<Object> factory) {
+        Context context = factory.getEmptyContext();
+        for (int i : sequence) {
+            context = factory.append(context, elements[i], limit);
+        }
+        return context;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Benchmarks;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.CompactContext;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookups of existing context-sensitive variables and
+ * methods, which are performed on the hot paths of the solver,
+ * e.g., processing calls and call edges.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CSManagerBenchmark {
+
+    @Param({"map", "index"})
+    private String managerKind;
+
+    @Param({"16"})
+    private int contextCount;
+
+    private List<JMethod> methods;
+
+    private List<Var> vars;
+
+    private Context[] contexts;
+
+    private CSManager csManager;
+
+    @Setup(Level.Trial)
+    public void setUpWorld() {
+        Benchmarks.buildWorld("basic", "RedBlackBST");
+        methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(ms -> ms.stream().filter(m -> !m.isAbstract()))
+                .toList();
+        vars = methods.stream()
+                .flatMap(m -> m.getIR().getVars().stream())
+                .toList();
+        CompactContext.Factory<Object> factory = new CompactContext.Factory<>();
+        contexts = new Context[contextCount];
+        for (int i = 0; i < contextCount; ++i) {
+            contexts[i] = factory.make("c" + i, "d" + i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpManager() {
+        csManager = switch (managerKind) {
+            case "map" -> new MapBasedCSManager();
+            case "index" -> new IndexBasedCSManager();
+            default -> throw new IllegalArgumentException(managerKind);
+        };
+        // populate the manager, so that the benchmarks
+        // measure the lookups of existing elements
+        for (Context context : contexts) {
+            vars.forEach(var -> csManager.getCSVar(context, var));
+            methods.forEach(method -> csManager.getCSMethod(context, method));
+        }
+    }
+
+    @Benchmark
+    public void getCSVarAndCSMethod(Blackhole bh) {
+        for (Context context : contexts) {
+            for (Var var : vars) {
+                bh.consume(csManager.getCSVar(context, var));
+            }
+            for (JMethod method : methods) {
+                bh.consume(csManager.getCSMethod(context, method));
+            }
+        }
+    }
+}
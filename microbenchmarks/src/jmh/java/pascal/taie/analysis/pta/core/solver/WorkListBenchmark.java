@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Benchmarks;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.CompactContext;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding and polling pointer entries of {@link WorkList}
+ * under different policies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorkListBenchmark {
+
+    @Param({"fifo", "lrf", "topo"})
+    private String policy;
+
+    /**
+     * Number of times that each pointer is added to the work list.
+     */
+    private static final int ROUNDS = 4;
+
+    private List<Var> vars;
+
+    private Pointer[] pointers;
+
+    private PointerFlowGraph pointerFlowGraph;
+
+    private PointsToSet emptySet;
+
+    @Setup(Level.Trial)
+    public void setUpWorld() {
+        Benchmarks.buildWorld("basic", "RedBlackBST");
+        vars = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(ms -> ms.stream().filter(m -> !m.isAbstract()))
+                .flatMap(m -> m.getIR().getVars().stream())
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpPointers() {
+        CSManager csManager = new MapBasedCSManager();
+        pointerFlowGraph = new PointerFlowGraph(csManager);
+        emptySet = new PointsToSetFactory(csManager.getObjectIndexer()).make();
+        CompactContext.Factory<Object> factory = new CompactContext.Factory<>();
+        List<Pointer> pointerList = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            Context context = factory.make("c" + i);
+            vars.forEach(v -> pointerList.add(csManager.getCSVar(context, v)));
+        }
+        // connects pointers by random edges, so that the topological
+        // order of the pointer flow graph is non-trivial
+        Random random = new Random(pointerList.size());
+        for (int i = 0; i < pointerList.size() * 2; ++i) {
+            Pointer source = pointerList.get(random.nextInt(pointerList.size()));
+            Pointer target = pointerList.get(random.nextInt(pointerList.size()));
+            pointerFlowGraph.addEdge(new PointerFlowEdge(
+                    FlowKind.LOCAL_ASSIGN, source, target));
+        }
+        Collections.shuffle(pointerList, random);
+        pointers = pointerList.toArray(new Pointer[0]);
+    }
+
+    @Benchmark
+    public void addAndPoll(Blackhole bh) {
+        WorkList workList = new WorkList(
+                WorkList.Policy.of(policy), pointerFlowGraph);
+        for (int r = 0; r < ROUNDS; ++r) {
+            for (Pointer pointer : pointers) {
+                workList.addEntry(pointer, emptySet);
+            }
+            while (!workList.isEmpty()) {
+                bh.consume(workList.pollEntry());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.frontend.asm.AsmWorldBuilder;
+import pascal.taie.frontend.soot.SootWorldBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the startup of Tai-e, i.e., building the world (and optionally
+ * the IR of all methods) by Soot frontend and ASM frontend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorldBuilderBenchmark {
+
+    @Param({"soot", "asm"})
+    private String frontend;
+
+    @Param({"false", "true"})
+    private boolean preBuildIR;
+
+    @Benchmark
+    public World buildWorld() {
+        World.reset();
+        String root = System.getProperty("taie.root", "..");
+        List<String> args = new ArrayList<>();
+        Collections.addAll(args, "-pp",
+                "-cp", Path.of(root, "src", "test", "resources", "world").toString(),
+                "--input-classes", "Annotated",
+                "--output-dir", Path.of(System.getProperty("java.io.tmpdir"),
+                        "tai-e-jmh").toString(),
+                "--world-builder", frontend.equals("asm")
+                        ? AsmWorldBuilder.class.getName()
+                        : SootWorldBuilder.class.getName());
+        if (preBuildIR) {
+            args.add("--pre-build-ir");
+        }
+        Main.buildWorld(args.toArray(new String[0]));
+        return World.get();
+    }
+}
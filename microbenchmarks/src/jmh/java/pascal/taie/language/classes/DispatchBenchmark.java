@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Benchmarks;
+import pascal.taie.World;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ClassHierarchy#dispatch(JClass, MethodRef)}, which is
+ * invoked by pointer analysis for every receiver object at every
+ * virtual call site.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+    /**
+     * Maximum number of receiver classes for each call site.
+     */
+    private static final int MAX_RECEIVERS = 64;
+
+    private ClassHierarchy hierarchy;
+
+    private JClass[] receivers;
+
+    private MethodRef[] methodRefs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Benchmarks.buildWorld("basic", "RedBlackBST");
+        hierarchy = World.get().getClassHierarchy();
+        List<JClass> receiverList = new ArrayList<>();
+        List<MethodRef> methodRefList = new ArrayList<>();
+        hierarchy.applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .flatMap(m -> m.getIR().invokes(false))
+                .filter(invoke -> invoke.isVirtual() || invoke.isInterface())
+                .map(Invoke::getMethodRef)
+                .forEach(ref -> hierarchy.getAllSubclassesOf(ref.getDeclaringClass())
+                        .stream()
+                        .filter(c -> !c.isAbstract())
+                        .limit(MAX_RECEIVERS)
+                        .forEach(c -> {
+                            receiverList.add(c);
+                            methodRefList.add(ref);
+                        }));
+        receivers = receiverList.toArray(new JClass[0]);
+        methodRefs = methodRefList.toArray(new MethodRef[0]);
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole bh) {
+        for (int i = 0; i < receivers.length; ++i) {
+            bh.consume(hierarchy.dispatch(receivers[i], methodRefs[i]));
+        }
+    }
+}
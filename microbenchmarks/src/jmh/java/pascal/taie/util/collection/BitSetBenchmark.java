@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.util.Indexer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code addAllDiff} of bit sets, which is the core operation
+ * of propagating points-to sets.
+ * <p>
+ * As {@code addAllDiff} modifies the target set, each operation works on
+ * a fresh copy of a target set prepared once per trial. The copying is
+ * measured separately by the {@code *Copy} benchmarks, so that its cost
+ * can be subtracted from the results of {@code addAllDiff}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BitSetBenchmark {
+
+    /**
+     * Number of (target, source) pairs operated by each invocation.
+     */
+    private static final int PAIRS = 64;
+
+    /**
+     * Number of elements in each set.
+     */
+    @Param({"8", "256", "8192"})
+    private int size;
+
+    /**
+     * Range of the elements.
+     */
+    @Param({"65536"})
+    private int range;
+
+    private Integer[] elements;
+
+    private final Indexer<Integer> indexer = new Indexer<>() {
+        @Override
+        public int getIndex(Integer o) {
+            return o;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return elements[index];
+        }
+    };
+
+    private SparseBitSet[] sparseTargets;
+
+    private SparseBitSet[] sparseSources;
+
+    private HybridBitSet<Integer>[] hybridTargets;
+
+    private HybridBitSet<Integer>[] hybridSources;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        elements = new Integer[range];
+        for (int i = 0; i < range; ++i) {
+            elements[i] = i;
+        }
+        // fixed seed makes the sets identical across runs
+        Random random = new Random(size);
+        sparseTargets = new SparseBitSet[PAIRS];
+        sparseSources = new SparseBitSet[PAIRS];
+        hybridTargets = new HybridBitSet[PAIRS];
+        hybridSources = new HybridBitSet[PAIRS];
+        for (int p = 0; p < PAIRS; ++p) {
+            sparseTargets[p] = new SparseBitSet();
+            sparseSources[p] = new SparseBitSet();
+            hybridTargets[p] = new HybridBitSet<>(indexer, true);
+            hybridSources[p] = new HybridBitSet<>(indexer, true);
+            for (int i = 0; i < size; ++i) {
+                int t = random.nextInt(range);
+                int s = random.nextInt(range);
+                sparseTargets[p].set(t);
+                sparseSources[p].set(s);
+                hybridTargets[p].add(elements[t]);
+                hybridSources[p].add(elements[s]);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void sparseBitSetCopy(Blackhole bh) {
+        for (SparseBitSet target : sparseTargets) {
+            bh.consume(target.copy());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void sparseBitSetOrDiff(Blackhole bh) {
+        for (int p = 0; p < PAIRS; ++p) {
+            bh.consume(sparseTargets[p].copy().orDiff(sparseSources[p]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void hybridBitSetCopy(Blackhole bh) {
+        for (HybridBitSet<Integer> target : hybridTargets) {
+            bh.consume(target.copy());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void hybridBitSetAddAllDiff(Blackhole bh) {
+        for (int p = 0; p < PAIRS; ++p) {
+            bh.consume(hybridTargets[p].copy().addAllDiff(hybridSources[p]));
+        }
+    }
+}
@@ -3,6 +3,7 @@
 include(
     ":", // root project
     "docs",
+    "microbenchmarks",
 )
 
 // Auto detect and provision JVM
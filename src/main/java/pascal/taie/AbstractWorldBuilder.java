@@ -24,8 +24,12 @@ package pascal.taie;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.plugin.reflection.LogItem;
+import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.StringReps;
 import pascal.taie.language.natives.DefaultNativeModel;
 import pascal.taie.language.natives.EmptyNativeModel;
 import pascal.taie.language.natives.NativeModel;
@@ -68,34 +72,42 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
     );
 
     protected static String getClassPath(Options options) {
+        return Streams.concat(
+                        getJREJars(options).stream(),
+                        options.getAppClassPath().stream(),
+                        options.getClassPath().stream())
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    /**
+     * @return the JRE jars which are put in front of the class path.
+     * When prependJVM is set, the classes of the running JVM are used
+     * instead, thus the result is empty.
+     */
+    public static List<String> getJREJars(Options options) {
         if (options.isPrependJVM()) {
-            return Streams.concat(
-                            options.getAppClassPath().stream(),
-                            options.getClassPath().stream())
-                    .collect(Collectors.joining(File.pathSeparator));
-        } else { // when prependJVM is not set, we manually specify JRE jars
-            // check existence of JREs
-            File jreDir = new File(JREs);
-            if (!jreDir.exists()) {
-                throw new RuntimeException("""
-                        Failed to locate Java library.
-                        Please clone submodule 'java-benchmarks' by command:
-                        'git submodule update --init --recursive' (if you are running Tai-e)
-                        or 'git clone https://github.com/pascal-lab/java-benchmarks' (if you are using Tai-e as a dependency),
-                        then put it in Tai-e's working directory.""");
-            }
-            String jrePath = String.format("%s/jre1.%d",
-                    JREs, options.getJavaVersion());
-            try (Stream<Path> paths = Files.walk(Path.of(jrePath))) {
-                return Streams.concat(
-                                paths.map(Path::toString).filter(p -> p.endsWith(".jar")),
-                                options.getAppClassPath().stream(),
-                                options.getClassPath().stream())
-                        .collect(Collectors.joining(File.pathSeparator));
-            } catch (IOException e) {
-                throw new RuntimeException("Analysis on Java " +
-                        options.getJavaVersion() + " library is not supported yet", e);
-            }
+            return List.of();
+        }
+        // when prependJVM is not set, we manually specify JRE jars
+        // check existence of JREs
+        File jreDir = new File(JREs);
+        if (!jreDir.exists()) {
+            throw new RuntimeException("""
+                    Failed to locate Java library.
+                    Please clone submodule 'java-benchmarks' by command:
+                    'git submodule update --init --recursive' (if you are running Tai-e)
+                    or 'git clone https://github.com/pascal-lab/java-benchmarks' (if you are using Tai-e as a dependency),
+                    then put it in Tai-e's working directory.""");
+        }
+        String jrePath = String.format("%s/jre1.%d",
+                JREs, options.getJavaVersion());
+        try (Stream<Path> paths = Files.walk(Path.of(jrePath))) {
+            return paths.map(Path::toString)
+                    .filter(p -> p.endsWith(".jar"))
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Analysis on Java " +
+                    options.getJavaVersion() + " library is not supported yet", e);
         }
     }
 
@@ -106,6 +118,42 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
                 new EmptyNativeModel();
     }
 
+    /**
+     * Obtains the target classes in reflection log, which should be
+     * loaded before building the world.
+     * <p>
+     * TODO: this is a tentative solution. We should remove it and use other
+     *  way to load basic classes in the reflection log, so that world builder
+     *  does not depend on analyses to be executed.
+     *
+     * @param analyses the analyses to be executed
+     */
+    protected static List<String> getReflectionLogClasses(List<AnalysisConfig> analyses) {
+        List<String> classes = new ArrayList<>();
+        analyses.forEach(config -> {
+            if (config.getId().equals(PointerAnalysis.ID)) {
+                String path = config.getOptions().getString("reflection-log");
+                if (path != null) {
+                    LogItem.load(path).forEach(item -> {
+                        // add target class
+                        String target = item.target;
+                        String targetClass;
+                        if (target.startsWith("<")) {
+                            targetClass = StringReps.getClassNameOf(target);
+                        } else {
+                            targetClass = target;
+                        }
+                        if (StringReps.isArrayType(targetClass)) {
+                            targetClass = StringReps.getBaseTypeNameOf(target);
+                        }
+                        classes.add(targetClass);
+                    });
+                }
+            }
+        });
+        return classes;
+    }
+
     /**
      * Obtains all input classes specified in {@code options}.
      */
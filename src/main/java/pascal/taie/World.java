@@ -25,12 +25,14 @@ package pascal.taie;
 import pascal.taie.config.Options;
 import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.ir.IRBuilder;
+import pascal.taie.ir.IRCache;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.natives.NativeModel;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.AbstractResultHolder;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -79,6 +81,12 @@ public final class World extends AbstractResultHolder
      */
     private transient IRBuilder irBuilder;
 
+    /**
+     * Bounded cache of IRs, which is {@code null} if the IRs are kept
+     * for all methods (i.e., the default behavior).
+     */
+    private transient IRCache irCache;
+
     private NativeModel nativeModel;
 
     private JMethod mainMethod;
@@ -114,6 +122,9 @@ public final class World extends AbstractResultHolder
 
     public void setOptions(Options options) {
         checkAndSet("options", options);
+        if (options.getIRCacheSize() > 0) {
+            irCache = new IRCache(options.getIRCacheSize());
+        }
     }
 
     public TypeSystem getTypeSystem() {
@@ -140,6 +151,14 @@ public final class World extends AbstractResultHolder
         checkAndSet("irBuilder", irBuilder);
     }
 
+    /**
+     * @return the bounded cache of IRs, or {@code null} if it is disabled.
+     */
+    @Nullable
+    public IRCache getIRCache() {
+        return irCache;
+    }
+
     public NativeModel getNativeModel() {
         return nativeModel;
     }
@@ -24,28 +24,113 @@ package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.BitVectorSolver;
 import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.WorkListOrder;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.Set;
 
 /**
  * Driver for performing a specific kind of data-flow analysis for a method.
  */
 public abstract class AnalysisDriver<Node, Fact>
-        extends MethodAnalysis<DataflowResult<Node, Fact>> {
+        extends MethodAnalysis<NodeResult<Node, Fact>> {
 
     protected AnalysisDriver(AnalysisConfig config) {
         super(config);
     }
 
     @Override
-    public DataflowResult<Node, Fact> analyze(IR ir) {
+    public NodeResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         DataflowAnalysis<Node, Fact> analysis = makeAnalysis(cfg);
-        Solver<Node, Fact> solver = Solver.getSolver();
-        return solver.solve(analysis);
+        // gen/kill analyses are always solved on nodes by BitVectorSolver,
+        // which does not create facts for the nodes during solving
+        if (isEnabled("block-solver")
+                && !(analysis instanceof GenKillAnalysis<?, ?>)) {
+            BlockAnalysis<Node, Fact> blockAnalysis = new BlockAnalysis<>(analysis);
+            DataflowResult<BasicBlock<Node>, Fact> blockResult = solve(blockAnalysis);
+            blockAnalysis.releaseInnerFacts();
+            return new BlockDataflowResult<>(blockAnalysis, blockResult);
+        }
+        return solve(analysis);
+    }
+
+    private boolean isEnabled(String option) {
+        return getOptions().has(option) && getOptions().getBoolean(option);
+    }
+
+    private WorkListOrder getWorkListOrder() {
+        return getOptions().has("work-list")
+                ? WorkListOrder.of(getOptions().getString("work-list"))
+                : WorkListOrder.INDEX;
+    }
+
+    /**
+     * Gen/kill analyses are solved by {@link BitVectorSolver}, and other
+     * analyses are solved by the {@link Solver} which processes nodes
+     * in the order given by option {@code work-list}.
+     */
+    @SuppressWarnings("unchecked")
+    private <N> DataflowResult<N, Fact> solve(DataflowAnalysis<N, Fact> analysis) {
+        DataflowResult<N, Fact> result = analysis instanceof GenKillAnalysis<?, ?>
+                ? (DataflowResult<N, Fact>) new BitVectorSolver<>(
+                        (GenKillAnalysis<N, ?>) analysis).solve()
+                : Solver.<N, Fact>getSolver(getWorkListOrder()).solve(analysis);
+        // the results of method analyses are kept in IRs, and
+        // dropping in-facts saves memory for large programs
+        if (isEnabled("drop-in-facts")) {
+            result.dropInFacts(node -> computeInFact(analysis, result, node));
+        }
+        return result;
+    }
+
+    /**
+     * Re-computes the in-fact of given node from the out-facts in
+     * {@code result}, i.e., meets the out-facts of the predecessors of
+     * the node for forward analyses, and applies the node transfer
+     * function to the out-fact of the node for backward analyses.
+     */
+    private static <Node, Fact> Fact computeInFact(
+            DataflowAnalysis<Node, Fact> analysis,
+            DataflowResult<Node, Fact> result, Node node) {
+        CFG<Node> cfg = analysis.getCFG();
+        if (cfg.isEntry(node) && analysis.isForward()
+                || cfg.isExit(node) && !analysis.isForward()) {
+            // in-fact and out-fact of boundary node are the same
+            return result.getOutFact(node);
+        }
+        if (analysis.isForward()) {
+            Set<CFGEdge<Node>> inEdges = cfg.getInEdgesOf(node);
+            if (inEdges.size() == 1) {
+                CFGEdge<Node> inEdge = CollectionUtils.getOne(inEdges);
+                Fact fact = result.getOutFact(inEdge.source());
+                return analysis.needTransferEdge(inEdge)
+                        ? analysis.transferEdge(inEdge, fact)
+                        : fact;
+            }
+            Fact in = analysis.newInitialFact();
+            inEdges.forEach(inEdge -> {
+                Fact fact = result.getOutFact(inEdge.source());
+                if (analysis.needTransferEdge(inEdge)) {
+                    fact = analysis.transferEdge(inEdge, fact);
+                }
+                analysis.meetInto(fact, in);
+            });
+            return in;
+        } else {
+            Fact in = analysis.newInitialFact();
+            analysis.transferNode(node, in, result.getOutFact(node));
+            return in;
+        }
     }
 
     /**
@@ -0,0 +1,242 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.util.collection.CollectionUtils;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lifts a data-flow analysis on nodes to the basic blocks of the nodes,
+ * so that the solvers meet facts and maintain work-lists only at
+ * the boundaries of the blocks.
+ * <p>
+ * The transfer function of a block chains the transfer functions of
+ * its nodes, and the edges inside the block are transferred along the
+ * way if needed. The facts of the nodes inside the blocks are kept only
+ * during solving, so that they are updated in place (as the solvers do
+ * for the facts of nodes) when the blocks are transferred again. After
+ * they are released by {@link #releaseInnerFacts()}, they are
+ * re-computed from the facts of the blocks by {@link #computeNodeFacts}.
+ *
+ * @param <Node> type of the nodes in the blocks
+ * @param <Fact> type of data-flow facts
+ */
+class BlockAnalysis<Node, Fact> implements DataflowAnalysis<BasicBlock<Node>, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final BlockCFG<Node> cfg;
+
+    /**
+     * Inner facts of each block during solving, i.e., the out (in) facts
+     * of the nodes except the last (first) one in the block for forward
+     * (backward) analysis, which are indexed by the positions of
+     * the nodes in the block.
+     */
+    @Nullable
+    private List<List<Fact>> innerFacts;
+
+    BlockAnalysis(DataflowAnalysis<Node, Fact> analysis) {
+        this.analysis = analysis;
+        this.cfg = new BlockCFG<>(analysis.getCFG());
+        this.innerFacts = new ArrayList<>(
+                Collections.nCopies(cfg.getNumberOfNodes(), null));
+    }
+
+    @Override
+    public boolean isForward() {
+        return analysis.isForward();
+    }
+
+    @Override
+    public Fact newBoundaryFact() {
+        return analysis.newBoundaryFact();
+    }
+
+    @Override
+    public Fact newInitialFact() {
+        return analysis.newInitialFact();
+    }
+
+    @Override
+    public void meetInto(Fact fact, Fact target) {
+        analysis.meetInto(fact, target);
+    }
+
+    @Override
+    public boolean transferNode(BasicBlock<Node> block, Fact in, Fact out) {
+        if (block.size() == 1) {
+            return analysis.transferNode(block.getFirstNode(), in, out);
+        }
+        List<Fact> facts = innerFacts != null
+                ? innerFacts.get(block.getIndex())
+                : null;
+        // every node has to be transferred in the first visit of the
+        // block, and in later visits, the transfer stops at the first
+        // unchanged inner fact, as the facts after it are unchanged too
+        boolean isFirstVisit = facts == null;
+        if (isFirstVisit) {
+            facts = newInnerFacts(block);
+            if (innerFacts != null) {
+                innerFacts.set(block.getIndex(), facts);
+            }
+        }
+        if (isForward()) {
+            Fact lastIn = transferForward(
+                    block.getNodes(), in, facts, !isFirstVisit, null);
+            return lastIn != null
+                    && analysis.transferNode(block.getLastNode(), lastIn, out);
+        } else {
+            Fact firstOut = transferBackward(
+                    block.getNodes(), out, facts, !isFirstVisit, null);
+            return firstOut != null
+                    && analysis.transferNode(block.getFirstNode(), in, firstOut);
+        }
+    }
+
+    @Override
+    public boolean needTransferEdge(CFGEdge<BasicBlock<Node>> edge) {
+        return analysis.needTransferEdge(cfg.getNodeEdge(edge));
+    }
+
+    @Override
+    public Fact transferEdge(CFGEdge<BasicBlock<Node>> edge, Fact nodeFact) {
+        return analysis.transferEdge(cfg.getNodeEdge(edge), nodeFact);
+    }
+
+    @Override
+    public BlockCFG<Node> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * Releases the inner facts of the blocks after solving. After that,
+     * the blocks are transferred with new inner facts.
+     */
+    void releaseInnerFacts() {
+        innerFacts = null;
+    }
+
+    /**
+     * Computes the in/out facts of the nodes in given block from the
+     * in/out facts of the block, and stores them in {@code inFacts} and
+     * {@code outFacts} at the positions of the nodes in the block.
+     */
+    void computeNodeFacts(BasicBlock<Node> block, Fact in, Fact out,
+                          List<Fact> inFacts, List<Fact> outFacts) {
+        int last = block.size() - 1;
+        if (isForward()) {
+            outFacts.clear();
+            outFacts.addAll(newInnerFacts(block));
+            inFacts.set(last, transferForward(
+                    block.getNodes(), in, outFacts, false, inFacts));
+            outFacts.set(last, out);
+        } else {
+            inFacts.clear();
+            inFacts.addAll(newInnerFacts(block));
+            inFacts.set(0, in);
+            outFacts.set(0, transferBackward(
+                    block.getNodes(), out, inFacts, false, outFacts));
+        }
+    }
+
+    private List<Fact> newInnerFacts(BasicBlock<Node> block) {
+        int size = block.size();
+        List<Fact> facts = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            boolean isInner = isForward() ? i < size - 1 : i > 0;
+            facts.add(isInner ? analysis.newInitialFact() : null);
+        }
+        return facts;
+    }
+
+    /**
+     * Transfers {@code in} through all nodes except the last one,
+     * whose out facts are updated in {@code outFacts}, and stores
+     * the in facts of these nodes in {@code inFacts} if it is given.
+     *
+     * @return the in fact of the last node, or {@code null} if
+     * {@code stopIfUnchanged} is true and some out fact is unchanged.
+     */
+    @Nullable
+    private Fact transferForward(List<Node> nodes, Fact in, List<Fact> outFacts,
+                                 boolean stopIfUnchanged,
+                                 @Nullable List<Fact> inFacts) {
+        Fact fact = in;
+        for (int i = 0; i < nodes.size() - 1; ++i) {
+            Node node = nodes.get(i);
+            Fact out = outFacts.get(i);
+            if (inFacts != null) {
+                inFacts.set(i, fact);
+            }
+            if (!analysis.transferNode(node, fact, out) && stopIfUnchanged) {
+                return null;
+            }
+            CFGEdge<Node> edge = CollectionUtils.getOne(
+                    analysis.getCFG().getOutEdgesOf(node));
+            fact = analysis.needTransferEdge(edge)
+                    ? analysis.transferEdge(edge, out)
+                    : out;
+        }
+        return fact;
+    }
+
+    /**
+     * Transfers {@code out} through all nodes except the first one
+     * (in reverse order), whose in facts are updated in {@code inFacts},
+     * and stores the out facts of these nodes in {@code outFacts}
+     * if it is given.
+     *
+     * @return the out fact of the first node, or {@code null} if
+     * {@code stopIfUnchanged} is true and some in fact is unchanged.
+     */
+    @Nullable
+    private Fact transferBackward(List<Node> nodes, Fact out, List<Fact> inFacts,
+                                  boolean stopIfUnchanged,
+                                  @Nullable List<Fact> outFacts) {
+        Fact fact = out;
+        for (int i = nodes.size() - 1; i > 0; --i) {
+            Node node = nodes.get(i);
+            Fact in = inFacts.get(i);
+            if (outFacts != null) {
+                outFacts.set(i, fact);
+            }
+            if (!analysis.transferNode(node, in, fact) && stopIfUnchanged) {
+                return null;
+            }
+            CFGEdge<Node> edge = CollectionUtils.getOne(
+                    analysis.getCFG().getInEdgesOf(node));
+            fact = analysis.needTransferEdge(edge)
+                    ? analysis.transferEdge(edge, in)
+                    : in;
+        }
+        return fact;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data-flow result of nodes which is backed by the result of
+ * {@link BlockAnalysis}. Only the facts of the blocks are kept, and
+ * the facts of the nodes are re-computed from them on demand.
+ * As the facts of the nodes are not stored, this result only supports
+ * the queries of {@link NodeResult}.
+ *
+ * @param <Node> type of the nodes in the blocks
+ * @param <Fact> type of data-flow facts
+ */
+class BlockDataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
+
+    private final BlockAnalysis<Node, Fact> analysis;
+
+    private final DataflowResult<BasicBlock<Node>, Fact> blockResult;
+
+    /**
+     * Number of entries of {@link #cache}, which must be a power of 2.
+     */
+    private static final int CACHE_SIZE = 16;
+
+    /**
+     * Caches the facts of the nodes in recently queried blocks, indexed
+     * by the block indexes modulo {@link #CACHE_SIZE}. The facts are
+     * usually queried node by node in the same block or in adjacent
+     * blocks (e.g., the out-facts of the predecessors), so caching the
+     * facts of a few blocks avoids most re-computations. The entries are
+     * immutable, thus racy accesses only cause re-computations.
+     */
+    @SuppressWarnings("unchecked")
+    private final NodeFacts<Node, Fact>[] cache = new NodeFacts[CACHE_SIZE];
+
+    BlockDataflowResult(BlockAnalysis<Node, Fact> analysis,
+                        DataflowResult<BasicBlock<Node>, Fact> blockResult) {
+        this.analysis = analysis;
+        this.blockResult = blockResult;
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        BlockCFG<Node> cfg = analysis.getCFG();
+        BasicBlock<Node> block = cfg.getBlockOf(node);
+        if (block.size() == 1) {
+            return blockResult.getInFact(block);
+        }
+        return getNodeFacts(block).inFacts().get(cfg.getPositionOf(node));
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        BlockCFG<Node> cfg = analysis.getCFG();
+        BasicBlock<Node> block = cfg.getBlockOf(node);
+        if (block.size() == 1) {
+            return blockResult.getOutFact(block);
+        }
+        return getNodeFacts(block).outFacts().get(cfg.getPositionOf(node));
+    }
+
+    private NodeFacts<Node, Fact> getNodeFacts(BasicBlock<Node> block) {
+        int slot = block.getIndex() & (CACHE_SIZE - 1);
+        NodeFacts<Node, Fact> nodeFacts = cache[slot];
+        if (nodeFacts == null || nodeFacts.block() != block) {
+            List<Fact> inFacts = new ArrayList<>(Collections.nCopies(block.size(), null));
+            List<Fact> outFacts = new ArrayList<>(Collections.nCopies(block.size(), null));
+            analysis.computeNodeFacts(block, blockResult.getInFact(block),
+                    blockResult.getOutFact(block), inFacts, outFacts);
+            nodeFacts = new NodeFacts<>(block, inFacts, outFacts);
+            cache[slot] = nodeFacts;
+        }
+        return nodeFacts;
+    }
+
+    private record NodeFacts<Node, Fact>(BasicBlock<Node> block,
+                                         List<Fact> inFacts,
+                                         List<Fact> outFacts) {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.BitVectorSolver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.RegularBitSet;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Template for defining gen/kill (bit-vector) data-flow analyses, e.g.,
+ * live variable analysis and reaching definition analysis.
+ * <p>
+ * The data-flow facts of such analyses are sets of elements from a finite
+ * domain, whose elements are indexed by {@link #getDomainIndexer()}
+ * from {@code 0} to {@code getDomainSize() - 1}. The transfer function of
+ * each node is {@code gen ∪ (fact - kill)}, where gen and kill sets of
+ * the node are given by {@link #computeGenKill}, and the meet operator is
+ * union (may analyses) or intersection (must analyses). Such analyses
+ * are solved by {@link BitVectorSolver}, which pre-computes gen/kill sets
+ * of all nodes as bit vectors, so that a node transfer only involves
+ * a few word-wide operations.
+ * <p>
+ * This class also implements {@link DataflowAnalysis} by the gen/kill
+ * sets, so that the analyses can be solved by other solvers as well.
+ * The boundary facts are always empty, and the initial facts are
+ * empty (may analyses) or the whole domain (must analyses).
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements of the domain
+ */
+public abstract class GenKillAnalysis<Node, E>
+        extends AbstractDataflowAnalysis<Node, SetFact<E>> {
+
+    private final Indexer<E> domainIndexer;
+
+    private final int domainSize;
+
+    /**
+     * Buffers the indexes of the elements generated by a node in
+     * {@link #transferNode}, as they are added after the killed elements
+     * are removed. It is reused by all node transfers.
+     */
+    private final IBitSet gens;
+
+    protected GenKillAnalysis(CFG<Node> cfg, Indexer<E> domainIndexer,
+                              int domainSize) {
+        super(cfg);
+        this.domainIndexer = domainIndexer;
+        this.domainSize = domainSize;
+        this.gens = new RegularBitSet(domainSize);
+    }
+
+    /**
+     * @return the indexer of the elements of the domain.
+     */
+    public Indexer<E> getDomainIndexer() {
+        return domainIndexer;
+    }
+
+    /**
+     * @return the number of elements of the domain.
+     */
+    public int getDomainSize() {
+        return domainSize;
+    }
+
+    /**
+     * @return true if this analysis is a must analysis, whose meet
+     * operator is intersection; otherwise false, i.e., this analysis
+     * is a may analysis, whose meet operator is union.
+     */
+    public abstract boolean isMust();
+
+    /**
+     * Computes gen and kill sets of given node. The indexes of the
+     * generated (killed) elements are passed to {@code gen} ({@code kill}).
+     * Note that the kill set is applied before the gen set, i.e.,
+     * an element in both sets is generated by the node.
+     */
+    public abstract void computeGenKill(Node node, IntConsumer gen, IntConsumer kill);
+
+    @Override
+    public SetFact<E> newBoundaryFact() {
+        return newEmptyFact();
+    }
+
+    @Override
+    public SetFact<E> newInitialFact() {
+        SetFact<E> fact = newEmptyFact();
+        if (isMust()) {
+            for (int i = 0; i < domainSize; ++i) {
+                fact.add(domainIndexer.getObject(i));
+            }
+        }
+        return fact;
+    }
+
+    private SetFact<E> newEmptyFact() {
+        return new SetFact<>(new IndexerBitSet<>(domainIndexer, false));
+    }
+
+    @Override
+    public void meetInto(SetFact<E> fact, SetFact<E> target) {
+        if (isMust()) {
+            target.intersect(fact);
+        } else {
+            target.union(fact);
+        }
+    }
+
+    @Override
+    public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+        SetFact<E> source = isForward() ? in : out;
+        SetFact<E> target = isForward() ? out : in;
+        SetFact<E> oldTarget = target.copy();
+        target.set(source);
+        computeGenKill(node, gens::set,
+                i -> target.remove(domainIndexer.getObject(i)));
+        for (int i = gens.nextSetBit(0); i >= 0; i = gens.nextSetBit(i + 1)) {
+            target.add(domainIndexer.getObject(i));
+        }
+        gens.clear();
+        return !target.equals(oldTarget);
+    }
+
+    /**
+     * Gen/kill analyses do not have edge transfer.
+     */
+    @Override
+    public final boolean needTransferEdge(CFGEdge<Node> edge) {
+        return false;
+    }
+}
@@ -31,8 +31,18 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.IndexerBitSet;
 
+import java.util.function.IntConsumer;
+
 /**
  * Implementation of live variable analysis.
+ * <p>
+ * By default (option {@code strongly: true}), this class computes strongly
+ * live variables, which is not a gen/kill analysis, as whether a variable
+ * used by an assignment is live depends on the fact of the assignment.
+ * Thus, it is solved by the general data-flow solvers. The (weakly) live
+ * variable analysis, enabled by {@code strongly: false}, is a gen/kill
+ * analysis, which is solved by the faster
+ * {@link pascal.taie.analysis.dataflow.solver.BitVectorSolver}.
  */
 public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
 
@@ -43,25 +53,62 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
     }
 
     @Override
-    protected Analysis makeAnalysis(CFG<Stmt> cfg) {
-        return new Analysis(cfg, getOptions().getBoolean("strongly"));
+    protected DataflowAnalysis<Stmt, SetFact<Var>> makeAnalysis(CFG<Stmt> cfg) {
+        return getOptions().getBoolean("strongly")
+                ? new StronglyAnalysis(cfg)
+                : new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+    /**
+     * Live variable analysis, which is a gen/kill analysis.
+     */
+    private static class Analysis extends GenKillAnalysis<Stmt, Var> {
 
-        /**
-         * Whether enable strongly live variable analysis.
-         */
-        private final boolean strongly;
+        private Analysis(CFG<Stmt> cfg) {
+            super(cfg, cfg.getIR().getVarIndexer(), cfg.getIR().getVars().size());
+        }
+
+        @Override
+        public boolean isForward() {
+            return false;
+        }
+
+        @Override
+        public boolean isMust() {
+            return false;
+        }
+
+        @Override
+        public void computeGenKill(Stmt stmt, IntConsumer gen, IntConsumer kill) {
+            // kill definition in stmt
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var var) {
+                    kill.accept(var.getIndex());
+                }
+            });
+            // generate uses in stmt
+            stmt.getUses().forEach(use -> {
+                if (use instanceof Var var) {
+                    gen.accept(var.getIndex());
+                }
+            });
+        }
+    }
+
+    /**
+     * Strongly live variable analysis, which is not a gen/kill analysis
+     * as the liveness of the variables used by a {@link Copy} depends on
+     * the liveness of the variable defined by it.
+     */
+    private static class StronglyAnalysis extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
         /**
          * Indexer for variables in the IR.
          */
         private final Indexer<Var> varIndexer;
 
-        private Analysis(CFG<Stmt> cfg, boolean strongly) {
+        private StronglyAnalysis(CFG<Stmt> cfg) {
             super(cfg);
-            this.strongly = strongly;
             this.varIndexer = cfg.getIR().getVarIndexer();
         }
 
@@ -95,28 +142,18 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
                     in.remove((Var) def);
                 }
             });
-            // generate uses in stmt
-            if (strongly) {
-                // only add strongly live variables
-                if (stmt instanceof Copy copy) {
-                    // for a Copy statement, say x = y, we consider y as
-                    // strongly live only when x is also strongly live
-                    Var lVar = copy.getLValue();
-                    Var rVar = copy.getRValue();
-                    if (out.contains(lVar)) {
-                        in.add(rVar);
-                    }
-                } else {
-                    // for non-Copy statements, all used variables
-                    // are considered strongly live
-                    stmt.getUses().forEach(use -> {
-                        if (use instanceof Var) {
-                            in.add((Var) use);
-                        }
-                    });
+            // only add strongly live variables
+            if (stmt instanceof Copy copy) {
+                // for a Copy statement, say x = y, we consider y as
+                // strongly live only when x is also strongly live
+                Var lVar = copy.getLValue();
+                Var rVar = copy.getRValue();
+                if (out.contains(lVar)) {
+                    in.add(rVar);
                 }
             } else {
-                // add all used variables
+                // for non-Copy statements, all used variables
+                // are considered strongly live
                 stmt.getUses().forEach(use -> {
                     if (use instanceof Var) {
                         in.add((Var) use);
@@ -29,11 +29,12 @@ import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
-import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.IndexMap;
-import pascal.taie.util.collection.IndexerBitSet;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
 
@@ -48,37 +49,30 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Stmt>> {
-
-        /**
-         * Indexer for stmts (nodes) in the CFG.
-         */
-        private final Indexer<Stmt> stmtIndexer;
+    private static class Analysis extends GenKillAnalysis<Stmt, Stmt> {
 
         /**
          * Maps a variable to all statements that define it.
-         * This information can accelerate kill operation of live variable analysis.
+         * This information can accelerate kill operation of reaching
+         * definition analysis.
          */
-        private final Map<Var, SetFact<Stmt>> defs;
-
-        private static final SetFact<Stmt> EMPTY_DEFS = new SetFact<>();
+        private final Map<Var, List<Stmt>> defs;
 
         private Analysis(CFG<Stmt> cfg) {
-            super(cfg);
-            stmtIndexer = new CFGNodeIndexer<>(cfg);
+            super(cfg, new CFGNodeIndexer<>(cfg), cfg.getNumberOfNodes());
             defs = computeDefs(cfg.getIR());
         }
 
         /**
          * Pre-computes all definitions of all variables in given ir.
          */
-        private Map<Var, SetFact<Stmt>> computeDefs(IR ir) {
-            Map<Var, SetFact<Stmt>> defs = new IndexMap<>(
+        private static Map<Var, List<Stmt>> computeDefs(IR ir) {
+            Map<Var, List<Stmt>> defs = new IndexMap<>(
                     ir.getVarIndexer(), ir.getVars().size());
             for (Stmt stmt : ir) {
                 stmt.getDef().ifPresent(def -> {
                     if (def instanceof Var defVar) {
-                        defs.computeIfAbsent(defVar, __ -> newInitialFact())
+                        defs.computeIfAbsent(defVar, __ -> new ArrayList<>())
                                 .add(stmt);
                     }
                 });
@@ -92,33 +86,20 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         }
 
         @Override
-        public SetFact<Stmt> newBoundaryFact() {
-            return newInitialFact();
-        }
-
-        @Override
-        public SetFact<Stmt> newInitialFact() {
-            return new SetFact<>(new IndexerBitSet<>(stmtIndexer, false));
-        }
-
-        @Override
-        public void meetInto(SetFact<Stmt> fact, SetFact<Stmt> target) {
-            target.union(fact);
+        public boolean isMust() {
+            return false;
         }
 
         @Override
-        public boolean transferNode(Stmt stmt, SetFact<Stmt> in, SetFact<Stmt> out) {
-            SetFact<Stmt> oldOut = out.copy();
-            out.set(in);
+        public void computeGenKill(Stmt stmt, IntConsumer gen, IntConsumer kill) {
             stmt.getDef().ifPresent(def -> {
                 if (def instanceof Var defVar) {
                     // kill previous definitions of defVar
-                    out.removeAll(defs.getOrDefault(defVar, EMPTY_DEFS));
+                    defs.get(defVar).forEach(d -> kill.accept(cfg.getIndex(d)));
                     // generate definition of defVar
-                    out.add(stmt);
+                    gen.accept(cfg.getIndex(stmt));
                 }
             });
-            return !out.equals(oldOut);
         }
     }
 }
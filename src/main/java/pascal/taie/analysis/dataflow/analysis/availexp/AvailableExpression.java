@@ -22,8 +22,8 @@
 
 package pascal.taie.analysis.dataflow.analysis.availexp;
 
-import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -37,7 +37,12 @@ import pascal.taie.ir.stmt.DefinitionStmt;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.SimpleIndexer;
-import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * Available expression analysis on local variables.
@@ -61,76 +66,69 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<ExpWrapper>> {
-
-        private final Indexer<ExpWrapper> expIndexer;
+    private static class Analysis extends GenKillAnalysis<Stmt, ExpWrapper> {
 
         /**
-         * Set of all expressions in cfg.
-         * Used to fast create universal set (via copy).
+         * Maps a variable to the indexes of the expressions that use it.
+         * Used to fast kill the expressions affected by a definition.
          */
-        private final SetFact<ExpWrapper> universalSet;
+        private final MultiMap<Var, Integer> var2Exps = Maps.newMultiMap();
 
         private Analysis(CFG<Stmt> cfg) {
-            super(cfg);
-            expIndexer = new SimpleIndexer<>();
-            universalSet = computeUniversalSet(cfg, expIndexer);
-        }
-
-        @Override
-        public boolean isForward() {
-            return true;
+            this(cfg, computeExps(cfg));
         }
 
-        @Override
-        public SetFact<ExpWrapper> newBoundaryFact() {
-            return new SetFact<>(new IndexerBitSet<>(expIndexer, false));
+        private Analysis(CFG<Stmt> cfg, Set<ExpWrapper> exps) {
+            super(cfg, new SimpleIndexer<>(exps), exps.size());
+            Indexer<ExpWrapper> expIndexer = getDomainIndexer();
+            exps.forEach(expWrapper -> {
+                int index = expIndexer.getIndex(expWrapper);
+                expWrapper.get().getUses().forEach(use -> {
+                    if (use instanceof Var var) {
+                        var2Exps.put(var, index);
+                    }
+                });
+            });
         }
 
         @Override
-        public SetFact<ExpWrapper> newInitialFact() {
-            return universalSet.copy();
+        public boolean isForward() {
+            return true;
         }
 
         @Override
-        public void meetInto(SetFact<ExpWrapper> fact, SetFact<ExpWrapper> target) {
-            target.intersect(fact);
+        public boolean isMust() {
+            return true;
         }
 
         @Override
-        public boolean transferNode(Stmt stmt, SetFact<ExpWrapper> in, SetFact<ExpWrapper> out) {
-            SetFact<ExpWrapper> oldOut = out.copy();
-            out.set(in);
+        public void computeGenKill(Stmt stmt, IntConsumer gen, IntConsumer kill) {
             if (stmt instanceof DefinitionStmt<?, ?> defStmt) {
                 Exp lvalue = defStmt.getLValue();
                 if (lvalue instanceof Var defVar) {
                     // kill affected expressions
-                    out.removeIf(expWrapper ->
-                            expWrapper.get().getUses().contains(defVar));
+                    var2Exps.get(defVar).forEach(kill::accept);
                 }
                 Exp rvalue = defStmt.getRValue();
                 if (isRelevant(rvalue)) {
                     // generate available expressions
-                    out.add(new ExpWrapper(rvalue));
+                    gen.accept(getDomainIndexer().getIndex(new ExpWrapper(rvalue)));
                 }
             }
-            return !out.equals(oldOut);
         }
 
         /**
          * @return a set containing all (relevant) expressions in {@code cfg}.
          */
-        private static SetFact<ExpWrapper> computeUniversalSet(
-                CFG<Stmt> cfg, Indexer<ExpWrapper> expIndexer) {
-            SetFact<ExpWrapper> set = new SetFact<>(
-                    new IndexerBitSet<>(expIndexer, false));
+        private static Set<ExpWrapper> computeExps(CFG<Stmt> cfg) {
+            Set<ExpWrapper> exps = Sets.newLinkedSet();
             cfg.forEach(stmt -> {
                 if (stmt instanceof DefinitionStmt<?, ?> defStmt
                         && isRelevant(defStmt.getRValue())) {
-                    set.add(new ExpWrapper(defStmt.getRValue()));
+                    exps.add(new ExpWrapper(defStmt.getRValue()));
                 }
             });
-            return set;
+            return exps;
         }
 
         /**
@@ -22,12 +22,21 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexMap;
 import pascal.taie.util.collection.Maps;
 
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * An object which manages the data-flow facts associated with nodes.
+ * <p>
+ * To save memory for the results that are kept for a long time,
+ * the in-facts can be dropped by {@link #dropInFacts(Function)},
+ * and then they are re-computed (e.g., from the out-facts) on demand.
  *
  * @param <Node> type of nodes
  * @param <Fact> type of data-flow facts
@@ -38,13 +47,30 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
     private final Map<Node, Fact> outFacts;
 
+    /**
+     * Computes the in-facts on demand after they are dropped.
+     */
+    private Function<Node, Fact> inFactComputer;
+
     public DataflowResult(Map<Node, Fact> inFacts, Map<Node, Fact> outFacts) {
         this.inFacts = inFacts;
         this.outFacts = outFacts;
     }
 
     public DataflowResult() {
-        this(Maps.newLinkedHashMap(), Maps.newLinkedHashMap());
+        this(Maps.newMap(), Maps.newMap());
+    }
+
+    /**
+     * Creates a result for the nodes of given CFG. The facts are stored
+     * in arrays indexed by {@link CFG#getIndex}.
+     */
+    public DataflowResult(CFG<Node> cfg) {
+        this(new CFGNodeIndexer<>(cfg), cfg.getNumberOfNodes());
+    }
+
+    private DataflowResult(Indexer<Node> indexer, int nNodes) {
+        this(new IndexMap<>(indexer, nNodes), new IndexMap<>(indexer, nNodes));
     }
 
     /**
@@ -52,16 +78,31 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
      */
     @Override
     public Fact getInFact(Node node) {
-        return inFacts.get(node);
+        return inFactComputer != null
+                ? inFactComputer.apply(node)
+                : inFacts.get(node);
     }
 
     /**
      * Associates a data-flow fact with a node as its flowing-in fact.
      */
     public void setInFact(Node node, Fact fact) {
+        if (inFactComputer != null) {
+            throw new IllegalStateException("in-facts have been dropped");
+        }
         inFacts.put(node, fact);
     }
 
+    /**
+     * Drops all in-facts to save memory. After that, the in-fact of
+     * a node is computed by {@code inFactComputer} each time it is
+     * queried, and in-facts cannot be set anymore.
+     */
+    public void dropInFacts(Function<Node, Fact> inFactComputer) {
+        inFacts.clear();
+        this.inFactComputer = inFactComputer;
+    }
+
     /**
      * @return the flowing-out fact of given node.
      */
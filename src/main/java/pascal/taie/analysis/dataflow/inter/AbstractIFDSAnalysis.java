@@ -0,0 +1,62 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+
+/**
+ * Provides common functionalities for the analyses which are defined
+ * as {@link IFDSProblem} and solved by {@link IFDSSolver}.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+public abstract class AbstractIFDSAnalysis<Method, Node, Fact>
+        extends ProgramAnalysis<IFDSResult<Node, Fact>>
+        implements IFDSProblem<Node, Fact> {
+
+    protected ICFG<Method, Node> icfg;
+
+    public AbstractIFDSAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    /**
+     * If the concrete analysis needs to perform some initialization before
+     * the solver starts, then it can overwrite this method.
+     */
+    protected void initialize() {
+    }
+
+    @Override
+    public IFDSResult<Node, Fact> analyze() {
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        initialize();
+        return new IFDSSolver<>(this, icfg).solve();
+    }
+}
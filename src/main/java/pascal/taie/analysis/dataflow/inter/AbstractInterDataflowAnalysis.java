@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.WorkListOrder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
 import pascal.taie.analysis.graph.icfg.ICFG;
@@ -121,7 +122,10 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public DataflowResult<Node, Fact> analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        WorkListOrder order = getOptions().has("work-list")
+                ? WorkListOrder.of(getOptions().getString("work-list"))
+                : WorkListOrder.FIFO;
+        solver = new InterSolver<>(this, icfg, order);
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
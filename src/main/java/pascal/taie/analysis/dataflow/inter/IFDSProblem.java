@@ -0,0 +1,85 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Set;
+
+/**
+ * Template interface for defining inter-procedural, finite, distributive
+ * subset (IFDS) problems, which are solved by {@link IFDSSolver}.
+ * <p>
+ * An IFDS problem is defined by the flow functions on the edges of ICFG.
+ * The flow function of an edge maps a data-flow fact that holds before
+ * the source node of the edge to the facts that hold before the target
+ * node, i.e., the flow function of a {@link NormalEdge} and
+ * a {@link CallToReturnEdge} models the effect of its source node.
+ * As the flow functions are distributive, they are defined on
+ * individual facts instead of sets of facts.
+ * <p>
+ * The solver handles the special fact {@link #zeroValue() zero} (usually
+ * denoted by &Lambda;), which holds at all reachable nodes, and thus
+ * the flow functions do not need to map zero to itself. New facts
+ * are usually generated from zero.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public interface IFDSProblem<Node, Fact> {
+
+    /**
+     * @return the zero fact of this problem, which is not equal to
+     * any other facts.
+     */
+    Fact zeroValue();
+
+    /**
+     * Flow function for intra-procedural edges.
+     */
+    Set<Fact> transferNormalEdge(NormalEdge<Node> edge, Fact fact);
+
+    /**
+     * Flow function for the edges from call sites to their return sites,
+     * which transfers the facts that are not affected by the callees,
+     * e.g., the facts of local variables of the caller.
+     */
+    Set<Fact> transferCallToReturnEdge(CallToReturnEdge<Node> edge, Fact fact);
+
+    /**
+     * Flow function for the edges from call sites to the entries of
+     * the callees, which maps the facts of the caller, e.g., the ones of
+     * arguments, to the facts of the callee, e.g., the ones of parameters.
+     */
+    Set<Fact> transferCallEdge(CallEdge<Node> edge, Fact fact);
+
+    /**
+     * Flow function for the edges from the exits of the callees to
+     * the return sites, which maps the facts of the callee, e.g., the ones
+     * of return variables, to the facts of the caller.
+     */
+    Set<Fact> transferReturnEdge(ReturnEdge<Node> edge, Fact fact);
+}
@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of {@link IFDSSolver}, i.e., the data-flow facts that hold
+ * before each node. The facts of each node are stored as a bit set
+ * of fact indexes.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IFDSResult<Node, Fact> {
+
+    private final Map<Node, IBitSet> nodeFacts;
+
+    private final List<Fact> facts;
+
+    private final Map<Fact, Integer> factIndexes;
+
+    IFDSResult(Map<Node, IBitSet> nodeFacts,
+               List<Fact> facts, Map<Fact, Integer> factIndexes) {
+        this.nodeFacts = nodeFacts;
+        this.facts = facts;
+        this.factIndexes = factIndexes;
+    }
+
+    /**
+     * @return true if given node is reachable from the entries of
+     * the entry methods along valid paths, otherwise false.
+     */
+    public boolean isReachable(Node node) {
+        return nodeFacts.containsKey(node);
+    }
+
+    /**
+     * @return the facts (except zero) that hold before given node.
+     */
+    public Set<Fact> getFacts(Node node) {
+        IBitSet bits = nodeFacts.get(node);
+        if (bits == null || bits.isEmpty()) {
+            return Set.of();
+        }
+        Set<Fact> result = Sets.newHybridSet();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(facts.get(i));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * @return true if given fact holds before given node, otherwise false.
+     */
+    public boolean holds(Node node, Fact fact) {
+        IBitSet bits = nodeFacts.get(node);
+        Integer index = factIndexes.get(fact);
+        return bits != null && index != null && bits.get(index);
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.Timer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}, based on the algorithm of
+ * Reps, Horwitz and Sagiv (POPL'95) and its practical extensions by
+ * Naeem, Lhot&aacute;k and Rodriguez (CC'10).
+ * <p>
+ * Different from {@link InterSolver}, which computes a whole-program
+ * fixed point over all ICFG nodes, this solver is demand-driven:
+ * it starts from the entries of the entry methods, and only visits the
+ * nodes (and methods) which are reachable with some facts. Each method
+ * is analyzed once for each fact at its entry, and the effects of the
+ * method are recorded as end summaries, which are reused by all call
+ * sites that reach the method with the same fact.
+ * <p>
+ * Facts are indexed by ints, and the path edges, end summaries and
+ * the results are stored as bit sets of fact indexes.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(IFDSSolver.class);
+
+    /**
+     * Index of the zero fact.
+     */
+    private static final int ZERO = 0;
+
+    private final IFDSProblem<Node, Fact> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    /**
+     * Facts indexed by their positions in this list.
+     */
+    private final List<Fact> facts = new ArrayList<>();
+
+    private final Map<Fact, Integer> factIndexes = Maps.newMap();
+
+    private final Map<Node, NodeState> states = Maps.newMap();
+
+    private final Deque<PathEdge<Node>> workList = new ArrayDeque<>();
+
+    private long nPathEdges = 0;
+
+    private long nEndSummaries = 0;
+
+    public IFDSSolver(IFDSProblem<Node, Fact> problem, ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+    }
+
+    public IFDSResult<Node, Fact> solve() {
+        Timer timer = new Timer("IFDS solver");
+        timer.start();
+        getIndex(problem.zeroValue());
+        icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .forEach(entry -> propagate(ZERO, entry, ZERO));
+        doSolve();
+        IFDSResult<Node, Fact> result = collectResult();
+        timer.stop();
+        logger.info("{}, #path edges: {}, #end summaries: {}, #facts: {}, #nodes: {}",
+                timer, nPathEdges, nEndSummaries, facts.size(), states.size());
+        return result;
+    }
+
+    private void doSolve() {
+        while (!workList.isEmpty()) {
+            PathEdge<Node> edge = workList.poll();
+            NodeState state = states.get(edge.node());
+            if (state.isCallSite) {
+                processCall(edge);
+            } else if (state.isExit) {
+                processExit(edge, state);
+            } else {
+                processNormal(edge);
+            }
+        }
+    }
+
+    /**
+     * Adds path edge (sp, d1) -> (node, d2), where sp is the entry of
+     * the method containing the node.
+     */
+    private void propagate(int d1, Node node, int d2) {
+        if (getState(node).addPathEdge(d1, d2)) {
+            ++nPathEdges;
+            workList.add(new PathEdge<>(d1, node, d2));
+        }
+    }
+
+    private void processCall(PathEdge<Node> edge) {
+        Node callSite = edge.node();
+        int d1 = edge.d1(), d2 = edge.d2();
+        Fact fact = facts.get(d2);
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(callSite)) {
+            if (outEdge instanceof CallEdge<Node> callEdge) {
+                Node entry = callEdge.target();
+                NodeState entryState = getState(entry);
+                transfer(problem.transferCallEdge(callEdge, fact), d2, d3 -> {
+                    if (entryState.addIncoming(d3, new Incoming<>(callSite, d1, d2))) {
+                        propagate(d3, entry, d3);
+                        // apply the end summaries that have been computed
+                        IBitSet summary = entryState.getEndSummary(d3);
+                        if (summary != null) {
+                            NodeState exitState = getState(icfg.getExitOf(
+                                    icfg.getContainingMethodOf(entry)));
+                            for (int d4 = summary.nextSetBit(0); d4 >= 0;
+                                 d4 = summary.nextSetBit(d4 + 1)) {
+                                applyReturn(exitState, callSite, d1, d4);
+                            }
+                        }
+                    }
+                });
+            } else if (outEdge instanceof CallToReturnEdge<Node> c2rEdge) {
+                transfer(problem.transferCallToReturnEdge(c2rEdge, fact), d2,
+                        d3 -> propagate(d1, c2rEdge.target(), d3));
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node> edge, NodeState exitState) {
+        int d1 = edge.d1(), d2 = edge.d2();
+        NodeState entryState = getState(icfg.getEntryOf(
+                icfg.getContainingMethodOf(edge.node())));
+        if (entryState.addEndSummary(d1, d2)) {
+            ++nEndSummaries;
+            for (Incoming<Node> incoming : entryState.getIncoming(d1)) {
+                applyReturn(exitState, incoming.callSite(), incoming.d1(), d2);
+            }
+        }
+    }
+
+    /**
+     * Applies end summary (sp, d1) -> (exit, d2) of a callee to
+     * the call site which reaches the callee with path edge
+     * (sp', callerD1) -> (callSite, d1).
+     */
+    private void applyReturn(NodeState exitState, Node callSite,
+                             int callerD1, int d2) {
+        Fact fact = facts.get(d2);
+        for (ReturnEdge<Node> returnEdge : exitState.getReturnEdges(callSite)) {
+            transfer(problem.transferReturnEdge(returnEdge, fact), d2,
+                    d3 -> propagate(callerD1, returnEdge.target(), d3));
+        }
+    }
+
+    private void processNormal(PathEdge<Node> edge) {
+        int d1 = edge.d1(), d2 = edge.d2();
+        Fact fact = facts.get(d2);
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(edge.node())) {
+            if (outEdge instanceof NormalEdge<Node> normalEdge) {
+                transfer(problem.transferNormalEdge(normalEdge, fact), d2,
+                        d3 -> propagate(d1, normalEdge.target(), d3));
+            }
+        }
+    }
+
+    /**
+     * Passes the indexes of the result facts of a flow function to
+     * {@code action}. Zero fact is always mapped to itself.
+     */
+    private void transfer(Set<Fact> results, int source, IntConsumer action) {
+        if (source == ZERO) {
+            action.accept(ZERO);
+        }
+        for (Fact result : results) {
+            int d = getIndex(result);
+            if (d != ZERO) {
+                action.accept(d);
+            }
+        }
+    }
+
+    private int getIndex(Fact fact) {
+        Integer index = factIndexes.get(fact);
+        if (index == null) {
+            index = facts.size();
+            facts.add(fact);
+            factIndexes.put(fact, index);
+        }
+        return index;
+    }
+
+    private NodeState getState(Node node) {
+        return states.computeIfAbsent(node, NodeState::new);
+    }
+
+    private IFDSResult<Node, Fact> collectResult() {
+        Map<Node, IBitSet> result = Maps.newMap(states.size());
+        states.forEach((node, state) -> {
+            IBitSet nodeFacts = new SparseBitSet();
+            state.pathEdges.values().forEach(nodeFacts::or);
+            nodeFacts.clear(ZERO);
+            result.put(node, nodeFacts);
+        });
+        return new IFDSResult<>(result, facts, factIndexes);
+    }
+
+    /**
+     * Path edge (sp, d1) -> (node, d2), where sp is the entry of
+     * the method containing the node.
+     */
+    private record PathEdge<Node>(int d1, Node node, int d2) {
+    }
+
+    /**
+     * A caller which reaches the entry of callee with path edge
+     * (sp, d1) -> (callSite, d2).
+     */
+    private record Incoming<Node>(Node callSite, int d1, int d2) {
+    }
+
+    /**
+     * Tables of a node.
+     */
+    private class NodeState {
+
+        private final boolean isCallSite;
+
+        private final boolean isExit;
+
+        /**
+         * Path edges that reach this node: d1 -> set of d2.
+         */
+        private final Map<Integer, IBitSet> pathEdges = Maps.newHybridMap();
+
+        /**
+         * Incoming callers of the method if this node is an entry:
+         * d3 (at entry) -> callers.
+         */
+        private MultiMap<Integer, Incoming<Node>> incoming;
+
+        /**
+         * End summaries of the method if this node is an entry:
+         * d1 (at entry) -> set of d2 (at exit).
+         */
+        private Map<Integer, IBitSet> endSummaries;
+
+        /**
+         * Return edges grouped by call sites if this node is an exit.
+         */
+        private MultiMap<Node, ReturnEdge<Node>> returnEdges;
+
+        private NodeState(Node node) {
+            isCallSite = icfg.isCallSite(node);
+            isExit = !isCallSite && icfg.getExitOf(
+                    icfg.getContainingMethodOf(node)).equals(node);
+            if (isExit) {
+                returnEdges = Maps.newMultiMap();
+                icfg.getOutEdgesOf(node).forEach(edge -> {
+                    if (edge instanceof ReturnEdge<Node> returnEdge) {
+                        returnEdges.put(returnEdge.getCallSite(), returnEdge);
+                    }
+                });
+            }
+        }
+
+        private boolean addPathEdge(int d1, int d2) {
+            return pathEdges.computeIfAbsent(d1, __ -> new SparseBitSet())
+                    .set(d2);
+        }
+
+        private boolean addIncoming(int d3, Incoming<Node> caller) {
+            if (incoming == null) {
+                incoming = Maps.newMultiMap();
+            }
+            return incoming.put(d3, caller);
+        }
+
+        private Set<Incoming<Node>> getIncoming(int d1) {
+            return incoming == null ? Set.of() : incoming.get(d1);
+        }
+
+        private boolean addEndSummary(int d1, int d2) {
+            if (endSummaries == null) {
+                endSummaries = Maps.newHybridMap();
+            }
+            return endSummaries.computeIfAbsent(d1, __ -> new SparseBitSet())
+                    .set(d2);
+        }
+
+        private IBitSet getEndSummary(int d1) {
+            return endSummaries == null ? null : endSummaries.get(d1);
+        }
+
+        private Set<ReturnEdge<Node>> getReturnEdges(Node callSite) {
+            return returnEdges.get(callSite);
+        }
+    }
+}
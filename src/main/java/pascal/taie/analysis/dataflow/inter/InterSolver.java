@@ -23,8 +23,12 @@
 package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.WorkListOrder;
 import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.collection.RankedSetQueue;
 import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.graph.SCCOrder;
 
 import java.util.Queue;
 import java.util.Set;
@@ -41,14 +45,22 @@ class InterSolver<Method, Node, Fact> {
 
     private final ICFG<Method, Node> icfg;
 
+    /**
+     * Order of processing nodes in work list.
+     */
+    private final WorkListOrder order;
+
     private DataflowResult<Node, Fact> result;
 
+    private Set<Node> entryNodes;
+
     private Queue<Node> workList;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
-                ICFG<Method, Node> icfg) {
+                ICFG<Method, Node> icfg, WorkListOrder order) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.order = order;
     }
 
     DataflowResult<Node, Fact> solve() {
@@ -59,7 +71,7 @@ class InterSolver<Method, Node, Fact> {
     }
 
     private void initialize() {
-        Set<Node> entryNodes = icfg.entryMethods()
+        entryNodes = icfg.entryMethods()
                 .map(icfg::getEntryOf)
                 .collect(Collectors.toSet());
         entryNodes.forEach(entry -> {
@@ -76,7 +88,7 @@ class InterSolver<Method, Node, Fact> {
     }
 
     private void doSolve() {
-        workList = new SetQueue<>();
+        workList = newWorkList();
         icfg.forEach(workList::add);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
@@ -94,6 +106,20 @@ class InterSolver<Method, Node, Fact> {
         }
     }
 
+    private Queue<Node> newWorkList() {
+        return switch (order) {
+            case FIFO -> new SetQueue<>();
+            case SCC -> {
+                // loops and recursions in ICFG are stabilized before
+                // the facts flow to the nodes after them
+                SCCOrder<Node> sccOrder = new SCCOrder<>(icfg, entryNodes);
+                yield new RankedSetQueue<>(sccOrder.get(), sccOrder::getRank);
+            }
+            case INDEX -> throw new ConfigException(
+                    "ICFG nodes are not indexed, use fifo or scc work list instead");
+        };
+    }
+
     void propagate(Node node) {
         workList.addAll(icfg.getSuccsOf(node));
     }
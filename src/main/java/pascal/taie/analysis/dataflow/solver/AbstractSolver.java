@@ -25,8 +25,6 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
-import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
-import pascal.taie.util.collection.IndexMap;
 
 /**
  * Provides common functionalities for {@link Solver}.
@@ -50,10 +48,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
      */
     private DataflowResult<Node, Fact> initialize(DataflowAnalysis<Node, Fact> analysis) {
         CFG<Node> cfg = analysis.getCFG();
-        var indexer = new CFGNodeIndexer<>(cfg);
-        DataflowResult<Node, Fact> result = new DataflowResult<>(
-                new IndexMap<>(indexer, cfg.getNumberOfNodes()),
-                new IndexMap<>(indexer, cfg.getNumberOfNodes()));
+        DataflowResult<Node, Fact> result = new DataflowResult<>(cfg);
         if (analysis.isForward()) {
             initializeForward(analysis, result);
         } else {
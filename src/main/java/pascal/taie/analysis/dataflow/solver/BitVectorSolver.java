@@ -0,0 +1,264 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.util.collection.CollectionUtils;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.IndexMap;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.RegularBitSet;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Solver for {@link GenKillAnalysis}.
+ * <p>
+ * The facts of each node are dense bit vectors over the domain of
+ * the analysis. The gen/kill sets of all nodes are pre-computed, and
+ * all bit vectors are stored in flat long arrays indexed by
+ * {@link CFG#getIndex}, so that meeting and transferring facts are
+ * word-wide operations on the arrays, and no fact objects are created
+ * during solving. The facts are converted to {@link SetFact}s
+ * after solving.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements of the domain
+ */
+public class BitVectorSolver<Node, E> {
+
+    private final GenKillAnalysis<Node, E> analysis;
+
+    private final CFG<Node> cfg;
+
+    private final boolean isForward;
+
+    private final boolean isMust;
+
+    private final int nNodes;
+
+    /**
+     * Index of the boundary node, i.e., the entry (exit) node
+     * for forward (backward) analyses.
+     */
+    private final int boundary;
+
+    /**
+     * Number of words of each bit vector.
+     */
+    private final int nWords;
+
+    private final long[] gen;
+
+    private final long[] kill;
+
+    /**
+     * Facts before the transfer of each node, i.e., the in (out) facts
+     * for forward (backward) analyses.
+     */
+    private final long[] meetFacts;
+
+    /**
+     * Facts after the transfer of each node, i.e., the out (in) facts
+     * for forward (backward) analyses.
+     */
+    private final long[] transferFacts;
+
+    public BitVectorSolver(GenKillAnalysis<Node, E> analysis) {
+        this.analysis = analysis;
+        this.cfg = analysis.getCFG();
+        this.isForward = analysis.isForward();
+        this.isMust = analysis.isMust();
+        this.nNodes = cfg.getNumberOfNodes();
+        this.boundary = cfg.getIndex(isForward ? cfg.getEntry() : cfg.getExit());
+        this.nWords = (analysis.getDomainSize() + 63) >>> 6;
+        int length = nNodes * nWords;
+        this.gen = new long[length];
+        this.kill = new long[length];
+        this.meetFacts = new long[length];
+        this.transferFacts = new long[length];
+    }
+
+    public DataflowResult<Node, SetFact<E>> solve() {
+        initialize();
+        doSolve();
+        return collectResult();
+    }
+
+    private void initialize() {
+        for (int index = 0; index < nNodes; ++index) {
+            int base = index * nWords;
+            analysis.computeGenKill(cfg.getNode(index),
+                    i -> gen[base + (i >>> 6)] |= 1L << i,
+                    i -> kill[base + (i >>> 6)] |= 1L << i);
+        }
+        if (isMust && nWords > 0) {
+            // initial facts of must analyses are the whole domain,
+            // and boundary facts are empty
+            long[] domain = new long[nWords];
+            Arrays.fill(domain, -1L);
+            int domainSize = analysis.getDomainSize();
+            if ((domainSize & 63) != 0) {
+                domain[nWords - 1] = (1L << domainSize) - 1;
+            }
+            for (int index = 0; index < nNodes; ++index) {
+                if (index != boundary) {
+                    int base = index * nWords;
+                    System.arraycopy(domain, 0, meetFacts, base, nWords);
+                    System.arraycopy(domain, 0, transferFacts, base, nWords);
+                }
+            }
+        }
+    }
+
+    private void doSolve() {
+        IBitSet workList = new RegularBitSet(nNodes);
+        for (int index = 0; index < nNodes; ++index) {
+            if (index != boundary) {
+                workList.set(index);
+            }
+        }
+        // visit nodes in the order of their indexes (reverse order for
+        // backward analyses), and restart from the beginning when
+        // reaching the end
+        int current = isForward ? 0 : nNodes - 1;
+        while (!workList.isEmpty()) {
+            int next = isForward ? workList.nextSetBit(current)
+                    : workList.previousSetBit(current);
+            if (next < 0) {
+                next = isForward ? workList.nextSetBit(0)
+                        : workList.previousSetBit(nNodes - 1);
+            }
+            current = next;
+            workList.clear(current);
+            Node node = cfg.getNode(current);
+            meet(current, getInEdgesOf(node));
+            if (transfer(current)) {
+                for (CFGEdge<Node> edge : getOutEdgesOf(node)) {
+                    int succ = cfg.getIndex(getTarget(edge));
+                    if (succ != boundary) {
+                        workList.set(succ);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The methods below access the edges in the direction of the analysis,
+     * e.g., the in edges of a node for a backward analysis are
+     * the out edges of the node in CFG.
+     */
+    private Set<CFGEdge<Node>> getInEdgesOf(Node node) {
+        return isForward ? cfg.getInEdgesOf(node) : cfg.getOutEdgesOf(node);
+    }
+
+    private Set<CFGEdge<Node>> getOutEdgesOf(Node node) {
+        return isForward ? cfg.getOutEdgesOf(node) : cfg.getInEdgesOf(node);
+    }
+
+    private Node getSource(CFGEdge<Node> edge) {
+        return isForward ? edge.source() : edge.target();
+    }
+
+    private Node getTarget(CFGEdge<Node> edge) {
+        return isForward ? edge.target() : edge.source();
+    }
+
+    /**
+     * Meets the facts after the transfer of the sources of {@code inEdges}
+     * into the fact before the transfer of node {@code index}.
+     * If there are no in edges, the initial fact is kept.
+     */
+    private void meet(int index, Set<CFGEdge<Node>> inEdges) {
+        int base = index * nWords;
+        boolean first = true;
+        for (CFGEdge<Node> inEdge : inEdges) {
+            int predBase = cfg.getIndex(getSource(inEdge)) * nWords;
+            if (first) {
+                System.arraycopy(transferFacts, predBase, meetFacts, base, nWords);
+                first = false;
+            } else if (isMust) {
+                for (int i = 0; i < nWords; ++i) {
+                    meetFacts[base + i] &= transferFacts[predBase + i];
+                }
+            } else {
+                for (int i = 0; i < nWords; ++i) {
+                    meetFacts[base + i] |= transferFacts[predBase + i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the transfer function of node {@code index}.
+     *
+     * @return true if the fact after the transfer changed, otherwise false.
+     */
+    private boolean transfer(int index) {
+        int base = index * nWords;
+        boolean changed = false;
+        for (int i = base; i < base + nWords; ++i) {
+            long fact = gen[i] | (meetFacts[i] & ~kill[i]);
+            if (fact != transferFacts[i]) {
+                transferFacts[i] = fact;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private DataflowResult<Node, SetFact<E>> collectResult() {
+        var indexer = new CFGNodeIndexer<>(cfg);
+        Map<Node, SetFact<E>> meetResult = new IndexMap<>(indexer, nNodes);
+        Map<Node, SetFact<E>> transferResult = new IndexMap<>(indexer, nNodes);
+        for (int index = 0; index < nNodes; ++index) {
+            transferResult.put(cfg.getNode(index), toFact(transferFacts, index));
+        }
+        for (int index = 0; index < nNodes; ++index) {
+            Node node = cfg.getNode(index);
+            Set<CFGEdge<Node>> inEdges = getInEdgesOf(node);
+            // similar to WorkListSolver, the fact before the transfer of
+            // a node with single in edge is shared with its predecessor
+            meetResult.put(node, inEdges.size() == 1
+                    ? transferResult.get(getSource(CollectionUtils.getOne(inEdges)))
+                    : toFact(meetFacts, index));
+        }
+        return isForward
+                ? new DataflowResult<>(meetResult, transferResult)
+                : new DataflowResult<>(transferResult, meetResult);
+    }
+
+    private SetFact<E> toFact(long[] facts, int index) {
+        int base = index * nWords;
+        return new SetFact<>(new IndexerBitSet<>(analysis.getDomainIndexer(),
+                RegularBitSet.valueOf(facts, base, base + nWords)));
+    }
+}
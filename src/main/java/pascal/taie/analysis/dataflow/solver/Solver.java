@@ -37,7 +37,7 @@ public interface Solver<Node, Fact> {
      * The default solver.
      */
     @SuppressWarnings("rawtypes")
-    Solver SOLVER = new WorkListSolver<>();
+    Solver SOLVER = new WorkListSolver<>(WorkListOrder.INDEX);
 
     /**
      * Static factory method for obtaining a solver.
@@ -47,6 +47,16 @@ public interface Solver<Node, Fact> {
         return (Solver<Node, Fact>) SOLVER;
     }
 
+    /**
+     * Static factory method for obtaining a solver which processes
+     * the nodes in its work list in given order.
+     */
+    static <Node, Fact> Solver<Node, Fact> getSolver(WorkListOrder order) {
+        return order == WorkListOrder.INDEX
+                ? getSolver()
+                : new WorkListSolver<>(order);
+    }
+
     /**
      * Solves the given analysis problem.
      *
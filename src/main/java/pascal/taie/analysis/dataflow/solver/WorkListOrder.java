@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.config.ConfigException;
+
+/**
+ * Orders of processing nodes in the work lists of data-flow solvers.
+ */
+public enum WorkListOrder {
+
+    /**
+     * First-in-first-out.
+     */
+    FIFO,
+
+    /**
+     * Ascending order of the indexes of CFG nodes
+     * (descending order for backward analyses).
+     */
+    INDEX,
+
+    /**
+     * Reverse postorder over the strongly connected components of
+     * the (reversed, for backward analyses) graph, so that loops are
+     * stabilized before the nodes after them are processed.
+     *
+     * @see pascal.taie.util.graph.SCCOrder
+     */
+    SCC;
+
+    public static WorkListOrder of(String name) {
+        for (WorkListOrder order : values()) {
+            if (order.name().equalsIgnoreCase(name)) {
+                return order;
+            }
+        }
+        throw new ConfigException("Unknown work list order: " + name);
+    }
+}
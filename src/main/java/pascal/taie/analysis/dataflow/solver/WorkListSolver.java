@@ -27,16 +27,30 @@ import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGEdge;
 import pascal.taie.util.collection.CollectionUtils;
-import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.RankedSetQueue;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.SCCOrder;
 
-import java.util.Comparator;
-import java.util.NavigableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.ToIntFunction;
 
 /**
  * Work-list solver with optimization.
  */
 class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
 
+    /**
+     * Order of processing nodes in work list.
+     */
+    private final WorkListOrder order;
+
+    WorkListSolver(WorkListOrder order) {
+        this.order = order;
+    }
+
     @Override
     protected void initializeForward(DataflowAnalysis<Node, Fact> analysis,
                                      DataflowResult<Node, Fact> result) {
@@ -82,15 +96,14 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
     protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
                                   DataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(cfg::getIndex));
+        Queue<Node> workList = newWorkList(cfg, true);
         cfg.forEach(node -> {
             if (!cfg.isEntry(node)) {
                 workList.add(node);
             }
         });
         while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+            Node node = workList.poll();
             // meet incoming facts
             Fact in;
             int inDegree = cfg.getInDegreeOf(node);
@@ -124,6 +137,32 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
         }
     }
 
+    /**
+     * Creates a work list which orders the nodes of given CFG
+     * in the direction of the analysis.
+     */
+    private Queue<Node> newWorkList(CFG<Node> cfg, boolean isForward) {
+        return switch (order) {
+            case FIFO -> new SetQueue<>();
+            case INDEX -> {
+                int nNodes = cfg.getNumberOfNodes();
+                List<Node> nodes = new ArrayList<>(nNodes);
+                for (int i = 0; i < nNodes; ++i) {
+                    nodes.add(cfg.getNode(isForward ? i : nNodes - 1 - i));
+                }
+                ToIntFunction<Node> ranker = isForward ? cfg::getIndex
+                        : node -> nNodes - 1 - cfg.getIndex(node);
+                yield new RankedSetQueue<>(nodes, ranker);
+            }
+            case SCC -> {
+                SCCOrder<Node> sccOrder = isForward
+                        ? new SCCOrder<>(cfg, List.of(cfg.getEntry()))
+                        : new SCCOrder<>(new ReverseGraph<>(cfg), List.of(cfg.getExit()));
+                yield new RankedSetQueue<>(sccOrder.get(), sccOrder::getRank);
+            }
+        };
+    }
+
     @Override
     protected void initializeBackward(DataflowAnalysis<Node, Fact> analysis,
                                       DataflowResult<Node, Fact> result) {
@@ -169,15 +208,14 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
     protected void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
                                    DataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(n -> -cfg.getIndex(n)));
+        Queue<Node> workList = newWorkList(cfg, false);
         cfg.forEach(node -> {
             if (!cfg.isExit(node)) {
                 workList.add(node);
             }
         });
         while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+            Node node = workList.poll();
             // meet incoming facts
             Fact out;
             int outDegree = cfg.getOutDegreeOf(node);
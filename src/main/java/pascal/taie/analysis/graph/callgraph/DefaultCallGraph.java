@@ -49,7 +49,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
     public boolean addReachableMethod(JMethod method) {
         if (reachableMethods.add(method)) {
             if (!method.isAbstract()) {
-                method.getIR().forEach(stmt -> {
+                method.pinIR().forEach(stmt -> {
                     if (stmt instanceof Invoke invoke) {
                         callSiteToContainer.put(invoke, method);
                         callSitesIn.put(method, invoke);
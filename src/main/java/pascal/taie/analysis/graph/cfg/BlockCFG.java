@@ -0,0 +1,272 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.CollectionUtils;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CFG with {@link BasicBlock}s as nodes, which is built from a CFG of
+ * finer-grained nodes, e.g., {@code Stmt}s.
+ * <p>
+ * A node starts a new block if it is the entry or the exit, or it does
+ * not have exactly one predecessor, or its predecessor does not have
+ * exactly one successor. Thus, the entry and the exit are always in
+ * singleton blocks, and each block edge corresponds to exactly one edge
+ * of the node CFG, which is available via {@link #getNodeEdge(CFGEdge)}.
+ * Blocks are indexed in the order of the indexes of their first nodes.
+ *
+ * @param <N> type of the nodes in the blocks.
+ */
+public class BlockCFG<N> implements CFG<BasicBlock<N>> {
+
+    private final CFG<N> nodeCFG;
+
+    private final List<BasicBlock<N>> blocks = new ArrayList<>();
+
+    private final Set<BasicBlock<N>> blockSet;
+
+    /**
+     * Maps the index of each node to the block containing the node.
+     */
+    private final List<BasicBlock<N>> node2Block;
+
+    /**
+     * Maps the index of each node to the position of the node in its block.
+     */
+    private final int[] node2Position;
+
+    private final BasicBlock<N> entry;
+
+    private final BasicBlock<N> exit;
+
+    private final MultiMap<BasicBlock<N>, CFGEdge<BasicBlock<N>>> inEdges;
+
+    private final MultiMap<BasicBlock<N>, CFGEdge<BasicBlock<N>>> outEdges;
+
+    public BlockCFG(CFG<N> nodeCFG) {
+        this.nodeCFG = nodeCFG;
+        int nNodes = nodeCFG.getNumberOfNodes();
+        node2Block = new ArrayList<>(Collections.nCopies(nNodes, null));
+        node2Position = new int[nNodes];
+        buildBlocks(nNodes);
+        Set<BasicBlock<N>> set = Sets.newLinkedSet();
+        set.addAll(blocks);
+        blockSet = Collections.unmodifiableSet(set);
+        entry = getBlockOf(nodeCFG.getEntry());
+        exit = getBlockOf(nodeCFG.getExit());
+        inEdges = Maps.newMultiMap(blocks.size());
+        outEdges = Maps.newMultiMap(blocks.size());
+        buildEdges();
+    }
+
+    private void buildBlocks(int nNodes) {
+        boolean[] isLeader = new boolean[nNodes];
+        for (int i = 0; i < nNodes; ++i) {
+            isLeader[i] = isLeader(nodeCFG.getNode(i));
+        }
+        boolean[] inBlock = new boolean[nNodes];
+        List<List<N>> blockNodes = new ArrayList<>();
+        for (int i = 0; i < nNodes; ++i) {
+            if (isLeader[i]) {
+                blockNodes.add(collectBlockNodes(i, isLeader, inBlock));
+            }
+        }
+        // the nodes that are not in any blocks yet are in the unreachable
+        // cycles without leaders, and we break such cycles at arbitrary nodes
+        for (int i = 0; i < nNodes; ++i) {
+            if (!inBlock[i]) {
+                blockNodes.add(collectBlockNodes(i, isLeader, inBlock));
+            }
+        }
+        blockNodes.sort(Comparator.comparingInt(
+                nodes -> nodeCFG.getIndex(nodes.get(0))));
+        for (List<N> nodes : blockNodes) {
+            BasicBlock<N> block = new BasicBlock<>(blocks.size(), nodes);
+            blocks.add(block);
+            for (int i = 0; i < nodes.size(); ++i) {
+                int index = nodeCFG.getIndex(nodes.get(i));
+                node2Block.set(index, block);
+                node2Position[index] = i;
+            }
+        }
+    }
+
+    private boolean isLeader(N node) {
+        if (nodeCFG.isEntry(node) || nodeCFG.isExit(node)
+                || nodeCFG.getInDegreeOf(node) != 1) {
+            return true;
+        }
+        N pred = CollectionUtils.getOne(nodeCFG.getInEdgesOf(node)).source();
+        return pred.equals(node) || nodeCFG.isEntry(pred)
+                || nodeCFG.getOutDegreeOf(pred) != 1;
+    }
+
+    /**
+     * Collects the nodes of the block starting from the given node,
+     * i.e., follows the single successors until reaching a leader or
+     * a node in other block.
+     */
+    private List<N> collectBlockNodes(int start, boolean[] isLeader, boolean[] inBlock) {
+        List<N> nodes = new ArrayList<>();
+        N node = nodeCFG.getNode(start);
+        int index = start;
+        while (true) {
+            nodes.add(node);
+            inBlock[index] = true;
+            if (nodeCFG.getOutDegreeOf(node) != 1) {
+                break;
+            }
+            N succ = CollectionUtils.getOne(nodeCFG.getOutEdgesOf(node)).target();
+            index = nodeCFG.getIndex(succ);
+            if (isLeader[index] || inBlock[index]) {
+                break;
+            }
+            node = succ;
+        }
+        return nodes;
+    }
+
+    private void buildEdges() {
+        for (BasicBlock<N> block : blocks) {
+            for (CFGEdge<N> nodeEdge : nodeCFG.getOutEdgesOf(block.getLastNode())) {
+                BasicBlock<N> target = getBlockOf(nodeEdge.target());
+                assert target.getFirstNode().equals(nodeEdge.target())
+                        : nodeEdge + " does not target the first node of a block";
+                CFGEdge<BasicBlock<N>> edge = new BlockEdge<>(nodeEdge, block, target);
+                outEdges.put(block, edge);
+                inEdges.put(target, edge);
+            }
+        }
+    }
+
+    /**
+     * @return the CFG from which this block CFG is built.
+     */
+    public CFG<N> getNodeCFG() {
+        return nodeCFG;
+    }
+
+    /**
+     * @return the block containing given node.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return node2Block.get(nodeCFG.getIndex(node));
+    }
+
+    /**
+     * @return the position of given node in its block, i.e., the index
+     * of the node in {@link BasicBlock#getNodes()} of the block.
+     */
+    public int getPositionOf(N node) {
+        return node2Position[nodeCFG.getIndex(node)];
+    }
+
+    /**
+     * @return the edge of the node CFG corresponding to given block edge.
+     */
+    public CFGEdge<N> getNodeEdge(CFGEdge<BasicBlock<N>> edge) {
+        return ((BlockEdge<N>) edge).getNodeEdge();
+    }
+
+    @Override
+    public IR getIR() {
+        return nodeCFG.getIR();
+    }
+
+    @Override
+    public JMethod getMethod() {
+        return nodeCFG.getMethod();
+    }
+
+    @Override
+    public BasicBlock<N> getEntry() {
+        return entry;
+    }
+
+    @Override
+    public BasicBlock<N> getExit() {
+        return exit;
+    }
+
+    @Override
+    public boolean isEntry(BasicBlock<N> block) {
+        return block == entry;
+    }
+
+    @Override
+    public boolean isExit(BasicBlock<N> block) {
+        return block == exit;
+    }
+
+    @Override
+    public int getIndex(BasicBlock<N> block) {
+        return block.getIndex();
+    }
+
+    @Override
+    public BasicBlock<N> getNode(int index) {
+        return blocks.get(index);
+    }
+
+    @Override
+    public Set<CFGEdge<BasicBlock<N>>> getInEdgesOf(BasicBlock<N> block) {
+        return inEdges.get(block);
+    }
+
+    @Override
+    public Set<CFGEdge<BasicBlock<N>>> getOutEdgesOf(BasicBlock<N> block) {
+        return outEdges.get(block);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getPredsOf(BasicBlock<N> block) {
+        return Views.toMappedSet(getInEdgesOf(block), CFGEdge::source);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getSuccsOf(BasicBlock<N> block) {
+        return Views.toMappedSet(getOutEdgesOf(block), CFGEdge::target);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getNodes() {
+        return blockSet;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.language.type.ClassType;
+
+import java.util.Set;
+
+/**
+ * Edges of {@link BlockCFG}. Each block edge corresponds to an edge
+ * from the last node of the source block to the first node of
+ * the target block, and inherits the properties of the node edge.
+ *
+ * @param <N> type of the nodes in the blocks.
+ */
+class BlockEdge<N> extends CFGEdge<BasicBlock<N>> {
+
+    private final CFGEdge<N> nodeEdge;
+
+    BlockEdge(CFGEdge<N> nodeEdge, BasicBlock<N> source, BasicBlock<N> target) {
+        super(nodeEdge.getKind(), source, target);
+        this.nodeEdge = nodeEdge;
+    }
+
+    CFGEdge<N> getNodeEdge() {
+        return nodeEdge;
+    }
+
+    @Override
+    public int getCaseValue() {
+        return nodeEdge.getCaseValue();
+    }
+
+    @Override
+    public Set<ClassType> getExceptions() {
+        return nodeEdge.getExceptions();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BlockEdge<?> edge = (BlockEdge<?>) o;
+        return nodeEdge.equals(edge.nodeEdge);
+    }
+
+    @Override
+    public int hashCode() {
+        return nodeEdge.hashCode();
+    }
+}
@@ -25,12 +25,16 @@ package pascal.taie.analysis.pta;
 import org.apache.logging.log4j.Level;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.IndexBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.IndexBasedHeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
@@ -72,25 +76,29 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
     @Override
     public PointerAnalysisResult analyze() {
         AnalysisOptions options = getOptions();
-        HeapModel heapModel = new AllocationSiteBasedModel(options);
+        HeapModel heapModel = makeHeapModel(options);
         ContextSelector selector = null;
         String advanced = options.getString("advanced");
         String cs = options.getString("cs");
+        String contextFactory = options.getString("context-factory");
         if (advanced != null) {
             if (advanced.equals("collection")) {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
-                        new CollectionMethods(World.get().getClassHierarchy()).get());
+                        new CollectionMethods(World.get().getClassHierarchy()).get(),
+                        contextFactory);
             } else {
                 // run context-insensitive analysis as pre-analysis
                 PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
+                        ContextSelectorFactory.makeCISelector(contextFactory));
                 if (advanced.startsWith("scaler")) {
                     selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
+                                    .makeGuidedSelector(Scaler.run(preResult, advanced),
+                                            contextFactory),
                             "Scaler", Level.INFO);
                 } else if (advanced.startsWith("zipper")) {
                     selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
+                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced),
+                                            contextFactory),
                             "Zipper", Level.INFO);
                 } else if (advanced.equals("mahjong")) {
                     heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
@@ -102,16 +110,25 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
             }
         }
         if (selector == null) {
-            selector = ContextSelectorFactory.makePlainSelector(cs);
+            selector = ContextSelectorFactory.makePlainSelector(cs, contextFactory);
         }
         return runAnalysis(heapModel, selector);
     }
 
+    private static HeapModel makeHeapModel(AnalysisOptions options) {
+        String model = options.getString("heap-model");
+        return switch (model) {
+            case "map" -> new AllocationSiteBasedModel(options);
+            case "index" -> new IndexBasedHeapModel(options);
+            default -> throw new ConfigException(
+                    "Unknown heap model: " + model);
+        };
+    }
+
     private PointerAnalysisResult runAnalysis(HeapModel heapModel,
                                               ContextSelector selector) {
         AnalysisOptions options = getOptions();
-        Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+        Solver solver = makeSolver(options, heapModel, selector);
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
@@ -120,6 +137,36 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         return solver.getResult();
     }
 
+    private static Solver makeSolver(AnalysisOptions options,
+                                     HeapModel heapModel,
+                                     ContextSelector selector) {
+        String manager = options.getString("cs-manager");
+        String solver = options.getString("solver");
+        // the workers of parallel solver create context-sensitive
+        // elements concurrently, which is supported by map-based manager
+        boolean concurrent = solver.equals("parallel");
+        CSManager csManager = switch (manager) {
+            case "map" -> new MapBasedCSManager(concurrent);
+            case "index" -> {
+                if (concurrent) {
+                    throw new ConfigException(
+                            "Parallel solver does not support cs-manager: index");
+                }
+                yield new IndexBasedCSManager();
+            }
+            default -> throw new ConfigException(
+                    "Unknown context-sensitive element manager: " + manager);
+        };
+        return switch (solver) {
+            case "default" -> new DefaultSolver(
+                    options, heapModel, selector, csManager);
+            case "parallel" -> new ParallelSolver(
+                    options, heapModel, selector, csManager);
+            default -> throw new ConfigException(
+                    "Unknown pointer analysis solver: " + solver);
+        };
+    }
+
     private static void setPlugin(Solver solver, AnalysisOptions options) {
         CompositePlugin plugin = new CompositePlugin();
         // add builtin plugins
@@ -0,0 +1,238 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import java.util.Arrays;
+
+/**
+ * A memory-compact implementation of {@link Context}, which also organizes
+ * contexts as Trie, but stores the Trie in flat columns indexed by dense
+ * context ids. Each context only holds its id and the columns, and the
+ * children of contexts are kept in one open-addressing table of the
+ * factory, so that neither {@link #getElementAt(int)} nor the lookup
+ * of existing contexts allocates any objects.
+ */
+public class CompactContext implements Context {
+
+    private final Columns columns;
+
+    private final int id;
+
+    private CompactContext(Columns columns, int id) {
+        this.columns = columns;
+        this.id = id;
+    }
+
+    /**
+     * @return the id of this context, which is unique among the contexts
+     * created by the same factory. The ids are dense, i.e., they range
+     * from 0 (the empty context) to the number of contexts minus 1.
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int getLength() {
+        return columns.lengths[id];
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        int length = getLength();
+        assert 0 <= i && i < length;
+        int c = id;
+        for (int j = length - 1; j > i; --j) {
+            c = columns.parents[c];
+        }
+        return columns.elems[c];
+    }
+
+    @Override
+    public String toString() {
+        int length = getLength();
+        Object[] elems = new Object[length];
+        int c = id;
+        for (int i = length - 1; i >= 0; --i) {
+            elems[i] = columns.elems[c];
+            c = columns.parents[c];
+        }
+        return Arrays.toString(elems);
+    }
+
+    /**
+     * Flat columns of the Trie, indexed by context ids.
+     * Contexts may be created by multiple threads, e.g., the workers of
+     * parallel solver, thus new contexts are created under the monitor
+     * of the columns, and the columns are volatile, so that the contexts
+     * can read their elements without locking after the columns grow.
+     */
+    private static class Columns {
+
+        private static final int INITIAL_CAPACITY = 1 << 10;
+
+        /**
+         * Number of contexts.
+         */
+        private int size = 0;
+
+        private volatile int[] parents = new int[INITIAL_CAPACITY];
+
+        private volatile Object[] elems = new Object[INITIAL_CAPACITY];
+
+        private volatile int[] lengths = new int[INITIAL_CAPACITY];
+
+        private volatile CompactContext[] contexts = new CompactContext[INITIAL_CAPACITY];
+
+        /**
+         * Open-addressing table which maps (parent id, element)
+         * to child id. The slots of absent children are -1.
+         */
+        private int[] childSlots = newSlots(INITIAL_CAPACITY << 1);
+
+        private CompactContext newContext(int parent, Object elem) {
+            int id = size++;
+            if (id == contexts.length) {
+                int newLength = contexts.length << 1;
+                parents = Arrays.copyOf(parents, newLength);
+                elems = Arrays.copyOf(elems, newLength);
+                lengths = Arrays.copyOf(lengths, newLength);
+                contexts = Arrays.copyOf(contexts, newLength);
+            }
+            parents[id] = parent;
+            elems[id] = elem;
+            lengths[id] = parent < 0 ? 0 : lengths[parent] + 1;
+            CompactContext context = new CompactContext(this, id);
+            contexts[id] = context;
+            return context;
+        }
+
+        private synchronized CompactContext getChild(int parent, Object elem) {
+            int mask = childSlots.length - 1;
+            int i = hash(parent, elem) & mask;
+            int child;
+            while ((child = childSlots[i]) != -1) {
+                if (parents[child] == parent && elems[child].equals(elem)) {
+                    return contexts[child];
+                }
+                i = (i + 1) & mask;
+            }
+            // child is absent, create it
+            CompactContext context = newContext(parent, elem);
+            childSlots[i] = context.id;
+            if (size * 3 > childSlots.length * 2) { // load factor: 2/3
+                rehash();
+            }
+            return context;
+        }
+
+        private void rehash() {
+            int[] newSlots = newSlots(childSlots.length << 1);
+            int mask = newSlots.length - 1;
+            for (int child : childSlots) {
+                if (child != -1) {
+                    int i = hash(parents[child], elems[child]) & mask;
+                    while (newSlots[i] != -1) {
+                        i = (i + 1) & mask;
+                    }
+                    newSlots[i] = child;
+                }
+            }
+            childSlots = newSlots;
+        }
+
+        private static int[] newSlots(int capacity) {
+            int[] slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+
+        private static int hash(int parent, Object elem) {
+            int h = (elem.hashCode() * 31 + parent) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    public static class Factory<T> implements ContextFactory<T> {
+
+        private final Columns columns = new Columns();
+
+        /**
+         * Root context of all compact contexts produced by this factory.
+         * It also acts as the default context.
+         */
+        private final CompactContext rootContext = columns.newContext(-1, null);
+
+        @Override
+        public CompactContext getEmptyContext() {
+            return rootContext;
+        }
+
+        @Override
+        public CompactContext make(T elem) {
+            return columns.getChild(rootContext.id, elem);
+        }
+
+        @Override
+        public CompactContext make(T... elems) {
+            int c = rootContext.id;
+            for (T elem : elems) {
+                c = columns.getChild(c, elem).id;
+            }
+            return columns.contexts[c];
+        }
+
+        @Override
+        public CompactContext makeLastK(Context context, int k) {
+            CompactContext c = (CompactContext) context;
+            if (c.getLength() <= k) {
+                return c;
+            }
+            return columns.contexts[lastK(c.id, k)];
+        }
+
+        /**
+         * @return id of the context which consists of
+         * the last k elements of given context.
+         */
+        private int lastK(int context, int k) {
+            if (k == 0) {
+                return rootContext.id;
+            }
+            int prefix = lastK(columns.parents[context], k - 1);
+            return columns.getChild(prefix, columns.elems[context]).id;
+        }
+
+        @Override
+        public CompactContext append(Context parent, T elem, int limit) {
+            CompactContext p = (CompactContext) parent;
+            if (p.getLength() < limit) {
+                return columns.getChild(p.id, elem);
+            } else {
+                return columns.getChild(
+                        makeLastK(p, limit - 1).id, elem);
+            }
+        }
+    }
+}
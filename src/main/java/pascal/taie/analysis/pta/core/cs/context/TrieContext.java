@@ -71,7 +71,11 @@ public class TrieContext implements Context {
         return parent;
     }
 
-    TrieContext getChild(Object elem) {
+    /**
+     * This method is synchronized, as contexts may be created by
+     * multiple threads, e.g., the workers of parallel solver.
+     */
+    synchronized TrieContext getChild(Object elem) {
         if (children == null) {
             children = Maps.newHybridMap();
         }
@@ -0,0 +1,125 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.Indexer;
+
+import java.util.Arrays;
+
+/**
+ * Assigns indexes to {@link CSObj}s and maps indexes back to them.
+ * Small ranges of indexes are reserved for throwable and string objects,
+ * which are pointed to by many pointers, so that the bit sets containing
+ * them are dense.
+ */
+class CSObjIndexer implements Indexer<CSObj> {
+
+    private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+    private final Type throwable = typeSystem.getClassType(ClassNames.THROWABLE);
+
+    private final Type string = typeSystem.getClassType(ClassNames.STRING);
+
+    /**
+     * Counter for assign unique indexes to throwable objects.
+     */
+    private int throwableCounter = 0;
+
+    /**
+     * Number of indexes reserved for throwable objects.
+     */
+    private static final int THROWABLE_BUDGET = 2048;
+
+    /**
+     * Counter for assign unique indexes to string objects.
+     */
+    private int stringCounter = THROWABLE_BUDGET;
+
+    /**
+     * Number of indexes reserved for string objects.
+     */
+    private static final int STRING_BUDGET = 4096;
+
+    /**
+     * Counter for assigning unique indexes to other CSObjs.
+     */
+    private int counter = THROWABLE_BUDGET + STRING_BUDGET;
+
+    /**
+     * Maps index to CSObj.
+     * Since there are empty slots, using array (instead of List)
+     * is more convenient.
+     */
+    private CSObj[] objs = new CSObj[65536];
+
+    /**
+     * Creates a new {@link CSObj} with a fresh index and records it.
+     */
+    CSObj newCSObj(Obj obj, Context heapContext) {
+        int index = getCSObjIndex(obj);
+        CSObj csObj = new CSObj(obj, heapContext, index);
+        storeCSObj(csObj, index);
+        return csObj;
+    }
+
+    private int getCSObjIndex(Obj obj) {
+        if (typeSystem.isSubtype(throwable, obj.getType()) &&
+                throwableCounter < THROWABLE_BUDGET) {
+            return throwableCounter++;
+        } else if (obj.getType().equals(string) &&
+                stringCounter < THROWABLE_BUDGET + STRING_BUDGET) {
+            return stringCounter++;
+        } else {
+            return counter++;
+        }
+    }
+
+    /**
+     * Stores {@code csObj} to the {@code objs} array with the position
+     * specified by {@code index}.
+     */
+    private void storeCSObj(CSObj csObj, int index) {
+        if (index >= objs.length) {
+            int newLength = Math.max(index + 1, (int) (objs.length * 1.5));
+            objs = Arrays.copyOf(objs, newLength);
+        }
+        objs[index] = csObj;
+    }
+
+    @Override
+    public int getIndex(CSObj o) {
+        return o.getIndex();
+    }
+
+    @Override
+    public CSObj getObject(int index) {
+        return objs[index];
+    }
+}
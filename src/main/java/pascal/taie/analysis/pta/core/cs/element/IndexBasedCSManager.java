@@ -0,0 +1,320 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.CompactContext;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Manages data and their context-sensitive counterparts by primitive
+ * int-indexed tables.
+ * <p>
+ * This manager maps {@link Context}s to dense int ids (reusing the ids
+ * of {@link CompactContext}s), and stores context-sensitive elements in
+ * open-addressing tables keyed by pairs of (element, context id). Compared to {@link MapBasedCSManager},
+ * which looks up nested maps keyed by objects, the lookups of existing
+ * elements of this manager do not allocate any objects.
+ */
+public class IndexBasedCSManager implements CSManager {
+
+    private final ContextIndexer contextIndexer = new ContextIndexer();
+
+    private final IntKeyedTable<Var, CSVar> vars = new IntKeyedTable<>();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * Instance fields are keyed by (field, index of base object).
+     */
+    private final IntKeyedTable<JField, InstanceField> instanceFields = new IntKeyedTable<>();
+
+    /**
+     * Maps index of array object to its array index pointer.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[1024];
+
+    private int nArrayIndexes = 0;
+
+    /**
+     * Counter for assigning unique indexes to Pointers.
+     */
+    private int pointerCounter = 0;
+
+    private final IntKeyedTable<Obj, CSObj> objs = new IntKeyedTable<>();
+
+    private final CSObjIndexer objIndexer = new CSObjIndexer();
+
+    private final IntKeyedTable<Invoke, CSCallSite> callSites = new IntKeyedTable<>();
+
+    private final IntKeyedTable<JMethod, CSMethod> methods = new IntKeyedTable<>();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        int ctxId = contextIndexer.getId(context);
+        CSVar csVar = vars.get(var, ctxId);
+        if (csVar == null) {
+            csVar = new CSVar(var, context, pointerCounter++);
+            vars.put(var, ctxId, csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        StaticField staticField = staticFields.get(field);
+        if (staticField == null) {
+            staticField = new StaticField(field, pointerCounter++);
+            staticFields.put(field, staticField);
+        }
+        return staticField;
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        InstanceField instanceField = instanceFields.get(field, base.getIndex());
+        if (instanceField == null) {
+            instanceField = new InstanceField(base, field, pointerCounter++);
+            instanceFields.put(field, base.getIndex(), instanceField);
+        }
+        return instanceField;
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexes.length) {
+            int newLength = Math.max(index + 1, (int) (arrayIndexes.length * 1.5));
+            arrayIndexes = Arrays.copyOf(arrayIndexes, newLength);
+        }
+        ArrayIndex arrayIndex = arrayIndexes[index];
+        if (arrayIndex == null) {
+            arrayIndex = new ArrayIndex(array, pointerCounter++);
+            arrayIndexes[index] = arrayIndex;
+            ++nArrayIndexes;
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return vars.keySet();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return vars.values();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return vars.valuesOf(var);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return instanceFields.values();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return new AbstractCollection<>() {
+
+            @Override
+            @Nonnull
+            public Iterator<ArrayIndex> iterator() {
+                return Arrays.stream(arrayIndexes)
+                        .filter(Objects::nonNull)
+                        .iterator();
+            }
+
+            @Override
+            public int size() {
+                return nArrayIndexes;
+            }
+        };
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return Streams.concat(
+                getCSVars().stream(),
+                getInstanceFields().stream(),
+                getArrayIndexes().stream(),
+                getStaticFields().stream());
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        int ctxId = contextIndexer.getId(heapContext);
+        CSObj csObj = objs.get(obj, ctxId);
+        if (csObj == null) {
+            csObj = objIndexer.newCSObj(obj, heapContext);
+            objs.put(obj, ctxId, csObj);
+        }
+        return csObj;
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objs.values();
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        return objs.valuesOf(obj);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        int ctxId = contextIndexer.getId(context);
+        CSCallSite csCallSite = callSites.get(callSite, ctxId);
+        if (csCallSite == null) {
+            CSMethod container = getCSMethod(context, callSite.getContainer());
+            csCallSite = new CSCallSite(callSite, context, container);
+            callSites.put(callSite, ctxId, csCallSite);
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        int ctxId = contextIndexer.getId(context);
+        CSMethod csMethod = methods.get(method, ctxId);
+        if (csMethod == null) {
+            csMethod = new CSMethod(method, context);
+            methods.put(method, ctxId, csMethod);
+        }
+        return csMethod;
+    }
+
+    /**
+     * Interns contexts to dense int ids. Contexts are compared by
+     * identity, which is consistent with {@link MapBasedCSManager}
+     * as context factories never create duplicate contexts.
+     * <p>
+     * {@link CompactContext}s already carry dense ids, which are unique
+     * among the contexts of their factory, i.e., the factory of the
+     * context selector, so their ids are used directly without interning.
+     */
+    private static class ContextIndexer {
+
+        private Context[] contexts = new Context[1024];
+
+        private int[] ids = new int[1024];
+
+        /**
+         * Number of interned contexts.
+         */
+        private int size = 0;
+
+        /**
+         * The most recently queried context and its id. Consecutive
+         * queries often share the same context, e.g., when the solver
+         * processes the statements of a context-sensitive method.
+         */
+        private Context lastContext;
+
+        private int lastId;
+
+        int getId(Context context) {
+            if (context instanceof CompactContext compact) {
+                return compact.getId();
+            }
+            if (context == lastContext) {
+                return lastId;
+            }
+            int mask = contexts.length - 1;
+            int i = hash(context) & mask;
+            Context c;
+            while ((c = contexts[i]) != null) {
+                if (c == context) {
+                    lastContext = context;
+                    return lastId = ids[i];
+                }
+                i = (i + 1) & mask;
+            }
+            // context is absent, assign a new id to it
+            int id = size++;
+            contexts[i] = context;
+            ids[i] = id;
+            if (size * 3 > contexts.length * 2) { // load factor: 2/3
+                resize();
+            }
+            lastContext = context;
+            return lastId = id;
+        }
+
+        private void resize() {
+            Context[] oldContexts = contexts;
+            int[] oldIds = ids;
+            contexts = new Context[oldContexts.length << 1];
+            ids = new int[oldContexts.length << 1];
+            int mask = contexts.length - 1;
+            for (int j = 0; j < oldContexts.length; ++j) {
+                Context c = oldContexts[j];
+                if (c != null) {
+                    int i = hash(c) & mask;
+                    while (contexts[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    contexts[i] = c;
+                    ids[i] = oldIds[j];
+                }
+            }
+        }
+
+        private static int hash(Context context) {
+            int h = System.identityHashCode(context) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Open-addressing hash table which maps pairs of (object key, int key)
+ * to values. The entries are kept in parallel arrays in insertion order,
+ * and are probed linearly via an int table of entry ids, so that
+ * {@link #get(Object, int)} neither boxes the int key nor allocates
+ * any objects.
+ * <p>
+ * Each value is stored only once. The entries of the same object key
+ * are chained by their ids, and all views of this table, i.e.,
+ * {@link #keySet()}, {@link #values()} and {@link #valuesOf(Object)},
+ * are derived from the arrays without copying the values.
+ * <p>
+ * The table only supports insertion, which suffices for maintaining
+ * context-sensitive elements, and it is not thread-safe.
+ *
+ * @param <K> type of object keys
+ * @param <V> type of values
+ */
+class IntKeyedTable<K, V> {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private static final int ABSENT = -1;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+
+    private int[] intKeys = new int[INITIAL_CAPACITY];
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Maps each entry id to the id of the previous entry with
+     * the same object key, or {@link #ABSENT} if there is none.
+     */
+    private int[] prevOfKey = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of entries in this table.
+     */
+    private int size = 0;
+
+    /**
+     * Open-addressing table which maps (object key, int key) to entry id.
+     */
+    private int[] slots = newSlots(INITIAL_CAPACITY << 1);
+
+    /**
+     * Open-addressing table which maps object key to the id of
+     * the latest entry with the key.
+     */
+    private int[] keySlots = newSlots(INITIAL_CAPACITY << 1);
+
+    /**
+     * Number of distinct object keys in this table.
+     */
+    private int nKeys = 0;
+
+    /**
+     * @return the value associated with the key pair, or {@code null}
+     * if the pair is absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(K key, int intKey) {
+        int mask = slots.length - 1;
+        for (int i = hash(key, intKey) & mask; ; i = (i + 1) & mask) {
+            int e = slots[i];
+            if (e == ABSENT) {
+                return null;
+            }
+            if (intKeys[e] == intKey && equals(keys[e], key)) {
+                return (V) values[e];
+            }
+        }
+    }
+
+    /**
+     * Adds a value for the key pair. The caller must guarantee that
+     * the pair is absent in this table.
+     */
+    void put(K key, int intKey, V value) {
+        int e = size++;
+        if (e == keys.length) {
+            int capacity = e << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            intKeys = Arrays.copyOf(intKeys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            prevOfKey = Arrays.copyOf(prevOfKey, capacity);
+        }
+        keys[e] = key;
+        intKeys[e] = intKey;
+        values[e] = value;
+        slots[findFreeSlot(slots, hash(key, intKey))] = e;
+        int i = findKeySlot(key);
+        if (keySlots[i] == ABSENT) {
+            prevOfKey[e] = ABSENT;
+            ++nKeys;
+        } else {
+            prevOfKey[e] = keySlots[i];
+        }
+        keySlots[i] = e;
+        if (size * 3 > slots.length * 2) { // load factor: 2/3
+            slots = newSlots(slots.length << 1);
+            for (int j = 0; j < size; ++j) {
+                slots[findFreeSlot(slots, hash(keys[j], intKeys[j]))] = j;
+            }
+        }
+        if (nKeys * 3 > keySlots.length * 2) {
+            int[] oldKeySlots = keySlots;
+            keySlots = newSlots(oldKeySlots.length << 1);
+            for (int latest : oldKeySlots) {
+                if (latest != ABSENT) {
+                    keySlots[findFreeSlot(keySlots, hash(keys[latest]))] = latest;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the slot of {@code key} in {@link #keySlots}, or the free
+     * slot for {@code key} if it is absent.
+     */
+    private int findKeySlot(Object key) {
+        int mask = keySlots.length - 1;
+        int i = hash(key) & mask;
+        int e;
+        while ((e = keySlots[i]) != ABSENT && !equals(keys[e], key)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int findFreeSlot(int[] slots, int hash) {
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (slots[i] != ABSENT) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, ABSENT);
+        return slots;
+    }
+
+    private static boolean equals(Object k1, Object k2) {
+        return k1 == k2 || k1.equals(k2);
+    }
+
+    private static int hash(Object key, int intKey) {
+        // spreads the combined hash code, as object hash codes
+        // and int keys are often small and sequential
+        int h = key.hashCode() * 31 + intKey;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    Set<K> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o != null && keySlots[findKeySlot(o)] != ABSENT;
+            }
+
+            @Override
+            @Nonnull
+            @SuppressWarnings("unchecked")
+            public Iterator<K> iterator() {
+                int[] snapshot = keySlots;
+                return new Iterator<>() {
+
+                    private int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < snapshot.length && snapshot[i] == ABSENT) {
+                            ++i;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < snapshot.length;
+                    }
+
+                    @Override
+                    public K next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        K key = (K) keys[snapshot[next]];
+                        next = advance(next + 1);
+                        return key;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return nKeys;
+            }
+        };
+    }
+
+    Collection<V> values() {
+        return new AbstractList<>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return (V) values[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    Collection<V> valuesOf(K key) {
+        if (keySlots[findKeySlot(key)] == ABSENT) {
+            return Set.of();
+        }
+        return new AbstractCollection<>() {
+
+            @Override
+            @Nonnull
+            @SuppressWarnings("unchecked")
+            public Iterator<V> iterator() {
+                return new Iterator<>() {
+
+                    private int next = keySlots[findKeySlot(key)];
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != ABSENT;
+                    }
+
+                    @Override
+                    public V next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        V value = (V) values[next];
+                        next = prevOfKey[next];
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int n = 0;
+                for (int e = keySlots[findKeySlot(key)]; e != ABSENT; e = prevOfKey[e]) {
+                    ++n;
+                }
+                return n;
+            }
+        };
+    }
+}
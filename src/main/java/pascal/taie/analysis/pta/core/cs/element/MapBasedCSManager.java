@@ -22,41 +22,59 @@
 
 package pascal.taie.analysis.pta.core.cs.element;
 
-import pascal.taie.World;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
-import pascal.taie.language.classes.ClassNames;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
-import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Streams;
 import pascal.taie.util.collection.TwoKeyMap;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
 /**
  * Manages data by maintaining the data and their context-sensitive
  * counterparts by maps.
+ * <p>
+ * Existing elements are looked up without locking, and new elements are
+ * created under locks, so that each element is created exactly once.
+ * If the manager is accessed by multiple threads (e.g., by the workers
+ * of {@link pascal.taie.analysis.pta.core.solver.ParallelSolver}),
+ * it should be created with {@code concurrent} being {@code true},
+ * so that it is backed by concurrent maps.
  */
 public class MapBasedCSManager implements CSManager {
 
-    private final PointerManager ptrManager = new PointerManager();
+    private final PointerManager ptrManager;
 
-    private final CSObjManager objManager = new CSObjManager();
+    private final CSObjManager objManager;
 
-    private final TwoKeyMap<Invoke, Context, CSCallSite> callSites = Maps.newTwoKeyMap();
+    private final TwoKeyMap<Invoke, Context, CSCallSite> callSites;
 
-    private final TwoKeyMap<JMethod, Context, CSMethod> methods = Maps.newTwoKeyMap();
+    private final TwoKeyMap<JMethod, Context, CSMethod> methods;
+
+    public MapBasedCSManager() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent whether this manager may be accessed by
+     *                   multiple threads.
+     */
+    public MapBasedCSManager(boolean concurrent) {
+        ptrManager = new PointerManager(concurrent);
+        objManager = new CSObjManager(concurrent);
+        callSites = newTwoKeyMap(concurrent);
+        methods = newTwoKeyMap(concurrent);
+    }
 
     @Override
     public CSVar getCSVar(Context context, Var var) {
@@ -130,12 +148,12 @@ public class MapBasedCSManager implements CSManager {
 
     @Override
     public Indexer<CSObj> getObjectIndexer() {
-        return objManager;
+        return objManager.indexer;
     }
 
     @Override
     public CSCallSite getCSCallSite(Context context, Invoke callSite) {
-        return callSites.computeIfAbsent(callSite, context, (cs, ctx) -> {
+        return getOrCreate(callSites, callSite, context, (cs, ctx) -> {
             CSMethod container = getCSMethod(ctx, cs.getContainer());
             return new CSCallSite(cs, ctx, container);
         });
@@ -143,42 +161,101 @@ public class MapBasedCSManager implements CSManager {
 
     @Override
     public CSMethod getCSMethod(Context context, JMethod method) {
-        return methods.computeIfAbsent(method, context, CSMethod::new);
+        return getOrCreate(methods, method, context, CSMethod::new);
+    }
+
+    private static <K1, K2, V> TwoKeyMap<K1, K2, V> newTwoKeyMap(boolean concurrent) {
+        return concurrent
+                ? Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap)
+                : Maps.newTwoKeyMap();
+    }
+
+    private static <K, V> Map<K, V> newMap(boolean concurrent) {
+        return concurrent ? Maps.newConcurrentMap() : Maps.newMap();
+    }
+
+    /**
+     * Looks up the value of given keys in {@code map}, and creates it
+     * under the monitor of {@code map} if it is absent.
+     */
+    private static <K1, K2, V> V getOrCreate(
+            TwoKeyMap<K1, K2, V> map, K1 key1, K2 key2,
+            BiFunction<K1, K2, V> creator) {
+        V value = map.get(key1, key2);
+        if (value == null) {
+            synchronized (map) {
+                value = map.computeIfAbsent(key1, key2, creator);
+            }
+        }
+        return value;
     }
 
     private static class PointerManager {
 
-        private final TwoKeyMap<Var, Context, CSVar> vars = Maps.newTwoKeyMap();
+        private final TwoKeyMap<Var, Context, CSVar> vars;
 
-        private final Map<JField, StaticField> staticFields = Maps.newMap();
+        private final Map<JField, StaticField> staticFields;
 
-        private final TwoKeyMap<CSObj, JField, InstanceField> instanceFields = Maps.newTwoKeyMap();
+        private final TwoKeyMap<CSObj, JField, InstanceField> instanceFields;
 
-        private final Map<CSObj, ArrayIndex> arrayIndexes = Maps.newMap();
+        private final Map<CSObj, ArrayIndex> arrayIndexes;
 
         /**
          * Counter for assigning unique indexes to Pointers.
+         * All pointers are created under the monitor of this manager,
+         * as they share the counter.
          */
         private int counter = 0;
 
+        private PointerManager(boolean concurrent) {
+            vars = newTwoKeyMap(concurrent);
+            staticFields = newMap(concurrent);
+            instanceFields = newTwoKeyMap(concurrent);
+            arrayIndexes = newMap(concurrent);
+        }
+
         private CSVar getCSVar(Context context, Var var) {
-            return vars.computeIfAbsent(var, context,
-                    (v, c) -> new CSVar(v, c, counter++));
+            CSVar csVar = vars.get(var, context);
+            if (csVar == null) {
+                synchronized (this) {
+                    csVar = vars.computeIfAbsent(var, context,
+                            (v, c) -> new CSVar(v, c, counter++));
+                }
+            }
+            return csVar;
         }
 
         private StaticField getStaticField(JField field) {
-            return staticFields.computeIfAbsent(field,
-                    f -> new StaticField(f, counter++));
+            StaticField staticField = staticFields.get(field);
+            if (staticField == null) {
+                synchronized (this) {
+                    staticField = staticFields.computeIfAbsent(field,
+                            f -> new StaticField(f, counter++));
+                }
+            }
+            return staticField;
         }
 
         private InstanceField getInstanceField(CSObj base, JField field) {
-            return instanceFields.computeIfAbsent(base, field,
-                    (b, f) -> new InstanceField(b, f, counter++));
+            InstanceField instField = instanceFields.get(base, field);
+            if (instField == null) {
+                synchronized (this) {
+                    instField = instanceFields.computeIfAbsent(base, field,
+                            (b, f) -> new InstanceField(b, f, counter++));
+                }
+            }
+            return instField;
         }
 
         private ArrayIndex getArrayIndex(CSObj array) {
-            return arrayIndexes.computeIfAbsent(array,
-                    a -> new ArrayIndex(a, counter++));
+            ArrayIndex arrayIndex = arrayIndexes.get(array);
+            if (arrayIndex == null) {
+                synchronized (this) {
+                    arrayIndex = arrayIndexes.computeIfAbsent(array,
+                            a -> new ArrayIndex(a, counter++));
+                }
+            }
+            return arrayIndex;
         }
 
         private Collection<Var> getVars() {
@@ -215,79 +292,18 @@ public class MapBasedCSManager implements CSManager {
         }
     }
 
-    private static class CSObjManager implements Indexer<CSObj> {
-
-        private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newTwoKeyMap();
-
-        private final TypeSystem typeSystem = World.get().getTypeSystem();
-
-        private final Type throwable = typeSystem.getClassType(ClassNames.THROWABLE);
-
-        private final Type string = typeSystem.getClassType(ClassNames.STRING);
-
-        /**
-         * Counter for assign unique indexes to throwable objects.
-         */
-        private int throwableCounter = 0;
-
-        /**
-         * Number of indexes reserved for throwable objects.
-         */
-        private static final int THROWABLE_BUDGET = 2048;
+    private static class CSObjManager {
 
-        /**
-         * Counter for assign unique indexes to string objects.
-         */
-        private int stringCounter = THROWABLE_BUDGET;
+        private final TwoKeyMap<Obj, Context, CSObj> objMap;
 
-        /**
-         * Number of indexes reserved for string objects.
-         */
-        private static final int STRING_BUDGET = 4096;
-
-        /**
-         * Counter for assigning unique indexes to other CSObjs.
-         */
-        private int counter = THROWABLE_BUDGET + STRING_BUDGET;
-
-        /**
-         * Maps index to CSObj.
-         * Since there are empty slots, using array (instead of List)
-         * is more convenient.
-         */
-        private CSObj[] objs = new CSObj[65536];
+        private final CSObjIndexer indexer = new CSObjIndexer();
 
-        CSObj getCSObj(Context heapContext, Obj obj) {
-            return objMap.computeIfAbsent(obj, heapContext, (o, c) -> {
-                int index = getCSObjIndex(o);
-                CSObj csObj = new CSObj(o, c, index);
-                storeCSObj(csObj, index);
-                return csObj;
-            });
-        }
-
-        private int getCSObjIndex(Obj obj) {
-            if (typeSystem.isSubtype(throwable, obj.getType()) &&
-                    throwableCounter < THROWABLE_BUDGET) {
-                return throwableCounter++;
-            } else if (obj.getType().equals(string) &&
-                    stringCounter < THROWABLE_BUDGET + STRING_BUDGET) {
-                return stringCounter++;
-            } else {
-                return counter++;
-            }
+        private CSObjManager(boolean concurrent) {
+            objMap = newTwoKeyMap(concurrent);
         }
 
-        /**
-         * Stores {@code csObj} to the {@code objs} array with the position
-         * specified by {@code index}.
-         */
-        private void storeCSObj(CSObj csObj, int index) {
-            if (index >= objs.length) {
-                int newLength = Math.max(index + 1, (int) (objs.length * 1.5));
-                objs = Arrays.copyOf(objs, newLength);
-            }
-            objs[index] = csObj;
+        CSObj getCSObj(Context heapContext, Obj obj) {
+            return getOrCreate(objMap, obj, heapContext, indexer::newCSObj);
         }
 
         Collection<CSObj> getObjects() {
@@ -298,15 +314,5 @@ public class MapBasedCSManager implements CSManager {
             var csObjs = objMap.get(obj);
             return csObjs != null ? csObjs.values() : Set.of();
         }
-
-        @Override
-        public int getIndex(CSObj o) {
-            return o.getIndex();
-        }
-
-        @Override
-        public CSObj getObject(int index) {
-            return objs[index];
-        }
     }
 }
@@ -24,14 +24,17 @@ package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
-import pascal.taie.analysis.pta.core.cs.context.TrieContext;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 
 abstract class AbstractContextSelector<T> implements ContextSelector {
 
-    protected final ContextFactory<T> factory = new TrieContext.Factory<>();
+    protected final ContextFactory<T> factory;
+
+    AbstractContextSelector(ContextFactory<T> factory) {
+        this.factory = factory;
+    }
 
     @Override
     public Context getEmptyContext() {
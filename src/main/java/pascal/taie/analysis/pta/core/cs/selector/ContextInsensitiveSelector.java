@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -36,6 +37,10 @@ import pascal.taie.language.classes.JMethod;
  */
 class ContextInsensitiveSelector extends AbstractContextSelector<Void> {
 
+    ContextInsensitiveSelector(ContextFactory<Void> factory) {
+        super(factory);
+    }
+
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
         return getEmptyContext();
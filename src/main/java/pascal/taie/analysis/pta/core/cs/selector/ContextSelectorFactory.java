@@ -22,6 +22,9 @@
 
 package pascal.taie.analysis.pta.core.cs.selector;
 
+import pascal.taie.analysis.pta.core.cs.context.CompactContext;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.ConfigException;
 import pascal.taie.language.classes.JMethod;
@@ -35,14 +38,31 @@ import java.util.function.Predicate;
 
 /**
  * Provides static factory methods for various context selectors.
+ * <p>
+ * The contexts selected by the selectors are created by the context
+ * factory of given kind (see {@link #makeContextFactory(String)}),
+ * and {@code "trie"} is used when the kind is not given.
  */
 public class ContextSelectorFactory {
 
+    /**
+     * Default kind of context factory.
+     */
+    private static final String DEFAULT_CONTEXT_FACTORY = "trie";
+
     /**
      * @return selector for context insensitivity.
      */
     public static ContextSelector makeCISelector() {
-        return new ContextInsensitiveSelector();
+        return makeCISelector(DEFAULT_CONTEXT_FACTORY);
+    }
+
+    /**
+     * @return selector for context insensitivity, whose contexts are
+     * created by the context factory of given kind.
+     */
+    public static ContextSelector makeCISelector(String contextFactory) {
+        return new ContextInsensitiveSelector(makeContextFactory(contextFactory));
     }
 
     /**
@@ -50,9 +70,21 @@ public class ContextSelectorFactory {
      * The returned selector applies the same variant for all methods.
      */
     public static ContextSelector makePlainSelector(String cs) {
+        return makePlainSelector(cs, DEFAULT_CONTEXT_FACTORY);
+    }
+
+    /**
+     * @return a context selector for given context sensitivity variant,
+     * whose contexts are created by the context factory of given kind.
+     * The returned selector applies the same variant for all methods.
+     */
+    public static ContextSelector makePlainSelector(String cs, String contextFactory) {
         if (cs.equals("ci")) {
-            return new ContextInsensitiveSelector();
+            return makeCISelector(contextFactory);
         } else {
+            // the factory is made outside the try block, so that
+            // its ConfigException is not reported as invalid variant
+            ContextFactory<?> factory = makeContextFactory(contextFactory);
             try {
                 // we expect that the argument of context-sensitivity variant
                 // is of pattern k-kind, where k is limit of context length
@@ -70,8 +102,9 @@ public class ContextSelectorFactory {
                 String selectorName = ContextSelectorFactory.class.getPackageName() +
                         ".K" + kind + "Selector";
                 Class<?> c = Class.forName(selectorName);
-                Constructor<?> ctor = c.getConstructor(int.class, int.class);
-                return (ContextSelector) ctor.newInstance(k, hk);
+                Constructor<?> ctor = c.getConstructor(
+                        int.class, int.class, ContextFactory.class);
+                return (ContextSelector) ctor.newInstance(k, hk, factory);
             } catch (RuntimeException e) {
                 throw new ConfigException("Unexpected context-sensitivity variants: " + cs, e);
             } catch (ClassNotFoundException | NoSuchMethodException |
@@ -89,7 +122,19 @@ public class ContextSelectorFactory {
      */
     public static ContextSelector makeSelectiveSelector(
             String cs, Set<JMethod> csMethods) {
-        return makeSelectiveSelector(cs, csMethods::contains, o -> true);
+        return makeSelectiveSelector(cs, csMethods, DEFAULT_CONTEXT_FACTORY);
+    }
+
+    /**
+     * @return a selective context selector which applies given context sensitivity
+     * variant (specified by cs) to set of methods (specified by csMethods),
+     * and cs to all objects. The contexts are created by the context factory
+     * of given kind.
+     */
+    public static ContextSelector makeSelectiveSelector(
+            String cs, Set<JMethod> csMethods, String contextFactory) {
+        return makeSelectiveSelector(cs, csMethods::contains, o -> true,
+                contextFactory);
     }
 
     /**
@@ -99,7 +144,21 @@ public class ContextSelectorFactory {
      */
     public static ContextSelector makeSelectiveSelector(
             String cs, Predicate<JMethod> isCSMethod, Predicate<Obj> isCSObj) {
-        return new SelectiveSelector(makePlainSelector(cs), isCSMethod, isCSObj);
+        return makeSelectiveSelector(cs, isCSMethod, isCSObj,
+                DEFAULT_CONTEXT_FACTORY);
+    }
+
+    /**
+     * @return a selective context selector which applies given context sensitivity
+     * variant (specified by cs) to part of methods (specified by isCSMethod)
+     * and part of objects (specified by isCSObj). The contexts are created
+     * by the context factory of given kind.
+     */
+    public static ContextSelector makeSelectiveSelector(
+            String cs, Predicate<JMethod> isCSMethod, Predicate<Obj> isCSObj,
+            String contextFactory) {
+        return new SelectiveSelector(makePlainSelector(cs, contextFactory),
+                isCSMethod, isCSObj);
     }
 
     /**
@@ -107,6 +166,31 @@ public class ContextSelectorFactory {
      * variants to the methods according to given map.
      */
     public static ContextSelector makeGuidedSelector(Map<JMethod, String> csMap) {
-        return new GuidedSelector(csMap);
+        return makeGuidedSelector(csMap, DEFAULT_CONTEXT_FACTORY);
+    }
+
+    /**
+     * @return a guided context selector which applies the context sensitivity
+     * variants to the methods according to given map. The contexts are
+     * created by the context factory of given kind.
+     */
+    public static ContextSelector makeGuidedSelector(
+            Map<JMethod, String> csMap, String contextFactory) {
+        return new GuidedSelector(csMap, makeContextFactory(contextFactory));
+    }
+
+    /**
+     * @param kind kind of context factory, i.e., {@code "trie"} for
+     *             {@link TrieContext.Factory}, or {@code "compact"} for
+     *             {@link CompactContext.Factory}.
+     * @return a new context factory of given kind.
+     */
+    private static <T> ContextFactory<T> makeContextFactory(String kind) {
+        return switch (kind) {
+            case "trie" -> new TrieContext.Factory<>();
+            case "compact" -> new CompactContext.Factory<>();
+            default -> throw new ConfigException(
+                    "Unknown context factory: " + kind);
+        };
     }
 }
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -67,13 +68,15 @@ class GuidedSelector extends AbstractContextSelector<Object> {
      */
     private final int hLimit;
 
-    GuidedSelector(Map<JMethod, String> csMap, int hLimit) {
+    GuidedSelector(Map<JMethod, String> csMap, int hLimit,
+                   ContextFactory<Object> factory) {
+        super(factory);
         this.csMap = csMap;
         this.hLimit = hLimit;
     }
 
-    GuidedSelector(Map<JMethod, String> csMap) {
-        this(csMap, DEFAULT_H_LIMIT);
+    GuidedSelector(Map<JMethod, String> csMap, ContextFactory<Object> factory) {
+        this(csMap, DEFAULT_H_LIMIT, factory);
     }
 
     @Override
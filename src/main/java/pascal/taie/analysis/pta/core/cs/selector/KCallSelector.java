@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.ir.stmt.Invoke;
@@ -30,8 +31,8 @@ import pascal.taie.language.classes.JMethod;
 
 class KCallSelector extends KLimitingSelector<Invoke> {
 
-    public KCallSelector(int k, int hk) {
-        super(k, hk);
+    public KCallSelector(int k, int hk, ContextFactory<Invoke> factory) {
+        super(k, hk, factory);
     }
 
     @Override
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.heap.NewObj;
 
@@ -44,10 +45,12 @@ abstract class KLimitingSelector<T> extends AbstractContextSelector<T> {
     protected final int hLimit;
 
     /**
-     * @param k  k-limit for method contexts.
-     * @param hk k-limit for heap contexts.
+     * @param k       k-limit for method contexts.
+     * @param hk      k-limit for heap contexts.
+     * @param factory factory of the selected contexts.
      */
-    KLimitingSelector(int k, int hk) {
+    KLimitingSelector(int k, int hk, ContextFactory<T> factory) {
+        super(factory);
         this.limit = k;
         this.hLimit = hk;
     }
@@ -0,0 +1,178 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.heap;
+
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Allocation-site-based heap model which stores the objects in
+ * int-indexed tables.
+ * <p>
+ * The objects of the allocation sites in each method are stored in an
+ * array indexed by the dense ordinals of the {@link New} statements among
+ * the allocation sites of the method, and the constant and mock objects are stored in
+ * open-addressing tables. Compared to {@link AllocationSiteBasedModel},
+ * which looks up the objects in maps, the lookups of existing objects
+ * (e.g., {@link #getObj(New)}) of this model do not allocate any objects,
+ * and the decisions of merging objects are made only once for each
+ * allocation site and constant.
+ */
+public class IndexBasedHeapModel extends AllocationSiteBasedModel {
+
+    /**
+     * Objects of the allocation sites in each method.
+     */
+    private final Map<JMethod, SiteObjs> methodSiteObjs = Maps.newMap();
+
+    /**
+     * Cache of the last method looked up in {@link #methodSiteObjs},
+     * as the allocation sites in the same method are usually processed
+     * consecutively.
+     */
+    private JMethod lastMethod;
+
+    private SiteObjs lastSiteObjs;
+
+    private final ObjTable<Obj> constantObjs = new ObjTable<>();
+
+    private final ObjTable<MockObj> mockObjs = new ObjTable<>();
+
+    public IndexBasedHeapModel(AnalysisOptions options) {
+        super(options);
+    }
+
+    @Override
+    public Obj getObj(New allocSite) {
+        SiteObjs siteObjs = getSiteObjs(allocSite.getContainer());
+        int ordinal = siteObjs.ordinalOf(allocSite);
+        if (ordinal >= 0) {
+            Obj obj = siteObjs.objs[ordinal];
+            if (obj == null) {
+                obj = super.getObj(allocSite);
+                siteObjs.objs[ordinal] = obj;
+            }
+            return obj;
+        }
+        return super.getObj(allocSite);
+    }
+
+    /**
+     * For the allocation sites in the IR of their containers, this method
+     * is called only once by {@link #getObj(New)}, which caches the result.
+     */
+    @Override
+    protected NewObj getNewObj(New allocSite) {
+        if (getSiteObjs(allocSite.getContainer()).ordinalOf(allocSite) >= 0) {
+            return add(new NewObj(allocSite));
+        }
+        // the allocation site is not in the IR of its container,
+        // e.g., it is created by a plugin
+        return super.getNewObj(allocSite);
+    }
+
+    private SiteObjs getSiteObjs(JMethod method) {
+        if (method != lastMethod) {
+            SiteObjs siteObjs = methodSiteObjs.get(method);
+            if (siteObjs == null) {
+                New[] sites = method.isAbstract() ? new New[0] :
+                        method.getIR().stmts()
+                                .filter(s -> s instanceof New)
+                                .toArray(New[]::new);
+                siteObjs = new SiteObjs(sites, new Obj[sites.length]);
+                methodSiteObjs.put(method, siteObjs);
+            }
+            lastMethod = method;
+            lastSiteObjs = siteObjs;
+        }
+        return lastSiteObjs;
+    }
+
+    @Override
+    public Obj getConstantObj(ReferenceLiteral value) {
+        Obj obj = constantObjs.get(value, null, null);
+        if (obj == null) {
+            obj = super.getConstantObj(value);
+            constantObjs.put(value, null, null, obj);
+        }
+        return obj;
+    }
+
+    /**
+     * This method is called only once for each constant
+     * by {@link #getConstantObj(ReferenceLiteral)}, which caches the result.
+     */
+    @Override
+    protected Obj doGetConstantObj(ReferenceLiteral value) {
+        return add(new ConstantObj(value));
+    }
+
+    @Override
+    public Obj getMockObj(Descriptor desc, Object alloc, Type type,
+                          JMethod container, boolean isFunctional) {
+        MockObj mockObj = mockObjs.get(desc, alloc, type);
+        if (mockObj == null) {
+            mockObj = add(new MockObj(desc, alloc, type, container, isFunctional));
+            mockObjs.put(desc, alloc, type, mockObj);
+        }
+        return mockObj;
+    }
+
+    /**
+     * Objects of the allocation sites in a method.
+     *
+     * @param sites allocation sites in the IR of the method, in the order
+     *              of their indexes, which is computed once per method
+     * @param objs  objects indexed by the ordinals of allocation sites
+     *              in {@link #sites}
+     */
+    private record SiteObjs(New[] sites, Obj[] objs) {
+
+        /**
+         * @return the ordinal of {@code allocSite} in {@link #sites},
+         * or -1 if {@code allocSite} is not in the IR of the method.
+         */
+        int ordinalOf(New allocSite) {
+            int index = allocSite.getIndex();
+            int low = 0, high = sites.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midIndex = sites[mid].getIndex();
+                if (midIndex < index) {
+                    low = mid + 1;
+                } else if (midIndex > index) {
+                    high = mid - 1;
+                } else {
+                    return sites[mid] == allocSite ? mid : -1;
+                }
+            }
+            return -1;
+        }
+    }
+}
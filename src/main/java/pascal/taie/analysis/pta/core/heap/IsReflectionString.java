@@ -23,7 +23,9 @@
 package pascal.taie.analysis.pta.core.heap;
 
 import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.ClassMember;
+import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.StringReps;
 import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.Streams;
@@ -39,19 +41,49 @@ public class IsReflectionString implements Predicate<String> {
 
     private final Set<String> reflectionStrings = Sets.newSet(4096);
 
+    private final ClassHierarchy hierarchy;
+
+    /**
+     * Whether the classes are loaded on demand, in which case the classes
+     * named by string constants may not have been loaded yet.
+     */
+    private final boolean loadOnDemand;
+
     public IsReflectionString() {
-        World.get().getClassHierarchy().allClasses().forEach(c -> {
-            reflectionStrings.add(c.getName());
-            Streams.concat(c.getDeclaredMethods().stream(),
-                            c.getDeclaredFields().stream())
-                    .map(ClassMember::getName)
-                    .forEach(reflectionStrings::add);
-        });
+        hierarchy = World.get().getClassHierarchy();
+        loadOnDemand = World.get().getOptions().isLoadOnDemand();
+        hierarchy.allClasses().forEach(this::addNames);
+    }
+
+    private void addNames(JClass c) {
+        reflectionStrings.add(c.getName());
+        Streams.concat(c.getDeclaredMethods().stream(),
+                        c.getDeclaredFields().stream())
+                .map(ClassMember::getName)
+                .forEach(reflectionStrings::add);
     }
 
     @Override
     public boolean test(String s) {
-        return (StringReps.isJavaClassName(s) || StringReps.isJavaIdentifier(s))
-                && reflectionStrings.contains(s);
+        if (StringReps.isJavaClassName(s) || StringReps.isJavaIdentifier(s)) {
+            return loadOnDemand ? testOnDemand(s) : reflectionStrings.contains(s);
+        }
+        return false;
+    }
+
+    /**
+     * Loads the class named by {@code s} if it has not been loaded, so that
+     * the string is reflection-relevant if it names a class in class path.
+     */
+    private synchronized boolean testOnDemand(String s) {
+        if (reflectionStrings.contains(s)) {
+            return true;
+        }
+        JClass c = hierarchy.getClass(s);
+        if (c != null) {
+            addNames(c);
+            return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.heap;
+
+/**
+ * Open-addressing hash table which maps triples of keys to objects.
+ * The keys are kept in parallel arrays and probed linearly, so that
+ * {@link #get(Object, Object, Object)} does not allocate any objects
+ * (e.g., the keys of maps).
+ * <p>
+ * The keys are compared by {@link Object#equals(Object)}, and the second
+ * and third keys may be {@code null} for the tables keyed by fewer keys.
+ * The table only supports insertion, and it is not thread-safe.
+ *
+ * @param <V> type of objects
+ */
+class ObjTable<V extends Obj> {
+
+    private static final int INITIAL_CAPACITY = 1 << 8;
+
+    private Object[] keys1 = new Object[INITIAL_CAPACITY];
+
+    private Object[] keys2 = new Object[INITIAL_CAPACITY];
+
+    private Object[] keys3 = new Object[INITIAL_CAPACITY];
+
+    private Obj[] values = new Obj[INITIAL_CAPACITY];
+
+    /**
+     * Number of objects in this table.
+     */
+    private int size = 0;
+
+    /**
+     * @return the object associated with the keys, or {@code null}
+     * if the keys are absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object k1, Object k2, Object k3) {
+        int mask = keys1.length - 1;
+        for (int i = hash(k1, k2, k3) & mask; ; i = (i + 1) & mask) {
+            Object k = keys1[i];
+            if (k == null) {
+                return null;
+            }
+            if ((k == k1 || k.equals(k1))
+                    && equals(keys2[i], k2) && equals(keys3[i], k3)) {
+                return (V) values[i];
+            }
+        }
+    }
+
+    /**
+     * Adds an object for the keys. The caller must guarantee that
+     * the keys are absent in this table.
+     */
+    void put(Object k1, Object k2, Object k3, V value) {
+        if ((size + 1) * 3 > keys1.length * 2) { // load factor: 2/3
+            resize();
+        }
+        insert(k1, k2, k3, value);
+        ++size;
+    }
+
+    private void insert(Object k1, Object k2, Object k3, Obj value) {
+        int mask = keys1.length - 1;
+        int i = hash(k1, k2, k3) & mask;
+        while (keys1[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys1[i] = k1;
+        keys2[i] = k2;
+        keys3[i] = k3;
+        values[i] = value;
+    }
+
+    private void resize() {
+        Object[] oldKeys1 = keys1;
+        Object[] oldKeys2 = keys2;
+        Object[] oldKeys3 = keys3;
+        Obj[] oldValues = values;
+        int capacity = oldKeys1.length << 1;
+        keys1 = new Object[capacity];
+        keys2 = new Object[capacity];
+        keys3 = new Object[capacity];
+        values = new Obj[capacity];
+        for (int i = 0; i < oldKeys1.length; ++i) {
+            if (oldKeys1[i] != null) {
+                insert(oldKeys1[i], oldKeys2[i], oldKeys3[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static boolean equals(Object k, Object key) {
+        return k == key || (k != null && k.equals(key));
+    }
+
+    private static int hash(Object k1, Object k2, Object k3) {
+        int h = k1.hashCode();
+        if (k2 != null) {
+            h = h * 31 + k2.hashCode();
+        }
+        if (k3 != null) {
+            h = h * 31 + k3.hashCode();
+        }
+        // spreads the hash code, as the tables are indexed by low bits
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -83,8 +83,10 @@ import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -124,6 +126,18 @@ public class DefaultSolver implements Solver {
 
     private final PropagateTypes propTypes;
 
+    private final WorkList.Policy workListPolicy;
+
+    /**
+     * Whether collapses the pointers on cycles of pointer flow graph.
+     */
+    private final boolean collapseCycles;
+
+    /**
+     * Whether processes the pending call edges in batches.
+     */
+    private final boolean batchCallEdges;
+
     /**
      * Whether only analyzes application code.
      */
@@ -161,6 +175,18 @@ public class DefaultSolver implements Solver {
      */
     private Set<JMethod> ignoredMethods;
 
+    /**
+     * Type filters shared by the PFG edges with the same guard type,
+     * so that they share the cached subtyping decisions. This map may be
+     * accessed by multiple threads, e.g., the workers of {@link ParallelSolver}.
+     */
+    private Map<Type, TypeFilter> typeFilters;
+
+    /**
+     * PFG edges that have triggered cycle detection.
+     */
+    private Set<PointerFlowEdge> checkedEdges;
+
     private StmtProcessor stmtProcessor;
 
     private PointerAnalysisResult result;
@@ -174,12 +200,16 @@ public class DefaultSolver implements Solver {
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                options.getBoolean("shared-pts"));
         propTypes = new PropagateTypes(
                 (List<String>) options.get("propagate-types"),
                 typeSystem);
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        workListPolicy = WorkList.Policy.of(options.getString("work-list"));
+        collapseCycles = options.getBoolean("collapse-cycles");
+        batchCallEdges = options.getBoolean("batch-call-edges");
     }
 
     @Override
@@ -237,6 +267,25 @@ public class DefaultSolver implements Solver {
         this.plugin = plugin;
     }
 
+    Plugin getPlugin() {
+        return plugin;
+    }
+
+    WorkList getWorkList() {
+        return workList;
+    }
+
+    PointerFlowGraph getPointerFlowGraph() {
+        return pointerFlowGraph;
+    }
+
+    /**
+     * @return whether the analysis has reached time limit.
+     */
+    boolean isTimeout() {
+        return isTimeout;
+    }
+
     // ---------- solver logic starts ----------
 
     /**
@@ -254,10 +303,12 @@ public class DefaultSolver implements Solver {
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        workList = new WorkList(workListPolicy, pointerFlowGraph);
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
+        typeFilters = Maps.newConcurrentMap();
+        checkedEdges = Sets.newSet();
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
         if (timeLimit != UNLIMITED) {
@@ -307,24 +358,7 @@ public class DefaultSolver implements Solver {
     private void analyze() {
         while (!workList.isEmpty() && !isTimeout) {
             // phase starts
-            while (!workList.isEmpty() && !isTimeout) {
-                WorkList.Entry entry = workList.pollEntry();
-                if (entry instanceof WorkList.PointerEntry pEntry) {
-                    Pointer p = pEntry.pointer();
-                    PointsToSet pts = pEntry.pointsToSet();
-                    PointsToSet diff = propagate(p, pts);
-                    if (!diff.isEmpty() && p instanceof CSVar v) {
-                        processInstanceStore(v, diff);
-                        processInstanceLoad(v, diff);
-                        processArrayStore(v, diff);
-                        processArrayLoad(v, diff);
-                        processCall(v, diff);
-                        plugin.onNewPointsToSet(v, diff);
-                    }
-                } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
-                    processCallEdge(eEntry.edge());
-                }
-            }
+            processWorkList();
             plugin.onPhaseFinish();
         }
         if (!workList.isEmpty() && isTimeout) {
@@ -333,33 +367,248 @@ public class DefaultSolver implements Solver {
         } else if (timeLimiter != null) { // finish normally but time limiter is still running
             timeLimiter.stop();
         }
+        logger.info("{} pointer entries have been processed (work list: {})",
+                workList.getPolledPointerEntries(), workListPolicy);
+        if (collapseCycles) {
+            logger.info("{} pointers have been collapsed into their cycles",
+                    pointerFlowGraph.getNumberOfMergedPointers());
+        }
         plugin.onFinish();
     }
 
+    /**
+     * Processes work list entries of current phase until the work list
+     * is empty or the analysis reaches time limit.
+     */
+    void processWorkList() {
+        while (!workList.isEmpty() && !isTimeout) {
+            WorkList.Entry entry = workList.pollEntry();
+            if (entry instanceof WorkList.PointerEntry pEntry) {
+                Pointer p = pEntry.pointer();
+                PointsToSet pts = pEntry.pointsToSet();
+                PointsToSet diff = propagate(p, pts);
+                processNewPointsTo(p, diff);
+            } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+                processCallEdgeEntry(eEntry);
+            }
+        }
+    }
+
+    /**
+     * Processes the call edge of {@code entry}. If batch mode is enabled,
+     * all pending call edges in the work list are processed together.
+     */
+    void processCallEdgeEntry(WorkList.CallEdgeEntry entry) {
+        if (batchCallEdges) {
+            List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>();
+            edges.add(entry.edge());
+            edges.addAll(workList.pollCallEdges());
+            processCallEdges(edges);
+        } else {
+            processCallEdge(entry.edge());
+        }
+    }
+
+    /**
+     * Processes the statements and plugins that are affected by
+     * new points-to set {@code diff} of {@code pointer}.
+     * If {@code pointer} has been collapsed with other pointers,
+     * all pointers in its component are processed.
+     */
+    void processNewPointsTo(Pointer pointer, PointsToSet diff) {
+        if (!diff.isEmpty()) {
+            for (Pointer p : pointerFlowGraph.getMergedPointers(pointer)) {
+                processNewPointsTo0(p, diff);
+            }
+            processCycles(pointer, diff);
+        }
+    }
+
+    private void processNewPointsTo0(Pointer pointer, PointsToSet diff) {
+        if (pointer instanceof CSVar v) {
+            processStmts(v, diff);
+            plugin.onNewPointsToSet(v, diff);
+        }
+    }
+
+    /**
+     * Processes the statements that are affected by new points-to set
+     * {@code diff} of {@code var}.
+     */
+    void processStmts(CSVar var, PointsToSet diff) {
+        processInstanceStore(var, diff);
+        processInstanceLoad(var, diff);
+        processArrayStore(var, diff);
+        processArrayLoad(var, diff);
+        processCall(var, diff);
+    }
+
+    /**
+     * Detects and collapses the cycles that {@code pointer} may be on
+     * after propagating {@code diff}, if cycle collapsing is enabled.
+     */
+    void processCycles(Pointer pointer, PointsToSet diff) {
+        if (collapseCycles) {
+            detectCycles(pointer, diff);
+        }
+    }
+
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
-        Set<Predicate<CSObj>> filters = pointer.getFilters();
-        if (!filters.isEmpty()) {
-            // apply filters (of the pointer) on pointsToSet
-            pointsToSet = pointsToSet.objects()
-                    .filter(o -> filters.stream().allMatch(f -> f.test(o)))
-                    .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
-        }
-        PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
+        PointsToSet diff = addAllDiff(pointer, pointsToSet);
         if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
+            for (Pointer p : pointerFlowGraph.getMergedPointers(pointer)) {
+                propagateToSuccessors(p, diff);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Propagates {@code diff} along the out edges of {@code pointer}.
+     */
+    private void propagateToSuccessors(Pointer pointer, PointsToSet diff) {
+        pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
+            if (!isInternalEdge(edge)) {
                 Pointer target = edge.target();
                 edge.getTransfers().forEach(transfer ->
                         addPointsTo(target, transfer.apply(edge, diff)));
-            });
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} if {@code transfer} has no side effects and
+     * never produces objects that are absent in its input.
+     */
+    static boolean isPure(Transfer transfer) {
+        return transfer == Identity.get() || transfer instanceof TypeFilter;
+    }
+
+    /**
+     * @return {@code true} if {@code edge} connects two pointers in
+     * the same collapsed component and cannot add objects to them,
+     * in which case propagation along the edge is redundant.
+     */
+    boolean isInternalEdge(PointerFlowEdge edge) {
+        return collapseCycles
+                && pointerFlowGraph.getRepresentative(edge.source())
+                == pointerFlowGraph.getRepresentative(edge.target())
+                && edge.getTransfers().stream().allMatch(DefaultSolver::isPure);
+    }
+
+    /**
+     * Lazy cycle detection. When the points-to set of the target of an
+     * out edge of {@code pointer} is likely to become identical to the
+     * one of {@code pointer} after propagating {@code diff}, the edge is
+     * probably on a cycle, so we search cycles from the edge and collapse
+     * the pointers on them. Each edge triggers the search at most once.
+     */
+    private void detectCycles(Pointer pointer, PointsToSet diff) {
+        int size = getPointsToSetOf(pointer).size();
+        int minSize = size - diff.size();
+        List<PointerFlowEdge> candidates = new ArrayList<>();
+        for (Pointer p : pointerFlowGraph.getMergedPointers(pointer)) {
+            for (PointerFlowEdge edge : p.getOutEdges()) {
+                PointsToSet targetSet = edge.target().getPointsToSet();
+                if (targetSet != null
+                        && minSize <= targetSet.size() && targetSet.size() <= size
+                        && pointerFlowGraph.isCollapsible(edge)
+                        && !isInternalEdge(edge)
+                        && checkedEdges.add(edge)) {
+                    candidates.add(edge);
+                }
+            }
+        }
+        for (PointerFlowEdge edge : candidates) {
+            List<Pointer> cycle = pointerFlowGraph.findCycle(edge);
+            if (!cycle.isEmpty()) {
+                collapse(cycle);
+            }
+        }
+    }
+
+    /**
+     * Collapses the components of given representatives into one
+     * component whose pointers share one points-to set.
+     */
+    private void collapse(List<Pointer> reps) {
+        Pointer rep = pointerFlowGraph.collapse(reps);
+        List<Pointer> members = pointerFlowGraph.getMergedPointers(rep);
+        PointsToSet merged = makePointsToSet();
+        for (Pointer member : members) {
+            PointsToSet pts = member.getPointsToSet();
+            if (pts != null) {
+                merged.addAll(pts);
+            }
+        }
+        // compute the objects newly added to each pointer,
+        // note that the pointers in the same component before
+        // collapsing share points-to set, and thus the same diff
+        Map<PointsToSet, PointsToSet> diffs = new IdentityHashMap<>();
+        List<Pointer> changed = new ArrayList<>();
+        List<PointsToSet> changedDiffs = new ArrayList<>();
+        for (Pointer member : members) {
+            PointsToSet pts = member.getPointsToSet();
+            PointsToSet diff = pts == null ? merged.copy()
+                    : diffs.computeIfAbsent(pts, s -> diff(merged, s));
+            member.setPointsToSet(merged);
+            if (!diff.isEmpty()) {
+                changed.add(member);
+                changedDiffs.add(diff);
+            }
         }
+        logger.trace("Collapse {} pointers into {}", members.size(), rep);
+        for (int i = 0; i < changed.size(); ++i) {
+            propagateToSuccessors(changed.get(i), changedDiffs.get(i));
+            processNewPointsTo0(changed.get(i), changedDiffs.get(i));
+        }
+    }
+
+    /**
+     * @return a new set which contains the objects in {@code pts1}
+     * but not in {@code pts2}.
+     */
+    private static PointsToSet diff(PointsToSet pts1, PointsToSet pts2) {
+        PointsToSet diff = pts1.copy();
+        diff.removeIf(pts2::contains);
         return diff;
     }
 
+    /**
+     * Adds the objects in pointsToSet that pass the filters of
+     * {@code pointer} to pt(pointer), and returns the difference set.
+     * This method only modifies pt(pointer), and the points-to set of
+     * {@code pointer} must have been created before calling it.
+     */
+    PointsToSet addAllDiff(Pointer pointer, PointsToSet pointsToSet) {
+        Set<Predicate<CSObj>> filters = pointer.getFilters();
+        if (!filters.isEmpty()) {
+            // apply filters (of the pointer) on pointsToSet
+            PointsToSet filtered = ptsFactory.make();
+            for (CSObj o : pointsToSet) {
+                if (testFilters(filters, o)) {
+                    filtered.addObject(o);
+                }
+            }
+            pointsToSet = filtered;
+        }
+        return getPointsToSetOf(pointer).addAllDiff(pointsToSet);
+    }
+
+    private static boolean testFilters(Set<Predicate<CSObj>> filters, CSObj obj) {
+        for (Predicate<CSObj> filter : filters) {
+            if (!filter.test(obj)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Processes instance stores when points-to set of the base variable changes.
      *
@@ -487,47 +736,164 @@ public class DefaultSolver implements Solver {
                                 recvObj);
                     }
                 } else {
-                    plugin.onUnresolvedCall(recvObj, context, callSite);
+                    processUnresolvedCall(recvObj, context, callSite);
                 }
             });
         }
     }
 
+    /**
+     * Processes the call site whose callee cannot be resolved
+     * on receiver object {@code recvObj}.
+     */
+    void processUnresolvedCall(CSObj recvObj, Context context, Invoke callSite) {
+        plugin.onUnresolvedCall(recvObj, context, callSite);
+    }
+
     private void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
         if (callGraph.addEdge(edge)) {
             // process new call edge
-            CSMethod csCallee = edge.getCallee();
-            addCSMethod(csCallee);
-            if (edge.getKind() != CallKind.OTHER
-                    && !isIgnored(csCallee.getMethod())) {
-                Context callerCtx = edge.getCallSite().getContext();
-                Invoke callSite = edge.getCallSite().getCallSite();
-                Context calleeCtx = csCallee.getContext();
-                JMethod callee = csCallee.getMethod();
-                InvokeExp invokeExp = callSite.getInvokeExp();
-                // pass arguments to parameters
-                for (int i = 0; i < invokeExp.getArgCount(); ++i) {
-                    Var arg = invokeExp.getArg(i);
-                    if (propTypes.isAllowed(arg)) {
-                        Var param = callee.getIR().getParam(i);
-                        CSVar argVar = csManager.getCSVar(callerCtx, arg);
-                        CSVar paramVar = csManager.getCSVar(calleeCtx, param);
-                        addPFGEdge(argVar, paramVar, FlowKind.PARAMETER_PASSING);
+            addCSMethod(edge.getCallee());
+            processCallEdgeFlows(edge);
+            plugin.onNewCallEdge(edge);
+        }
+    }
+
+    /**
+     * Adds the PFG edges for passing arguments and return values
+     * along {@code edge}. The callee of the edge must be reachable.
+     */
+    void processCallEdgeFlows(Edge<CSCallSite, CSMethod> edge) {
+        CSMethod csCallee = edge.getCallee();
+        if (edge.getKind() != CallKind.OTHER
+                && !isIgnored(csCallee.getMethod())) {
+            Context callerCtx = edge.getCallSite().getContext();
+            Invoke callSite = edge.getCallSite().getCallSite();
+            Context calleeCtx = csCallee.getContext();
+            JMethod callee = csCallee.getMethod();
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            // pass arguments to parameters
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                Var arg = invokeExp.getArg(i);
+                if (propTypes.isAllowed(arg)) {
+                    Var param = callee.getIR().getParam(i);
+                    CSVar argVar = csManager.getCSVar(callerCtx, arg);
+                    CSVar paramVar = csManager.getCSVar(calleeCtx, param);
+                    addPFGEdge(argVar, paramVar, FlowKind.PARAMETER_PASSING);
+                }
+            }
+            // pass results to LHS variable
+            Var lhs = callSite.getResult();
+            if (lhs != null && propTypes.isAllowed(lhs)) {
+                CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                for (Var ret : callee.getIR().getReturnVars()) {
+                    if (propTypes.isAllowed(ret)) {
+                        CSVar csRet = csManager.getCSVar(calleeCtx, ret);
+                        addPFGEdge(csRet, csLHS, FlowKind.RETURN);
                     }
                 }
-                // pass results to LHS variable
-                Var lhs = callSite.getResult();
-                if (lhs != null && propTypes.isAllowed(lhs)) {
-                    CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
-                    for (Var ret : callee.getIR().getReturnVars()) {
-                        if (propTypes.isAllowed(ret)) {
-                            CSVar csRet = csManager.getCSVar(calleeCtx, ret);
-                            addPFGEdge(csRet, csLHS, FlowKind.RETURN);
+            }
+        }
+    }
+
+    /**
+     * Processes a batch of call edges. The edges are grouped by their
+     * callees, and the PFG edges for parameter passing and return values
+     * are added without propagating points-to sets immediately. Instead,
+     * the initial points-to sets of the target pointers are merged,
+     * e.g., the points-to sets of the return variables of a callee are
+     * merged only once for all its call sites, and each target pointer
+     * is added to the work list at most once.
+     */
+    private void processCallEdges(List<Edge<CSCallSite, CSMethod>> edges) {
+        Map<CSMethod, List<Edge<CSCallSite, CSMethod>>> calleeEdges =
+                Maps.newLinkedHashMap();
+        for (Edge<CSCallSite, CSMethod> edge : edges) {
+            if (callGraph.addEdge(edge)) {
+                calleeEdges.computeIfAbsent(edge.getCallee(),
+                        __ -> new ArrayList<>()).add(edge);
+            }
+        }
+        Map<Pointer, PointsToSet> initialSets = Maps.newLinkedHashMap();
+        calleeEdges.forEach((csCallee, calleeInEdges) -> {
+            addCSMethod(csCallee);
+            JMethod callee = csCallee.getMethod();
+            boolean ignored = isIgnored(callee);
+            Context calleeCtx = csCallee.getContext();
+            // points-to set merged from all return variables of callee,
+            // which is computed lazily and shared by all call sites
+            PointsToSet retSet = null;
+            for (Edge<CSCallSite, CSMethod> edge : calleeInEdges) {
+                if (edge.getKind() != CallKind.OTHER && !ignored) {
+                    Context callerCtx = edge.getCallSite().getContext();
+                    Invoke callSite = edge.getCallSite().getCallSite();
+                    InvokeExp invokeExp = callSite.getInvokeExp();
+                    // pass arguments to parameters
+                    for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                        Var arg = invokeExp.getArg(i);
+                        if (propTypes.isAllowed(arg)) {
+                            Var param = callee.getIR().getParam(i);
+                            CSVar argVar = csManager.getCSVar(callerCtx, arg);
+                            CSVar paramVar = csManager.getCSVar(calleeCtx, param);
+                            if (addPFGEdgeOnly(argVar, paramVar, FlowKind.PARAMETER_PASSING)) {
+                                mergeInitialSet(initialSets, paramVar,
+                                        getPointsToSetOf(argVar));
+                            }
+                        }
+                    }
+                    // pass results to LHS variable
+                    Var lhs = callSite.getResult();
+                    if (lhs != null && propTypes.isAllowed(lhs)) {
+                        CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                        boolean added = false;
+                        for (Var ret : callee.getIR().getReturnVars()) {
+                            if (propTypes.isAllowed(ret)) {
+                                CSVar csRet = csManager.getCSVar(calleeCtx, ret);
+                                added |= addPFGEdgeOnly(csRet, csLHS, FlowKind.RETURN);
+                            }
+                        }
+                        if (added) {
+                            if (retSet == null) {
+                                retSet = makePointsToSet();
+                                for (Var ret : callee.getIR().getReturnVars()) {
+                                    if (propTypes.isAllowed(ret)) {
+                                        retSet.addAll(getPointsToSetOf(
+                                                csManager.getCSVar(calleeCtx, ret)));
+                                    }
+                                }
+                            }
+                            mergeInitialSet(initialSets, csLHS, retSet);
                         }
                     }
                 }
+                plugin.onNewCallEdge(edge);
+            }
+        });
+        initialSets.forEach(this::addPointsTo);
+    }
+
+    /**
+     * Adds an edge "source -> target" (with identity transfer) to the PFG
+     * without propagating the points-to set of source to target.
+     *
+     * @return {@code true} if the edge is new, thus the caller is
+     * responsible for propagating the points-to set of source.
+     */
+    private boolean addPFGEdgeOnly(Pointer source, Pointer target, FlowKind kind) {
+        PointerFlowEdge edge = pointerFlowGraph.addEdge(
+                new PointerFlowEdge(kind, source, target));
+        return edge != null && edge.addTransfer(Identity.get());
+    }
+
+    private static void mergeInitialSet(Map<Pointer, PointsToSet> initialSets,
+                                        Pointer pointer, PointsToSet pts) {
+        if (!pts.isEmpty()) {
+            PointsToSet set = initialSets.get(pointer);
+            if (set == null) {
+                initialSets.put(pointer, pts.copy());
+            } else {
+                set.addAll(pts);
             }
-            plugin.onNewCallEdge(edge);
         }
     }
 
@@ -542,7 +908,8 @@ public class DefaultSolver implements Solver {
     private void processNewMethod(JMethod method) {
         if (reachableMethods.add(method)) {
             plugin.onNewMethod(method);
-            method.getIR().forEach(stmt -> plugin.onNewStmt(stmt, method));
+            // pin the IR, as the solver keeps its variables and statements
+            method.pinIR().forEach(stmt -> plugin.onNewStmt(stmt, method));
         }
     }
 
@@ -740,7 +1107,7 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointsTo(Pointer pointer, PointsToSet pts) {
-        workList.addEntry(pointer, pts);
+        workList.addEntry(pointerFlowGraph.getRepresentative(pointer), pts);
     }
 
     @Override
@@ -772,21 +1139,70 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        if (pointerFlowGraph.getMergedPointers(pointer).size() > 1) {
+            split(pointer);
+        }
         pointer.addFilter(filter);
     }
 
+    /**
+     * Dissolves the collapsed component which contains {@code pointer},
+     * as the filter to be added to {@code pointer} makes the cycles
+     * through it non-collapsible. Each pointer of the component gets
+     * its own copy of the shared points-to set, and the pointers that
+     * are still on cycles may be collapsed again later.
+     */
+    private void split(Pointer pointer) {
+        Pointer rep = pointerFlowGraph.getRepresentative(pointer);
+        PointsToSet pending = workList.getPendingPointsTo(rep);
+        List<Pointer> members = pointerFlowGraph.split(pointer);
+        PointsToSet merged = getPointsToSetOf(rep);
+        for (Pointer member : members) {
+            if (member != rep) {
+                member.setPointsToSet(merged.copy());
+                // the pending objects of the component are queued for
+                // its representative, so hand them to every former member
+                if (pending != null) {
+                    addPointsTo(member, pending);
+                }
+            }
+            member.getOutEdges().forEach(checkedEdges::remove);
+        }
+        logger.trace("Split {} pointers collapsed with {}", members.size(), pointer);
+    }
+
+    @Override
+    public TypeFilter getTypeFilter(Type type) {
+        return typeFilters.computeIfAbsent(type, t -> new TypeFilter(t, this));
+    }
+
     @Override
     public void addPFGEdge(PointerFlowEdge edge, Transfer transfer) {
-        edge = pointerFlowGraph.addEdge(edge);
-        if (edge != null && edge.addTransfer(transfer)) {
-            PointsToSet targetSet = transfer.apply(
-                    edge, getPointsToSetOf(edge.source()));
-            if (!targetSet.isEmpty()) {
-                addPointsTo(edge.target(), targetSet);
+        edge = addTransfer(edge, transfer);
+        if (edge != null) {
+            // the points-to set of source is not created here,
+            // as this method may be called by multiple threads
+            PointsToSet sourceSet = edge.source().getPointsToSet();
+            if (sourceSet != null && !sourceSet.isEmpty()) {
+                PointsToSet targetSet = transfer.apply(edge, sourceSet);
+                if (!targetSet.isEmpty()) {
+                    addPointsTo(edge.target(), targetSet);
+                }
             }
         }
     }
 
+    /**
+     * Adds {@code edge} to the PFG, and adds {@code transfer} to the edge.
+     *
+     * @return the edge in the PFG if {@code transfer} is new to it,
+     * otherwise {@code null}.
+     */
+    PointerFlowEdge addTransfer(PointerFlowEdge edge, Transfer transfer) {
+        edge = pointerFlowGraph.addEdge(edge);
+        return edge != null && edge.addTransfer(transfer) ? edge : null;
+    }
+
     @Override
     public void addEntryPoint(EntryPoint entryPoint) {
         Context entryCtx = contextSelector.getEmptyContext();
@@ -794,7 +1210,7 @@ public class DefaultSolver implements Solver {
         CSMethod csEntryMethod = csManager.getCSMethod(entryCtx, entryMethod);
         callGraph.addEntryMethod(csEntryMethod);
         addCSMethod(csEntryMethod);
-        IR ir = entryMethod.getIR();
+        IR ir = entryMethod.pinIR();
         ParamProvider paramProvider = entryPoint.paramProvider();
         // pass this objects
         if (!entryMethod.isStatic()) {
@@ -0,0 +1,377 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Pointer analysis solver which processes the work list by multiple
+ * worker threads.
+ * <p>
+ * The solver processes the work list in rounds. In each round, it first
+ * processes all pending call edges, and then drains all pointer entries
+ * from the work list as one batch. Each batch is processed in stages,
+ * and the work of each stage is partitioned among the workers:
+ * <ol>
+ *     <li>Propagation: the entries are partitioned by the representatives
+ *     of their pointers. Each pointer is owned by exactly one worker, so
+ *     the workers update the points-to sets of their pointers and compute
+ *     the sets propagated along pure transfers (i.e., {@link Identity} and
+ *     {@link TypeFilter}) without synchronization.</li>
+ *     <li>Statements: the instance stores/loads, array stores/loads and
+ *     instance calls affected by the new points-to sets are processed by
+ *     the workers, which create context-sensitive elements, PFG edges
+ *     and call edges concurrently.</li>
+ * </ol>
+ * Similarly, the PFG edges for parameter passing and return values of
+ * the pending call edges are added by the workers, after the callees
+ * are made reachable by the coordinating thread.
+ * <p>
+ * To make the stages thread-safe, the context-sensitive elements are
+ * created by a concurrent {@link CSManager} (see
+ * {@link pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager}),
+ * and the PFG edges are added under the monitors of their source pointers.
+ * The points-to sets are not modified in the statement stages, thus can
+ * be read without synchronization. The remaining effects of the workers,
+ * i.e., the updates of the work list and the notifications of
+ * {@link pascal.taie.analysis.pta.plugin.Plugin}s, are buffered by each
+ * worker, and applied by the coordinating thread in a deterministic
+ * order after the stage. Transfers provided by plugins, new reachable
+ * methods and plugin callbacks are processed by the coordinating thread.
+ * Since all points-to sets are monotonically increasing, the solver
+ * reaches the same fixed point, i.e., produces the same result, as
+ * {@link DefaultSolver}.
+ */
+public class ParallelSolver extends DefaultSolver {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSolver.class);
+
+    /**
+     * Number of worker threads.
+     */
+    private final int nThreads;
+
+    /**
+     * Stages with less work items than this threshold are processed by
+     * the coordinating thread, as the cost of dispatching them
+     * outweighs the benefit of parallelism.
+     */
+    private final int parallelThreshold;
+
+    private ExecutorService executor;
+
+    /**
+     * Buffers the effects of current worker thread which must be applied
+     * by the coordinating thread. It is absent on the coordinating thread.
+     */
+    private final ThreadLocal<List<Runnable>> effects = new ThreadLocal<>();
+
+    public ParallelSolver(AnalysisOptions options, HeapModel heapModel,
+                          ContextSelector contextSelector, CSManager csManager) {
+        super(options, heapModel, contextSelector, csManager);
+        int threads = options.getInt("solver-threads");
+        nThreads = threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors();
+        parallelThreshold = options.getInt("parallel-threshold");
+    }
+
+    @Override
+    public void solve() {
+        logger.info("Parallel solver runs with {} threads", nThreads);
+        executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            super.solve();
+        } finally {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    void processWorkList() {
+        WorkList workList = getWorkList();
+        while (!workList.isEmpty() && !isTimeout()) {
+            WorkList.Entry entry = workList.pollEntry();
+            if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+                processCallEdgeEntry(eEntry);
+            } else if (entry instanceof WorkList.PointerEntry pEntry) {
+                // work list always returns call edges prior to pointer
+                // entries, thus there is no pending call edges now,
+                // and we drain all remaining pointer entries as one batch
+                List<WorkList.PointerEntry> batch = new ArrayList<>();
+                batch.add(pEntry);
+                batch.addAll(workList.pollPointerEntries());
+                processBatch(batch);
+            }
+        }
+    }
+
+    /**
+     * Processes the call edge of {@code entry} together with all pending
+     * call edges in the work list. The callees of new call edges are made
+     * reachable by the coordinating thread, and then the PFG edges along
+     * the call edges are added by the workers. Option {@code batch-call-edges}
+     * is not used by this solver, as all pending call edges are always
+     * processed together, and the work list merges the points-to sets
+     * propagated to the same pointer.
+     */
+    @Override
+    void processCallEdgeEntry(WorkList.CallEdgeEntry entry) {
+        List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>();
+        edges.add(entry.edge());
+        edges.addAll(getWorkList().pollCallEdges());
+        List<Edge<CSCallSite, CSMethod>> newEdges = new ArrayList<>(edges.size());
+        for (Edge<CSCallSite, CSMethod> edge : edges) {
+            if (getCallGraph().addEdge(edge)) {
+                addCSMethod(edge.getCallee());
+                newEdges.add(edge);
+            }
+        }
+        runStage(newEdges.size(), i -> i,
+                i -> processCallEdgeFlows(newEdges.get(i)));
+        newEdges.forEach(getPlugin()::onNewCallEdge);
+    }
+
+    /**
+     * Processes a batch of pointer entries. The pointers in the batch
+     * must be distinct.
+     */
+    private void processBatch(List<WorkList.PointerEntry> batch) {
+        // points-to sets are created by coordinating thread, so that
+        // workers only modify existing sets
+        batch.forEach(e -> getPointsToSetOf(e.pointer()));
+        Propagation[] results = new Propagation[batch.size()];
+        // pointers in the same collapsed component share points-to
+        // set, so they must be assigned to the same worker
+        PointerFlowGraph pfg = getPointerFlowGraph();
+        runStage(batch.size(),
+                i -> pfg.getRepresentative(batch.get(i).pointer()).getIndex(),
+                i -> results[i] = propagate(batch.get(i)));
+        // commit propagation results in the order of the batch, and
+        // collect the variables whose statements are affected
+        List<CSVar> vars = new ArrayList<>();
+        List<PointsToSet> varDiffs = new ArrayList<>();
+        for (int i = 0; i < batch.size(); ++i) {
+            Propagation result = results[i];
+            if (result != null) {
+                PointsToSet diff = result.diff();
+                result.targets().forEach(t -> addPointsTo(t.pointer(), t.pts()));
+                result.deferred().forEach(t -> {
+                    PointerFlowEdge edge = t.edge();
+                    addPointsTo(edge.target(), t.transfer().apply(edge, diff));
+                });
+                for (Pointer p : pfg.getMergedPointers(batch.get(i).pointer())) {
+                    if (p instanceof CSVar v) {
+                        vars.add(v);
+                        varDiffs.add(diff);
+                    }
+                }
+            }
+        }
+        runStage(vars.size(), i -> i,
+                i -> processStmts(vars.get(i), varDiffs.get(i)));
+        for (int i = 0; i < vars.size(); ++i) {
+            getPlugin().onNewPointsToSet(vars.get(i), varDiffs.get(i));
+        }
+        for (int i = 0; i < batch.size(); ++i) {
+            if (results[i] != null) {
+                processCycles(batch.get(i).pointer(), results[i].diff());
+            }
+        }
+    }
+
+    /**
+     * Runs {@code task} on work items {@code 0} to {@code n - 1}.
+     * If there are enough items, the items are partitioned among the
+     * workers by {@code keyOf}, i.e., the items with the same key are
+     * processed by the same worker, and the buffered effects of the
+     * workers are applied after all items are processed. Otherwise,
+     * the items are processed by the coordinating thread directly.
+     */
+    private void runStage(int n, IntUnaryOperator keyOf, IntConsumer task) {
+        if (n < parallelThreshold || nThreads == 1) {
+            for (int i = 0; i < n; ++i) {
+                task.accept(i);
+            }
+            return;
+        }
+        List<List<Integer>> groups = new ArrayList<>(nThreads);
+        for (int i = 0; i < nThreads; ++i) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; ++i) {
+            groups.get(keyOf.applyAsInt(i) % nThreads).add(i);
+        }
+        List<Callable<List<Runnable>>> tasks = new ArrayList<>(nThreads);
+        for (List<Integer> group : groups) {
+            if (!group.isEmpty()) {
+                tasks.add(() -> {
+                    List<Runnable> buffer = new ArrayList<>();
+                    effects.set(buffer);
+                    try {
+                        for (int i : group) {
+                            task.accept(i);
+                        }
+                    } finally {
+                        effects.remove();
+                    }
+                    return buffer;
+                });
+            }
+        }
+        List<List<Runnable>> buffers = new ArrayList<>(tasks.size());
+        try {
+            for (Future<List<Runnable>> future : executor.invokeAll(tasks)) {
+                buffers.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Parallel solver is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Worker of parallel solver failed",
+                    e.getCause());
+        }
+        // apply the effects of the workers in the order of the groups
+        buffers.forEach(buffer -> buffer.forEach(Runnable::run));
+    }
+
+    @Override
+    public void addPointsTo(Pointer pointer, PointsToSet pts) {
+        List<Runnable> buffer = effects.get();
+        if (buffer != null) {
+            buffer.add(() -> super.addPointsTo(pointer, pts));
+        } else {
+            super.addPointsTo(pointer, pts);
+        }
+    }
+
+    @Override
+    public void addCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        List<Runnable> buffer = effects.get();
+        if (buffer != null) {
+            buffer.add(() -> super.addCallEdge(edge));
+        } else {
+            super.addCallEdge(edge);
+        }
+    }
+
+    @Override
+    void processUnresolvedCall(CSObj recvObj, Context context, Invoke callSite) {
+        List<Runnable> buffer = effects.get();
+        if (buffer != null) {
+            buffer.add(() -> super.processUnresolvedCall(recvObj, context, callSite));
+        } else {
+            super.processUnresolvedCall(recvObj, context, callSite);
+        }
+    }
+
+    @Override
+    PointerFlowEdge addTransfer(PointerFlowEdge edge, Transfer transfer) {
+        // the out edges of a pointer are modified under its monitor,
+        // as they may be added by multiple workers
+        synchronized (edge.source()) {
+            return super.addTransfer(edge, transfer);
+        }
+    }
+
+    /**
+     * Propagates the points-to set of {@code entry} to its pointer and
+     * computes the sets to be propagated to the PFG successors.
+     * This method only modifies the points-to set of the entry's pointer.
+     *
+     * @return the propagation result, or {@code null} if
+     * the points-to set of the pointer does not change.
+     */
+    private Propagation propagate(WorkList.PointerEntry entry) {
+        Pointer pointer = entry.pointer();
+        PointsToSet diff = addAllDiff(pointer, entry.pointsToSet());
+        if (diff.isEmpty()) {
+            return null;
+        }
+        List<TargetSet> targets = new ArrayList<>();
+        List<PendingTransfer> deferred = new ArrayList<>(0);
+        for (Pointer p : getPointerFlowGraph().getMergedPointers(pointer)) {
+            for (PointerFlowEdge edge : p.getOutEdges()) {
+                if (isInternalEdge(edge)) {
+                    continue;
+                }
+                for (Transfer transfer : edge.getTransfers()) {
+                    if (transfer == Identity.get()) {
+                        targets.add(new TargetSet(edge.target(), diff));
+                    } else if (isPure(transfer)) {
+                        PointsToSet pts = transfer.apply(edge, diff);
+                        if (!pts.isEmpty()) {
+                            targets.add(new TargetSet(edge.target(), pts));
+                        }
+                    } else {
+                        // transfers of plugins may have side effects
+                        deferred.add(new PendingTransfer(edge, transfer));
+                    }
+                }
+            }
+        }
+        return new Propagation(diff, targets, deferred);
+    }
+
+    /**
+     * @param diff     the new objects added to the pointer.
+     * @param targets  the sets computed by pure transfers,
+     *                 together with the pointers to receive them.
+     * @param deferred the transfers to be applied by the coordinating thread.
+     */
+    private record Propagation(PointsToSet diff,
+                               List<TargetSet> targets,
+                               List<PendingTransfer> deferred) {
+    }
+
+    private record TargetSet(Pointer pointer, PointsToSet pts) {
+    }
+
+    private record PendingTransfer(PointerFlowEdge edge, Transfer transfer) {
+    }
+}
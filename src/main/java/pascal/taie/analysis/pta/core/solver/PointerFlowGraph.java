@@ -25,11 +25,22 @@ package pascal.taie.analysis.pta.core.solver;
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.Views;
 import pascal.taie.util.graph.Edge;
 import pascal.taie.util.graph.Graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,6 +51,24 @@ public class PointerFlowGraph implements Graph<Pointer> {
 
     private final CSManager csManager;
 
+    /**
+     * Number of added edges. Edges may be added by multiple threads,
+     * e.g., the workers of {@link ParallelSolver}.
+     */
+    private final LongAdder addedEdges = new LongAdder();
+
+    /**
+     * Maps pointer index to the representative of the collapsed
+     * component which contains the pointer. {@code null} means that
+     * the pointer is its own representative.
+     */
+    private Pointer[] representatives = new Pointer[0];
+
+    /**
+     * Maps representatives to the pointers in their collapsed components.
+     */
+    private final Map<Pointer, List<Pointer>> components = Maps.newMap();
+
     PointerFlowGraph(CSManager csManager) {
         this.csManager = csManager;
     }
@@ -55,7 +84,192 @@ public class PointerFlowGraph implements Graph<Pointer> {
      * </ul>
      */
     public PointerFlowEdge addEdge(PointerFlowEdge edge) {
-        return edge.source().addEdge(edge);
+        PointerFlowEdge result = edge.source().addEdge(edge);
+        if (result == edge) {
+            addedEdges.increment();
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of edges that have been added to this graph.
+     * The edges removed by {@link Pointer#removeEdgesIf} are not deducted.
+     */
+    public long getNumberOfAddedEdges() {
+        return addedEdges.sum();
+    }
+
+    /**
+     * @return the representative of the collapsed component which
+     * contains {@code pointer}. If {@code pointer} has not been
+     * collapsed, returns {@code pointer} itself.
+     */
+    public Pointer getRepresentative(Pointer pointer) {
+        int index = pointer.getIndex();
+        if (index >= representatives.length) {
+            return pointer;
+        }
+        Pointer rep = representatives[index];
+        if (rep == null) {
+            return pointer;
+        }
+        Pointer root = getRepresentative(rep);
+        if (root != rep) { // path compression
+            representatives[index] = root;
+        }
+        return root;
+    }
+
+    /**
+     * @return all pointers in the collapsed component which contains
+     * {@code pointer}. If {@code pointer} has not been collapsed,
+     * returns a list which contains {@code pointer} only.
+     */
+    public List<Pointer> getMergedPointers(Pointer pointer) {
+        Pointer rep = getRepresentative(pointer);
+        List<Pointer> component = components.get(rep);
+        return component != null ? component : List.of(rep);
+    }
+
+    /**
+     * @return the number of pointers which have been merged into
+     * other pointers, i.e., which are not representatives.
+     */
+    public int getNumberOfMergedPointers() {
+        return components.values()
+                .stream()
+                .mapToInt(c -> c.size() - 1)
+                .sum();
+    }
+
+    /**
+     * @return {@code true} if {@code edge} could be on a collapsible cycle,
+     * i.e., the edge does not change the objects that flow through it,
+     * and neither of its endpoints filters objects.
+     */
+    boolean isCollapsible(PointerFlowEdge edge) {
+        Set<Transfer> transfers = edge.getTransfers();
+        return transfers.size() == 1
+                && transfers.contains(Identity.get())
+                && edge.source().getFilters().isEmpty()
+                && edge.target().getFilters().isEmpty();
+    }
+
+    /**
+     * Finds the collapsible cycles that go through {@code edge}.
+     *
+     * @return the representatives of the components on the cycles,
+     * or an empty list if there is no such cycle.
+     */
+    List<Pointer> findCycle(PointerFlowEdge edge) {
+        Pointer source = getRepresentative(edge.source());
+        Pointer target = getRepresentative(edge.target());
+        if (source == target || !isCollapsible(edge)) {
+            return List.of();
+        }
+        // Iterative DFS from target. A node is on the cycle if it
+        // reaches source, as source reaches target via edge.
+        Set<Pointer> visited = Sets.newSet();
+        Set<Pointer> onCycle = Sets.newSet();
+        visited.add(source);
+        onCycle.add(source);
+        Deque<Pointer> nodes = new ArrayDeque<>();
+        Deque<Iterator<Pointer>> succIters = new ArrayDeque<>();
+        visited.add(target);
+        nodes.push(target);
+        succIters.push(getCollapsibleSuccsOf(target).iterator());
+        while (!nodes.isEmpty()) {
+            Iterator<Pointer> succIter = succIters.peek();
+            if (succIter.hasNext()) {
+                Pointer succ = succIter.next();
+                if (visited.add(succ)) {
+                    nodes.push(succ);
+                    succIters.push(getCollapsibleSuccsOf(succ).iterator());
+                } else if (onCycle.contains(succ)) {
+                    onCycle.add(nodes.peek());
+                }
+            } else {
+                Pointer node = nodes.pop();
+                succIters.pop();
+                if (onCycle.contains(node) && !nodes.isEmpty()) {
+                    onCycle.add(nodes.peek());
+                }
+            }
+        }
+        return onCycle.contains(target) ? new ArrayList<>(onCycle) : List.of();
+    }
+
+    /**
+     * @return representatives of the successors of given representative
+     * via collapsible edges.
+     */
+    private Set<Pointer> getCollapsibleSuccsOf(Pointer rep) {
+        Set<Pointer> succs = Sets.newHybridSet();
+        for (Pointer member : getMergedPointers(rep)) {
+            for (PointerFlowEdge edge : member.getOutEdges()) {
+                if (isCollapsible(edge)) {
+                    Pointer succ = getRepresentative(edge.target());
+                    if (succ != rep) {
+                        succs.add(succ);
+                    }
+                }
+            }
+        }
+        return succs;
+    }
+
+    /**
+     * Collapses the components of given representatives into one.
+     *
+     * @return the representative of the collapsed component.
+     */
+    Pointer collapse(Collection<Pointer> reps) {
+        // choose the largest component as the new representative
+        Pointer newRep = null;
+        int maxSize = -1;
+        for (Pointer rep : reps) {
+            int size = getMergedPointers(rep).size();
+            if (size > maxSize) {
+                newRep = rep;
+                maxSize = size;
+            }
+        }
+        List<Pointer> component = new ArrayList<>(getMergedPointers(newRep));
+        for (Pointer rep : reps) {
+            if (rep != newRep) {
+                component.addAll(getMergedPointers(rep));
+                components.remove(rep);
+                int index = rep.getIndex();
+                if (index >= representatives.length) {
+                    representatives = Arrays.copyOf(representatives,
+                            Math.max(index + 1, representatives.length * 2));
+                }
+                representatives[index] = newRep;
+            }
+        }
+        components.put(newRep, component);
+        return newRep;
+    }
+
+    /**
+     * Dissolves the collapsed component which contains {@code pointer},
+     * so that each pointer of the component becomes its own representative.
+     *
+     * @return the pointers of the dissolved component.
+     */
+    List<Pointer> split(Pointer pointer) {
+        Pointer rep = getRepresentative(pointer);
+        List<Pointer> component = components.remove(rep);
+        if (component == null) {
+            return List.of(rep);
+        }
+        for (Pointer member : component) {
+            int index = member.getIndex();
+            if (index < representatives.length) {
+                representatives[index] = null;
+            }
+        }
+        return component;
     }
 
     @Override
@@ -170,9 +170,16 @@ public interface Solver {
      * can be propagated to {@code edge.target()}.
      */
     default void addPFGEdge(PointerFlowEdge edge, Type type) {
-        addPFGEdge(edge, new TypeFilter(type, this));
+        addPFGEdge(edge, getTypeFilter(type));
     }
 
+    /**
+     * @return the type filter of given guard type. The same filter is
+     * returned for the same type, so that the subtyping decisions cached
+     * in the filter are shared among all PFG edges guarded by the type.
+     */
+    TypeFilter getTypeFilter(Type type);
+
     /**
      * Adds a pointer flow edge (with edge transfer) to the PFG.
      */
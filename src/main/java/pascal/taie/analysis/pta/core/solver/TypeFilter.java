@@ -22,17 +22,25 @@
 
 package pascal.taie.analysis.pta.core.solver;
 
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.language.type.NullType;
 import pascal.taie.language.type.ReferenceType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
 
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
 /**
  * Transfer function that filters out the objects whose types are NOT
  * subtypes of specific type.
+ * <p>
+ * The subtyping decisions are cached by object types, so that each
+ * object type is checked against the guard type only once. To share
+ * the cache among PFG edges, obtain type filters via
+ * {@link Solver#getTypeFilter(Type)} instead of creating them directly.
  */
 public class TypeFilter implements Transfer {
 
@@ -45,6 +53,13 @@ public class TypeFilter implements Transfer {
 
     private final Supplier<PointsToSet> ptsFactory;
 
+    /**
+     * Caches whether the objects of a type can pass this filter.
+     * This cache may be accessed by multiple threads,
+     * e.g., the workers of {@link ParallelSolver}.
+     */
+    private final ConcurrentMap<Type, Boolean> decisions = Maps.newConcurrentMap();
+
     public TypeFilter(Type type, Solver solver) {
         this.type = type;
         this.typeSystem = solver.getTypeSystem();
@@ -53,13 +68,37 @@ public class TypeFilter implements Transfer {
 
     @Override
     public PointsToSet apply(PointerFlowEdge edge, PointsToSet input) {
+        int accepted = 0;
+        for (CSObj o : input) {
+            if (!test(o)) {
+                break;
+            }
+            ++accepted;
+        }
+        if (accepted == input.size()) {
+            // all objects pass this filter, which is the common case
+            // for casts, and the input is returned without copying
+            return input;
+        }
         PointsToSet result = ptsFactory.get();
-        input.objects()
-                .filter(o -> isAssignable(o.getObject().getType(), type))
-                .forEach(result::addObject);
+        for (CSObj o : input) {
+            if (test(o)) {
+                result.addObject(o);
+            }
+        }
         return result;
     }
 
+    private boolean test(CSObj obj) {
+        Type objType = obj.getObject().getType();
+        Boolean decision = decisions.get(objType);
+        if (decision == null) {
+            decision = isAssignable(objType, type);
+            decisions.put(objType, decision);
+        }
+        return decision;
+    }
+
     private boolean isAssignable(Type from, Type to) {
         return (from instanceof NullType)
                 ? to instanceof ReferenceType
@@ -27,11 +27,18 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.SCC;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Queue;
 
 /**
@@ -42,22 +49,54 @@ final class WorkList {
     /**
      * Pointer entries to be processed.
      */
-    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
+    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newMap();
+
+    /**
+     * Decides the order in which the pointer entries are processed.
+     */
+    private final PointerQueue pointerQueue;
 
     /**
      * Call edges to be processed.
      */
     private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
 
+    /**
+     * Number of pointer entries that have been polled from this work list.
+     */
+    private long polledPointerEntries = 0;
+
+    /**
+     * @param policy the policy for ordering pointer entries.
+     * @param pfg    the pointer flow graph, which is required
+     *               by {@link Policy#TOPO}.
+     */
+    WorkList(Policy policy, PointerFlowGraph pfg) {
+        pointerQueue = switch (policy) {
+            case FIFO -> new FIFOQueue();
+            case LRF -> new LRFQueue();
+            case TOPO -> new TopologicalQueue(pfg);
+        };
+    }
+
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
         PointsToSet set = pointerEntries.get(pointer);
         if (set != null) {
             set.addAll(pointsToSet);
         } else {
             pointerEntries.put(pointer, pointsToSet.copy());
+            pointerQueue.add(pointer);
         }
     }
 
+    /**
+     * @return the objects that are pending to be added to {@code pointer},
+     * or {@code null} if there is no such entry in this work list.
+     */
+    PointsToSet getPendingPointsTo(Pointer pointer) {
+        return pointerEntries.get(pointer);
+    }
+
     void addEntry(Edge<CSCallSite, CSMethod> edge) {
         callEdges.add(edge);
     }
@@ -68,19 +107,51 @@ final class WorkList {
             // the work list must be processed prior to the pointer entries
             return new CallEdgeEntry(callEdges.poll());
         } else if (!pointerEntries.isEmpty()) {
-            var it = pointerEntries.entrySet().iterator();
-            var e = it.next();
-            it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            return pollPointerEntry();
         } else {
             throw new NoSuchElementException();
         }
     }
 
+    private PointerEntry pollPointerEntry() {
+        Pointer pointer = pointerQueue.poll();
+        ++polledPointerEntries;
+        return new PointerEntry(pointer, pointerEntries.remove(pointer));
+    }
+
+    /**
+     * Removes and returns all pointer entries in this work list.
+     * Note that the call edges in this work list are not removed.
+     */
+    List<PointerEntry> pollPointerEntries() {
+        List<PointerEntry> entries = new ArrayList<>(pointerEntries.size());
+        while (!pointerEntries.isEmpty()) {
+            entries.add(pollPointerEntry());
+        }
+        return entries;
+    }
+
+    /**
+     * Removes and returns all call edges in this work list.
+     */
+    List<Edge<CSCallSite, CSMethod>> pollCallEdges() {
+        List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>(callEdges);
+        callEdges.clear();
+        return edges;
+    }
+
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    /**
+     * @return number of pointer entries that have been polled
+     * from this work list, i.e., the number of propagations.
+     */
+    long getPolledPointerEntries() {
+        return polledPointerEntries;
+    }
+
     interface Entry {
     }
 
@@ -91,4 +162,213 @@ final class WorkList {
     record CallEdgeEntry(Edge<CSCallSite, CSMethod> edge)
             implements Entry {
     }
+
+    /**
+     * Policies for ordering the pointer entries in work list.
+     */
+    enum Policy {
+
+        /**
+         * First-in-first-out.
+         */
+        FIFO,
+
+        /**
+         * Least-recently-fired, i.e., the pointer whose last propagation
+         * happened earliest is processed first.
+         */
+        LRF,
+
+        /**
+         * Topological order of the strongly connected components
+         * of pointer flow graph.
+         */
+        TOPO;
+
+        static Policy of(String name) {
+            for (Policy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            throw new ConfigException("Unknown work list policy: " + name);
+        }
+    }
+
+    /**
+     * Queue of the pointers that have entries in work list.
+     * Each pointer is added to the queue at most once
+     * until it is polled.
+     */
+    private interface PointerQueue {
+
+        void add(Pointer pointer);
+
+        Pointer poll();
+    }
+
+    private static class FIFOQueue implements PointerQueue {
+
+        private final Queue<Pointer> queue = new ArrayDeque<>();
+
+        @Override
+        public void add(Pointer pointer) {
+            queue.add(pointer);
+        }
+
+        @Override
+        public Pointer poll() {
+            return queue.remove();
+        }
+    }
+
+    /**
+     * Pointer in a priority queue.
+     *
+     * @param pointer  the pointer
+     * @param priority the priority, smaller value means higher priority
+     * @param seq      the sequence number of the item, which breaks ties
+     *                 of priority in first-in-first-out manner.
+     */
+    private record Item(Pointer pointer, long priority, long seq) {
+
+        private static final Comparator<Item> COMPARATOR = Comparator
+                .comparingLong(Item::priority)
+                .thenComparingLong(Item::seq);
+    }
+
+    private static class LRFQueue implements PointerQueue {
+
+        private final PriorityQueue<Item> queue = new PriorityQueue<>(Item.COMPARATOR);
+
+        /**
+         * Maps pointer index to the time when the pointer is last fired.
+         * 0 means the pointer has never been fired.
+         */
+        private long[] lastFired = new long[1024];
+
+        private long time = 0;
+
+        private long seq = 0;
+
+        @Override
+        public void add(Pointer pointer) {
+            int index = pointer.getIndex();
+            long fired = index < lastFired.length ? lastFired[index] : 0;
+            queue.add(new Item(pointer, fired, seq++));
+        }
+
+        @Override
+        public Pointer poll() {
+            Pointer pointer = queue.remove().pointer();
+            int index = pointer.getIndex();
+            if (index >= lastFired.length) {
+                lastFired = Arrays.copyOf(lastFired,
+                        Math.max(index + 1, lastFired.length * 2));
+            }
+            lastFired[index] = ++time;
+            return pointer;
+        }
+    }
+
+    /**
+     * Processes pointers in topological order of the SCCs of pointer flow
+     * graph. As the graph keeps growing during the analysis, this queue
+     * works in rounds: the topological ranks are (re)computed at the
+     * beginning of each round, and in a round, the pointers are polled
+     * in ascending order of their ranks, so that the pointers in an SCC
+     * reach their local fixed point before propagating to downstream.
+     * A pointer whose rank is less than the one of the last polled
+     * pointer (i.e., it is reached via an edge added after the ranks
+     * were computed) is deferred to next round.
+     * The pointers created after the ranks were computed are processed
+     * at the end of the round.
+     */
+    private static class TopologicalQueue implements PointerQueue {
+
+        private static final int UNRANKED = Integer.MAX_VALUE;
+
+        private final PointerFlowGraph pfg;
+
+        /**
+         * Maps pointer index to its topological rank.
+         */
+        private int[] ranks = new int[0];
+
+        /**
+         * Number of added PFG edges when {@link #ranks} were computed.
+         */
+        private long rankedEdges = -1;
+
+        private final PriorityQueue<Item> current = new PriorityQueue<>(Item.COMPARATOR);
+
+        private final List<Pointer> next = new ArrayList<>();
+
+        /**
+         * Rank of the last polled pointer in current round.
+         */
+        private int currentRank = -1;
+
+        private long seq = 0;
+
+        private TopologicalQueue(PointerFlowGraph pfg) {
+            this.pfg = pfg;
+        }
+
+        @Override
+        public void add(Pointer pointer) {
+            int rank = getRank(pointer);
+            if (rank >= currentRank) {
+                current.add(new Item(pointer, rank, seq++));
+            } else {
+                next.add(pointer);
+            }
+        }
+
+        @Override
+        public Pointer poll() {
+            if (current.isEmpty()) {
+                startNewRound();
+            }
+            Item item = current.remove();
+            currentRank = (int) item.priority();
+            return item.pointer();
+        }
+
+        private void startNewRound() {
+            // to amortize the cost of computing SCCs, ranks are
+            // recomputed only when PFG grows by more than 1/8
+            long addedEdges = pfg.getNumberOfAddedEdges();
+            if (addedEdges - rankedEdges > rankedEdges / 8) {
+                computeRanks();
+            }
+            currentRank = -1;
+            next.forEach(p -> current.add(new Item(p, getRank(p), seq++)));
+            next.clear();
+        }
+
+        private void computeRanks() {
+            rankedEdges = pfg.getNumberOfAddedEdges();
+            List<List<Pointer>> components = new SCC<>(pfg).getComponents();
+            int maxIndex = pfg.pointers()
+                    .mapToInt(Pointer::getIndex)
+                    .max()
+                    .orElse(-1);
+            ranks = new int[maxIndex + 1];
+            Arrays.fill(ranks, UNRANKED);
+            // Tarjan's algorithm produces SCCs in reverse topological order
+            int rank = components.size();
+            for (List<Pointer> component : components) {
+                --rank;
+                for (Pointer p : component) {
+                    ranks[p.getIndex()] = rank;
+                }
+            }
+        }
+
+        private int getRank(Pointer pointer) {
+            int index = pointer.getIndex();
+            return index < ranks.length ? ranks[index] : UNRANKED;
+        }
+    }
 }
@@ -0,0 +1,410 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Pointer analysis results exported by {@link ColumnarResultWriter}.
+ * The results are memory-mapped and decoded lazily, thus opening
+ * the results does not parse the file.
+ * <p>
+ * The file consists of a header, a string dictionary and tables.
+ * All strings, e.g., method signatures and variable names, are stored
+ * in the dictionary, which is sorted, and they are referenced by their
+ * int ids (i.e., positions in the dictionary) in the tables.
+ * Each table stores its values column by column, and the rows of
+ * the tables of pointers are sorted by their keys, so that they can be
+ * looked up by {@link Table#find(int...)}. In addition, each row of
+ * a table of pointers has a points-to set, which is a sorted list of
+ * object ids, i.e., the rows of the object table.
+ * <p>
+ * The tables and their columns are:
+ * <ul>
+ *     <li>{@link #getObjects() objects}: {@link #OBJ_DESC},
+ *     {@link #OBJ_TYPE}, and {@link #OBJ_CONTAINER}
+ *     (-1 if the object has no container method);</li>
+ *     <li>{@link #getVars() variables}: {@link #VAR_METHOD},
+ *     {@link #VAR_NAME}, and {@link #VAR_TYPE};</li>
+ *     <li>{@link #getStaticFields() static fields}: {@link #STATIC_FIELD};</li>
+ *     <li>{@link #getInstanceFields() instance fields}: {@link #INSTANCE_BASE}
+ *     (object id) and {@link #INSTANCE_FIELD};</li>
+ *     <li>{@link #getArrayIndexes() array indexes}: {@link #ARRAY_OBJ}
+ *     (object id);</li>
+ *     <li>{@link #getCallEdges() call edges}: {@link #EDGE_CALLER},
+ *     {@link #EDGE_CALL_SITE} (index of the call site in the IR of
+ *     the caller), {@link #EDGE_CALLEE}, and {@link #EDGE_KIND}.</li>
+ * </ul>
+ * All columns except {@link #EDGE_CALL_SITE} and the ones of object ids
+ * are string ids.
+ */
+public final class ColumnarResult {
+
+    static final long MAGIC = 0x5441492d45505441L; // "TAI-EPTA"
+
+    /**
+     * Version of the format, which should be increased whenever
+     * the format is changed incompatibly.
+     */
+    static final int VERSION = 1;
+
+    public static final int OBJ_DESC = 0;
+
+    public static final int OBJ_TYPE = 1;
+
+    public static final int OBJ_CONTAINER = 2;
+
+    public static final int VAR_METHOD = 0;
+
+    public static final int VAR_NAME = 1;
+
+    public static final int VAR_TYPE = 2;
+
+    public static final int STATIC_FIELD = 0;
+
+    public static final int INSTANCE_BASE = 0;
+
+    public static final int INSTANCE_FIELD = 1;
+
+    public static final int ARRAY_OBJ = 0;
+
+    public static final int EDGE_CALLER = 0;
+
+    public static final int EDGE_CALL_SITE = 1;
+
+    public static final int EDGE_CALLEE = 2;
+
+    public static final int EDGE_KIND = 3;
+
+    private final IntBuffer stringOffsets;
+
+    private final ByteBuffer stringData;
+
+    private final int nStrings;
+
+    private final Table[] tables;
+
+    private ColumnarResult(ByteBuffer strings, Table[] tables) {
+        nStrings = strings.getInt(0);
+        stringOffsets = slice(strings, 8, 4 * (nStrings + 1)).asIntBuffer();
+        stringData = slice(strings, align(8 + 4 * (nStrings + 1)),
+                strings.capacity() - align(8 + 4 * (nStrings + 1)));
+        this.tables = tables;
+    }
+
+    /**
+     * Opens and memory-maps the results in given file.
+     *
+     * @throws IOException if the file is absent, or its magic number or
+     *                     version does not match.
+     */
+    public static ColumnarResult open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException(file + " is not a valid pointer analysis result file");
+            }
+            int version = header.getInt(8);
+            if (version != VERSION) {
+                throw new IOException("Incompatible version of pointer analysis result: "
+                        + version + ", expected: " + VERSION);
+            }
+            int nBlocks = header.getInt(12);
+            ByteBuffer offsets = ByteBuffer.allocate(8 * (nBlocks + 1))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, offsets, 16);
+            // mapped buffers remain valid after the channel is closed
+            ByteBuffer[] blocks = new ByteBuffer[nBlocks];
+            for (int i = 0; i < nBlocks; ++i) {
+                long start = offsets.getLong(8 * i);
+                long end = offsets.getLong(8 * (i + 1));
+                blocks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            Table[] tables = new Table[nBlocks - 1];
+            for (int i = 0; i < tables.length; ++i) {
+                tables[i] = new Table(blocks[i + 1]);
+            }
+            return new ColumnarResult(blocks[0], tables);
+        }
+    }
+
+    static int headerSize(int nBlocks) {
+        return 16 + 8 * (nBlocks + 1);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer,
+                                  long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated pointer analysis result file");
+            }
+        }
+    }
+
+    /**
+     * @return number of strings in the dictionary.
+     */
+    public int getStringCount() {
+        return nStrings;
+    }
+
+    /**
+     * @return the string of given id.
+     */
+    public String getString(int id) {
+        int start = stringOffsets.get(id);
+        int length = stringOffsets.get(id + 1) - start;
+        byte[] bytes = new byte[length];
+        stringData.get(start, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @return the id of given string, or -1 if the string is absent
+     * in the dictionary.
+     */
+    public int getStringId(String s) {
+        int low = 0, high = nStrings - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = getString(mid).compareTo(s);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public Table getObjects() {
+        return tables[0];
+    }
+
+    public Table getVars() {
+        return tables[1];
+    }
+
+    public Table getStaticFields() {
+        return tables[2];
+    }
+
+    public Table getInstanceFields() {
+        return tables[3];
+    }
+
+    public Table getArrayIndexes() {
+        return tables[4];
+    }
+
+    public Table getCallEdges() {
+        return tables[5];
+    }
+
+    /**
+     * Convenient method to obtain the points-to set of a variable.
+     *
+     * @param method signature of the method which declares the variable.
+     * @param name   name of the variable.
+     * @return the object ids in the points-to set of the variable,
+     * or an empty array if the variable is absent in the results.
+     */
+    public int[] getPointsToSet(String method, String name) {
+        int methodId = getStringId(method);
+        int nameId = getStringId(name);
+        if (methodId != -1 && nameId != -1) {
+            int row = getVars().find(methodId, nameId);
+            if (row != -1) {
+                return getVars().getPointsToSet(row);
+            }
+        }
+        return new int[0];
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int index, int length) {
+        return buffer.slice(index, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * A table of the exported results, which is backed by the mapped file.
+     * The instances of this class are immutable, and they can be shared
+     * among multiple threads.
+     */
+    public static final class Table {
+
+        private final int nRows;
+
+        private final IntBuffer[] columns;
+
+        private final LongBuffer ptsOffsets;
+
+        private final ByteBuffer ptsData;
+
+        private Table(ByteBuffer block) {
+            nRows = block.getInt(0);
+            int nColumns = block.getInt(4);
+            boolean hasPointsTo = block.getInt(8) != 0;
+            columns = new IntBuffer[nColumns];
+            for (int c = 0; c < nColumns; ++c) {
+                columns[c] = slice(block, 16 + 4 * nRows * c, 4 * nRows)
+                        .asIntBuffer();
+            }
+            if (hasPointsTo) {
+                int offsetsStart = align(16 + 4 * nColumns * nRows);
+                ptsOffsets = slice(block, offsetsStart, 8 * (nRows + 1))
+                        .asLongBuffer();
+                int dataStart = offsetsStart + 8 * (nRows + 1);
+                ptsData = slice(block, dataStart, block.capacity() - dataStart);
+            } else {
+                ptsOffsets = null;
+                ptsData = null;
+            }
+        }
+
+        /**
+         * @return number of rows in this table.
+         */
+        public int size() {
+            return nRows;
+        }
+
+        /**
+         * @return number of columns in this table.
+         */
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        /**
+         * @return the value at given row and column.
+         */
+        public int get(int row, int column) {
+            return columns[column].get(row);
+        }
+
+        public boolean hasPointsToSets() {
+            return ptsOffsets != null;
+        }
+
+        /**
+         * Finds the row by binary search on the sorted key columns.
+         *
+         * @param keys the values of the first {@code keys.length} columns.
+         * @return the first row whose first columns are {@code keys},
+         * or -1 if such row is absent.
+         */
+        public int find(int... keys) {
+            int low = 0, high = nRows - 1, found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareRow(mid, keys);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    if (cmp == 0) {
+                        found = mid;
+                    }
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        private int compareRow(int row, int[] keys) {
+            for (int c = 0; c < keys.length; ++c) {
+                int cmp = Integer.compare(columns[c].get(row), keys[c]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Passes the object ids in the points-to set of given row
+         * to {@code action} in ascending order.
+         */
+        public void forEachPointsTo(int row, IntConsumer action) {
+            int pos = (int) ptsOffsets.get(row);
+            int end = (int) ptsOffsets.get(row + 1);
+            int id = 0;
+            while (pos < end) {
+                // decode varint delta
+                int delta = 0, shift = 0;
+                byte b;
+                do {
+                    b = ptsData.get(pos++);
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id += delta;
+                action.accept(id);
+            }
+        }
+
+        /**
+         * @return the object ids in the points-to set of given row,
+         * in ascending order.
+         */
+        public int[] getPointsToSet(int row) {
+            int[] result = new int[getPointsToSetSize(row)];
+            int[] i = {0};
+            forEachPointsTo(row, id -> result[i[0]++] = id);
+            return result;
+        }
+
+        /**
+         * @return size of the points-to set of given row.
+         */
+        public int getPointsToSetSize(int row) {
+            int pos = (int) ptsOffsets.get(row);
+            int end = (int) ptsOffsets.get(row + 1);
+            int size = 0;
+            for (; pos < end; ++pos) {
+                if (ptsData.get(pos) >= 0) { // last byte of a varint
+                    ++size;
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.export;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Exports {@link PointerAnalysisResult} to a file in columnar format,
+ * which can be read by {@link ColumnarResult}.
+ * <p>
+ * The contexts are removed from the exported results, i.e., the
+ * points-to set of a pointer is the union of the points-to sets of
+ * the pointer under all contexts.
+ */
+public final class ColumnarResultWriter {
+
+    private final PointerAnalysisResult result;
+
+    /**
+     * Sorted string dictionary.
+     */
+    private final String[] strings;
+
+    private final Map<String, Integer> stringIds = Maps.newMap();
+
+    /**
+     * Heap objects sorted by their indexes. The object id of
+     * an object is its position in this array.
+     */
+    private final Obj[] objs;
+
+    /**
+     * Maps index of each heap object to its object id.
+     */
+    private final int[] objIds;
+
+    private ColumnarResultWriter(PointerAnalysisResult result) {
+        this.result = result;
+        objs = result.getObjects()
+                .stream()
+                .sorted(Comparator.comparingInt(Obj::getIndex))
+                .toArray(Obj[]::new);
+        objIds = new int[objs.length == 0 ? 0 : objs[objs.length - 1].getIndex() + 1];
+        Arrays.fill(objIds, -1);
+        for (int i = 0; i < objs.length; ++i) {
+            objIds[objs[i].getIndex()] = i;
+        }
+        strings = collectStrings().toArray(String[]::new);
+        for (int i = 0; i < strings.length; ++i) {
+            stringIds.put(strings[i], i);
+        }
+    }
+
+    /**
+     * Exports given pointer analysis result to {@code file}.
+     * The file is written to a temporary file first, and then moved
+     * to {@code file} when it is finished, thus the readers never
+     * see an incomplete file.
+     */
+    public static void write(PointerAnalysisResult result, Path file)
+            throws IOException {
+        new ColumnarResultWriter(result).write(file);
+    }
+
+    private Set<String> collectStrings() {
+        Set<String> strings = new TreeSet<>(Comparator.naturalOrder());
+        for (Obj obj : objs) {
+            strings.add(obj.toString());
+            strings.add(obj.getType().getName());
+            obj.getContainerMethod()
+                    .ifPresent(m -> strings.add(m.getSignature()));
+        }
+        for (Var var : result.getVars()) {
+            strings.add(var.getMethod().getSignature());
+            strings.add(var.getName());
+            strings.add(var.getType().getName());
+        }
+        result.getStaticFields()
+                .forEach(f -> strings.add(f.getField().getSignature()));
+        result.getInstanceFields()
+                .forEach(f -> strings.add(f.getField().getSignature()));
+        result.getCallGraph().edges().forEach(edge -> {
+            strings.add(edge.getCallSite().getContainer().getSignature());
+            strings.add(edge.getCallee().getSignature());
+            strings.add(edge.getKind().name());
+        });
+        return strings;
+    }
+
+    private void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            Block[] blocks = {
+                    stringBlock(),
+                    objectTable(),
+                    varTable(),
+                    staticFieldTable(),
+                    instanceFieldTable(),
+                    arrayIndexTable(),
+                    callEdgeTable(),
+            };
+            ByteBuffer header = allocate(ColumnarResult.headerSize(blocks.length));
+            header.putLong(ColumnarResult.MAGIC);
+            header.putInt(ColumnarResult.VERSION);
+            header.putInt(blocks.length);
+            long offset = header.capacity();
+            for (Block block : blocks) {
+                header.putLong(offset);
+                offset += block.size();
+            }
+            header.putLong(offset);
+            writeFully(channel, header.flip());
+            for (Block block : blocks) {
+                for (ByteBuffer buffer : block.buffers()) {
+                    writeFully(channel, buffer.flip());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private Block stringBlock() {
+        byte[][] bytes = new byte[strings.length][];
+        int size = 0;
+        for (int i = 0; i < strings.length; ++i) {
+            bytes[i] = strings[i].getBytes(UTF_8);
+            size += bytes[i].length;
+        }
+        ByteBuffer offsets = allocate(8 + 4 * (strings.length + 1));
+        offsets.putInt(strings.length).putInt(0);
+        ByteBuffer data = allocate(align(size));
+        for (byte[] b : bytes) {
+            offsets.putInt(data.position());
+            data.put(b);
+        }
+        offsets.putInt(data.position());
+        data.position(data.capacity());
+        return new Block(List.of(padded(offsets), data));
+    }
+
+    private Block objectTable() {
+        Table table = new Table(3, false);
+        for (Obj obj : objs) {
+            table.addRow(null,
+                    id(obj.toString()),
+                    id(obj.getType().getName()),
+                    obj.getContainerMethod()
+                            .map(m -> id(m.getSignature()))
+                            .orElse(-1));
+        }
+        // rows are indexed by object ids, thus they are not sorted
+        return table.toBlock();
+    }
+
+    private Block varTable() {
+        Table table = new Table(3, true);
+        for (Var var : result.getVars()) {
+            IBitSet pts = new SparseBitSet();
+            result.getPointsToSet(var).forEach(o -> pts.set(objIds[o.getIndex()]));
+            if (!pts.isEmpty()) {
+                table.addRow(pts,
+                        id(var.getMethod().getSignature()),
+                        id(var.getName()),
+                        id(var.getType().getName()));
+            }
+        }
+        return table.sort(2).toBlock();
+    }
+
+    private Block staticFieldTable() {
+        Table table = new Table(1, true);
+        mergePointers(result.getStaticFields(),
+                f -> new int[]{ id(f.getField().getSignature()) }, table);
+        return table.sort(1).toBlock();
+    }
+
+    private Block instanceFieldTable() {
+        Table table = new Table(2, true);
+        mergePointers(result.getInstanceFields(), f -> new int[]{
+                objIds[f.getBase().getObject().getIndex()],
+                id(f.getField().getSignature()),
+        }, table);
+        return table.sort(2).toBlock();
+    }
+
+    private Block arrayIndexTable() {
+        Table table = new Table(1, true);
+        mergePointers(result.getArrayIndexes(), a -> new int[]{
+                objIds[a.getArray().getObject().getIndex()],
+        }, table);
+        return table.sort(1).toBlock();
+    }
+
+    /**
+     * Merges the points-to sets of the context-sensitive pointers
+     * with the same keys, and adds them to {@code table}.
+     */
+    private <P extends Pointer> void mergePointers(
+            Iterable<P> pointers, Function<P, int[]> getKeys,
+            Table table) {
+        Map<Key, IBitSet> merged = Maps.newMap();
+        for (P p : pointers) {
+            if (!p.getObjects().isEmpty()) {
+                IBitSet pts = merged.computeIfAbsent(
+                        new Key(getKeys.apply(p)), k -> new SparseBitSet());
+                p.objects().forEach(o -> pts.set(objIds[o.getObject().getIndex()]));
+            }
+        }
+        merged.forEach((key, pts) -> table.addRow(pts, key.keys()));
+    }
+
+    private Block callEdgeTable() {
+        Table table = new Table(4, false);
+        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        callGraph.edges().forEach((Edge<Invoke, JMethod> edge) -> {
+            Invoke callSite = edge.getCallSite();
+            table.addRow(null,
+                    id(callSite.getContainer().getSignature()),
+                    callSite.getIndex(),
+                    id(edge.getCallee().getSignature()),
+                    id(edge.getKind().name()));
+        });
+        return table.sort(3).toBlock();
+    }
+
+    private int id(String s) {
+        return stringIds.get(s);
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Pads {@code buffer} to 8-byte boundary.
+     */
+    private static ByteBuffer padded(ByteBuffer buffer) {
+        int size = align(buffer.position());
+        if (size > buffer.capacity()) {
+            ByteBuffer b = allocate(size);
+            b.put(buffer.flip());
+            buffer = b;
+        }
+        return buffer.position(size);
+    }
+
+    private record Key(int[] keys) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Arrays.equals(keys, key.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(keys);
+        }
+    }
+
+    /**
+     * A contiguous part of the exported file.
+     */
+    private record Block(List<ByteBuffer> buffers) {
+
+        long size() {
+            return buffers.stream().mapToLong(ByteBuffer::position).sum();
+        }
+    }
+
+    /**
+     * Rows of a table before they are encoded to columns.
+     */
+    private static class Table {
+
+        private final int nColumns;
+
+        private final boolean hasPointsTo;
+
+        private final List<int[]> rows = new ArrayList<>();
+
+        private final List<IBitSet> pointsTo = new ArrayList<>();
+
+        private Table(int nColumns, boolean hasPointsTo) {
+            this.nColumns = nColumns;
+            this.hasPointsTo = hasPointsTo;
+        }
+
+        private void addRow(IBitSet pts, int... values) {
+            rows.add(values);
+            if (hasPointsTo) {
+                pointsTo.add(pts);
+            }
+        }
+
+        /**
+         * Sorts the rows by the first {@code nKeys} columns.
+         */
+        private Table sort(int nKeys) {
+            Integer[] order = new Integer[rows.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (i1, i2) -> Arrays.compare(
+                    rows.get(i1), 0, nKeys, rows.get(i2), 0, nKeys));
+            List<int[]> sortedRows = new ArrayList<>(order.length);
+            List<IBitSet> sortedPointsTo = new ArrayList<>(order.length);
+            for (int i : order) {
+                sortedRows.add(rows.get(i));
+                if (hasPointsTo) {
+                    sortedPointsTo.add(pointsTo.get(i));
+                }
+            }
+            rows.clear();
+            rows.addAll(sortedRows);
+            pointsTo.clear();
+            pointsTo.addAll(sortedPointsTo);
+            return this;
+        }
+
+        /**
+         * Encodes this table as: number of rows, number of columns,
+         * flag of points-to sets, the columns, and if the flag is set,
+         * the offsets of the points-to sets followed by the points-to
+         * sets, whose object ids are sorted and delta-encoded as varints.
+         */
+        private Block toBlock() {
+            int nRows = rows.size();
+            ByteBuffer columns = allocate(align(16 + 4 * nColumns * nRows));
+            columns.putInt(nRows).putInt(nColumns)
+                    .putInt(hasPointsTo ? 1 : 0).putInt(0);
+            for (int c = 0; c < nColumns; ++c) {
+                for (int[] row : rows) {
+                    columns.putInt(row[c]);
+                }
+            }
+            columns.position(columns.capacity());
+            if (!hasPointsTo) {
+                return new Block(List.of(columns));
+            }
+            ByteBuffer offsets = allocate(8 * (nRows + 1));
+            VarIntBuffer data = new VarIntBuffer();
+            for (IBitSet pts : pointsTo) {
+                offsets.putLong(data.size());
+                int prev = 0;
+                for (int id = pts.nextSetBit(0); id >= 0; id = pts.nextSetBit(id + 1)) {
+                    data.write(id - prev);
+                    prev = id;
+                }
+            }
+            offsets.putLong(data.size());
+            return new Block(List.of(columns, offsets, data.toBuffer()));
+        }
+    }
+
+    /**
+     * A growable buffer of unsigned varints (LEB128).
+     */
+    private static class VarIntBuffer {
+
+        private byte[] bytes = new byte[1024];
+
+        private int size = 0;
+
+        private void write(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private ByteBuffer toBuffer() {
+            ByteBuffer buffer = allocate(align(size));
+            buffer.put(bytes, 0, size);
+            return buffer.position(buffer.capacity());
+        }
+    }
+}
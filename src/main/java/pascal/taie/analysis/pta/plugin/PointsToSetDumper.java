@@ -0,0 +1,218 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Dumps points-to sets to a file in a streaming manner.
+ * <p>
+ * The output is divided into shards, e.g., one for each kind of pointers.
+ * The shards are written in parallel to temporary files through buffered
+ * channels, and then concatenated to the output file. When writing a shard,
+ * only the (sorted) string representations of the pointers are kept
+ * in memory, and the points-to set of each pointer is written directly
+ * to the channel, so the dumper does not build the whole output in memory.
+ * <p>
+ * If compression is enabled, each shard is compressed as an individual
+ * GZIP member. The concatenation of GZIP members is still a valid GZIP
+ * file, which can be read by {@link PointsToSetReader} and common tools
+ * such as {@code zcat}.
+ * <p>
+ * The output format is the same as the one of {@link ResultProcessor},
+ * so the output files can be used as expected files of pointer analysis.
+ */
+class PointsToSetDumper {
+
+    private static final Logger logger = LogManager.getLogger(PointsToSetDumper.class);
+
+    /**
+     * Size of the buffer of each shard.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the content of a shard.
+     */
+    @FunctionalInterface
+    interface ShardWriter {
+
+        void write(Writer out) throws IOException;
+    }
+
+    private final Path outFile;
+
+    private final boolean compress;
+
+    private final List<ShardWriter> shards = new ArrayList<>();
+
+    PointsToSetDumper(File outFile, boolean compress) {
+        this.outFile = outFile.toPath();
+        this.compress = compress;
+    }
+
+    /**
+     * Adds a shard of given pointers and their points-to sets,
+     * which are sorted by the string representations of the pointers.
+     *
+     * @param header header of the shard.
+     * @param sep    separator between pointer and its points-to set.
+     */
+    void addPointers(String header, String sep,
+                     Collection<? extends Pointer> pointers) {
+        addShard(out -> {
+            out.write(header);
+            out.write('\n');
+            // compute the string representations of the pointers
+            // only once for sorting
+            Entry[] entries = pointers.parallelStream()
+                    .map(p -> new Entry(p.toString(), p))
+                    .toArray(Entry[]::new);
+            Arrays.parallelSort(entries, Comparator.comparing(Entry::key));
+            List<String> objs = new ArrayList<>();
+            for (Entry e : entries) {
+                out.write(e.key());
+                out.write(sep);
+                e.pointer().objects()
+                        .map(Object::toString)
+                        .forEach(objs::add);
+                objs.sort(null);
+                out.write('[');
+                for (int i = 0; i < objs.size(); ++i) {
+                    if (i > 0) {
+                        out.write(", ");
+                    }
+                    out.write(objs.get(i));
+                }
+                out.write("]\n");
+                objs.clear();
+            }
+            out.write('\n');
+        });
+    }
+
+    void addShard(ShardWriter shard) {
+        shards.add(shard);
+    }
+
+    /**
+     * Writes all shards to the output file.
+     */
+    void dump() {
+        Timer timer = new Timer("Dump points-to sets");
+        timer.start();
+        List<Path> shardFiles = new ArrayList<>(shards.size());
+        try {
+            for (int i = 0; i < shards.size(); ++i) {
+                shardFiles.add(Files.createTempFile(outFile.getParent(),
+                        outFile.getFileName() + "." + i + ".", ".part"));
+            }
+            IntStream.range(0, shards.size())
+                    .parallel()
+                    .forEach(i -> writeShard(shards.get(i), shardFiles.get(i)));
+            concat(shardFiles);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to dump points-to sets to " + outFile, e);
+        } catch (UncheckedIOException e) {
+            throw new AnalysisException("Failed to dump points-to sets to "
+                    + outFile, e.getCause());
+        } finally {
+            for (Path shardFile : shardFiles) {
+                try {
+                    Files.deleteIfExists(shardFile);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete {}", shardFile);
+                }
+            }
+        }
+        timer.stop();
+        logger.info(timer);
+    }
+
+    private void writeShard(ShardWriter shard, Path shardFile) {
+        try (FileChannel channel = FileChannel.open(shardFile,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = newWriter(channel)) {
+            shard.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Writer newWriter(FileChannel channel) throws IOException {
+        if (compress) {
+            return new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+                    StandardCharsets.UTF_8), BUFFER_SIZE);
+        } else {
+            return new BufferedWriter(
+                    Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Concatenates the shard files to the output file.
+     */
+    private void concat(List<Path> shardFiles) throws IOException {
+        try (FileChannel out = FileChannel.open(outFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path shardFile : shardFiles) {
+                try (FileChannel in = FileChannel.open(shardFile, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Entry(String key, Pointer pointer) {
+    }
+}
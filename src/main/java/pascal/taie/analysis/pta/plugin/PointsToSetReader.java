@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.util.AnalysisException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the files dumped by {@link PointsToSetDumper} (or earlier versions
+ * of {@link ResultProcessor}) line by line, without loading the whole file
+ * in memory. Compressed files are detected by GZIP magic number.
+ */
+class PointsToSetReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private PointsToSetReader() {
+    }
+
+    /**
+     * @return the lines of given file. The returned stream should be closed
+     * after use, e.g., by try-with-resources statement.
+     */
+    static Stream<String> lines(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(
+                Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            if (isGzip(in)) {
+                in = new GZIPInputStream(in, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static boolean isGzip(InputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        return b1 == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+                && b2 == (GZIPInputStream.GZIP_MAGIC >>> 8);
+    }
+
+    /**
+     * Reads the pointers and their points-to sets in given file,
+     * and passes them to {@code action} in the order they appear
+     * in the file.
+     *
+     * @param sep separator between pointer and its points-to set.
+     */
+    static void readPointsToSets(String input, String sep,
+                                 BiConsumer<String, String> action) {
+        try (Stream<String> lines = lines(Path.of(input))) {
+            lines.forEach(line -> {
+                int i = line.indexOf(sep);
+                if (i >= 0) {
+                    action.accept(line.substring(0, i),
+                            line.substring(i + sep.length()));
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new AnalysisException(
+                    "Failed to read points-to set from " + input, e);
+        }
+    }
+}
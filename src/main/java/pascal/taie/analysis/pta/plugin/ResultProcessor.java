@@ -22,7 +22,7 @@
 
 package pascal.taie.analysis.pta.plugin;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import org.apache.logging.log4j.LogManager;
@@ -33,6 +33,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.export.ColumnarResultWriter;
 import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.exp.Var;
@@ -45,22 +46,21 @@ import pascal.taie.util.collection.Streams;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static pascal.taie.util.collection.CollectionUtils.sum;
@@ -68,8 +68,9 @@ import static pascal.taie.util.collection.CollectionUtils.sum;
 /**
  * Dump points-to set to file or compare the analysis result with
  * the ones read from input file.
+ * Points-to sets are dumped and compared in a streaming manner
+ * (see {@link PointsToSetDumper} and {@link PointsToSetReader}).
  * Currently, the compare functionality is mainly for testing purpose.
- * It is not efficient and not recommended applying on large program.
  */
 public class ResultProcessor implements Plugin {
 
@@ -90,6 +91,13 @@ public class ResultProcessor implements Plugin {
 
     private static final DecimalFormat formatter = new DecimalFormat("#,####");
 
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory()
+            .enable(YAMLGenerator.Feature.INDENT_ARRAYS)
+            .enable(YAMLGenerator.Feature.ALLOW_LONG_KEYS)
+            .enable(YAMLGenerator.Feature.INDENT_ARRAYS_WITH_INDICATOR)
+            .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+            .disable(YAMLGenerator.Feature.SPLIT_LINES);
+
     private Solver solver;
 
     @Override
@@ -109,7 +117,8 @@ public class ResultProcessor implements Plugin {
         boolean taintEnabled = options.getString("taint-config") != null
                 || !((List<String>) options.get("taint-config-providers")).isEmpty();
         if (options.getBoolean("dump")) {
-            dumpPointsToSet(result, taintEnabled);
+            dumpPointsToSet(result, taintEnabled,
+                    options.getString("dump-format").equals("gzip"));
         }
 
         if (options.getBoolean("dump-ci")) {
@@ -120,6 +129,11 @@ public class ResultProcessor implements Plugin {
             dumpPointsToSetInYaml(result);
         }
 
+        String exportFile = options.getString("export-file");
+        if (exportFile != null) {
+            exportResult(result, exportFile);
+        }
+
         String expectedFile = options.getString("expected-file");
         if (expectedFile != null) {
             if (taintEnabled) {
@@ -172,45 +186,32 @@ public class ResultProcessor implements Plugin {
     }
 
     private static void dumpPointsToSet(PointerAnalysisResult result,
-                                        boolean taintEnabled) {
-        File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_FILE);
-        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
-            logger.info("Dumping points-to set (with contexts) to {}",
-                    outFile.getAbsolutePath());
-            dumpPointers(out, result.getCSVars(), "variables");
-            dumpPointers(out, result.getStaticFields(), "static fields");
-            dumpPointers(out, result.getInstanceFields(), "instance fields");
-            dumpPointers(out, result.getArrayIndexes(), "array indexes");
-            if (taintEnabled) {
-                dumpTaintFlows(out, result);
-            }
-        } catch (FileNotFoundException e) {
-            logger.error("Failed to open output file {}", outFile);
+                                        boolean taintEnabled, boolean compress) {
+        File outFile = new File(World.get().getOptions().getOutputDir(),
+                compress ? RESULTS_FILE + ".gz" : RESULTS_FILE);
+        logger.info("Dumping points-to set (with contexts) to {}",
+                outFile.getAbsolutePath());
+        PointsToSetDumper dumper = new PointsToSetDumper(outFile, compress);
+        dumper.addPointers(HEADER + "variables", SEP, result.getCSVars());
+        dumper.addPointers(HEADER + "static fields", SEP, result.getStaticFields());
+        dumper.addPointers(HEADER + "instance fields", SEP, result.getInstanceFields());
+        dumper.addPointers(HEADER + "array indexes", SEP, result.getArrayIndexes());
+        if (taintEnabled) {
+            dumper.addShard(out -> dumpTaintFlows(out, result));
         }
-    }
-
-    private static void dumpPointers(
-            PrintStream out, Collection<? extends Pointer> pointers, String desc) {
-        out.println(HEADER + desc);
-        pointers.stream()
-                .sorted(Comparator.comparing(Pointer::toString))
-                .forEach(p -> out.println(p + SEP + Streams.toString(p.objects())));
-        out.println();
+        dumper.dump();
     }
 
     private static void dumpPointsToSetInYaml(PointerAnalysisResult result) {
         File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_YAML_FILE);
         logger.info("Dumping points-to set (with contexts) in YAML to {}",
                 outFile.getAbsolutePath());
+        // each kind of pointers is written as a shard, which is a YAML
+        // mapping of a single key, so that the concatenation of the
+        // shards is still a valid YAML mapping
+        PointsToSetDumper dumper = new PointsToSetDumper(outFile, false);
 
-        // some local useful functions
-        Function<Pointer, List<String>> getObjs = p -> p.getObjects().stream()
-                .map(CSObj::toString).sorted().toList();
-        Comparator<Obj> objComparator = Comparator.comparing((Obj o) -> o.getContainerMethod()
-                .map(JMethod::getSignature).orElse(""))
-                        .thenComparing(Obj::toString);
-
-        // prepare variables in YAML format like:
+        // variables in YAML format like:
         // variables:
         //  "<A: A m()>":
         //    - var: "$r1"
@@ -218,47 +219,28 @@ public class ResultProcessor implements Plugin {
         //        - context: "[]"
         //          objects:
         //            - "[]:NewObj{<A: A m()>[0@L1] new A}"
-        final var variables = result.getCSVars()
-                .stream()
-                .collect(Collectors.groupingBy(csVar -> csVar.getVar().getMethod().getSignature(),
-                        Maps::newOrderedMap,
-                        Collectors.collectingAndThen(
-                                Collectors.groupingBy(csVar -> csVar.getVar().getName(),
-                                        Maps::newOrderedMap,
-                                        Collectors.toMap(csVar -> csVar.getContext().toString(),
-                                                getObjs,
-                                                (o1, o2) -> o1, Maps::newOrderedMap)),
-                                m -> m.entrySet()
-                                      .stream()
-                                      .map(e1 -> Maps.ofLinkedHashMap(
-                                              "var", e1.getKey(),
-                                              "pts", e1.getValue()
-                                                       .entrySet()
-                                                       .stream().map(e2 -> Maps.ofLinkedHashMap(
-                                                              "context", e2.getKey(),
-                                                              "objects", e2.getValue())
-                                                      ).toList())
-                                      ).toList()
-                        ))
-                );
-
-        // prepare static fields in YAML format like:
+        dumper.addShard(out -> writeYaml(out, gen -> writeNested(gen,
+                "variables", "var", 1, sortYamlEntries(result.getCSVars(),
+                        v -> new String[]{
+                                v.getVar().getMethod().getSignature(),
+                                v.getVar().getName(),
+                                v.getContext().toString()
+                        }))));
+
+        // static fields in YAML format like:
         // static-fields:
         //  "<A>":
         //    - field: "<A: java.lang.String sField>"
         //      objects:
         //        - "[]:NewObj{<A: A m()>[0@L1] new String}"
-        final var staticFields = result.getStaticFields()
-                .stream()
-                .collect(Collectors.groupingBy(sField -> sField.getField().getDeclaringClass().getName(),
-                        Maps::newOrderedMap,
-                        Collectors.mapping(sField -> Maps.ofLinkedHashMap(
-                                "field", sField.getField().toString(),
-                                "objects", getObjs.apply(sField)),
-                                Collectors.toList()))
-                );
-
-        // prepare instance fields in YAML format like:
+        dumper.addShard(out -> writeYaml(out, gen -> writeFlat(gen,
+                "static-fields", "field", 1, sortYamlEntries(result.getStaticFields(),
+                        f -> new String[]{
+                                f.getField().getDeclaringClass().getName(),
+                                f.getField().toString()
+                        }))));
+
+        // instance fields in YAML format like:
         // instance-fields:
         //  "NewObj{<A: A m()>[0@L1] new A}":
         //    - field: "<A: java.lang.String iField>"
@@ -266,71 +248,163 @@ public class ResultProcessor implements Plugin {
         //        - context: "[]"
         //          objects:
         //            - "[]:NewObj{<A: A m()>[0@L1] new String}"
-        final var instanceFields = result.getInstanceFields()
-                .stream()
-                .collect(Collectors.groupingBy(iField -> iField.getBase().getObject(),
-                                () -> Maps.newOrderedMap(objComparator),
-                                Collectors.collectingAndThen(
-                                        Collectors.groupingBy(iField -> iField.getField().toString(),
-                                                Maps::newOrderedMap,
-                                                Collectors.toMap(iField -> iField.getBase().getContext().toString(),
-                                                        getObjs, (o1, o2) -> o1, Maps::newOrderedMap)),
-                                        m -> m.entrySet()
-                                              .stream()
-                                              .map(e1 -> Maps.ofLinkedHashMap(
-                                                      "field", e1.getKey(),
-                                                      "pts", e1.getValue()
-                                                               .entrySet()
-                                                               .stream().map(e2 -> Maps.ofLinkedHashMap(
-                                                                      "context", e2.getKey(),
-                                                                      "objects", e2.getValue())
-                                                              ).toList())
-                                              ).toList())
-                        )
-                );
-
-        // prepare array indexes in YAML format like:
+        dumper.addShard(out -> writeYaml(out, gen -> writeNested(gen,
+                "instance-fields", "field", 2, sortYamlEntries(result.getInstanceFields(),
+                        f -> new String[]{
+                                getContainerSignature(f.getBase().getObject()),
+                                f.getBase().getObject().toString(),
+                                f.getField().toString(),
+                                f.getBase().getContext().toString()
+                        }))));
+
+        // array indexes in YAML format like:
         // array-indexes:
         //  "NewObj{<A: A m()>[0@L1] newarray java.lang.String[%intconst1]}":
         //    - context: "[]"
         //      objects:
         //        - "ConstantObj{java.lang.String: \"hello\"}"
-        final var arrayIndexes = result.getArrayIndexes()
-                .stream()
-                .collect(Collectors.groupingBy(ai -> ai.getArray().getObject(),
-                             () -> Maps.newOrderedMap(objComparator),
-                             Collectors.collectingAndThen(
-                                     Collectors.toMap(ai -> ai.getArray().getContext().toString(), getObjs),
-                                     m -> m.entrySet()
-                                           .stream()
-                                           .map(e -> Maps.ofLinkedHashMap(
-                                                   "context", e.getKey(),
-                                                   "objects", e.getValue())
-                                           ).toList()
-                             )
-                     )
-                );
-
-        // dump to file
-        Map<String, Object> dumpData = Maps.newLinkedHashMap();
-        dumpData.put("variables", variables);
-        dumpData.put("static-fields", staticFields);
-        dumpData.put("instance-fields", instanceFields);
-        dumpData.put("array-indexes", arrayIndexes);
-        try (FileWriter writer = new FileWriter(outFile)) {
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory()
-                    .enable(YAMLGenerator.Feature.INDENT_ARRAYS)
-                    .enable(YAMLGenerator.Feature.ALLOW_LONG_KEYS)
-                    .enable(YAMLGenerator.Feature.INDENT_ARRAYS_WITH_INDICATOR)
-                    .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
-                    .disable(YAMLGenerator.Feature.SPLIT_LINES)
-            );
-            mapper.writeValue(writer, dumpData);
-        } catch (IOException e) {
-            logger.error("Failed to open output file {}", outFile);
+        dumper.addShard(out -> writeYaml(out, gen -> writeFlat(gen,
+                "array-indexes", "context", 2, sortYamlEntries(result.getArrayIndexes(),
+                        a -> new String[]{
+                                getContainerSignature(a.getArray().getObject()),
+                                a.getArray().getObject().toString(),
+                                a.getArray().getContext().toString()
+                        }))));
+        dumper.dump();
+    }
+
+    private static String getContainerSignature(Obj obj) {
+        return obj.getContainerMethod().map(JMethod::getSignature).orElse("");
+    }
+
+    @FunctionalInterface
+    private interface YamlWriter {
+
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    /**
+     * Writes a YAML mapping to {@code out} by {@code writer}
+     * without closing {@code out}.
+     */
+    private static void writeYaml(Writer out, YamlWriter writer) throws IOException {
+        try (JsonGenerator gen = YAML_FACTORY.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            writer.write(gen);
+            gen.writeEndObject();
         }
     }
 
+    /**
+     * A pointer with the keys to sort, group and write it in YAML.
+     */
+    private record YamlEntry(String[] keys, Pointer pointer) {
+    }
+
+    /**
+     * @return entries of given pointers sorted by their keys. The sorting
+     * is stable, and the string representations are computed only once.
+     */
+    private static <P extends Pointer> YamlEntry[] sortYamlEntries(
+            Collection<P> pointers, Function<P, String[]> getKeys) {
+        YamlEntry[] entries = pointers.stream()
+                .map(p -> new YamlEntry(getKeys.apply(p), p))
+                .toArray(YamlEntry[]::new);
+        Arrays.parallelSort(entries, (e1, e2) -> Arrays.compare(e1.keys(), e2.keys()));
+        return entries;
+    }
+
+    /**
+     * Writes sorted entries which are grouped by their first
+     * {@code groupKeys} keys, and the last of them is the name of the group.
+     * Each entry is written as an item of its group, and the key following
+     * the group keys is written as the value of {@code label} of the item.
+     * For the entries with the same item key, only the first one is written.
+     */
+    private static void writeFlat(JsonGenerator gen, String kind, String label,
+                                  int groupKeys, YamlEntry[] entries) throws IOException {
+        gen.writeObjectFieldStart(kind);
+        String[] prev = null;
+        for (YamlEntry e : entries) {
+            String[] keys = e.keys();
+            boolean newGroup = prev == null
+                    || !Arrays.equals(prev, 0, groupKeys, keys, 0, groupKeys);
+            if (!newGroup && prev[groupKeys].equals(keys[groupKeys])) {
+                continue;
+            }
+            if (newGroup) {
+                if (prev != null) {
+                    gen.writeEndArray();
+                }
+                gen.writeArrayFieldStart(keys[groupKeys - 1]);
+            }
+            gen.writeStartObject();
+            gen.writeStringField(label, keys[groupKeys]);
+            writeObjects(gen, e.pointer());
+            gen.writeEndObject();
+            prev = keys;
+        }
+        if (prev != null) {
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Similar to {@link #writeFlat}, but the entries with the same item key
+     * are written as an item, which contains the points-to sets of them
+     * under different contexts (i.e., the last key of each entry).
+     */
+    private static void writeNested(JsonGenerator gen, String kind, String label,
+                                    int groupKeys, YamlEntry[] entries) throws IOException {
+        gen.writeObjectFieldStart(kind);
+        String[] prev = null;
+        for (YamlEntry e : entries) {
+            String[] keys = e.keys();
+            boolean newGroup = prev == null
+                    || !Arrays.equals(prev, 0, groupKeys, keys, 0, groupKeys);
+            boolean newItem = newGroup || !prev[groupKeys].equals(keys[groupKeys]);
+            if (!newItem && prev[groupKeys + 1].equals(keys[groupKeys + 1])) {
+                continue;
+            }
+            if (newItem && prev != null) {
+                gen.writeEndArray(); // pts
+                gen.writeEndObject(); // item
+            }
+            if (newGroup) {
+                if (prev != null) {
+                    gen.writeEndArray();
+                }
+                gen.writeArrayFieldStart(keys[groupKeys - 1]);
+            }
+            if (newItem) {
+                gen.writeStartObject();
+                gen.writeStringField(label, keys[groupKeys]);
+                gen.writeArrayFieldStart("pts");
+            }
+            gen.writeStartObject();
+            gen.writeStringField("context", keys[groupKeys + 1]);
+            writeObjects(gen, e.pointer());
+            gen.writeEndObject();
+            prev = keys;
+        }
+        if (prev != null) {
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeObjects(JsonGenerator gen, Pointer pointer) throws IOException {
+        gen.writeArrayFieldStart("objects");
+        for (String obj : pointer.objects().map(CSObj::toString).sorted().toList()) {
+            gen.writeString(obj);
+        }
+        gen.writeEndArray();
+    }
+
     /**
      * Dumps points-to sets for all variables (without contexts).
      */
@@ -356,30 +430,42 @@ public class ResultProcessor implements Plugin {
         }
     }
 
+    private static void exportResult(PointerAnalysisResult result, String exportFile) {
+        logger.info("Exporting pointer analysis results to {}", exportFile);
+        try {
+            ColumnarResultWriter.write(result, Path.of(exportFile));
+        } catch (IOException e) {
+            throw new AnalysisException(
+                    "Failed to export pointer analysis results to " + exportFile, e);
+        }
+    }
+
     private static void comparePointsToSet(PointerAnalysisResult result, String input) {
         logger.info("Comparing points-to set with {}", input);
-        var inputs = readPointsToSets(input);
-        Map<String, Pointer> pointers = Maps.newLinkedHashMap();
+        Map<String, Pointer> pointers = Maps.newMap();
         addPointers(pointers, result.getCSVars());
         addPointers(pointers, result.getStaticFields());
         addPointers(pointers, result.getInstanceFields());
         addPointers(pointers, result.getArrayIndexes());
         List<String> mismatches = new ArrayList<>();
-        pointers.forEach((pointerStr, pointer) -> {
-            String given = Streams.toString(pointer.objects());
-            String expected = inputs.get(pointerStr);
-            if (!given.equals(expected)) {
+        // stream the expected points-to sets, and remove the compared
+        // pointers, so that the remaining ones are absent in input
+        PointsToSetReader.readPointsToSets(input, SEP, (pointerStr, expected) -> {
+            Pointer pointer = pointers.remove(pointerStr);
+            String given = pointer != null
+                    ? Streams.toString(pointer.objects()) : null;
+            if (!expected.equals(given)) {
                 mismatches.add(String.format("%s, expected: %s, given: %s",
                         pointerStr, expected, given));
             }
         });
-        inputs.keySet()
+        pointers.keySet()
                 .stream()
-                .filter(Predicate.not(pointers::containsKey))
+                .sorted()
                 .forEach(pointerStr -> {
-                    String expected = inputs.get(pointerStr);
-                    mismatches.add(String.format("%s, expected: %s, given: null",
-                            pointerStr, expected));
+                    String given = Streams.toString(pointers.get(pointerStr).objects());
+                    mismatches.add(String.format("%s, expected: null, given: %s",
+                            pointerStr, given));
                 });
         if (!mismatches.isEmpty()) {
             throw new AnalysisException("Mismatches of points-to set\n" +
@@ -387,31 +473,19 @@ public class ResultProcessor implements Plugin {
         }
     }
 
-    private static Map<String, String> readPointsToSets(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
-            Map<String, String> result = Maps.newLinkedHashMap();
-            lines.filter(line -> line.contains(SEP))
-                    .map(line -> line.split(SEP))
-                    .forEach(s -> result.put(s[0], s[1]));
-            return result;
-        } catch (IOException e) {
-            throw new AnalysisException(
-                    "Failed to read points-to set from " + input, e);
-        }
-    }
-
     private static void addPointers(Map<String, Pointer> map,
                                     Collection<? extends Pointer> pointers) {
-        pointers.stream()
-                .sorted(Comparator.comparing(Pointer::toString))
-                .forEach(p -> map.put(p.toString(), p));
+        pointers.forEach(p -> map.put(p.toString(), p));
     }
 
-    private static void dumpTaintFlows(PrintStream out, PointerAnalysisResult result) {
+    private static void dumpTaintFlows(Writer out, PointerAnalysisResult result)
+            throws IOException {
         Set<TaintFlow> taintFlows = getTaintFlows(result);
-        out.printf("Detected %d taint flow(s):%n", taintFlows.size());
-        taintFlows.forEach(out::println);
-        out.println();
+        out.write(String.format("Detected %d taint flow(s):\n", taintFlows.size()));
+        for (TaintFlow taintFlow : taintFlows) {
+            out.write(taintFlow + "\n");
+        }
+        out.write('\n');
     }
 
     /**
@@ -449,12 +523,12 @@ public class ResultProcessor implements Plugin {
     }
 
     private static List<String> readTaintFlows(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
+        try (Stream<String> lines = PointsToSetReader.lines(Path.of(input))) {
             List<String> taintFlows = new ArrayList<>();
             lines.filter(line -> line.startsWith("TaintFlow{") && line.contains(SEP))
                     .forEach(taintFlows::add);
             return taintFlows;
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             throw new AnalysisException(
                     "Failed to read taint flows from " + input, e);
         }
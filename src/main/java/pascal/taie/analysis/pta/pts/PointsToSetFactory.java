@@ -35,7 +35,25 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, false);
+    }
+
+    /**
+     * @param objIndexer indexer for the objects in the points-to sets.
+     * @param shared     whether the points-to sets with identical objects
+     *                   share their underlying (immutable) bit sets.
+     *                   This mode reduces memory footprint of
+     *                   context-sensitive analyses, in which many pointers
+     *                   have identical points-to sets.
+     * @see SharedBitPointsToSet
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, boolean shared) {
+        if (shared) {
+            SharedBitPointsToSet.Interner interner = new SharedBitPointsToSet.Interner();
+            factory = () -> new SharedBitPointsToSet(objIndexer, interner);
+        } else {
+            factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        }
     }
 
     public PointsToSet make() {
@@ -0,0 +1,351 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.SparseBitSet;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set whose content may be stored in a canonical immutable bit set.
+ * <p>
+ * All points-to sets created by the same factory share an {@link Interner},
+ * which hash-conses the bit sets, so that the points-to sets with identical
+ * objects (e.g., the ones of the {@link pascal.taie.analysis.pta.core.cs.element.CSVar}s
+ * for the same variable in different contexts) share the same bit set.
+ * <p>
+ * A points-to set is either <i>shared</i>, i.e., its bit set is canonical
+ * and never modified, or <i>private</i>, i.e., it owns a mutable bit set.
+ * Modifying a shared set first copies its bit set (copy-on-write), and
+ * further modifications update the private bit set in place. A set is
+ * interned, i.e., becomes shared, only when it is published to a pointer,
+ * i.e., at the end of {@link #addAllDiff(PointsToSet)}, which the solvers
+ * call once per propagation to update the points-to set of a pointer.
+ * Transient sets, e.g., the sets in work list (merged by
+ * {@link #addAll(PointsToSet)}) and the difference sets, stay private
+ * and are never interned. {@link #copy()} of a shared set is O(1).
+ * The interner holds canonical bit sets by weak references, so the bit
+ * sets that are no longer used by any points-to sets are reclaimed by
+ * garbage collector.
+ */
+class SharedBitPointsToSet implements PointsToSet {
+
+    private final Indexer<CSObj> indexer;
+
+    private final Interner interner;
+
+    /**
+     * The bit set which holds the indexes of the objects.
+     * It is canonical if {@link #shared} is true.
+     */
+    private IBitSet bits;
+
+    /**
+     * Whether {@link #bits} is canonical and must not be modified.
+     */
+    private boolean shared;
+
+    SharedBitPointsToSet(Indexer<CSObj> indexer, Interner interner) {
+        this(indexer, interner, interner.empty(), true);
+    }
+
+    private SharedBitPointsToSet(Indexer<CSObj> indexer, Interner interner,
+                                 IBitSet bits, boolean shared) {
+        this.indexer = indexer;
+        this.interner = interner;
+        this.bits = bits;
+        this.shared = shared;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (bits.get(index)) {
+            return false;
+        }
+        mutableBits().set(index);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        IBitSet otherBits = toBits(pts);
+        if (bits == otherBits || bits.contains(otherBits)) {
+            return false;
+        }
+        if (bits.isEmpty() && isShared(pts)) {
+            // takes the canonical bit set of pts without copying it
+            bits = otherBits;
+            shared = true;
+        } else {
+            // this set is not published, thus it is kept private
+            mutableBits().or(otherBits);
+        }
+        return true;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        IBitSet otherBits = toBits(pts);
+        if (bits == otherBits || bits.contains(otherBits)) {
+            return new SharedBitPointsToSet(indexer, interner);
+        }
+        if (bits.isEmpty()) {
+            bits = isShared(pts) ? otherBits : interner.intern(copyOf(otherBits));
+            shared = true;
+            // the diff is all objects of this set, which is shared now
+            return copy();
+        }
+        // the diff is transient, thus it is kept private
+        IBitSet diff = mutableBits().orDiff(otherBits);
+        share();
+        return new SharedBitPointsToSet(indexer, interner, diff, false);
+    }
+
+    @Override
+    public void removeIf(Predicate<CSObj> filter) {
+        IBitSet newBits = null;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if (filter.test(indexer.getObject(i))) {
+                if (newBits == null) {
+                    newBits = mutableBits();
+                }
+                newBits.clear(i);
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return bits.get(indexer.getIndex(obj));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new ObjectSet();
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public PointsToSet copy() {
+        return shared
+                ? new SharedBitPointsToSet(indexer, interner, bits, true)
+                : new SharedBitPointsToSet(indexer, interner, copyOf(bits), false);
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+
+    /**
+     * @return the bit set of this set which can be modified in place.
+     * If the bit set is shared, copies it first.
+     */
+    private IBitSet mutableBits() {
+        if (shared) {
+            bits = copyOf(bits);
+            shared = false;
+        }
+        return bits;
+    }
+
+    /**
+     * Publishes this set, i.e., interns its bit set if it is private.
+     */
+    private void share() {
+        if (!shared) {
+            bits = interner.intern(bits);
+            shared = true;
+        }
+    }
+
+    private static IBitSet copyOf(IBitSet bits) {
+        SparseBitSet copy = new SparseBitSet();
+        copy.or(bits);
+        return copy;
+    }
+
+    /**
+     * @return {@code true} if {@code pts} holds a canonical bit set.
+     */
+    private static boolean isShared(PointsToSet pts) {
+        return pts instanceof SharedBitPointsToSet other && other.shared;
+    }
+
+    /**
+     * @return the bits of {@code pts}. If {@code pts} is not
+     * {@link SharedBitPointsToSet}, converts it to a bit set.
+     */
+    private IBitSet toBits(PointsToSet pts) {
+        if (pts instanceof SharedBitPointsToSet other) {
+            return other.bits;
+        }
+        IBitSet result = new SparseBitSet();
+        pts.forEach(o -> result.set(indexer.getIndex(o)));
+        return result;
+    }
+
+    /**
+     * Unmodifiable view of the objects in this points-to set.
+     * Each iterator of the view iterates the bit set of this set at the
+     * time the iterator is created, which reflects later modifications
+     * only if this set is private at that time.
+     */
+    private class ObjectSet extends AbstractSet<CSObj> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CSObj obj
+                    && SharedBitPointsToSet.this.contains(obj);
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<CSObj> iterator() {
+            IBitSet snapshot = bits;
+            return new Iterator<>() {
+
+                private int next = snapshot.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public CSObj next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    CSObj obj = indexer.getObject(next);
+                    next = snapshot.nextSetBit(next + 1);
+                    return obj;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return SharedBitPointsToSet.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return SharedBitPointsToSet.this.isEmpty();
+        }
+    }
+
+    /**
+     * Hash-conses bit sets. It holds canonical bit sets by weak references,
+     * and it is thread-safe. The bit sets are distributed to a number of
+     * stripes by their hash codes, and each stripe is locked separately,
+     * so that the threads of parallel solver rarely contend on interning.
+     */
+    static class Interner {
+
+        private static final int STRIPES = 64;
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        private final IBitSet empty;
+
+        Interner() {
+            for (int i = 0; i < STRIPES; ++i) {
+                stripes[i] = new Stripe();
+            }
+            empty = intern(new SparseBitSet());
+        }
+
+        /**
+         * @return the canonical bit set which is equal to {@code bits}.
+         * After this call, {@code bits} must not be modified.
+         */
+        IBitSet intern(IBitSet bits) {
+            int hash = bits.hashCode();
+            // spread higher bits as HashMap does
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)].intern(bits);
+        }
+
+        IBitSet empty() {
+            return empty;
+        }
+
+        /**
+         * @return number of canonical bit sets in this interner.
+         */
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.size();
+            }
+            return size;
+        }
+
+        private static class Stripe {
+
+            private final Map<IBitSet, WeakReference<IBitSet>> canonicals =
+                    new WeakHashMap<>();
+
+            synchronized IBitSet intern(IBitSet bits) {
+                WeakReference<IBitSet> ref = canonicals.get(bits);
+                IBitSet canonical = ref != null ? ref.get() : null;
+                if (canonical == null) {
+                    canonicals.put(bits, new WeakReference<>(bits));
+                    canonical = bits;
+                }
+                return canonical;
+            }
+
+            synchronized int size() {
+                return canonicals.size();
+            }
+        }
+    }
+}
@@ -174,6 +174,31 @@ public class Options implements Serializable {
         return allowPhantom;
     }
 
+    @JsonProperty
+    @Option(names = "--load-on-demand",
+            description = "Only load the classes of entry points at world building," +
+                    " and load other classes on demand when they are referenced" +
+                    " by analyses (only supported by ASM frontend)" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean loadOnDemand;
+
+    public boolean isLoadOnDemand() {
+        return loadOnDemand;
+    }
+
+    @JsonProperty
+    @Option(names = "--parallel-class-loading",
+            description = "Build the classes of the world in parallel" +
+                    " (experimental, only supported by Soot frontend)" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean parallelClassLoading;
+
+    public boolean isParallelClassLoading() {
+        return parallelClassLoading;
+    }
+
     // ---------- general analysis options ----------
     @JsonProperty
     @Option(names = "--world-builder",
@@ -211,6 +236,17 @@ public class Options implements Serializable {
         return preBuildIR;
     }
 
+    @JsonProperty
+    @Option(names = "--ir-cache-size",
+            description = "Maximum number of unpinned IRs kept in memory," +
+                    " 0 means keeping all IRs (default: ${DEFAULT-VALUE})",
+            defaultValue = "0")
+    private int irCacheSize;
+
+    public int getIRCacheSize() {
+        return irCacheSize;
+    }
+
     @JsonProperty
     @Option(names = {"-wc", "--world-cache-mode"},
             description = "Enable world cache mode to save build time"
@@ -315,6 +351,12 @@ public class Options implements Serializable {
             throw new ConfigException("Conflict options: " +
                     "--analysis and --plan-file should not be used simultaneously");
         }
+        if (options.preBuildIR && options.irCacheSize > 0) {
+            // pre-building would build the IR of every method, and then
+            // evict all but the last ones from IR cache immediately
+            throw new ConfigException("Conflict options: " +
+                    "--pre-build-ir and --ir-cache-size should not be used simultaneously");
+        }
         if (options.getClassPath() != null
                 && options.mainClass == null
                 && options.inputClasses.isEmpty()
@@ -506,9 +548,12 @@ public class Options implements Serializable {
                 ", javaVersion=" + javaVersion +
                 ", prependJVM=" + prependJVM +
                 ", allowPhantom=" + allowPhantom +
+                ", loadOnDemand=" + loadOnDemand +
+                ", parallelClassLoading=" + parallelClassLoading +
                 ", worldBuilderClass=" + worldBuilderClass +
                 ", outputDir='" + outputDir + '\'' +
                 ", preBuildIR=" + preBuildIR +
+                ", irCacheSize=" + irCacheSize +
                 ", worldCacheMode=" + worldCacheMode +
                 ", scope=" + scope +
                 ", nativeModel=" + nativeModel +
@@ -0,0 +1,283 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InnerClassNode;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassBuilder;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.generics.ClassGSignature;
+import pascal.taie.language.generics.GSignatures;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static pascal.taie.frontend.asm.Converter.toClassName;
+
+/**
+ * Builds {@link JClass} from its class file. Method bodies are skipped
+ * when reading the class file, and they are parsed on demand by {@link IRBuilder}.
+ */
+class AsmClassBuilder implements JClassBuilder {
+
+    /**
+     * Tags of constant pool entries, see JVM Spec. (4.4).
+     */
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final Converter converter;
+
+    private final ClassFile classFile;
+
+    private final ClassReader reader;
+
+    private final ClassNode classNode;
+
+    /**
+     * Lengths of the bytecode of the methods in {@code classNode.methods}.
+     */
+    private final int[] codeLengths;
+
+    /**
+     * The entry of this class in its own InnerClasses attribute,
+     * or {@code null} if this class is not a nested class.
+     */
+    @Nullable
+    private final InnerClassNode innerClassNode;
+
+    private JClass jclass;
+
+    AsmClassBuilder(Converter converter, ClassFile classFile) {
+        this.converter = converter;
+        this.classFile = classFile;
+        this.reader = new ClassReader(classFile.bytes());
+        this.classNode = new ClassNode(Opcodes.ASM9);
+        reader.accept(classNode,
+                ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        this.codeLengths = readCodeLengths(reader);
+        this.innerClassNode = classNode.innerClasses.stream()
+                .filter(ic -> ic.name.equals(classNode.name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Reads the lengths of the bytecode of the methods in the class file,
+     * as the code is skipped by {@link ClassReader#SKIP_CODE}.
+     * The lengths are in the order of the methods in the class file,
+     * which is also the order of {@code classNode.methods}, and the length
+     * of a method without Code attribute (e.g., abstract method) is 0.
+     */
+    private static int[] readCodeLengths(ClassReader reader) {
+        char[] buffer = new char[reader.getMaxStringLength()];
+        // skip access_flags, this_class, super_class, and interfaces
+        int offset = reader.header + 6;
+        offset += 2 + 2 * reader.readUnsignedShort(offset);
+        // skip fields
+        int fieldsCount = reader.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < fieldsCount; ++i) {
+            offset = skipAttributes(reader, offset + 6);
+        }
+        int methodsCount = reader.readUnsignedShort(offset);
+        offset += 2;
+        int[] lengths = new int[methodsCount];
+        for (int i = 0; i < methodsCount; ++i) {
+            // skip access_flags, name_index, and descriptor_index
+            offset += 6;
+            int attributesCount = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int j = 0; j < attributesCount; ++j) {
+                int length = reader.readInt(offset + 2);
+                if ("Code".equals(reader.readUTF8(offset, buffer))) {
+                    // skip attribute header, max_stack, and max_locals
+                    lengths[i] = reader.readInt(offset + 10);
+                }
+                offset += 6 + length;
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * @return the offset after the attributes starting at {@code offset}.
+     */
+    private static int skipAttributes(ClassReader reader, int offset) {
+        int attributesCount = reader.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < attributesCount; ++i) {
+            offset += 6 + reader.readInt(offset + 2);
+        }
+        return offset;
+    }
+
+    @Override
+    public void build(JClass jclass) {
+        this.jclass = jclass;
+        jclass.build(this);
+    }
+
+    @Override
+    public Set<Modifier> getModifiers() {
+        // the access flags of nested classes (e.g., private and static)
+        // are only kept in InnerClasses attribute
+        return Modifiers.ofClass(innerClassNode != null ?
+                innerClassNode.access : classNode.access);
+    }
+
+    @Override
+    public String getSimpleName() {
+        String name = toClassName(classNode.name);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public ClassType getClassType() {
+        return converter.convertClassType(classNode.name);
+    }
+
+    @Override
+    public JClass getSuperClass() {
+        return classNode.superName == null ? null :
+                converter.convertClass(classNode.superName);
+    }
+
+    @Override
+    public Collection<JClass> getInterfaces() {
+        return Lists.map(classNode.interfaces, converter::convertClass);
+    }
+
+    @Override
+    public JClass getOuterClass() {
+        String outerName = innerClassNode != null && innerClassNode.outerName != null ?
+                innerClassNode.outerName : classNode.outerClass;
+        return outerName == null ? null : converter.convertClass(outerName);
+    }
+
+    @Override
+    public Collection<JField> getDeclaredFields() {
+        return Lists.map(classNode.fields,
+                f -> converter.convertField(jclass, f));
+    }
+
+    @Override
+    public Collection<JMethod> getDeclaredMethods() {
+        List<JMethod> methods = new ArrayList<>(classNode.methods.size());
+        for (int i = 0; i < classNode.methods.size(); ++i) {
+            methods.add(converter.convertMethod(jclass,
+                    classNode.methods.get(i), classFile, codeLengths[i]));
+        }
+        return methods;
+    }
+
+    @Override
+    public AnnotationHolder getAnnotationHolder() {
+        return Converter.convertAnnotations(
+                classNode.visibleAnnotations, classNode.invisibleAnnotations);
+    }
+
+    @Override
+    public boolean isApplication() {
+        return classFile.isApplication();
+    }
+
+    @Override
+    public boolean isPhantom() {
+        return false;
+    }
+
+    /**
+     * @return names of the classes referenced by this class, including
+     * the classes in its constant pool (e.g., the owners of accessed
+     * fields and invoked methods, and the operands of type instructions)
+     * and the classes in the descriptors of its members and the members
+     * it accesses.
+     */
+    Set<String> getReferencedClasses() {
+        Set<String> classes = Sets.newHybridSet();
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); ++i) {
+            int offset = reader.getItem(i);
+            if (offset == 0) { // the unusable entry after long/double
+                continue;
+            }
+            switch (reader.readByte(offset - 1)) {
+                case CONSTANT_CLASS -> addReferencedType(classes,
+                        org.objectweb.asm.Type.getObjectType(
+                                reader.readUTF8(offset, buffer)));
+                case CONSTANT_NAME_AND_TYPE -> addReferencedTypes(classes,
+                        reader.readUTF8(offset + 2, buffer));
+                default -> {
+                }
+            }
+        }
+        classNode.fields.forEach(f -> addReferencedTypes(classes, f.desc));
+        classNode.methods.forEach(m -> addReferencedTypes(classes, m.desc));
+        return classes;
+    }
+
+    private static void addReferencedTypes(Set<String> classes, String descriptor) {
+        if (descriptor.charAt(0) == '(') {
+            org.objectweb.asm.Type type = org.objectweb.asm.Type.getMethodType(descriptor);
+            for (org.objectweb.asm.Type argType : type.getArgumentTypes()) {
+                addReferencedType(classes, argType);
+            }
+            addReferencedType(classes, type.getReturnType());
+        } else {
+            addReferencedType(classes, org.objectweb.asm.Type.getType(descriptor));
+        }
+    }
+
+    private static void addReferencedType(Set<String> classes,
+                                          org.objectweb.asm.Type type) {
+        if (type.getSort() == org.objectweb.asm.Type.ARRAY) {
+            type = type.getElementType();
+        }
+        if (type.getSort() == org.objectweb.asm.Type.OBJECT) {
+            classes.add(toClassName(type.getInternalName()));
+        }
+    }
+
+    @Nullable
+    @Override
+    public ClassGSignature getGSignature() {
+        return classNode.signature == null ? null :
+                GSignatures.toClassSig(
+                        (classNode.access & Opcodes.ACC_INTERFACE) != 0,
+                        classNode.signature);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassBuilder;
+import pascal.taie.language.classes.JClassLoader;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.generics.ClassGSignature;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads classes from class files on demand. The classes referenced
+ * by a class are not loaded along with the class, and
+ * {@link #loadClasses(Collection, boolean)} can be used to load
+ * the closed world of the program.
+ */
+class AsmClassLoader implements JClassLoader {
+
+    private static final Logger logger = LogManager.getLogger(AsmClassLoader.class);
+
+    private final transient ClassPath classPath;
+
+    private final ClassHierarchy hierarchy;
+
+    private final boolean allowPhantom;
+
+    private transient Converter converter;
+
+    /**
+     * Classes that have been completely built. This map may be read
+     * concurrently (e.g., when building IR in parallel), thus we only
+     * put the classes that have been built into it.
+     */
+    private final Map<String, JClass> classes = Maps.newConcurrentMap(4096);
+
+    /**
+     * Classes that are being built. New class must be put into this map
+     * at first, as building a class may also trigger the loading of
+     * the class itself. Guarded by this loader.
+     */
+    private final Map<String, JClass> building = Maps.newHybridMap();
+
+    /**
+     * Names of the classes that are not found in class path.
+     */
+    private final Set<String> missingClasses = Sets.newConcurrentSet();
+
+    /**
+     * Builders of the loaded classes whose references have not been
+     * loaded by {@link #loadClasses(Collection, boolean)}.
+     */
+    private transient List<AsmClassBuilder> unscanned;
+
+    AsmClassLoader(ClassPath classPath, ClassHierarchy hierarchy,
+                   boolean allowPhantom) {
+        this.classPath = classPath;
+        this.hierarchy = hierarchy;
+        this.allowPhantom = allowPhantom;
+    }
+
+    void setConverter(Converter converter) {
+        this.converter = converter;
+    }
+
+    @Override
+    public JClass loadClass(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass == null && !missingClasses.contains(name)) {
+            synchronized (this) {
+                jclass = classes.get(name);
+                if (jclass == null) {
+                    jclass = building.get(name);
+                }
+                if (jclass == null && !missingClasses.contains(name)) {
+                    jclass = buildClass(name);
+                }
+            }
+        }
+        return jclass;
+    }
+
+    @Nullable
+    private JClass buildClass(String name) {
+        if (classPath == null) { // the loader has been deserialized
+            return null;
+        }
+        JClassBuilder builder;
+        ClassFile classFile = classPath.find(name);
+        if (classFile != null) {
+            builder = new AsmClassBuilder(converter, classFile);
+        } else if (allowPhantom) {
+            builder = new PhantomClassBuilder(converter, name);
+        } else {
+            missingClasses.add(name);
+            return null;
+        }
+        JClass jclass = new JClass(this, name);
+        building.put(name, jclass);
+        try {
+            builder.build(jclass);
+        } finally {
+            building.remove(name);
+        }
+        classes.put(name, jclass);
+        hierarchy.addClass(jclass);
+        if (unscanned != null && builder instanceof AsmClassBuilder asmBuilder) {
+            unscanned.add(asmBuilder);
+        }
+        return jclass;
+    }
+
+    /**
+     * Loads given classes. If {@code transitive} is {@code true}, all classes
+     * referenced by them are also loaded transitively, i.e., the closed world
+     * of the program; otherwise, the referenced classes are loaded on demand
+     * by {@link #loadClass(String)}, e.g., when building IR or resolving
+     * the references in IR.
+     *
+     * @param classNames names of the classes to load
+     * @param transitive whether to load the referenced classes transitively
+     */
+    synchronized void loadClasses(Collection<String> classNames,
+                                  boolean transitive) {
+        if (transitive) {
+            unscanned = new ArrayList<>();
+        }
+        classNames.forEach(this::loadClass);
+        if (transitive) {
+            while (!unscanned.isEmpty()) {
+                AsmClassBuilder builder = unscanned.remove(unscanned.size() - 1);
+                builder.getReferencedClasses().forEach(this::loadClass);
+            }
+            unscanned = null;
+        }
+        if (!missingClasses.isEmpty()) {
+            logger.warn("{} referenced classes are not found in class path",
+                    missingClasses.size());
+        }
+    }
+
+    @Override
+    public Collection<JClass> getLoadedClasses() {
+        return classes.values();
+    }
+
+    /**
+     * Builds classes that are referenced but not found in class path.
+     */
+    private record PhantomClassBuilder(Converter converter, String name)
+            implements JClassBuilder {
+
+        @Override
+        public void build(JClass jclass) {
+            jclass.build(this);
+        }
+
+        @Override
+        public Set<Modifier> getModifiers() {
+            return Set.of(Modifier.PUBLIC);
+        }
+
+        @Override
+        public String getSimpleName() {
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        @Override
+        public ClassType getClassType() {
+            return converter.convertClassType(name.replace('.', '/'));
+        }
+
+        @Override
+        public JClass getSuperClass() {
+            return name.equals(ClassNames.OBJECT) ? null :
+                    converter.convertClass(ClassNames.OBJECT.replace('.', '/'));
+        }
+
+        @Override
+        public Collection<JClass> getInterfaces() {
+            return Set.of();
+        }
+
+        @Override
+        public JClass getOuterClass() {
+            return null;
+        }
+
+        @Override
+        public Collection<JField> getDeclaredFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<JMethod> getDeclaredMethods() {
+            return List.of();
+        }
+
+        @Override
+        public AnnotationHolder getAnnotationHolder() {
+            return AnnotationHolder.emptyHolder();
+        }
+
+        @Override
+        public boolean isApplication() {
+            return false;
+        }
+
+        @Override
+        public boolean isPhantom() {
+            return true;
+        }
+
+        @Override
+        public ClassGSignature getGSignature() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.AbstractWorldBuilder;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.Options;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassHierarchyImpl;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.language.type.TypeSystemImpl;
+import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds the world by reading class files with ASM. Compared with
+ * {@link pascal.taie.frontend.soot.SootWorldBuilder}, this builder does
+ * not run Soot pipeline: only the class structures (i.e., the headers
+ * of classes and their members) are read when building the world, and
+ * the IR of each method is built from its bytecode on demand.
+ * <p>
+ * This builder only supports class files as input. Starting from the
+ * main class, input classes and the basic classes, it loads all classes
+ * referenced by the loaded classes transitively, i.e., the same closed
+ * world as the one built by Soot in whole-program mode.
+ * <p>
+ * If {@link Options#isLoadOnDemand()} is enabled, only the above root
+ * classes (and their super classes and interfaces) are loaded when building
+ * the world, and other classes are loaded when they are first referenced,
+ * e.g., by the IR of the methods reached by pointer analysis. Note that
+ * in this mode, {@link ClassHierarchy#allClasses()} only contains
+ * the classes loaded so far, thus the analyses relying on the complete
+ * class hierarchy, e.g., CHA, may miss the classes that are not loaded.
+ */
+public class AsmWorldBuilder extends AbstractWorldBuilder {
+
+    private static final Logger logger = LogManager.getLogger(AsmWorldBuilder.class);
+
+    /**
+     * Path to the file which specifies the basic classes that should be
+     * loaded in advance, which is shared with Soot frontend.
+     */
+    private static final String BASIC_CLASSES = "basic-classes.yml";
+
+    /**
+     * Classes which are used by the semantics of JVM,
+     * e.g., the exceptions thrown by instructions.
+     */
+    private static final List<String> JVM_CLASSES = List.of(
+            ClassNames.OBJECT,
+            ClassNames.SERIALIZABLE,
+            ClassNames.CLONEABLE,
+            ClassNames.CLASS,
+            ClassNames.STRING,
+            ClassNames.STRING_BUILDER,
+            ClassNames.STRING_BUFFER,
+            ClassNames.BOOLEAN,
+            ClassNames.BYTE,
+            ClassNames.SHORT,
+            ClassNames.CHARACTER,
+            ClassNames.INTEGER,
+            ClassNames.LONG,
+            ClassNames.FLOAT,
+            ClassNames.DOUBLE,
+            ClassNames.VOID,
+            ClassNames.THREAD,
+            ClassNames.THREAD_GROUP,
+            ClassNames.THROWABLE,
+            ClassNames.ERROR,
+            ClassNames.EXCEPTION,
+            ClassNames.CALL_SITE,
+            ClassNames.METHOD_HANDLE,
+            ClassNames.LOOKUP,
+            ClassNames.METHOD_TYPE,
+            ClassNames.ABSTRACT_METHOD_ERROR,
+            ClassNames.ARITHMETIC_EXCEPTION,
+            ClassNames.ARRAY_INDEX_OUT_OF_BOUNDS_EXCEPTION,
+            ClassNames.ARRAY_STORE_EXCEPTION,
+            ClassNames.CLASS_CAST_EXCEPTION,
+            ClassNames.ILLEGAL_MONITOR_STATE_EXCEPTION,
+            ClassNames.NEGATIVE_ARRAY_SIZE_EXCEPTION,
+            ClassNames.NULL_POINTER_EXCEPTION,
+            ClassNames.OUT_OF_MEMORY_ERROR
+    );
+
+    private static final String MAIN_METHOD = "void main(java.lang.String[])";
+
+    @Override
+    public void build(Options options, List<AnalysisConfig> analyses) {
+        World.reset();
+        World world = new World();
+        World.set(world);
+
+        // options will be used during World building, thus it should be
+        // set at first.
+        world.setOptions(options);
+        // initialize class hierarchy
+        ClassHierarchy hierarchy = new ClassHierarchyImpl();
+        // similar to Soot's application mode, the classes in given class
+        // paths are application classes, and the JRE classes are not
+        Set<String> appClassPath = Sets.newSet(options.getAppClassPath());
+        appClassPath.addAll(options.getClassPath());
+        ClassPath classPath = new ClassPath(
+                Arrays.asList(getClassPath(options).split(File.pathSeparator)),
+                appClassPath, options.isPrependJVM());
+        AsmClassLoader loader = new AsmClassLoader(
+                classPath, hierarchy, options.isAllowPhantom());
+        hierarchy.setDefaultClassLoader(loader);
+        hierarchy.setBootstrapClassLoader(loader);
+        world.setClassHierarchy(hierarchy);
+        // initialize type manager
+        TypeSystem typeSystem = new TypeSystemImpl(hierarchy);
+        world.setTypeSystem(typeSystem);
+        // initialize converter
+        Converter converter = new Converter(loader, typeSystem);
+        loader.setConverter(converter);
+        // load classes
+        boolean onDemand = options.isLoadOnDemand();
+        if (onDemand && options.isWorldCacheMode()) {
+            // the cached world cannot load classes after deserialization
+            logger.warn("Option --load-on-demand is ignored in world cache mode");
+            onDemand = false;
+        }
+        boolean transitive = !onDemand;
+        Timer.runAndCount(() -> loader.loadClasses(
+                getRootClasses(options, analyses), transitive), "Load classes");
+        logger.info("{} classes are loaded",
+                loader.getLoadedClasses().size());
+        // set main method
+        String mainClass = options.getMainClass();
+        if (mainClass != null) {
+            JClass jclass = hierarchy.getClass(mainClass);
+            if (jclass == null) {
+                throw new RuntimeException("Failed to find main class " +
+                        mainClass + ", are your class path and class name" +
+                        " given properly?");
+            }
+            JMethod mainMethod = jclass.getDeclaredMethod(
+                    Subsignature.get(MAIN_METHOD));
+            if (mainMethod != null && mainMethod.isStatic()) {
+                world.setMainMethod(mainMethod);
+            } else {
+                logger.warn("Warning: main class '{}'" +
+                        " does not have main(String[]) method!", mainClass);
+            }
+        } else {
+            logger.warn("Warning: main class was not given!");
+        }
+        // set implicit entries
+        world.setImplicitEntries(implicitEntries.stream()
+                .map(hierarchy::getJREMethod)
+                // some implicit entries may not exist in certain JDK version,
+                // thus we filter out null
+                .filter(Objects::nonNull)
+                .toList());
+        // initialize IR builder
+        world.setNativeModel(getNativeModel(typeSystem, hierarchy, options));
+        IRBuilder irBuilder = new IRBuilder(converter);
+        world.setIRBuilder(irBuilder);
+        if (options.isPreBuildIR()) {
+            irBuilder.buildAll(hierarchy);
+        }
+    }
+
+    /**
+     * @return names of the classes from which the closed world is loaded.
+     */
+    private static Set<String> getRootClasses(
+            Options options, List<AnalysisConfig> analyses) {
+        Set<String> classes = Sets.newLinkedSet();
+        if (options.getMainClass() != null) {
+            classes.add(options.getMainClass());
+        }
+        classes.addAll(getInputClasses(options));
+        classes.addAll(JVM_CLASSES);
+        classes.addAll(getBasicClasses());
+        implicitEntries.forEach(entry ->
+                classes.add(StringReps.getClassNameOf(entry)));
+        classes.addAll(getReflectionLogClasses(analyses));
+        return classes;
+    }
+
+    /**
+     * Reads basic classes specified by file {@link #BASIC_CLASSES}.
+     */
+    private static List<String> getBasicClasses() {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        JavaType type = mapper.getTypeFactory()
+                .constructCollectionType(List.class, String.class);
+        try (InputStream content = AsmWorldBuilder.class
+                .getClassLoader()
+                .getResourceAsStream(BASIC_CLASSES)) {
+            return mapper.readValue(content, type);
+        } catch (IOException e) {
+            throw new AsmFrontendException("Failed to read basic classes", e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Locates class files in class path. The class path consists of
+ * directories and jar files, and optionally the class path of the JVM
+ * which runs Tai-e. The entries are searched in order, and the first
+ * class file found for a class is used.
+ */
+class ClassPath implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ClassPath.class);
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * @param paths    class path entries to be searched in order
+     * @param appPaths the entries which contain application classes
+     * @param withJVM  whether to search the class path of current JVM
+     *                 after {@code paths}
+     */
+    ClassPath(List<String> paths, Set<String> appPaths, boolean withJVM) {
+        for (String path : paths) {
+            boolean isApp = appPaths.contains(path);
+            Path p = Path.of(path);
+            if (Files.isDirectory(p)) {
+                entries.add(new DirEntry(p, isApp));
+            } else if (path.endsWith(".jar") && Files.isRegularFile(p)) {
+                try {
+                    entries.add(new JarEntry(new ZipFile(p.toFile()), isApp));
+                } catch (IOException e) {
+                    logger.warn("Failed to open {}: {}", path, e);
+                }
+            } else {
+                logger.warn("Ignored invalid class path entry: {}", path);
+            }
+        }
+        if (withJVM) {
+            entries.add(new JVMEntry());
+        }
+    }
+
+    /**
+     * @return the class file of the class with given name, or {@code null}
+     * if the class is not found in the class path.
+     */
+    @Nullable
+    ClassFile find(String className) {
+        String fileName = className.replace('.', '/') + ".class";
+        for (Entry entry : entries) {
+            try {
+                byte[] bytes = entry.read(fileName);
+                if (bytes != null) {
+                    return new ClassFile(className, bytes, entry.isApplication());
+                }
+            } catch (IOException e) {
+                throw new AsmFrontendException(
+                        "Failed to read class file of " + className, e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        for (Entry entry : entries) {
+            if (entry instanceof JarEntry jar) {
+                try {
+                    jar.zipFile().close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close {}: {}", jar.zipFile().getName(), e);
+                }
+            }
+        }
+    }
+
+    private interface Entry {
+
+        /**
+         * @return contents of the file, or {@code null} if the file
+         * does not exist in this entry.
+         */
+        @Nullable
+        byte[] read(String fileName) throws IOException;
+
+        boolean isApplication();
+    }
+
+    private record DirEntry(Path dir, boolean isApplication) implements Entry {
+
+        @Nullable
+        @Override
+        public byte[] read(String fileName) throws IOException {
+            Path file;
+            try {
+                file = dir.resolve(fileName);
+            } catch (InvalidPathException e) {
+                // the name (e.g., given by a string constant) is not a valid
+                // file name, thus the class is absent in this directory
+                return null;
+            }
+            return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+        }
+    }
+
+    private record JarEntry(ZipFile zipFile, boolean isApplication) implements Entry {
+
+        @Nullable
+        @Override
+        public byte[] read(String fileName) throws IOException {
+            ZipEntry entry = zipFile.getEntry(fileName);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * Class path of current JVM, including the classes of Java runtime.
+     */
+    private record JVMEntry() implements Entry {
+
+        @Nullable
+        @Override
+        public byte[] read(String fileName) throws IOException {
+            try (InputStream in = ClassLoader.getSystemResourceAsStream(fileName)) {
+                return in != null ? in.readAllBytes() : null;
+            }
+        }
+
+        @Override
+        public boolean isApplication() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.ParameterNode;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.MethodHandle;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.annotation.Annotation;
+import pascal.taie.language.annotation.AnnotationElement;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.annotation.ArrayElement;
+import pascal.taie.language.annotation.BooleanElement;
+import pascal.taie.language.annotation.ClassElement;
+import pascal.taie.language.annotation.DoubleElement;
+import pascal.taie.language.annotation.Element;
+import pascal.taie.language.annotation.EnumElement;
+import pascal.taie.language.annotation.FloatElement;
+import pascal.taie.language.annotation.IntElement;
+import pascal.taie.language.annotation.LongElement;
+import pascal.taie.language.annotation.StringElement;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassLoader;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.generics.GSignatures;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static pascal.taie.language.type.BooleanType.BOOLEAN;
+import static pascal.taie.language.type.ByteType.BYTE;
+import static pascal.taie.language.type.CharType.CHAR;
+import static pascal.taie.language.type.DoubleType.DOUBLE;
+import static pascal.taie.language.type.FloatType.FLOAT;
+import static pascal.taie.language.type.IntType.INT;
+import static pascal.taie.language.type.LongType.LONG;
+import static pascal.taie.language.type.ShortType.SHORT;
+import static pascal.taie.language.type.VoidType.VOID;
+
+/**
+ * Converts the entities in class files to Tai-e's representation.
+ */
+class Converter {
+
+    private final JClassLoader loader;
+
+    private final TypeSystem typeSystem;
+
+    Converter(JClassLoader loader, TypeSystem typeSystem) {
+        this.loader = loader;
+        this.typeSystem = typeSystem;
+    }
+
+    TypeSystem getTypeSystem() {
+        return typeSystem;
+    }
+
+    Type convertType(org.objectweb.asm.Type type) {
+        return switch (type.getSort()) {
+            case org.objectweb.asm.Type.VOID -> VOID;
+            case org.objectweb.asm.Type.BOOLEAN -> BOOLEAN;
+            case org.objectweb.asm.Type.CHAR -> CHAR;
+            case org.objectweb.asm.Type.BYTE -> BYTE;
+            case org.objectweb.asm.Type.SHORT -> SHORT;
+            case org.objectweb.asm.Type.INT -> INT;
+            case org.objectweb.asm.Type.FLOAT -> FLOAT;
+            case org.objectweb.asm.Type.LONG -> LONG;
+            case org.objectweb.asm.Type.DOUBLE -> DOUBLE;
+            case org.objectweb.asm.Type.ARRAY -> typeSystem.getArrayType(
+                    convertType(type.getElementType()), type.getDimensions());
+            case org.objectweb.asm.Type.OBJECT ->
+                    convertClassType(type.getInternalName());
+            default -> throw new AsmFrontendException(
+                    "Cannot convert type: " + type);
+        };
+    }
+
+    /**
+     * Converts a type descriptor, e.g., {@code [Ljava/lang/String;}.
+     */
+    Type convertType(String descriptor) {
+        return convertType(org.objectweb.asm.Type.getType(descriptor));
+    }
+
+    /**
+     * Converts an internal name of class or array type, e.g.,
+     * {@code java/lang/String} or {@code [I}, which are used by
+     * the instructions that take a type operand.
+     */
+    Type convertInternalName(String internalName) {
+        return internalName.charAt(0) == '[' ?
+                convertType(internalName) :
+                convertClassType(internalName);
+    }
+
+    ClassType convertClassType(String internalName) {
+        return typeSystem.getClassType(loader, toClassName(internalName));
+    }
+
+    /**
+     * @return the class with given internal name. For the members of
+     * array types (e.g., {@code clone()} of {@code int[]}), this method
+     * returns {@code java.lang.Object}.
+     */
+    JClass convertClass(String internalName) {
+        String className = internalName.charAt(0) == '[' ?
+                ClassNames.OBJECT : toClassName(internalName);
+        JClass jclass = loader.loadClass(className);
+        if (jclass == null) {
+            throw new AsmFrontendException("Failed to find class " + className +
+                    ", are your class paths given properly?" +
+                    " (or use --allow-phantom to ignore missing classes)");
+        }
+        return jclass;
+    }
+
+    FieldRef convertFieldRef(String owner, String name,
+                             String descriptor, boolean isStatic) {
+        return FieldRef.get(convertClass(owner), name,
+                convertType(descriptor), isStatic);
+    }
+
+    MethodRef convertMethodRef(String owner, String name,
+                               String descriptor, boolean isStatic) {
+        org.objectweb.asm.Type type = org.objectweb.asm.Type.getMethodType(descriptor);
+        return MethodRef.get(convertClass(owner), name,
+                convertTypes(type.getArgumentTypes()),
+                convertType(type.getReturnType()), isStatic);
+    }
+
+    MethodType convertMethodType(String descriptor) {
+        org.objectweb.asm.Type type = org.objectweb.asm.Type.getMethodType(descriptor);
+        return MethodType.get(convertTypes(type.getArgumentTypes()),
+                convertType(type.getReturnType()));
+    }
+
+    private List<Type> convertTypes(org.objectweb.asm.Type[] types) {
+        return Lists.map(Arrays.asList(types), this::convertType);
+    }
+
+    /**
+     * Converts the constant used by {@code ldc} or the static argument
+     * of a bootstrap method to literal.
+     */
+    Literal convertLiteral(Object value) {
+        if (value instanceof Integer i) {
+            return IntLiteral.get(i);
+        } else if (value instanceof Long l) {
+            return LongLiteral.get(l);
+        } else if (value instanceof Float f) {
+            return FloatLiteral.get(f);
+        } else if (value instanceof Double d) {
+            return DoubleLiteral.get(d);
+        } else if (value instanceof String s) {
+            return StringLiteral.get(s);
+        } else if (value instanceof org.objectweb.asm.Type type) {
+            return type.getSort() == org.objectweb.asm.Type.METHOD ?
+                    convertMethodType(type.getDescriptor()) :
+                    ClassLiteral.get(convertType(type));
+        } else if (value instanceof Handle handle) {
+            return convertMethodHandle(handle);
+        } else if (value instanceof ConstantDynamic) {
+            throw new AsmFrontendException(
+                    "Dynamically-computed constant is not supported: " + value);
+        }
+        throw new AsmFrontendException("Cannot convert constant: " + value);
+    }
+
+    MethodHandle convertMethodHandle(Handle handle) {
+        int tag = handle.getTag();
+        MemberRef memberRef = switch (tag) {
+            case Opcodes.H_GETFIELD, Opcodes.H_PUTFIELD -> convertFieldRef(
+                    handle.getOwner(), handle.getName(), handle.getDesc(), false);
+            case Opcodes.H_GETSTATIC, Opcodes.H_PUTSTATIC -> convertFieldRef(
+                    handle.getOwner(), handle.getName(), handle.getDesc(), true);
+            default -> convertMethodRef(handle.getOwner(), handle.getName(),
+                    handle.getDesc(), tag == Opcodes.H_INVOKESTATIC);
+        };
+        return MethodHandle.get(MethodHandle.Kind.get(tag), memberRef);
+    }
+
+    JField convertField(JClass jclass, FieldNode field) {
+        return new JField(jclass, field.name,
+                Modifiers.ofField(field.access),
+                convertType(field.desc),
+                field.signature != null ?
+                        GSignatures.toTypeSig(field.signature) : null,
+                convertAnnotations(field.visibleAnnotations,
+                        field.invisibleAnnotations));
+    }
+
+    JMethod convertMethod(JClass jclass, MethodNode method,
+                          ClassFile classFile, int codeLength) {
+        org.objectweb.asm.Type type = org.objectweb.asm.Type.getMethodType(method.desc);
+        List<Type> paramTypes = convertTypes(type.getArgumentTypes());
+        List<ClassType> exceptions = Lists.map(method.exceptions,
+                this::convertClassType);
+        return new JMethod(jclass, method.name,
+                Modifiers.ofMethod(method.access),
+                paramTypes, convertType(type.getReturnType()), exceptions,
+                method.signature != null ?
+                        GSignatures.toMethodSig(method.signature) : null,
+                convertAnnotations(method.visibleAnnotations,
+                        method.invisibleAnnotations),
+                convertParamAnnotations(method, paramTypes.size()),
+                convertParamNames(method, paramTypes.size()),
+                new MethodSource(classFile, method.name, method.desc, codeLength));
+    }
+
+    /**
+     * @return an annotation holder that contains both runtime-visible
+     * and runtime-invisible annotations.
+     */
+    static AnnotationHolder convertAnnotations(
+            @Nullable List<AnnotationNode> visible,
+            @Nullable List<AnnotationNode> invisible) {
+        if (visible == null && invisible == null) {
+            return AnnotationHolder.emptyHolder();
+        }
+        List<Annotation> annotations = new ArrayList<>();
+        if (visible != null) {
+            visible.forEach(a -> annotations.add(convertAnnotation(a)));
+        }
+        if (invisible != null) {
+            invisible.forEach(a -> annotations.add(convertAnnotation(a)));
+        }
+        return AnnotationHolder.make(annotations);
+    }
+
+    private static Annotation convertAnnotation(AnnotationNode node) {
+        String annotationType = StringReps.toTaieTypeDesc(node.desc);
+        Map<String, Element> elements = Maps.newHybridMap();
+        if (node.values != null) {
+            // values are stored as name-value pairs
+            for (int i = 0; i < node.values.size(); i += 2) {
+                elements.put((String) node.values.get(i),
+                        convertAnnotationElement(node.values.get(i + 1)));
+            }
+        }
+        return new Annotation(annotationType, elements);
+    }
+
+    private static Element convertAnnotationElement(Object value) {
+        if (value instanceof String s) {
+            return new StringElement(s);
+        } else if (value instanceof org.objectweb.asm.Type type) {
+            return new ClassElement(StringReps.toTaieTypeDesc(type.getDescriptor()));
+        } else if (value instanceof AnnotationNode node) {
+            return new AnnotationElement(convertAnnotation(node));
+        } else if (value instanceof List<?> list) {
+            return new ArrayElement(Lists.map(list,
+                    Converter::convertAnnotationElement));
+        } else if (value instanceof String[] enumValue) {
+            // enumeration value is stored as [descriptor, name]
+            return new EnumElement(
+                    StringReps.toTaieTypeDesc(enumValue[0]), enumValue[1]);
+        } else if (value instanceof Boolean b) {
+            return new BooleanElement(b);
+        } else if (value instanceof Character c) {
+            return new IntElement(c);
+        } else if (value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer) {
+            return new IntElement(((Number) value).intValue());
+        } else if (value instanceof Long l) {
+            return new LongElement(l);
+        } else if (value instanceof Float f) {
+            return new FloatElement(f);
+        } else if (value instanceof Double d) {
+            return new DoubleElement(d);
+        } else if (value instanceof boolean[]
+                || value instanceof char[]
+                || value instanceof byte[]
+                || value instanceof short[]
+                || value instanceof int[]
+                || value instanceof long[]
+                || value instanceof float[]
+                || value instanceof double[]) {
+            // ASM stores primitive arrays in annotations as Java arrays
+            int length = java.lang.reflect.Array.getLength(value);
+            List<Element> elements = new ArrayList<>(length);
+            for (int i = 0; i < length; ++i) {
+                elements.add(convertAnnotationElement(
+                        java.lang.reflect.Array.get(value, i)));
+            }
+            return new ArrayElement(elements);
+        }
+        throw new AsmFrontendException(
+                "Unable to handle annotation element: " + value);
+    }
+
+    /**
+     * Converts the annotations of parameters of {@code method} to a list
+     * of {@link AnnotationHolder}, one for annotations of each parameter.
+     */
+    @Nullable
+    private static List<AnnotationHolder> convertParamAnnotations(
+            MethodNode method, int paramCount) {
+        List<AnnotationNode>[] visible = method.visibleParameterAnnotations;
+        List<AnnotationNode>[] invisible = method.invisibleParameterAnnotations;
+        if (visible == null && invisible == null) {
+            return null;
+        }
+        List<AnnotationHolder> holders = new ArrayList<>(paramCount);
+        for (int i = 0; i < paramCount; ++i) {
+            holders.add(convertAnnotations(
+                    visible != null && i < visible.length ? visible[i] : null,
+                    invisible != null && i < invisible.length ? invisible[i] : null));
+        }
+        return holders;
+    }
+
+    /**
+     * Converts the names of parameters recorded in
+     * {@code MethodParameters} attribute.
+     */
+    @Nullable
+    private static List<String> convertParamNames(
+            MethodNode method, int paramCount) {
+        List<ParameterNode> params = method.parameters;
+        if (params != null && params.size() == paramCount
+                && params.stream().allMatch(p -> p.name != null)) {
+            return Lists.map(params, p -> p.name);
+        }
+        return null;
+    }
+
+    static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
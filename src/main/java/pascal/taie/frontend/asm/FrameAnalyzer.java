@@ -0,0 +1,918 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static pascal.taie.language.type.BooleanType.BOOLEAN;
+import static pascal.taie.language.type.ByteType.BYTE;
+import static pascal.taie.language.type.CharType.CHAR;
+import static pascal.taie.language.type.DoubleType.DOUBLE;
+import static pascal.taie.language.type.FloatType.FLOAT;
+import static pascal.taie.language.type.IntType.INT;
+import static pascal.taie.language.type.LongType.LONG;
+import static pascal.taie.language.type.ShortType.SHORT;
+import static pascal.taie.language.type.VoidType.VOID;
+
+/**
+ * Analyzes the bytecode of a method body to compute the information
+ * required for building Tai-e IR, i.e.,
+ * <ul>
+ *     <li>the types of the local variables and the operand stack
+ *     before each instruction (JVM Spec. 4.10.2), and</li>
+ *     <li>the webs of the local variable slots. A web consists of the
+ *     definitions (stores) of a slot and the uses (loads) reached by them,
+ *     and each web is converted to a variable in Tai-e IR.</li>
+ * </ul>
+ * Unlike Jimple, the slots of JVM local variables are untyped and may be
+ * reused for unrelated variables, and class files compiled without
+ * debugging information (e.g., the JDK) have no local variable table,
+ * thus both the types and the variables are inferred from the bytecode.
+ * Subroutines (i.e., {@code jsr} and {@code ret}) are not supported.
+ */
+class FrameAnalyzer {
+
+    private static final BitSet EMPTY = new BitSet(0);
+
+    private final JMethod method;
+
+    private final MethodNode node;
+
+    private final Converter converter;
+
+    private final TypeSystem typeSystem;
+
+    private final InsnList insns;
+
+    private final ClassType objectType;
+
+    private final ClassType throwableType;
+
+    /**
+     * Number of local variable slots. The definitions of the parameters
+     * are identified by their slots, and the definition by the i-th
+     * instruction is identified by {@code nLocals + i}.
+     */
+    private final int nLocals;
+
+    /**
+     * The frame before each instruction, or {@code null}
+     * if the instruction is unreachable.
+     */
+    private final Frame[] frames;
+
+    /**
+     * Parents of the definitions in union-find, for computing webs.
+     */
+    private final int[] parents;
+
+    /**
+     * The web of each load, store and iinc instruction.
+     */
+    private final Web[] insnWebs;
+
+    /**
+     * The webs of the parameters (including {@code this}), indexed by slot.
+     */
+    private final Web[] paramWebs;
+
+    FrameAnalyzer(JMethod method, MethodNode node, Converter converter) {
+        this.method = method;
+        this.node = node;
+        this.converter = converter;
+        this.typeSystem = converter.getTypeSystem();
+        this.insns = node.instructions;
+        this.objectType = typeSystem.getClassType(ClassNames.OBJECT);
+        this.throwableType = typeSystem.getClassType(ClassNames.THROWABLE);
+        this.nLocals = node.maxLocals;
+        this.frames = new Frame[insns.size()];
+        this.parents = new int[nLocals + insns.size()];
+        this.insnWebs = new Web[insns.size()];
+        this.paramWebs = new Web[nLocals];
+    }
+
+    /**
+     * @return the frame before the i-th instruction, or {@code null}
+     * if the instruction is unreachable.
+     */
+    @Nullable
+    Frame getFrame(int i) {
+        return frames[i];
+    }
+
+    /**
+     * @return the web defined or used by the i-th instruction,
+     * which must be a reachable load, store or iinc instruction.
+     */
+    Web getWeb(int i) {
+        return insnWebs[i];
+    }
+
+    /**
+     * @return the web of the parameter stored in given slot.
+     */
+    Web getParamWeb(int slot) {
+        return paramWebs[slot];
+    }
+
+    void analyze() {
+        computeFrames();
+        computeWebs();
+    }
+
+    // ---------- computing frames ----------
+
+    private void computeFrames() {
+        @SuppressWarnings("unchecked")
+        List<TryCatchBlockNode>[] handlers = new List[insns.size()];
+        for (TryCatchBlockNode tcb : node.tryCatchBlocks) {
+            int end = insns.indexOf(tcb.end);
+            for (int i = insns.indexOf(tcb.start); i < end; ++i) {
+                if (handlers[i] == null) {
+                    handlers[i] = new ArrayList<>();
+                }
+                handlers[i].add(tcb);
+            }
+        }
+        BitSet workList = new BitSet(insns.size());
+        frames[0] = newEntryFrame();
+        workList.set(0);
+        for (int i = workList.nextSetBit(0); i >= 0;
+             i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Frame in = frames[i];
+            if (handlers[i] != null) {
+                for (TryCatchBlockNode tcb : handlers[i]) {
+                    ClassType catchType = tcb.type == null ? throwableType
+                            : converter.convertClassType(tcb.type);
+                    Frame handlerFrame = in.copy();
+                    handlerFrame.stack.clear();
+                    handlerFrame.stack.add(catchType);
+                    mergeInto(tcb.handler, handlerFrame, workList);
+                }
+            }
+            AbstractInsnNode insn = insns.get(i);
+            int opcode = insn.getOpcode();
+            if (opcode == -1) { // labels, line numbers, and frames
+                mergeInto(i + 1, in, workList);
+                continue;
+            }
+            Frame out = in.copy();
+            execute(i, insn, out);
+            if (insn instanceof JumpInsnNode jump) {
+                mergeInto(jump.label, out, workList);
+                if (opcode != Opcodes.GOTO) {
+                    mergeInto(i + 1, out, workList);
+                }
+            } else if (insn instanceof TableSwitchInsnNode tableSwitch) {
+                mergeInto(tableSwitch.dflt, out, workList);
+                tableSwitch.labels.forEach(l -> mergeInto(l, out, workList));
+            } else if (insn instanceof LookupSwitchInsnNode lookupSwitch) {
+                mergeInto(lookupSwitch.dflt, out, workList);
+                lookupSwitch.labels.forEach(l -> mergeInto(l, out, workList));
+            } else if (!isExit(opcode)) {
+                mergeInto(i + 1, out, workList);
+            }
+        }
+    }
+
+    private static boolean isExit(int opcode) {
+        return (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN)
+                || opcode == Opcodes.ATHROW;
+    }
+
+    private Frame newEntryFrame() {
+        Frame frame = new Frame(nLocals);
+        int slot = 0;
+        if (!method.isStatic()) {
+            frame.locals[slot] = method.getDeclaringClass().getType();
+            frame.defs[slot] = singleton(slot);
+            ++slot;
+        }
+        for (Type paramType : method.getParamTypes()) {
+            frame.locals[slot] = paramType;
+            frame.defs[slot] = singleton(slot);
+            slot += isWide(paramType) ? 2 : 1;
+        }
+        return frame;
+    }
+
+    private void mergeInto(LabelNode label, Frame frame, BitSet workList) {
+        mergeInto(insns.indexOf(label), frame, workList);
+    }
+
+    private void mergeInto(int i, Frame frame, BitSet workList) {
+        Frame target = frames[i];
+        if (target == null) {
+            frames[i] = frame.copy();
+            workList.set(i);
+        } else if (merge(target, frame)) {
+            workList.set(i);
+        }
+    }
+
+    /**
+     * Merges {@code frame} into {@code target}.
+     *
+     * @return {@code true} if {@code target} is changed.
+     */
+    private boolean merge(Frame target, Frame frame) {
+        boolean changed = false;
+        for (int i = 0; i < nLocals; ++i) {
+            Type type = mergeTypes(target.locals[i], frame.locals[i]);
+            if (!Objects.equals(type, target.locals[i])) {
+                target.locals[i] = type;
+                changed = true;
+            }
+            BitSet defs = target.defs[i];
+            BitSet newDefs = frame.defs[i];
+            if (!containsAll(defs, newDefs)) {
+                BitSet union = (BitSet) defs.clone();
+                union.or(newDefs);
+                target.defs[i] = union;
+                changed = true;
+            }
+        }
+        List<Type> stack = target.stack;
+        if (stack.size() != frame.stack.size()) {
+            throw new AsmFrontendException("Inconsistent stack heights in " + method);
+        }
+        for (int i = 0; i < stack.size(); ++i) {
+            Type type = Objects.requireNonNullElse(
+                    mergeTypes(stack.get(i), frame.stack.get(i)), objectType);
+            if (!type.equals(stack.get(i))) {
+                stack.set(i, type);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean containsAll(BitSet set, BitSet subset) {
+        for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+            if (!set.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the least upper bound of given types, or {@code null}
+     * if the types are incompatible (e.g., int and float).
+     */
+    @Nullable
+    private Type mergeTypes(@Nullable Type t1, @Nullable Type t2) {
+        if (t1 == null || t2 == null) {
+            return null;
+        } else if (t1.equals(t2)) {
+            return t1;
+        } else if (isIntLike(t1) && isIntLike(t2)) {
+            return INT;
+        } else if (t1 instanceof ReferenceType r1 && t2 instanceof ReferenceType r2) {
+            if (r1 == NullType.NULL) {
+                return r2;
+            } else if (r2 == NullType.NULL) {
+                return r1;
+            } else {
+                return lub(r1, r2);
+            }
+        }
+        return null;
+    }
+
+    private ReferenceType lub(ReferenceType t1, ReferenceType t2) {
+        if (typeSystem.isSubtype(t1, t2)) {
+            return t1;
+        } else if (typeSystem.isSubtype(t2, t1)) {
+            return t2;
+        } else if (t1 instanceof ClassType c1 && t2 instanceof ClassType c2) {
+            JClass class1 = c1.getJClass();
+            JClass class2 = c2.getJClass();
+            if (class1 != null && class2 != null) {
+                Set<JClass> superClasses = Sets.newHybridSet();
+                for (JClass c = class1; c != null; c = c.getSuperClass()) {
+                    superClasses.add(c);
+                }
+                for (JClass c = class2; c != null; c = c.getSuperClass()) {
+                    if (superClasses.contains(c)) {
+                        return c.getType();
+                    }
+                }
+            }
+        } else if (t1 instanceof ArrayType a1 && t2 instanceof ArrayType a2
+                && a1.elementType() instanceof ReferenceType e1
+                && a2.elementType() instanceof ReferenceType e2) {
+            ReferenceType elem = lub(e1, e2);
+            return elem instanceof ArrayType array ?
+                    typeSystem.getArrayType(array.baseType(), array.dimensions() + 1) :
+                    typeSystem.getArrayType(elem, 1);
+        }
+        return objectType;
+    }
+
+    /**
+     * Executes the i-th instruction on {@code frame}.
+     */
+    private void execute(int i, AbstractInsnNode insn, Frame frame) {
+        List<Type> stack = frame.stack;
+        int opcode = insn.getOpcode();
+        switch (opcode) {
+            case Opcodes.NOP, Opcodes.GOTO, Opcodes.RETURN -> {
+            }
+            case Opcodes.ACONST_NULL -> stack.add(NullType.NULL);
+            case Opcodes.ICONST_M1, Opcodes.ICONST_0, Opcodes.ICONST_1,
+                    Opcodes.ICONST_2, Opcodes.ICONST_3, Opcodes.ICONST_4,
+                    Opcodes.ICONST_5, Opcodes.BIPUSH, Opcodes.SIPUSH -> stack.add(INT);
+            case Opcodes.LCONST_0, Opcodes.LCONST_1 -> stack.add(LONG);
+            case Opcodes.FCONST_0, Opcodes.FCONST_1, Opcodes.FCONST_2 -> stack.add(FLOAT);
+            case Opcodes.DCONST_0, Opcodes.DCONST_1 -> stack.add(DOUBLE);
+            case Opcodes.LDC -> {
+                Object cst = ((LdcInsnNode) insn).cst;
+                stack.add(cst instanceof ConstantDynamic condy ?
+                        converter.convertType(condy.getDescriptor()) :
+                        converter.convertLiteral(cst).getType());
+            }
+            case Opcodes.ILOAD, Opcodes.LLOAD, Opcodes.FLOAD,
+                    Opcodes.DLOAD, Opcodes.ALOAD -> {
+                Type type = frame.locals[((VarInsnNode) insn).var];
+                stack.add(type != null ? type : getLoadType(opcode));
+            }
+            case Opcodes.IALOAD, Opcodes.LALOAD, Opcodes.FALOAD, Opcodes.DALOAD,
+                    Opcodes.AALOAD, Opcodes.BALOAD, Opcodes.CALOAD, Opcodes.SALOAD -> {
+                pop(stack); // index
+                Type array = pop(stack);
+                stack.add(array instanceof ArrayType arrayType ?
+                        arrayType.elementType() :
+                        getDefaultArrayType(opcode).elementType());
+            }
+            case Opcodes.ISTORE, Opcodes.LSTORE, Opcodes.FSTORE,
+                    Opcodes.DSTORE, Opcodes.ASTORE ->
+                    store(frame, ((VarInsnNode) insn).var, pop(stack), i);
+            case Opcodes.IASTORE, Opcodes.LASTORE, Opcodes.FASTORE, Opcodes.DASTORE,
+                    Opcodes.AASTORE, Opcodes.BASTORE, Opcodes.CASTORE, Opcodes.SASTORE,
+                    Opcodes.PUTFIELD -> pop(stack, opcode == Opcodes.PUTFIELD ? 2 : 3);
+            case Opcodes.POP, Opcodes.POP2, Opcodes.DUP, Opcodes.DUP_X1,
+                    Opcodes.DUP_X2, Opcodes.DUP2, Opcodes.DUP2_X1,
+                    Opcodes.DUP2_X2, Opcodes.SWAP ->
+                    shuffle(opcode, stack, FrameAnalyzer::isWide);
+            case Opcodes.IADD, Opcodes.ISUB, Opcodes.IMUL, Opcodes.IDIV, Opcodes.IREM,
+                    Opcodes.ISHL, Opcodes.ISHR, Opcodes.IUSHR, Opcodes.IAND,
+                    Opcodes.IOR, Opcodes.IXOR, Opcodes.LCMP, Opcodes.FCMPL,
+                    Opcodes.FCMPG, Opcodes.DCMPL, Opcodes.DCMPG -> {
+                pop(stack, 2);
+                stack.add(INT);
+            }
+            case Opcodes.LADD, Opcodes.LSUB, Opcodes.LMUL, Opcodes.LDIV, Opcodes.LREM,
+                    Opcodes.LSHL, Opcodes.LSHR, Opcodes.LUSHR, Opcodes.LAND,
+                    Opcodes.LOR, Opcodes.LXOR -> {
+                pop(stack, 2);
+                stack.add(LONG);
+            }
+            case Opcodes.FADD, Opcodes.FSUB, Opcodes.FMUL, Opcodes.FDIV, Opcodes.FREM -> {
+                pop(stack, 2);
+                stack.add(FLOAT);
+            }
+            case Opcodes.DADD, Opcodes.DSUB, Opcodes.DMUL, Opcodes.DDIV, Opcodes.DREM -> {
+                pop(stack, 2);
+                stack.add(DOUBLE);
+            }
+            case Opcodes.INEG, Opcodes.LNEG, Opcodes.FNEG, Opcodes.DNEG -> {
+                Type type = pop(stack);
+                stack.add(isIntLike(type) ? INT : type);
+            }
+            case Opcodes.IINC -> {
+                int var = ((IincInsnNode) insn).var;
+                frame.locals[var] = INT;
+                frame.defs[var] = singleton(nLocals + i);
+            }
+            case Opcodes.I2L, Opcodes.I2F, Opcodes.I2D, Opcodes.L2I, Opcodes.L2F,
+                    Opcodes.L2D, Opcodes.F2I, Opcodes.F2L, Opcodes.F2D, Opcodes.D2I,
+                    Opcodes.D2L, Opcodes.D2F, Opcodes.I2B, Opcodes.I2C, Opcodes.I2S -> {
+                pop(stack);
+                stack.add(getCastType(opcode));
+            }
+            case Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE,
+                    Opcodes.IFGT, Opcodes.IFLE, Opcodes.IFNULL, Opcodes.IFNONNULL,
+                    Opcodes.TABLESWITCH, Opcodes.LOOKUPSWITCH, Opcodes.IRETURN,
+                    Opcodes.LRETURN, Opcodes.FRETURN, Opcodes.DRETURN,
+                    Opcodes.ARETURN, Opcodes.PUTSTATIC, Opcodes.ATHROW,
+                    Opcodes.MONITORENTER, Opcodes.MONITOREXIT -> pop(stack);
+            case Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT,
+                    Opcodes.IF_ICMPGE, Opcodes.IF_ICMPGT, Opcodes.IF_ICMPLE,
+                    Opcodes.IF_ACMPEQ, Opcodes.IF_ACMPNE -> pop(stack, 2);
+            case Opcodes.GETSTATIC -> stack.add(
+                    converter.convertType(((FieldInsnNode) insn).desc));
+            case Opcodes.GETFIELD -> {
+                pop(stack);
+                stack.add(converter.convertType(((FieldInsnNode) insn).desc));
+            }
+            case Opcodes.INVOKEVIRTUAL, Opcodes.INVOKESPECIAL,
+                    Opcodes.INVOKESTATIC, Opcodes.INVOKEINTERFACE -> {
+                String desc = ((MethodInsnNode) insn).desc;
+                pop(stack, org.objectweb.asm.Type.getArgumentTypes(desc).length);
+                if (opcode != Opcodes.INVOKESTATIC) {
+                    pop(stack);
+                }
+                pushReturnType(stack, desc);
+            }
+            case Opcodes.INVOKEDYNAMIC -> {
+                String desc = ((InvokeDynamicInsnNode) insn).desc;
+                pop(stack, org.objectweb.asm.Type.getArgumentTypes(desc).length);
+                pushReturnType(stack, desc);
+            }
+            case Opcodes.NEW -> stack.add(
+                    converter.convertClassType(((TypeInsnNode) insn).desc));
+            case Opcodes.NEWARRAY -> {
+                pop(stack);
+                stack.add(typeSystem.getArrayType(
+                        getNewArrayElementType(((IntInsnNode) insn).operand), 1));
+            }
+            case Opcodes.ANEWARRAY -> {
+                pop(stack);
+                stack.add(getArrayTypeOf(converter.convertInternalName(
+                        ((TypeInsnNode) insn).desc)));
+            }
+            case Opcodes.ARRAYLENGTH, Opcodes.INSTANCEOF -> {
+                pop(stack);
+                stack.add(INT);
+            }
+            case Opcodes.CHECKCAST -> {
+                pop(stack);
+                stack.add(converter.convertInternalName(((TypeInsnNode) insn).desc));
+            }
+            case Opcodes.MULTIANEWARRAY -> {
+                MultiANewArrayInsnNode multiNew = (MultiANewArrayInsnNode) insn;
+                pop(stack, multiNew.dims);
+                stack.add(converter.convertType(multiNew.desc));
+            }
+            default -> throw new AsmFrontendException(
+                    "Unsupported opcode " + opcode + " in " + method);
+        }
+    }
+
+    private void store(Frame frame, int var, Type type, int i) {
+        frame.locals[var] = type;
+        frame.defs[var] = singleton(nLocals + i);
+        if (isWide(type)) {
+            frame.locals[var + 1] = null;
+            frame.defs[var + 1] = EMPTY;
+        }
+        if (var > 0 && isWide(frame.locals[var - 1])) {
+            // the second half of a long or double is overwritten
+            frame.locals[var - 1] = null;
+            frame.defs[var - 1] = EMPTY;
+        }
+    }
+
+    private void pushReturnType(List<Type> stack, String desc) {
+        Type returnType = converter.convertType(
+                org.objectweb.asm.Type.getReturnType(desc));
+        if (returnType != VOID) {
+            stack.add(returnType);
+        }
+    }
+
+    ArrayType getArrayTypeOf(Type elementType) {
+        return elementType instanceof ArrayType array ?
+                typeSystem.getArrayType(array.baseType(), array.dimensions() + 1) :
+                typeSystem.getArrayType(elementType, 1);
+    }
+
+    private Type getLoadType(int opcode) {
+        return switch (opcode) {
+            case Opcodes.ILOAD -> INT;
+            case Opcodes.LLOAD -> LONG;
+            case Opcodes.FLOAD -> FLOAT;
+            case Opcodes.DLOAD -> DOUBLE;
+            default -> objectType;
+        };
+    }
+
+    /**
+     * @return the array type accessed by given array load/store instruction,
+     * which is used when the type of the array cannot be inferred, e.g.,
+     * the array is {@code null}.
+     */
+    ArrayType getDefaultArrayType(int opcode) {
+        Type elementType = switch (opcode) {
+            case Opcodes.IALOAD, Opcodes.IASTORE -> INT;
+            case Opcodes.LALOAD, Opcodes.LASTORE -> LONG;
+            case Opcodes.FALOAD, Opcodes.FASTORE -> FLOAT;
+            case Opcodes.DALOAD, Opcodes.DASTORE -> DOUBLE;
+            case Opcodes.BALOAD, Opcodes.BASTORE -> BYTE;
+            case Opcodes.CALOAD, Opcodes.CASTORE -> CHAR;
+            case Opcodes.SALOAD, Opcodes.SASTORE -> SHORT;
+            default -> objectType;
+        };
+        return typeSystem.getArrayType(elementType, 1);
+    }
+
+    static PrimitiveType getCastType(int opcode) {
+        return switch (opcode) {
+            case Opcodes.L2I, Opcodes.F2I, Opcodes.D2I -> INT;
+            case Opcodes.I2L, Opcodes.F2L, Opcodes.D2L -> LONG;
+            case Opcodes.I2F, Opcodes.L2F, Opcodes.D2F -> FLOAT;
+            case Opcodes.I2D, Opcodes.L2D, Opcodes.F2D -> DOUBLE;
+            case Opcodes.I2B -> BYTE;
+            case Opcodes.I2C -> CHAR;
+            case Opcodes.I2S -> SHORT;
+            default -> throw new AsmFrontendException(
+                    "Not a conversion opcode: " + opcode);
+        };
+    }
+
+    static PrimitiveType getNewArrayElementType(int operand) {
+        return switch (operand) {
+            case Opcodes.T_BOOLEAN -> BOOLEAN;
+            case Opcodes.T_CHAR -> CHAR;
+            case Opcodes.T_FLOAT -> FLOAT;
+            case Opcodes.T_DOUBLE -> DOUBLE;
+            case Opcodes.T_BYTE -> BYTE;
+            case Opcodes.T_SHORT -> SHORT;
+            case Opcodes.T_INT -> INT;
+            case Opcodes.T_LONG -> LONG;
+            default -> throw new AsmFrontendException(
+                    "Invalid operand of newarray: " + operand);
+        };
+    }
+
+    private static Type pop(List<Type> stack) {
+        return stack.remove(stack.size() - 1);
+    }
+
+    private static void pop(List<Type> stack, int n) {
+        stack.subList(stack.size() - n, stack.size()).clear();
+    }
+
+    /**
+     * Simulates the stack manipulation instructions (e.g., {@code dup2_x1})
+     * on given stack of values. Note that the instructions are defined in
+     * terms of slots, and values of type long and double occupy two slots.
+     */
+    static <T> void shuffle(int opcode, List<T> stack, Predicate<T> isWide) {
+        int size = stack.size();
+        T v1 = stack.get(size - 1);
+        switch (opcode) {
+            case Opcodes.POP -> stack.remove(size - 1);
+            case Opcodes.POP2 -> stack.subList(
+                    isWide.test(v1) ? size - 1 : size - 2, size).clear();
+            case Opcodes.DUP -> stack.add(v1);
+            case Opcodes.DUP_X1 -> stack.add(size - 2, v1);
+            case Opcodes.DUP_X2 -> stack.add(
+                    isWide.test(stack.get(size - 2)) ? size - 2 : size - 3, v1);
+            case Opcodes.DUP2 -> {
+                if (isWide.test(v1)) {
+                    stack.add(v1);
+                } else {
+                    stack.addAll(List.copyOf(stack.subList(size - 2, size)));
+                }
+            }
+            case Opcodes.DUP2_X1 -> {
+                if (isWide.test(v1)) {
+                    stack.add(size - 2, v1);
+                } else {
+                    stack.addAll(size - 3, List.copyOf(stack.subList(size - 2, size)));
+                }
+            }
+            case Opcodes.DUP2_X2 -> {
+                if (isWide.test(v1)) {
+                    stack.add(isWide.test(stack.get(size - 2)) ?
+                            size - 2 : size - 3, v1);
+                } else {
+                    List<T> top2 = List.copyOf(stack.subList(size - 2, size));
+                    stack.addAll(isWide.test(stack.get(size - 3)) ?
+                            size - 3 : size - 4, top2);
+                }
+            }
+            case Opcodes.SWAP -> {
+                stack.set(size - 1, stack.get(size - 2));
+                stack.set(size - 2, v1);
+            }
+            default -> throw new AsmFrontendException(
+                    "Not a stack manipulation opcode: " + opcode);
+        }
+    }
+
+    static boolean isWide(@Nullable Type type) {
+        return type == LONG || type == DOUBLE;
+    }
+
+    private static boolean isIntLike(Type type) {
+        return type instanceof PrimitiveType t && t.asInt();
+    }
+
+    private static BitSet singleton(int def) {
+        BitSet set = new BitSet(def + 1);
+        set.set(def);
+        return set;
+    }
+
+    // ---------- computing webs ----------
+
+    private void computeWebs() {
+        for (int i = 0; i < parents.length; ++i) {
+            parents[i] = i;
+        }
+        // unite the definitions that reach the same use
+        for (int i = 0; i < insns.size(); ++i) {
+            if (frames[i] != null && isUse(insns.get(i).getOpcode())) {
+                BitSet defs = frames[i].defs[getVar(insns.get(i))];
+                int first = defs.nextSetBit(0);
+                if (first < 0) {
+                    throw new AsmFrontendException("Local variable " +
+                            getVar(insns.get(i)) + " is used before" +
+                            " being defined in " + method);
+                }
+                for (int d = defs.nextSetBit(first + 1); d >= 0;
+                     d = defs.nextSetBit(d + 1)) {
+                    union(first, d);
+                }
+                if (insns.get(i).getOpcode() == Opcodes.IINC) {
+                    union(first, nLocals + i);
+                }
+            }
+        }
+        // collect the definitions, uses, and types of each web
+        Map<Integer, WebBuilder> builders = Maps.newLinkedHashMap();
+        Frame entry = frames[0];
+        for (int slot = 0; slot < nLocals; ++slot) {
+            if (!entry.defs[slot].isEmpty()) {
+                WebBuilder builder = builders.computeIfAbsent(
+                        find(slot), WebBuilder::new);
+                builder.slot = slot;
+                builder.paramType = entry.locals[slot];
+            }
+        }
+        for (int i = 0; i < insns.size(); ++i) {
+            AbstractInsnNode insn = insns.get(i);
+            int opcode = insn.getOpcode();
+            if (frames[i] == null) {
+                continue;
+            }
+            int root;
+            if (isStore(opcode)) {
+                root = find(nLocals + i);
+            } else if (isUse(opcode)) {
+                root = find(frames[i].defs[getVar(insn)].nextSetBit(0));
+            } else {
+                continue;
+            }
+            WebBuilder builder = builders.computeIfAbsent(root, WebBuilder::new);
+            builder.slot = getVar(insn);
+            builder.insnIndexes.add(i);
+            if (opcode == Opcodes.IINC) {
+                builder.addDefType(INT);
+            } else if (isStore(opcode)) {
+                List<Type> stack = frames[i].stack;
+                builder.addDefType(stack.get(stack.size() - 1));
+            }
+        }
+        builders.values().forEach(builder -> {
+            Web web = builder.build();
+            builder.insnIndexes.forEach(i -> insnWebs[i] = web);
+            if (builder.paramType != null) {
+                paramWebs[builder.slot] = web;
+            }
+        });
+    }
+
+    private static boolean isUse(int opcode) {
+        return (opcode >= Opcodes.ILOAD && opcode <= Opcodes.ALOAD)
+                || opcode == Opcodes.IINC;
+    }
+
+    private static boolean isStore(int opcode) {
+        return (opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE)
+                || opcode == Opcodes.IINC;
+    }
+
+    private static int getVar(AbstractInsnNode insn) {
+        return insn instanceof VarInsnNode varInsn ?
+                varInsn.var : ((IincInsnNode) insn).var;
+    }
+
+    private int find(int def) {
+        while (parents[def] != def) {
+            parents[def] = parents[parents[def]];
+            def = parents[def];
+        }
+        return def;
+    }
+
+    private void union(int def1, int def2) {
+        int root1 = find(def1);
+        int root2 = find(def2);
+        if (root1 != root2) {
+            // keep the smaller root, so that the parameters
+            // are the roots of their webs
+            parents[Math.max(root1, root2)] = Math.min(root1, root2);
+        }
+    }
+
+    /**
+     * @return the entry of local variable table which describes the
+     * given slot at the i-th instruction, or {@code null} if such entry
+     * does not exist.
+     */
+    @Nullable
+    private LocalVariableNode getLocalVariable(int slot, int i) {
+        if (node.localVariables != null) {
+            for (LocalVariableNode local : node.localVariables) {
+                if (local.index == slot
+                        && insns.indexOf(local.start) <= i
+                        && i < insns.indexOf(local.end)) {
+                    return local;
+                }
+            }
+        }
+        return null;
+    }
+
+    private class WebBuilder {
+
+        private final int id;
+
+        private int slot;
+
+        @Nullable
+        private Type paramType;
+
+        @Nullable
+        private Type defType;
+
+        private boolean hasDef;
+
+        private final List<Integer> insnIndexes = new ArrayList<>();
+
+        private WebBuilder(int id) {
+            this.id = id;
+        }
+
+        private void addDefType(Type type) {
+            defType = hasDef ? mergeTypes(defType, type) : type;
+            hasDef = true;
+        }
+
+        private Web build() {
+            String name = null;
+            Type type = paramType != null ? paramType : defType;
+            if (paramType != null) {
+                LocalVariableNode local = getLocalVariable(slot, 0);
+                if (local != null) {
+                    name = local.name;
+                }
+            } else {
+                for (int i : insnIndexes) {
+                    // the local variable table describes a variable
+                    // from the instruction that follows its store
+                    int opcode = insns.get(i).getOpcode();
+                    LocalVariableNode local = getLocalVariable(slot,
+                            opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE ?
+                                    i + 1 : i);
+                    if (local != null) {
+                        name = local.name;
+                        Type declaredType = converter.convertType(local.desc);
+                        if (isCompatible(declaredType, type)) {
+                            type = declaredType;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (type == null || type == NullType.NULL) {
+                type = objectType;
+            }
+            return new Web(id, slot, name, type, paramType != null);
+        }
+
+        private boolean isCompatible(Type declaredType, @Nullable Type inferredType) {
+            return inferredType == null
+                    || declaredType.equals(inferredType)
+                    || (declaredType instanceof ReferenceType
+                    && inferredType instanceof ReferenceType)
+                    || (isIntLike(declaredType) && isIntLike(inferredType));
+        }
+    }
+
+    /**
+     * Represents a frame, i.e., the types of local variables and
+     * operand stack, and the definitions of local variables which
+     * reach the program point.
+     */
+    static class Frame {
+
+        /**
+         * Types of local variables. {@code null} means that the slot
+         * is unusable, e.g., the second half of a long value.
+         */
+        private final Type[] locals;
+
+        /**
+         * Definitions which may reach each local variable slot.
+         * The bit sets are shared among frames and never modified.
+         */
+        private final BitSet[] defs;
+
+        /**
+         * Types of the values in operand stack. Note that each value
+         * (including long and double) takes one element.
+         */
+        private final List<Type> stack;
+
+        private Frame(int nLocals) {
+            this.locals = new Type[nLocals];
+            this.defs = new BitSet[nLocals];
+            Arrays.fill(defs, EMPTY);
+            this.stack = new ArrayList<>();
+        }
+
+        private Frame(Frame frame) {
+            this.locals = frame.locals.clone();
+            this.defs = frame.defs.clone();
+            this.stack = new ArrayList<>(frame.stack);
+        }
+
+        private Frame copy() {
+            return new Frame(this);
+        }
+
+        List<Type> getStack() {
+            return stack;
+        }
+    }
+
+    /**
+     * A web of a local variable slot, which is converted to a variable.
+     *
+     * @param id      the identifier of this web, which is unique in the method.
+     * @param slot    the slot of the local variable.
+     * @param name    the name of the variable in local variable table,
+     *                or {@code null} if it is absent.
+     * @param type    the type of the variable.
+     * @param isParam whether this web contains a parameter (or {@code this}).
+     */
+    record Web(int id, int slot, @Nullable String name, Type type, boolean isParam) {
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuildHelper;
+import pascal.taie.ir.IRBuildScheduler;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Builds IR from the method bodies in class files. The class file of
+ * a method is re-read when building its IR, and only the code of
+ * the method is parsed, so that the method bodies are not kept in memory.
+ */
+class IRBuilder implements pascal.taie.ir.IRBuilder {
+
+    private static final Logger logger = LogManager.getLogger(IRBuilder.class);
+
+    private final transient Converter converter;
+
+    IRBuilder(Converter converter) {
+        this.converter = converter;
+    }
+
+    @Override
+    public IR buildIR(JMethod method) {
+        try {
+            MethodNode node = readMethod(method);
+            return new MethodIRBuilder(method, converter, node).build();
+        } catch (AsmFrontendException e) {
+            logger.warn("ASM frontend failed to build method body for {} ({})," +
+                    " constructs an empty IR instead", method, e.getMessage());
+            return new IRBuildHelper(method).buildEmpty();
+        }
+    }
+
+    private static MethodNode readMethod(JMethod method) {
+        if (!(method.getMethodSource() instanceof MethodSource source)) {
+            throw new AsmFrontendException("Method source is absent");
+        }
+        MethodNode[] result = new MethodNode[1];
+        new ClassReader(source.classFile().bytes()).accept(
+                new ClassVisitor(Opcodes.ASM9) {
+                    @Override
+                    public MethodVisitor visitMethod(
+                            int access, String name, String descriptor,
+                            String signature, String[] exceptions) {
+                        if (result[0] == null && name.equals(source.name())
+                                && descriptor.equals(source.descriptor())) {
+                            result[0] = new MethodNode(Opcodes.ASM9, access,
+                                    name, descriptor, signature, exceptions);
+                            return result[0];
+                        }
+                        return null;
+                    }
+                }, ClassReader.SKIP_FRAMES);
+        if (result[0] == null) {
+            throw new AsmFrontendException("Method body is absent");
+        }
+        return result[0];
+    }
+
+    /**
+     * Builds IR for all methods in given class hierarchy in parallel,
+     * where the cost of building IR of each method is estimated by
+     * the length of its bytecode.
+     */
+    @Override
+    public void buildAll(ClassHierarchy hierarchy) {
+        IRBuildScheduler.buildAll(hierarchy, m ->
+                m.getMethodSource() instanceof MethodSource source ?
+                        source.codeLength() : 0);
+    }
+}
@@ -0,0 +1,886 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FrameNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.ArrayLengthExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InstanceOfExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInterface;
+import pascal.taie.ir.exp.InvokeSpecial;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.NegExp;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Catch;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.InstanceOf;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.LookupSwitch;
+import pascal.taie.ir.stmt.Monitor;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.ir.stmt.Unary;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static pascal.taie.language.type.DoubleType.DOUBLE;
+import static pascal.taie.language.type.FloatType.FLOAT;
+import static pascal.taie.language.type.IntType.INT;
+import static pascal.taie.language.type.LongType.LONG;
+import static pascal.taie.language.type.VoidType.VOID;
+
+/**
+ * Builds Tai-e IR from the bytecode of a method.
+ * <p>
+ * The operand stack is simulated by a stack of variables. The values
+ * pushed by loads and constants are the variables of the corresponding
+ * locals and constants, and each value computed by an instruction is held
+ * by a new temporary variable, unless it is stored to a local variable by
+ * the following instruction, in which case the value is directly assigned
+ * to the variable of the local, e.g., {@code iload 1; iconst_1; iadd;
+ * istore 2} is converted to {@code x = y + %intconst0}. At the program
+ * points where control-flow merges and operand stack is not empty (e.g.,
+ * conditional expressions), the values are copied to the temporary
+ * variables shared by all predecessors.
+ */
+class MethodIRBuilder {
+
+    private final JMethod method;
+
+    private final Converter converter;
+
+    private final MethodNode node;
+
+    private final InsnList insns;
+
+    private final FrameAnalyzer analyzer;
+
+    private final VarManager varManager;
+
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    private final Set<Var> returnVars = Sets.newLinkedSet();
+
+    /**
+     * The simulated operand stack.
+     */
+    private final List<Var> stack = new ArrayList<>();
+
+    /**
+     * Caches variables that hold constant values, so that we don't need to
+     * create multiple temp variables and assignments for the same constants
+     * in the same method.
+     */
+    private final Map<Literal, Var> constantVars = Maps.newHybridMap();
+
+    /**
+     * Map from labels to the indexes of the first statements after them.
+     */
+    private final Map<LabelNode, Integer> labelIndexes = Maps.newHybridMap();
+
+    /**
+     * Map from jump statements to the corresponding jump instructions.
+     */
+    private final Map<Stmt, AbstractInsnNode> jumps = Maps.newLinkedHashMap();
+
+    /**
+     * Map from exception handlers to the corresponding catch statements.
+     */
+    private final Map<LabelNode, Catch> catches = Maps.newHybridMap();
+
+    /**
+     * Variables which hold the operand stack values at merge points.
+     */
+    private final Map<LabelNode, List<Var>> mergedStackVars = Maps.newHybridMap();
+
+    private final Set<LabelNode> jumpTargets = Sets.newHybridSet();
+
+    private final Set<LabelNode> handlers = Sets.newHybridSet();
+
+    /**
+     * Line number of the instruction being converted.
+     */
+    private int currentLine = -1;
+
+    /**
+     * Index of the instruction being converted.
+     */
+    private int current;
+
+    /**
+     * Index of the store instruction whose value is assigned by the
+     * instruction being converted, or -1 if the value is pushed to stack.
+     */
+    private int foldedStore;
+
+    MethodIRBuilder(JMethod method, Converter converter, MethodNode node) {
+        this.method = method;
+        this.converter = converter;
+        this.node = node;
+        this.insns = node.instructions;
+        this.analyzer = new FrameAnalyzer(method, node, converter);
+        this.varManager = new VarManager(method);
+    }
+
+    IR build() {
+        analyzer.analyze();
+        buildThisAndParams();
+        buildStmts();
+        List<ExceptionEntry> exceptionEntries = buildExceptionEntries();
+        return new DefaultIR(method,
+                varManager.getThis(), varManager.getParams(), returnVars,
+                varManager.getVars(), stmts, exceptionEntries);
+    }
+
+    private void buildThisAndParams() {
+        int slot = 0;
+        if (!method.isStatic()) {
+            varManager.addThis(analyzer.getParamWeb(slot++));
+        }
+        for (int i = 0; i < method.getParamCount(); ++i) {
+            varManager.addParam(i, analyzer.getParamWeb(slot));
+            slot += FrameAnalyzer.isWide(method.getParamType(i)) ? 2 : 1;
+        }
+    }
+
+    private void buildStmts() {
+        for (AbstractInsnNode insn : insns) {
+            if (insn instanceof JumpInsnNode jump) {
+                jumpTargets.add(jump.label);
+            } else if (insn instanceof TableSwitchInsnNode tableSwitch) {
+                jumpTargets.add(tableSwitch.dflt);
+                jumpTargets.addAll(tableSwitch.labels);
+            } else if (insn instanceof LookupSwitchInsnNode lookupSwitch) {
+                jumpTargets.add(lookupSwitch.dflt);
+                jumpTargets.addAll(lookupSwitch.labels);
+            }
+        }
+        node.tryCatchBlocks.forEach(tcb -> handlers.add(tcb.handler));
+        boolean fallThrough = false;
+        for (current = 0; current < insns.size(); ++current) {
+            AbstractInsnNode insn = insns.get(current);
+            FrameAnalyzer.Frame frame = analyzer.getFrame(current);
+            if (insn instanceof LabelNode label) {
+                if (frame != null) {
+                    foldedStore = -1;
+                    enterLabel(label, frame, fallThrough);
+                    if (foldedStore != -1) { // exception is stored to a local
+                        current = foldedStore;
+                        fallThrough = true;
+                    }
+                } else {
+                    labelIndexes.put(label, stmts.size());
+                }
+            } else if (insn instanceof LineNumberNode lineNumber) {
+                currentLine = lineNumber.line;
+            } else if (!(insn instanceof FrameNode)) {
+                if (frame != null) {
+                    foldedStore = -1;
+                    convert(insn, frame);
+                    if (foldedStore != -1) {
+                        current = foldedStore;
+                    }
+                    fallThrough = !isUnconditionalJump(insn.getOpcode());
+                } else {
+                    fallThrough = false;
+                }
+            }
+        }
+        linkJumpTargets();
+    }
+
+    private static boolean isUnconditionalJump(int opcode) {
+        return opcode == Opcodes.GOTO
+                || opcode == Opcodes.TABLESWITCH
+                || opcode == Opcodes.LOOKUPSWITCH
+                || (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN)
+                || opcode == Opcodes.ATHROW;
+    }
+
+    private void enterLabel(LabelNode label, FrameAnalyzer.Frame frame,
+                            boolean fallThrough) {
+        List<Type> stackTypes = frame.getStack();
+        if (handlers.contains(label)) {
+            labelIndexes.put(label, stmts.size());
+            stack.clear();
+            Var exceptionRef = newTarget(stackTypes.get(0));
+            Catch catchStmt = new Catch(exceptionRef);
+            addStmt(catchStmt);
+            pushTarget(exceptionRef);
+            catches.put(label, catchStmt);
+        } else if (stackTypes.isEmpty()) {
+            stack.clear();
+            labelIndexes.put(label, stmts.size());
+        } else if (jumpTargets.contains(label)) {
+            if (fallThrough) {
+                mergeStackInto(label);
+            }
+            labelIndexes.put(label, stmts.size());
+            stack.clear();
+            stack.addAll(getMergedStackVars(label));
+        } else {
+            labelIndexes.put(label, stmts.size());
+        }
+    }
+
+    /**
+     * Copies the values in current stack to the variables
+     * which hold the stack values at given label.
+     */
+    private void mergeStackInto(LabelNode label) {
+        if (stack.isEmpty()) {
+            return;
+        }
+        List<Var> targets = getMergedStackVars(label);
+        for (int i = 0; i < stack.size(); ++i) {
+            Var target = targets.get(i);
+            if (stack.get(i) != target) {
+                spill(target, i + 1);
+                assign(target, stack.get(i));
+            }
+        }
+    }
+
+    private List<Var> getMergedStackVars(LabelNode label) {
+        return mergedStackVars.computeIfAbsent(label, l -> Lists.map(
+                analyzer.getFrame(insns.indexOf(l)).getStack(),
+                type -> varManager.newStackVar(type == NullType.NULL ?
+                        converter.convertClassType("java/lang/Object") : type)));
+    }
+
+    private void linkJumpTargets() {
+        jumps.forEach((stmt, insn) -> {
+            if (stmt instanceof Goto gotoStmt) {
+                gotoStmt.setTarget(getStmt(((JumpInsnNode) insn).label));
+            } else if (stmt instanceof If ifStmt) {
+                ifStmt.setTarget(getStmt(((JumpInsnNode) insn).label));
+            } else if (insn instanceof TableSwitchInsnNode tableSwitch) {
+                ((SwitchStmt) stmt).setTargets(
+                        Lists.map(tableSwitch.labels, this::getStmt));
+                ((SwitchStmt) stmt).setDefaultTarget(getStmt(tableSwitch.dflt));
+            } else if (insn instanceof LookupSwitchInsnNode lookupSwitch) {
+                ((SwitchStmt) stmt).setTargets(
+                        Lists.map(lookupSwitch.labels, this::getStmt));
+                ((SwitchStmt) stmt).setDefaultTarget(getStmt(lookupSwitch.dflt));
+            }
+        });
+    }
+
+    /**
+     * @return the first statement after given label.
+     */
+    private Stmt getStmt(LabelNode label) {
+        int index = labelIndexes.get(label);
+        if (index == stmts.size()) {
+            // the label is at the end of the method, e.g., the end
+            // of a try block, and we add a nop to represent it
+            addStmt(new Nop());
+        }
+        return stmts.get(index);
+    }
+
+    private List<ExceptionEntry> buildExceptionEntries() {
+        if (node.tryCatchBlocks.isEmpty()) {
+            return List.of();
+        }
+        List<ExceptionEntry> entries = new ArrayList<>(node.tryCatchBlocks.size());
+        for (TryCatchBlockNode tcb : node.tryCatchBlocks) {
+            Catch handler = catches.get(tcb.handler);
+            if (handler != null // the handler is unreachable
+                    && labelIndexes.get(tcb.start) < labelIndexes.get(tcb.end)) {
+                entries.add(new ExceptionEntry(
+                        getStmt(tcb.start), getStmt(tcb.end), handler,
+                        converter.convertClassType(tcb.type != null ?
+                                tcb.type : "java/lang/Throwable")));
+            }
+        }
+        return entries;
+    }
+
+    private void addStmt(Stmt stmt) {
+        stmt.setLineNumber(currentLine);
+        stmt.setIndex(stmts.size());
+        stmts.add(stmt);
+    }
+
+    private void addJump(Stmt stmt, AbstractInsnNode insn) {
+        addStmt(stmt);
+        jumps.put(stmt, insn);
+    }
+
+    // ---------- operand stack ----------
+
+    private void push(Var var) {
+        stack.add(var);
+    }
+
+    private Var pop() {
+        return stack.remove(stack.size() - 1);
+    }
+
+    private List<Var> pop(int n) {
+        List<Var> values = new ArrayList<>(stack.subList(stack.size() - n, stack.size()));
+        stack.subList(stack.size() - n, stack.size()).clear();
+        return values;
+    }
+
+    /**
+     * @return the variable to hold the value computed by current instruction.
+     * If the value is stored to a local variable by the next instruction,
+     * returns the variable of the local; otherwise, returns a new temporary
+     * variable, which should be pushed to stack by {@link #pushTarget(Var)}.
+     */
+    private Var newTarget(Type type) {
+        int store = findNextStore();
+        return store != -1 ? foldStore(store) : varManager.newStackVar(type);
+    }
+
+    /**
+     * @return index of the next instruction if it is a store,
+     * otherwise, -1.
+     */
+    private int findNextStore() {
+        int next = current + 1;
+        while (next < insns.size() && insns.get(next) instanceof FrameNode) {
+            ++next;
+        }
+        return next < insns.size() && isStore(insns.get(next).getOpcode()) ?
+                next : -1;
+    }
+
+    /**
+     * Lets current instruction assign its value to the local variable
+     * of the given store instruction, and skips the store.
+     *
+     * @return the variable of the local.
+     */
+    private Var foldStore(int store) {
+        foldedStore = store;
+        Var local = varManager.getVar(analyzer.getWeb(store));
+        spill(local, 0);
+        return local;
+    }
+
+    private void pushTarget(Var target) {
+        if (foldedStore == -1) {
+            push(target);
+        }
+    }
+
+    private static boolean isStore(int opcode) {
+        return opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE;
+    }
+
+    /**
+     * Before assigning given variable, replaces its occurrences in stack
+     * (from {@code from}) by a temporary variable holding its current value.
+     */
+    private void spill(Var var, int from) {
+        Var temp = null;
+        for (int i = from; i < stack.size(); ++i) {
+            if (stack.get(i) == var) {
+                if (temp == null) {
+                    temp = varManager.newStackVar(var.getType());
+                    addStmt(new Copy(temp, var));
+                }
+                stack.set(i, temp);
+            }
+        }
+    }
+
+    private void assign(Var target, Var value) {
+        if (value.isConst()) {
+            addStmt(new AssignLiteral(target, value.getConstValue()));
+        } else {
+            addStmt(new Copy(target, value));
+        }
+    }
+
+    /**
+     * Converts a Literal to Var. The variable is assigned at its first use,
+     * i.e., the same as Soot frontend.
+     */
+    private Var getConstantVar(Literal literal) {
+        return constantVars.computeIfAbsent(literal, l -> {
+            Var var = varManager.newConstantVar(l);
+            if (!(l instanceof NullLiteral)) {
+                // add temp assignment for non-null variable
+                addStmt(new AssignLiteral(var, l));
+            }
+            return var;
+        });
+    }
+
+    private void pushConstant(Literal literal) {
+        int store = findNextStore();
+        if (store == -1) {
+            push(getConstantVar(literal));
+        } else {
+            addStmt(new AssignLiteral(foldStore(store), literal));
+        }
+    }
+
+    // ---------- converting instructions ----------
+
+    private void convert(AbstractInsnNode insn, FrameAnalyzer.Frame frame) {
+        int opcode = insn.getOpcode();
+        switch (opcode) {
+            case Opcodes.NOP -> {
+            }
+            case Opcodes.ACONST_NULL -> pushConstant(NullLiteral.get());
+            case Opcodes.ICONST_M1, Opcodes.ICONST_0, Opcodes.ICONST_1,
+                    Opcodes.ICONST_2, Opcodes.ICONST_3, Opcodes.ICONST_4,
+                    Opcodes.ICONST_5 -> pushConstant(IntLiteral.get(opcode - Opcodes.ICONST_0));
+            case Opcodes.LCONST_0, Opcodes.LCONST_1 ->
+                    pushConstant(LongLiteral.get(opcode - Opcodes.LCONST_0));
+            case Opcodes.FCONST_0, Opcodes.FCONST_1, Opcodes.FCONST_2 ->
+                    pushConstant(FloatLiteral.get(opcode - Opcodes.FCONST_0));
+            case Opcodes.DCONST_0, Opcodes.DCONST_1 ->
+                    pushConstant(DoubleLiteral.get(opcode - Opcodes.DCONST_0));
+            case Opcodes.BIPUSH, Opcodes.SIPUSH ->
+                    pushConstant(IntLiteral.get(((IntInsnNode) insn).operand));
+            case Opcodes.LDC -> pushConstant(
+                    converter.convertLiteral(((LdcInsnNode) insn).cst));
+            case Opcodes.ILOAD, Opcodes.LLOAD, Opcodes.FLOAD,
+                    Opcodes.DLOAD, Opcodes.ALOAD -> {
+                Var local = varManager.getVar(analyzer.getWeb(current));
+                int store = findNextStore();
+                if (store == -1) {
+                    push(local);
+                } else {
+                    Var target = foldStore(store);
+                    if (target != local) {
+                        addStmt(new Copy(target, local));
+                    }
+                }
+            }
+            case Opcodes.IALOAD, Opcodes.LALOAD, Opcodes.FALOAD, Opcodes.DALOAD,
+                    Opcodes.AALOAD, Opcodes.BALOAD, Opcodes.CALOAD, Opcodes.SALOAD -> {
+                Var index = pop();
+                Var base = toArray(pop(), frame, 2, opcode);
+                ArrayAccess access = new ArrayAccess(base, index);
+                Var target = newTarget(access.getType());
+                addStmt(new LoadArray(target, access));
+                pushTarget(target);
+            }
+            case Opcodes.ISTORE, Opcodes.LSTORE, Opcodes.FSTORE,
+                    Opcodes.DSTORE, Opcodes.ASTORE -> {
+                Var value = pop();
+                Var local = varManager.getVar(analyzer.getWeb(current));
+                spill(local, 0);
+                if (value != local) {
+                    assign(local, value);
+                }
+            }
+            case Opcodes.IASTORE, Opcodes.LASTORE, Opcodes.FASTORE, Opcodes.DASTORE,
+                    Opcodes.AASTORE, Opcodes.BASTORE, Opcodes.CASTORE, Opcodes.SASTORE -> {
+                Var value = pop();
+                Var index = pop();
+                Var base = toArray(pop(), frame, 3, opcode);
+                addStmt(new StoreArray(new ArrayAccess(base, index), value));
+            }
+            case Opcodes.POP, Opcodes.POP2, Opcodes.DUP, Opcodes.DUP_X1,
+                    Opcodes.DUP_X2, Opcodes.DUP2, Opcodes.DUP2_X1,
+                    Opcodes.DUP2_X2, Opcodes.SWAP -> FrameAnalyzer.shuffle(
+                    opcode, stack, v -> FrameAnalyzer.isWide(v.getType()));
+            case Opcodes.IADD, Opcodes.LADD, Opcodes.FADD, Opcodes.DADD,
+                    Opcodes.ISUB, Opcodes.LSUB, Opcodes.FSUB, Opcodes.DSUB,
+                    Opcodes.IMUL, Opcodes.LMUL, Opcodes.FMUL, Opcodes.DMUL,
+                    Opcodes.IDIV, Opcodes.LDIV, Opcodes.FDIV, Opcodes.DDIV,
+                    Opcodes.IREM, Opcodes.LREM, Opcodes.FREM, Opcodes.DREM -> {
+                ArithmeticExp.Op op = switch ((opcode - Opcodes.IADD) / 4) {
+                    case 0 -> ArithmeticExp.Op.ADD;
+                    case 1 -> ArithmeticExp.Op.SUB;
+                    case 2 -> ArithmeticExp.Op.MUL;
+                    case 3 -> ArithmeticExp.Op.DIV;
+                    default -> ArithmeticExp.Op.REM;
+                };
+                Var v2 = pop();
+                Var v1 = pop();
+                addBinary(new ArithmeticExp(op, v1, v2),
+                        getArithmeticType((opcode - Opcodes.IADD) % 4));
+            }
+            case Opcodes.INEG, Opcodes.LNEG, Opcodes.FNEG, Opcodes.DNEG -> {
+                NegExp neg = new NegExp(pop());
+                Var target = newTarget(neg.getType());
+                addStmt(new Unary(target, neg));
+                pushTarget(target);
+            }
+            case Opcodes.ISHL, Opcodes.LSHL, Opcodes.ISHR,
+                    Opcodes.LSHR, Opcodes.IUSHR, Opcodes.LUSHR -> {
+                ShiftExp.Op op = switch ((opcode - Opcodes.ISHL) / 2) {
+                    case 0 -> ShiftExp.Op.SHL;
+                    case 1 -> ShiftExp.Op.SHR;
+                    default -> ShiftExp.Op.USHR;
+                };
+                Var v2 = pop();
+                Var v1 = pop();
+                addBinary(new ShiftExp(op, v1, v2),
+                        getArithmeticType((opcode - Opcodes.ISHL) % 2));
+            }
+            case Opcodes.IAND, Opcodes.LAND, Opcodes.IOR,
+                    Opcodes.LOR, Opcodes.IXOR, Opcodes.LXOR -> {
+                BitwiseExp.Op op = switch ((opcode - Opcodes.IAND) / 2) {
+                    case 0 -> BitwiseExp.Op.AND;
+                    case 1 -> BitwiseExp.Op.OR;
+                    default -> BitwiseExp.Op.XOR;
+                };
+                Var v2 = pop();
+                Var v1 = pop();
+                addBinary(new BitwiseExp(op, v1, v2),
+                        getArithmeticType((opcode - Opcodes.IAND) % 2));
+            }
+            case Opcodes.IINC -> {
+                IincInsnNode iinc = (IincInsnNode) insn;
+                Var local = varManager.getVar(analyzer.getWeb(current));
+                Var incr = getConstantVar(IntLiteral.get(iinc.incr));
+                spill(local, 0);
+                addStmt(new Binary(local, new ArithmeticExp(
+                        ArithmeticExp.Op.ADD, local, incr)));
+            }
+            case Opcodes.I2L, Opcodes.I2F, Opcodes.I2D, Opcodes.L2I, Opcodes.L2F,
+                    Opcodes.L2D, Opcodes.F2I, Opcodes.F2L, Opcodes.F2D, Opcodes.D2I,
+                    Opcodes.D2L, Opcodes.D2F, Opcodes.I2B, Opcodes.I2C, Opcodes.I2S ->
+                    addCast(pop(), FrameAnalyzer.getCastType(opcode));
+            case Opcodes.LCMP, Opcodes.FCMPL, Opcodes.FCMPG,
+                    Opcodes.DCMPL, Opcodes.DCMPG -> {
+                ComparisonExp.Op op = switch (opcode) {
+                    case Opcodes.LCMP -> ComparisonExp.Op.CMP;
+                    case Opcodes.FCMPL, Opcodes.DCMPL -> ComparisonExp.Op.CMPL;
+                    default -> ComparisonExp.Op.CMPG;
+                };
+                Var v2 = pop();
+                Var v1 = pop();
+                addBinary(new ComparisonExp(op, v1, v2), INT);
+            }
+            case Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT,
+                    Opcodes.IFGE, Opcodes.IFGT, Opcodes.IFLE -> {
+                Var v = pop();
+                addIf(getConditionOp(opcode - Opcodes.IFEQ),
+                        v, getConstantVar(IntLiteral.get(0)), insn);
+            }
+            case Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT,
+                    Opcodes.IF_ICMPGE, Opcodes.IF_ICMPGT, Opcodes.IF_ICMPLE,
+                    Opcodes.IF_ACMPEQ, Opcodes.IF_ACMPNE -> {
+                Var v2 = pop();
+                Var v1 = pop();
+                addIf(getConditionOp(opcode <= Opcodes.IF_ICMPLE ?
+                        opcode - Opcodes.IF_ICMPEQ :
+                        opcode - Opcodes.IF_ACMPEQ), v1, v2, insn);
+            }
+            case Opcodes.IFNULL, Opcodes.IFNONNULL -> {
+                Var v = pop();
+                addIf(getConditionOp(opcode - Opcodes.IFNULL),
+                        v, getConstantVar(NullLiteral.get()), insn);
+            }
+            case Opcodes.GOTO -> {
+                mergeStackInto(((JumpInsnNode) insn).label);
+                addJump(new Goto(), insn);
+            }
+            case Opcodes.TABLESWITCH -> {
+                TableSwitchInsnNode tableSwitch = (TableSwitchInsnNode) insn;
+                Var v = pop();
+                mergeStackInto(tableSwitch.dflt, tableSwitch.labels);
+                addJump(new TableSwitch(v, tableSwitch.min, tableSwitch.max), insn);
+            }
+            case Opcodes.LOOKUPSWITCH -> {
+                LookupSwitchInsnNode lookupSwitch = (LookupSwitchInsnNode) insn;
+                Var v = pop();
+                mergeStackInto(lookupSwitch.dflt, lookupSwitch.labels);
+                addJump(new LookupSwitch(v, lookupSwitch.keys), insn);
+            }
+            case Opcodes.IRETURN, Opcodes.LRETURN, Opcodes.FRETURN,
+                    Opcodes.DRETURN, Opcodes.ARETURN -> {
+                Var v = pop();
+                returnVars.add(v);
+                addStmt(new Return(v));
+            }
+            case Opcodes.RETURN -> addStmt(new Return());
+            case Opcodes.GETSTATIC -> {
+                FieldInsnNode field = (FieldInsnNode) insn;
+                addLoadField(new StaticFieldAccess(getFieldRef(field, true)));
+            }
+            case Opcodes.PUTSTATIC -> {
+                FieldInsnNode field = (FieldInsnNode) insn;
+                addStmt(new StoreField(
+                        new StaticFieldAccess(getFieldRef(field, true)), pop()));
+            }
+            case Opcodes.GETFIELD -> {
+                FieldInsnNode field = (FieldInsnNode) insn;
+                addLoadField(new InstanceFieldAccess(getFieldRef(field, false), pop()));
+            }
+            case Opcodes.PUTFIELD -> {
+                FieldInsnNode field = (FieldInsnNode) insn;
+                Var value = pop();
+                addStmt(new StoreField(new InstanceFieldAccess(
+                        getFieldRef(field, false), pop()), value));
+            }
+            case Opcodes.INVOKEVIRTUAL, Opcodes.INVOKESPECIAL,
+                    Opcodes.INVOKESTATIC, Opcodes.INVOKEINTERFACE -> {
+                MethodInsnNode invoke = (MethodInsnNode) insn;
+                MethodRef methodRef = converter.convertMethodRef(invoke.owner,
+                        invoke.name, invoke.desc, opcode == Opcodes.INVOKESTATIC);
+                List<Var> args = pop(methodRef.getParameterTypes().size());
+                addInvoke(switch (opcode) {
+                    case Opcodes.INVOKEVIRTUAL -> new InvokeVirtual(methodRef, pop(), args);
+                    case Opcodes.INVOKESPECIAL -> new InvokeSpecial(methodRef, pop(), args);
+                    case Opcodes.INVOKEINTERFACE -> new InvokeInterface(methodRef, pop(), args);
+                    default -> new InvokeStatic(methodRef, args);
+                });
+            }
+            case Opcodes.INVOKEDYNAMIC -> {
+                InvokeDynamicInsnNode invoke = (InvokeDynamicInsnNode) insn;
+                Handle bsm = invoke.bsm;
+                MethodRef bootstrapMethodRef = converter.convertMethodRef(
+                        bsm.getOwner(), bsm.getName(), bsm.getDesc(), true);
+                List<Literal> bootstrapArgs = Lists.map(
+                        Arrays.asList(invoke.bsmArgs), converter::convertLiteral);
+                List<Var> args = pop(org.objectweb.asm.Type
+                        .getArgumentTypes(invoke.desc).length);
+                addInvoke(new InvokeDynamic(bootstrapMethodRef, invoke.name,
+                        converter.convertMethodType(invoke.desc), bootstrapArgs, args));
+            }
+            case Opcodes.NEW -> addNew(new NewInstance(
+                    converter.convertClassType(((TypeInsnNode) insn).desc)));
+            case Opcodes.NEWARRAY -> {
+                Type elementType = FrameAnalyzer.getNewArrayElementType(
+                        ((IntInsnNode) insn).operand);
+                addNew(new NewArray(analyzer.getArrayTypeOf(elementType), pop()));
+            }
+            case Opcodes.ANEWARRAY -> {
+                Type elementType = converter.convertInternalName(
+                        ((TypeInsnNode) insn).desc);
+                addNew(new NewArray(analyzer.getArrayTypeOf(elementType), pop()));
+            }
+            case Opcodes.MULTIANEWARRAY -> {
+                MultiANewArrayInsnNode multiNew = (MultiANewArrayInsnNode) insn;
+                addNew(new NewMultiArray(
+                        (ArrayType) converter.convertType(multiNew.desc),
+                        pop(multiNew.dims)));
+            }
+            case Opcodes.ARRAYLENGTH -> {
+                ArrayLengthExp length = new ArrayLengthExp(
+                        toArray(pop(), frame, 1, opcode));
+                Var target = newTarget(length.getType());
+                addStmt(new Unary(target, length));
+                pushTarget(target);
+            }
+            case Opcodes.ATHROW -> addStmt(new Throw(pop()));
+            case Opcodes.CHECKCAST -> addCast(pop(),
+                    converter.convertInternalName(((TypeInsnNode) insn).desc));
+            case Opcodes.INSTANCEOF -> {
+                InstanceOfExp instanceOf = new InstanceOfExp(pop(), (ReferenceType)
+                        converter.convertInternalName(((TypeInsnNode) insn).desc));
+                Var target = newTarget(instanceOf.getType());
+                addStmt(new InstanceOf(target, instanceOf));
+                pushTarget(target);
+            }
+            case Opcodes.MONITORENTER -> addStmt(new Monitor(Monitor.Op.ENTER, pop()));
+            case Opcodes.MONITOREXIT -> addStmt(new Monitor(Monitor.Op.EXIT, pop()));
+            default -> throw new AsmFrontendException(
+                    "Unsupported opcode " + opcode + " in " + method);
+        }
+    }
+
+    private static Type getArithmeticType(int index) {
+        return switch (index) {
+            case 0 -> INT;
+            case 1 -> LONG;
+            case 2 -> FLOAT;
+            default -> DOUBLE;
+        };
+    }
+
+    /**
+     * @param index index of the comparison in the order of the
+     *              instructions, i.e., eq, ne, lt, ge, gt and le.
+     */
+    private static ConditionExp.Op getConditionOp(int index) {
+        return switch (index) {
+            case 0 -> ConditionExp.Op.EQ;
+            case 1 -> ConditionExp.Op.NE;
+            case 2 -> ConditionExp.Op.LT;
+            case 3 -> ConditionExp.Op.GE;
+            case 4 -> ConditionExp.Op.GT;
+            default -> ConditionExp.Op.LE;
+        };
+    }
+
+    private void addBinary(BinaryExp exp, Type type) {
+        Var target = newTarget(type);
+        addStmt(new Binary(target, exp));
+        pushTarget(target);
+    }
+
+    private void addCast(Var value, Type type) {
+        Var target = newTarget(type);
+        addStmt(new Cast(target, new CastExp(value, type)));
+        pushTarget(target);
+    }
+
+    private void addIf(ConditionExp.Op op, Var v1, Var v2, AbstractInsnNode insn) {
+        mergeStackInto(((JumpInsnNode) insn).label);
+        addJump(new If(new ConditionExp(op, v1, v2)), insn);
+    }
+
+    private void mergeStackInto(LabelNode dflt, List<LabelNode> labels) {
+        mergeStackInto(dflt);
+        // labels are hashed by identity, thus they are merged in the
+        // order of switch cases to keep the resulting IR deterministic
+        labels.stream().distinct().forEach(this::mergeStackInto);
+    }
+
+    private FieldRef getFieldRef(FieldInsnNode field, boolean isStatic) {
+        return converter.convertFieldRef(field.owner, field.name, field.desc, isStatic);
+    }
+
+    private void addLoadField(FieldAccess access) {
+        Var target = newTarget(access.getType());
+        addStmt(new LoadField(target, access));
+        pushTarget(target);
+    }
+
+    private void addNew(NewExp newExp) {
+        Var target = newTarget(newExp.getType());
+        addStmt(new New(method, target, newExp));
+        pushTarget(target);
+    }
+
+    private void addInvoke(InvokeExp invokeExp) {
+        Type returnType = invokeExp.getType();
+        Var result = null;
+        if (returnType != VOID) {
+            int pop = FrameAnalyzer.isWide(returnType) ? Opcodes.POP2 : Opcodes.POP;
+            if (insns.get(current + 1).getOpcode() == pop) {
+                // the result is unused
+                foldedStore = current + 1;
+            } else {
+                result = newTarget(returnType);
+            }
+        }
+        addStmt(new Invoke(method, invokeExp, result));
+        if (result != null) {
+            pushTarget(result);
+        }
+    }
+
+    /**
+     * Ensures that the base variable of an array access is of array type.
+     * The type of the variable cannot be inferred if it always holds
+     * {@code null}, or it merges arrays of incompatible types,
+     * in such cases we cast it to the array type accessed by the instruction.
+     *
+     * @param depth the depth of the array in operand stack
+     *              before current instruction.
+     */
+    private Var toArray(Var base, FrameAnalyzer.Frame frame, int depth, int opcode) {
+        if (base.getType() instanceof ArrayType) {
+            return base;
+        }
+        List<Type> stackTypes = frame.getStack();
+        ArrayType arrayType = stackTypes.get(stackTypes.size() - depth)
+                instanceof ArrayType type ? type :
+                analyzer.getDefaultArrayType(opcode);
+        Var array = varManager.newStackVar(arrayType);
+        addStmt(new Cast(array, new CastExp(base, arrayType)));
+        return array;
+    }
+}
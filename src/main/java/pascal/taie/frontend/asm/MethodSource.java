@@ -0,0 +1,38 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+/**
+ * Locates the body of a method in its class file. Each method built by
+ * ASM frontend holds an instance of this class as its method source,
+ * and the method body is parsed only when the IR of the method is built.
+ *
+ * @param classFile  the class file that declares the method
+ * @param name       name of the method
+ * @param descriptor descriptor of the method
+ * @param codeLength length of the bytecode of the method, which estimates
+ *                   the cost of building its IR
+ */
+record MethodSource(ClassFile classFile, String name, String descriptor,
+                    int codeLength) {
+}
@@ -0,0 +1,193 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class VarManager {
+
+    private static final String THIS = "%this";
+
+    private static final String PARAM = "%param";
+
+    private static final String LOCAL = "%local";
+
+    private static final String STACK = "%stack";
+
+    private static final String STRING_CONSTANT = "%stringconst";
+
+    private static final String CLASS_CONSTANT = "%classconst";
+
+    private static final String NULL_CONSTANT = "%nullconst";
+
+    /**
+     * The method which contains the variable managed by this VarManager.
+     */
+    private final JMethod method;
+
+    private final Map<FrameAnalyzer.Web, Var> webVars = Maps.newHybridMap();
+
+    /**
+     * Webs with the same name and type in local variable table are
+     * mapped to the same variable, which is consistent with the variables
+     * built by Soot frontend (with original names).
+     */
+    private final Map<String, Var> namedVars = Maps.newHybridMap();
+
+    /**
+     * Number of variables with each name, for naming the variables
+     * with the same name but different types, e.g.,
+     * {@code i} and {@code i#1}.
+     */
+    private final Map<String, Integer> nameCounts = Maps.newHybridMap();
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private Var thisVar;
+
+    private final List<Var> params = new ArrayList<>();
+
+    private Var nullConst;
+
+    /**
+     * Counter for indexing all variables.
+     */
+    private int varCounter = 0;
+
+    /**
+     * Counter for naming temporary constant variables.
+     */
+    private int tempConstCounter = 0;
+
+    /**
+     * Counter for naming temporary variables holding stack values.
+     */
+    private int stackCounter = 0;
+
+    VarManager(JMethod method) {
+        this.method = method;
+    }
+
+    void addThis(FrameAnalyzer.Web web) {
+        thisVar = newVar(THIS, web.type());
+        webVars.put(web, thisVar);
+    }
+
+    void addParam(int i, FrameAnalyzer.Web web) {
+        String paramName = method.getParamName(i);
+        if (paramName == null) {
+            paramName = web.name() != null ? web.name() : PARAM + i;
+        }
+        Var param = newVar(getUniqueName(paramName), web.type());
+        webVars.put(web, param);
+        if (web.name() != null) {
+            namedVars.putIfAbsent(getKey(web), param);
+        }
+        params.add(param);
+    }
+
+    Var getVar(FrameAnalyzer.Web web) {
+        return webVars.computeIfAbsent(web, w -> {
+            if (w.name() != null) {
+                return namedVars.computeIfAbsent(getKey(w),
+                        k -> newVar(getUniqueName(w.name()), w.type()));
+            } else {
+                return newVar(getUniqueName(LOCAL + w.slot()), w.type());
+            }
+        });
+    }
+
+    private static String getKey(FrameAnalyzer.Web web) {
+        return web.name() + ":" + web.type();
+    }
+
+    /**
+     * @return a new temporary variable that holds a value in operand stack.
+     */
+    Var newStackVar(Type type) {
+        return newVar(STACK + stackCounter++, type);
+    }
+
+    /**
+     * @return a new temporary variable that holds given literal value.
+     */
+    Var newConstantVar(Literal literal) {
+        String varName;
+        if (literal instanceof StringLiteral) {
+            varName = STRING_CONSTANT + tempConstCounter++;
+        } else if (literal instanceof ClassLiteral) {
+            varName = CLASS_CONSTANT + tempConstCounter++;
+        } else if (literal instanceof NullLiteral) {
+            // each method has at most one variable for null constant
+            Var v = nullConst;
+            if (v == null) {
+                v = newVar(NULL_CONSTANT, literal.getType(), literal);
+                nullConst = v;
+            }
+            return v;
+        } else {
+            varName = "%" + literal.getType().getName() +
+                    "const" + tempConstCounter++;
+        }
+        return newVar(varName, literal.getType(), literal);
+    }
+
+    Var getThis() {
+        return thisVar;
+    }
+
+    List<Var> getParams() {
+        return params;
+    }
+
+    List<Var> getVars() {
+        return vars;
+    }
+
+    private String getUniqueName(String name) {
+        int count = nameCounts.merge(name, 1, Integer::sum);
+        return count == 1 ? name : name + "#" + (count - 1);
+    }
+
+    private Var newVar(String name, Type type) {
+        return newVar(name, type, null);
+    }
+
+    private Var newVar(String name, Type type, @Nullable Literal literal) {
+        Var var = new Var(method, name, type, varCounter++, literal);
+        vars.add(var);
+        return var;
+    }
+}
@@ -21,6 +21,8 @@
  */
 
 /**
- * TODO: We'll add another frontend implemented based on ASM
+ * Frontend which builds Tai-e's world from class files by ASM,
+ * without running Soot. It can be enabled by option
+ * {@code --world-builder pascal.taie.frontend.asm.AsmWorldBuilder}.
  */
 package pascal.taie.frontend.asm;
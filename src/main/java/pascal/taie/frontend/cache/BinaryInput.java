@@ -0,0 +1,120 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads the data written by {@link BinaryOutput} from a byte buffer,
+ * which is usually a memory-mapped section of the world cache file.
+ */
+class BinaryInput {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates an input that starts reading at {@code position} of
+     * {@code buffer}. The position of {@code buffer} is not changed,
+     * thus multiple inputs can read the same buffer concurrently.
+     */
+    BinaryInput(ByteBuffer buffer, int position) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.position(position);
+    }
+
+    int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readLong() {
+        return buffer.getLong();
+    }
+
+    float readFloat() {
+        return buffer.getFloat();
+    }
+
+    double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a string written by {@link BinaryOutput#writeString(String)}.
+     */
+    String readString() {
+        int length = readVarInt();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if (b < 0xE0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                int b2 = buffer.get() & 0x3F;
+                chars[i] = (char) (((b & 0x0F) << 12) | (b2 << 6)
+                        | (buffer.get() & 0x3F));
+            }
+        }
+        return new String(chars);
+    }
+
+    void skip(int n) {
+        buffer.position(buffer.position() + n);
+    }
+
+    int position() {
+        return buffer.position();
+    }
+}
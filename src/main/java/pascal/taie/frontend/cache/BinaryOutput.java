@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer for writing the binary world cache.
+ * Integers are written in variable-length encoding (LEB128), so that
+ * small values, e.g., indexes in IR and constant tables, take one byte.
+ *
+ * @see BinaryInput
+ */
+class BinaryOutput {
+
+    private byte[] bytes;
+
+    private int size = 0;
+
+    BinaryOutput(int initialCapacity) {
+        bytes = new byte[initialCapacity];
+    }
+
+    void writeByte(int b) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) b;
+    }
+
+    void writeBoolean(boolean b) {
+        writeByte(b ? 1 : 0);
+    }
+
+    /**
+     * Writes a non-negative int value.
+     */
+    void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes an int value which may be negative, e.g., line numbers
+     * and case values of switch statements, in zigzag encoding.
+     */
+    void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; ++i) {
+            bytes[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    void writeFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        ensureCapacity(4);
+        for (int i = 0; i < 4; ++i) {
+            bytes[size++] = (byte) (bits >>> (i * 8));
+        }
+    }
+
+    void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes the number of chars of {@code s} followed by its chars in
+     * modified UTF-8 (as {@link java.io.DataOutput#writeUTF(String)}).
+     * Unlike standard UTF-8, this encoding preserves unpaired surrogates,
+     * which may appear in string constants of class files.
+     */
+    void writeString(String s) {
+        int length = s.length();
+        writeVarInt(length);
+        ensureCapacity(length * 3);
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            if (c != 0 && c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Writes the content of {@code other} to this buffer.
+     */
+    void writeBytes(BinaryOutput other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.bytes, 0, bytes, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * @return number of bytes written to this buffer.
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Writes the content of this buffer to {@code channel}.
+     */
+    void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (size + n > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + n));
+        }
+    }
+}
@@ -29,6 +29,9 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.Collection;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -40,15 +43,33 @@ import java.util.stream.Collectors;
  */
 public class CachedIRBuilder implements IRBuilder {
 
-    private final Map<String, IR> methodSig2IR;
+    private final transient IRBuilder irBuilder;
+
+    private final transient ClassHierarchy hierarchy;
+
+    private Map<String, IR> methodSig2IR;
 
     public CachedIRBuilder(IRBuilder irBuilder, ClassHierarchy hierarchy) {
-        irBuilder.buildAll(hierarchy);
-        methodSig2IR = hierarchy.allClasses()
-                .map(JClass::getDeclaredMethods)
-                .flatMap(Collection::stream)
-                .filter(m -> !m.isAbstract() || m.isNative())
-                .collect(Collectors.toMap(JMethod::getSignature, JMethod::getIR));
+        this.irBuilder = irBuilder;
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * The IRs are collected when this builder is serialized,
+     * so that they are not built if this builder is replaced
+     * in serialization (e.g., by {@link WorldCache}).
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        if (methodSig2IR == null) {
+            irBuilder.buildAll(hierarchy);
+            methodSig2IR = hierarchy.allClasses()
+                    .map(JClass::getDeclaredMethods)
+                    .flatMap(Collection::stream)
+                    .filter(m -> !m.isAbstract() || m.isNative())
+                    .collect(Collectors.toMap(JMethod::getSignature, JMethod::getIR));
+        }
+        s.defaultWriteObject();
     }
 
     /**
@@ -30,14 +30,8 @@ import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.util.Timer;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -64,15 +58,17 @@ public class CachedWorldBuilder implements WorldBuilder {
                     + " but world cache mode option is not enabled");
             System.exit(-1);
         }
-        File worldCacheFile = getWorldCacheFile(options);
-        if (loadCache(options, worldCacheFile)) {
+        File cacheDir = getCacheDir();
+        ShardLayout layout = getShardLayout(options, cacheDir);
+        File worldCacheFile = getWorldCacheFile(cacheDir, layout);
+        if (loadCache(options, worldCacheFile, cacheDir)) {
             return;
         }
         runWorldBuilder(options, analyses);
-        saveCache(worldCacheFile);
+        saveCache(worldCacheFile, cacheDir, layout);
     }
 
-    private boolean loadCache(Options options, File worldCacheFile) {
+    private boolean loadCache(Options options, File worldCacheFile, File cacheDir) {
         if (!worldCacheFile.exists()) {
             logger.info("World cache not found in {}", worldCacheFile);
             return false;
@@ -80,11 +76,8 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info("Loading the world cache from {}", worldCacheFile);
         Timer timer = new Timer("Load the world cache");
         timer.start();
-        ObjectInputStream ois = null;
         try {
-            ois = new ObjectInputStream(
-                    new BufferedInputStream(new FileInputStream(worldCacheFile)));
-            World world = (World) ois.readObject();
+            World world = WorldCache.load(worldCacheFile, cacheDir);
             World.set(world);
             world.setOptions(options);
             return true;
@@ -92,13 +85,6 @@ public class CachedWorldBuilder implements WorldBuilder {
             logger.error("Failed to load world cache from {} due to {}",
                     worldCacheFile, e);
         } finally {
-            if (ois != null) {
-                try {
-                    ois.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close input stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
@@ -114,62 +100,47 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info(timer);
     }
 
-    private void saveCache(File worldCacheFile) {
+    private void saveCache(File worldCacheFile, File cacheDir, ShardLayout layout) {
         logger.info("Saving the world cache to {}", worldCacheFile);
         Timer timer = new Timer("Save the world cache");
         timer.start();
-        ObjectOutputStream oos = null;
         try {
-            oos = new ObjectOutputStream(
-                    new BufferedOutputStream(new FileOutputStream(worldCacheFile)));
-            oos.writeObject(World.get());
-            oos.close();
+            WorldCache.save(World.get(), worldCacheFile, cacheDir, layout);
         } catch (Exception e) {
             logger.error("Failed to save world cache from {} due to {}",
                     worldCacheFile, e);
         } finally {
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close output stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
     }
 
     public static File getWorldCacheFile(Options options) {
+        File cacheDir = getCacheDir();
+        return getWorldCacheFile(cacheDir, getShardLayout(options, cacheDir));
+    }
+
+    private static File getWorldCacheFile(File cacheDir, ShardLayout layout) {
+        return new File(cacheDir,
+                "world-" + layout.getWorldKey() + ".bin").getAbsoluteFile();
+    }
+
+    private static File getCacheDir() {
         File cacheDir = new File(CACHE_DIR);
         if (!cacheDir.exists()) {
             cacheDir.mkdirs();
         }
-        return new File(cacheDir,
-                "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
+        return cacheDir.getAbsoluteFile();
     }
 
-    private static int getWorldCacheHash(Options options) {
-        int result = options.getMainClass() != null
-                ? options.getMainClass().hashCode() : 0;
-        result = 31 * result + (options.getInputClasses() != null
-                ? options.getInputClasses().hashCode() : 0);
-        result = 31 * result + options.getJavaVersion();
-        result = 31 * result + (options.isPrependJVM() ? 1 : 0);
-        result = 31 * result + (options.isAllowPhantom() ? 1 : 0);
-        result = 31 * result + (options.getWorldBuilderClass() != null
-                ? options.getWorldBuilderClass().getName().hashCode() : 0);
-        // add the timestamp to the cache key calculation
-        List<String> paths = new ArrayList<>();
-        paths.addAll(options.getClassPath());
-        paths.addAll(options.getAppClassPath());
-        for (String path : paths) {
-            File file = new File(path);
-            if (file.exists()) {
-                result = 31 * result + (int) file.lastModified();
-            }
+    /**
+     * Computes the keys of world cache by the digests of class path entries.
+     */
+    private static ShardLayout getShardLayout(Options options, File cacheDir) {
+        try {
+            return ShardLayout.of(options, cacheDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compute digests of class path", e);
         }
-        result = Math.abs(result);
-        return result;
     }
 }
@@ -0,0 +1,313 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A file of world cache which stores IR of methods, i.e., the world file
+ * (see {@link WorldCache}) or an IR shard (see {@link IRShard}).
+ * Such a file consists of:
+ * <ol>
+ *     <li>a fixed-size header, i.e., magic number of the file kind,
+ *     format version, and the offsets of the following parts;</li>
+ *     <li>IR sections, which contain IR encoded by {@link IRWriter};
+ *     each section is memory-mapped as a whole, and no IR crosses
+ *     the boundary of sections;</li>
+ *     <li>constant tables shared by the IR in this file;</li>
+ *     <li>section table, i.e., the sizes of IR sections;</li>
+ *     <li>index and payload, whose contents are defined by
+ *     the kind of the file.</li>
+ * </ol>
+ * The position of the IR of a method is a long, where the high 32 bits
+ * are the section index and the low 32 bits are the offset in the section.
+ */
+final class IRFile {
+
+    /**
+     * Version of the cache format, which should be increased whenever
+     * the format or the serialized classes are changed incompatibly.
+     */
+    static final long VERSION = 2;
+
+    private static final int HEADER_SIZE = 64;
+
+    private static final int MAX_SECTION_SIZE = 1 << 30;
+
+    private final ByteBuffer tables;
+
+    private final ByteBuffer[] sections;
+
+    private final ByteBuffer index;
+
+    private final ByteBuffer payload;
+
+    private IRReader reader;
+
+    private IRFile(ByteBuffer tables, ByteBuffer[] sections,
+                   ByteBuffer index, ByteBuffer payload) {
+        this.tables = tables;
+        this.sections = sections;
+        this.index = index;
+        this.payload = payload;
+    }
+
+    /**
+     * Opens and memory-maps an IR file.
+     *
+     * @throws IOException if the file is absent, or its magic number or
+     *                     version does not match.
+     */
+    static IRFile open(File file, long magic) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Truncated world cache file " + file);
+                }
+            }
+            header.flip();
+            if (header.getLong() != magic) {
+                throw new IOException(file + " is not a valid world cache file");
+            }
+            long version = header.getLong();
+            if (version != VERSION) {
+                throw new IOException("Incompatible version of world cache: "
+                        + version + ", expected: " + VERSION);
+            }
+            long tablesOffset = header.getLong();
+            long sectionTableOffset = header.getLong();
+            long indexOffset = header.getLong();
+            long payloadOffset = header.getLong();
+            long end = header.getLong();
+            // mapped buffers remain valid after the channel is closed
+            ByteBuffer sectionTable = map(channel, sectionTableOffset, indexOffset);
+            BinaryInput in = new BinaryInput(sectionTable, 0);
+            ByteBuffer[] sections = new ByteBuffer[in.readVarInt()];
+            long sectionOffset = HEADER_SIZE;
+            for (int i = 0; i < sections.length; ++i) {
+                long sectionSize = in.readVarLong();
+                sections[i] = map(channel, sectionOffset, sectionOffset + sectionSize);
+                sectionOffset += sectionSize;
+            }
+            return new IRFile(
+                    map(channel, tablesOffset, sectionTableOffset),
+                    sections,
+                    map(channel, indexOffset, payloadOffset),
+                    map(channel, payloadOffset, end));
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long start, long end)
+            throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    /**
+     * Attaches this file to the type system of the world, which is
+     * required for reading IR.
+     */
+    void attach(TypeSystem typeSystem) {
+        reader = new IRReader(tables, typeSystem);
+    }
+
+    ByteBuffer getIndex() {
+        return index;
+    }
+
+    InputStream getPayload() {
+        return new BufferInputStream(payload.duplicate());
+    }
+
+    IR readIR(JMethod method, long position) {
+        return reader.readIR(method, sections[(int) (position >>> 32)],
+                (int) position);
+    }
+
+    /**
+     * Writes an IR file. The file is written to a temporary file first,
+     * and then moved to the target path when it is finished, thus
+     * other processes never see an incomplete file.
+     */
+    static class Writer implements Closeable {
+
+        private final Path target;
+
+        private final Path temp;
+
+        private final long magic;
+
+        private final FileChannel channel;
+
+        private final IRWriter irWriter = new IRWriter();
+
+        private final BinaryOutput out = new BinaryOutput(1 << 16);
+
+        private final List<Long> sectionSizes = new ArrayList<>();
+
+        private long sectionSize = 0;
+
+        Writer(File file, long magic) throws IOException {
+            this.target = file.toPath();
+            this.temp = getTempFile(target);
+            this.magic = magic;
+            this.channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+        }
+
+        /**
+         * Writes IR to this file.
+         *
+         * @return the position of the IR in this file.
+         */
+        long writeIR(IR ir) throws IOException {
+            out.clear();
+            irWriter.writeIR(ir, out);
+            if (sectionSize + out.size() > MAX_SECTION_SIZE) {
+                sectionSizes.add(sectionSize);
+                sectionSize = 0;
+            }
+            long position = ((long) sectionSizes.size() << 32) | sectionSize;
+            sectionSize += out.size();
+            out.writeTo(channel);
+            return position;
+        }
+
+        /**
+         * Writes the remaining parts of this file and moves it to
+         * the target path.
+         *
+         * @param index   the index of this file.
+         * @param payload writer of the payload, or {@code null}
+         *                if this file has no payload.
+         */
+        void finish(BinaryOutput index, @Nullable PayloadWriter payload)
+                throws IOException {
+            sectionSizes.add(sectionSize);
+            long tablesOffset = channel.position();
+            out.clear();
+            irWriter.writeTables(out);
+            out.writeTo(channel);
+            long sectionTableOffset = channel.position();
+            out.clear();
+            out.writeVarInt(sectionSizes.size());
+            sectionSizes.forEach(out::writeVarLong);
+            out.writeTo(channel);
+            long indexOffset = channel.position();
+            index.writeTo(channel);
+            long payloadOffset = channel.position();
+            if (payload != null) {
+                OutputStream os = new BufferedOutputStream(
+                        Channels.newOutputStream(channel));
+                payload.write(os);
+                os.flush();
+            }
+            long end = channel.position();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(magic)
+                    .putLong(VERSION)
+                    .putLong(tablesOffset)
+                    .putLong(sectionTableOffset)
+                    .putLong(indexOffset)
+                    .putLong(payloadOffset)
+                    .putLong(end)
+                    .flip();
+            channel.write(header, 0);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            // the temporary file remains only when the writing failed
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return a temporary file for writing {@code target}, which is in
+     * the same directory as {@code target} and is named by the current
+     * process, so that it can be atomically moved to {@code target}.
+     */
+    static Path getTempFile(Path target) {
+        return target.resolveSibling(target.getFileName() + "."
+                + ProcessHandle.current().pid() + ".tmp");
+    }
+
+    @FunctionalInterface
+    interface PayloadWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
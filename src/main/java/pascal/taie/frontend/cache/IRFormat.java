@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+/**
+ * Tags of the binary encoding of IR in world cache.
+ * <p>
+ * The IR of each method is encoded as:
+ * <pre>
+ * vars:       count, (name, type, literal)*
+ * this:       var + 1 (0 for static methods)
+ * params:     count, var*
+ * returnVars: count, var*
+ * stmts:      count, (tag, line number, operands)*
+ * exceptions: count, (start, end, handler, catch type)*
+ * </pre>
+ * where vars and stmts are referenced by their indexes, and names, types,
+ * field and method references are referenced by the indexes in the
+ * constant tables which are shared by all methods. Classes are referenced
+ * by their types, thus the encoded IR does not depend on the indexes of
+ * classes in a particular world. All integers are written in
+ * variable-length encoding.
+ *
+ * @see IRWriter
+ * @see IRReader
+ */
+final class IRFormat {
+
+    private IRFormat() {
+    }
+
+    // tags of statements
+    static final int NEW = 1;
+    static final int ASSIGN_LITERAL = 2;
+    static final int COPY = 3;
+    static final int LOAD_ARRAY = 4;
+    static final int STORE_ARRAY = 5;
+    static final int LOAD_FIELD = 6;
+    static final int STORE_FIELD = 7;
+    static final int BINARY = 8;
+    static final int UNARY = 9;
+    static final int INSTANCE_OF = 10;
+    static final int CAST = 11;
+    static final int GOTO = 12;
+    static final int IF = 13;
+    static final int TABLE_SWITCH = 14;
+    static final int LOOKUP_SWITCH = 15;
+    static final int INVOKE = 16;
+    static final int RETURN = 17;
+    static final int THROW = 18;
+    static final int CATCH = 19;
+    static final int MONITOR = 20;
+    static final int NOP = 21;
+
+    // tags of new expressions
+    static final int NEW_INSTANCE = 1;
+    static final int NEW_ARRAY = 2;
+    static final int NEW_MULTI_ARRAY = 3;
+
+    // tags of binary expressions
+    static final int ARITHMETIC = 1;
+    static final int BITWISE = 2;
+    static final int COMPARISON = 3;
+    static final int SHIFT = 4;
+
+    // tags of unary expressions
+    static final int NEG = 1;
+    static final int ARRAY_LENGTH = 2;
+
+    // tags of invoke expressions
+    static final int INVOKE_VIRTUAL = 1;
+    static final int INVOKE_INTERFACE = 2;
+    static final int INVOKE_SPECIAL = 3;
+    static final int INVOKE_STATIC = 4;
+    static final int INVOKE_DYNAMIC = 5;
+
+    // tags of literals, 0 represents absent literal
+    static final int NO_LITERAL = 0;
+    static final int INT = 1;
+    static final int LONG = 2;
+    static final int FLOAT = 3;
+    static final int DOUBLE = 4;
+    static final int STRING = 5;
+    static final int CLASS = 6;
+    static final int NULL = 7;
+    static final int METHOD_HANDLE = 8;
+    static final int METHOD_TYPE = 9;
+
+    // tags of member references in method handles
+    static final int FIELD_REF = 1;
+    static final int METHOD_REF = 2;
+}
@@ -0,0 +1,532 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.ArrayLengthExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InstanceOfExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInterface;
+import pascal.taie.ir.exp.InvokeSpecial;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.MethodHandle;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.NegExp;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.UnaryExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Catch;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.InstanceOf;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.LookupSwitch;
+import pascal.taie.ir.stmt.Monitor;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.ir.stmt.Unary;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.BottomType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.language.type.VoidType;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static pascal.taie.frontend.cache.IRFormat.*;
+
+/**
+ * Decodes IR written by {@link IRWriter}. The entries of constant tables
+ * are decoded on demand, and then cached for later uses.
+ * <p>
+ * This class is thread-safe, as the IR of multiple methods may be
+ * decoded concurrently. The cached table entries are immutable or
+ * canonicalized objects, thus the benign races on the caches are harmless.
+ */
+class IRReader {
+
+    private final ByteBuffer tables;
+
+    private final TypeSystem typeSystem;
+
+    private final Table<String> strings;
+
+    private final Table<Type> types;
+
+    private final Table<FieldRef> fieldRefs;
+
+    private final Table<MethodRef> methodRefs;
+
+    /**
+     * @param tables the buffer which contains the constant tables
+     *               written by {@link IRWriter#writeTables(BinaryOutput)}.
+     */
+    IRReader(ByteBuffer tables, TypeSystem typeSystem) {
+        this.tables = tables;
+        this.typeSystem = typeSystem;
+        BinaryInput in = new BinaryInput(tables, 0);
+        strings = new Table<>(in, i -> new BinaryInput(tables, i).readString(),
+                BinaryInput::readString);
+        types = new Table<>(in, this::decodeType, BinaryInput::readVarInt);
+        fieldRefs = new Table<>(in, this::decodeFieldRef, input -> {
+            input.readVarInt(); // class
+            input.readVarInt(); // name
+            input.readVarInt(); // type
+            input.readBoolean(); // isStatic
+        });
+        methodRefs = new Table<>(in, this::decodeMethodRef, input -> {
+            input.readVarInt(); // class
+            input.readVarInt(); // name
+            int nParams = input.readVarInt();
+            for (int i = 0; i < nParams; ++i) {
+                input.readVarInt();
+            }
+            input.readVarInt(); // return type
+            input.readBoolean(); // isStatic
+        });
+    }
+
+    /**
+     * Reads IR of {@code method} from {@code position} of {@code buffer}.
+     */
+    IR readIR(JMethod method, ByteBuffer buffer, int position) {
+        BinaryInput in = new BinaryInput(buffer, position);
+        int nVars = in.readVarInt();
+        List<Var> vars = new ArrayList<>(nVars);
+        for (int i = 0; i < nVars; ++i) {
+            String name = strings.get(in.readVarInt());
+            Type type = types.get(in.readVarInt());
+            Literal constValue = readLiteral(in);
+            vars.add(new Var(method, name, type, i, constValue));
+        }
+        Var thisVar = readNullableVar(in, vars);
+        List<Var> params = readVars(in, vars);
+        Set<Var> returnVars = Sets.newLinkedSet();
+        returnVars.addAll(readVars(in, vars));
+        int nStmts = in.readVarInt();
+        List<Stmt> stmts = new ArrayList<>(nStmts);
+        // jump targets are set after all statements are created,
+        // as they may refer to the statements after the jumps
+        int[][] targets = new int[nStmts][];
+        for (int i = 0; i < nStmts; ++i) {
+            int tag = in.readByte();
+            int lineNumber = in.readSignedVarInt();
+            Stmt stmt = readStmt(tag, in, method, vars, targets, i);
+            stmt.setLineNumber(lineNumber);
+            stmt.setIndex(i);
+            stmts.add(stmt);
+        }
+        for (int i = 0; i < nStmts; ++i) {
+            if (targets[i] != null) {
+                setTargets(stmts.get(i), targets[i], stmts);
+            }
+        }
+        int nEntries = in.readVarInt();
+        List<ExceptionEntry> entries = new ArrayList<>(nEntries);
+        for (int i = 0; i < nEntries; ++i) {
+            Stmt start = stmts.get(in.readVarInt());
+            Stmt end = stmts.get(in.readVarInt());
+            Catch handler = (Catch) stmts.get(in.readVarInt());
+            ClassType catchType = (ClassType) types.get(in.readVarInt());
+            entries.add(new ExceptionEntry(start, end, handler, catchType));
+        }
+        return new DefaultIR(method, thisVar, params, returnVars,
+                vars, stmts, entries);
+    }
+
+    private Stmt readStmt(int tag, BinaryInput in, JMethod method,
+                          List<Var> vars, int[][] targets, int index) {
+        return switch (tag) {
+            case IRFormat.NEW -> {
+                Var lvalue = readVar(in, vars);
+                Type type = types.get(in.readVarInt());
+                NewExp newExp = switch (in.readByte()) {
+                    case NEW_INSTANCE -> new NewInstance((ClassType) type);
+                    case NEW_ARRAY -> new NewArray(
+                            (ArrayType) type, readVar(in, vars));
+                    case NEW_MULTI_ARRAY -> new NewMultiArray(
+                            (ArrayType) type, readVars(in, vars));
+                    default -> throw new IllegalStateException(
+                            "Invalid tag of new expression");
+                };
+                yield new New(method, lvalue, newExp);
+            }
+            case ASSIGN_LITERAL -> new AssignLiteral(
+                    readVar(in, vars), readLiteral(in));
+            case COPY -> new Copy(readVar(in, vars), readVar(in, vars));
+            case LOAD_ARRAY -> new LoadArray(readVar(in, vars),
+                    new ArrayAccess(readVar(in, vars), readVar(in, vars)));
+            case STORE_ARRAY -> new StoreArray(
+                    new ArrayAccess(readVar(in, vars), readVar(in, vars)),
+                    readVar(in, vars));
+            case LOAD_FIELD -> new LoadField(
+                    readVar(in, vars), readFieldAccess(in, vars));
+            case STORE_FIELD -> new StoreField(
+                    readFieldAccess(in, vars), readVar(in, vars));
+            case BINARY -> {
+                Var lvalue = readVar(in, vars);
+                int kind = in.readByte();
+                int op = in.readByte();
+                Var v1 = readVar(in, vars);
+                Var v2 = readVar(in, vars);
+                BinaryExp exp = switch (kind) {
+                    case ARITHMETIC -> new ArithmeticExp(
+                            ArithmeticExp.Op.values()[op], v1, v2);
+                    case BITWISE -> new BitwiseExp(
+                            BitwiseExp.Op.values()[op], v1, v2);
+                    case COMPARISON -> new ComparisonExp(
+                            ComparisonExp.Op.values()[op], v1, v2);
+                    case SHIFT -> new ShiftExp(
+                            ShiftExp.Op.values()[op], v1, v2);
+                    default -> throw new IllegalStateException(
+                            "Invalid tag of binary expression");
+                };
+                yield new Binary(lvalue, exp);
+            }
+            case UNARY -> {
+                Var lvalue = readVar(in, vars);
+                int kind = in.readByte();
+                Var operand = readVar(in, vars);
+                UnaryExp exp = switch (kind) {
+                    case NEG -> new NegExp(operand);
+                    case ARRAY_LENGTH -> new ArrayLengthExp(operand);
+                    default -> throw new IllegalStateException(
+                            "Invalid tag of unary expression");
+                };
+                yield new Unary(lvalue, exp);
+            }
+            case INSTANCE_OF -> {
+                Var lvalue = readVar(in, vars);
+                Var value = readVar(in, vars);
+                ReferenceType type = (ReferenceType) types.get(in.readVarInt());
+                yield new InstanceOf(lvalue, new InstanceOfExp(value, type));
+            }
+            case CAST -> {
+                Var lvalue = readVar(in, vars);
+                Var value = readVar(in, vars);
+                Type type = types.get(in.readVarInt());
+                yield new Cast(lvalue, new CastExp(value, type));
+            }
+            case GOTO -> {
+                targets[index] = new int[]{ in.readVarInt() };
+                yield new Goto();
+            }
+            case IF -> {
+                ConditionExp.Op op = ConditionExp.Op.values()[in.readByte()];
+                Var v1 = readVar(in, vars);
+                Var v2 = readVar(in, vars);
+                targets[index] = new int[]{ in.readVarInt() };
+                yield new If(new ConditionExp(op, v1, v2));
+            }
+            case TABLE_SWITCH -> {
+                Var var = readVar(in, vars);
+                int low = in.readSignedVarInt();
+                int high = in.readSignedVarInt();
+                targets[index] = readTargets(in, high - low + 1);
+                yield new TableSwitch(var, low, high);
+            }
+            case LOOKUP_SWITCH -> {
+                Var var = readVar(in, vars);
+                int nCases = in.readVarInt();
+                List<Integer> caseValues = new ArrayList<>(nCases);
+                for (int i = 0; i < nCases; ++i) {
+                    caseValues.add(in.readSignedVarInt());
+                }
+                targets[index] = readTargets(in, nCases);
+                yield new LookupSwitch(var, caseValues);
+            }
+            case INVOKE -> {
+                Var result = readNullableVar(in, vars);
+                yield new Invoke(method, readInvokeExp(in, vars), result);
+            }
+            case RETURN -> {
+                Var value = readNullableVar(in, vars);
+                yield value == null ? new Return() : new Return(value);
+            }
+            case THROW -> new Throw(readVar(in, vars));
+            case CATCH -> new Catch(readVar(in, vars));
+            case MONITOR -> new Monitor(
+                    in.readBoolean() ? Monitor.Op.ENTER : Monitor.Op.EXIT,
+                    readVar(in, vars));
+            case IRFormat.NOP -> new Nop();
+            default -> throw new IllegalStateException(
+                    "Invalid tag of statement: " + tag);
+        };
+    }
+
+    /**
+     * @return indexes of the targets of a switch statement with
+     * {@code nCases} cases; the last one is the default target.
+     */
+    private static int[] readTargets(BinaryInput in, int nCases) {
+        int[] targets = new int[nCases + 1];
+        for (int i = 0; i <= nCases; ++i) {
+            targets[i] = in.readVarInt();
+        }
+        return targets;
+    }
+
+    private static void setTargets(Stmt stmt, int[] targets, List<Stmt> stmts) {
+        if (stmt instanceof Goto gotoStmt) {
+            gotoStmt.setTarget(stmts.get(targets[0]));
+        } else if (stmt instanceof If ifStmt) {
+            ifStmt.setTarget(stmts.get(targets[0]));
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            List<Stmt> caseTargets = new ArrayList<>(targets.length - 1);
+            for (int i = 0; i < targets.length - 1; ++i) {
+                caseTargets.add(stmts.get(targets[i]));
+            }
+            switchStmt.setTargets(caseTargets);
+            switchStmt.setDefaultTarget(stmts.get(targets[targets.length - 1]));
+        }
+    }
+
+    private FieldAccess readFieldAccess(BinaryInput in, List<Var> vars) {
+        FieldRef fieldRef = fieldRefs.get(in.readVarInt());
+        Var base = readNullableVar(in, vars);
+        return base == null
+                ? new StaticFieldAccess(fieldRef)
+                : new InstanceFieldAccess(fieldRef, base);
+    }
+
+    private InvokeExp readInvokeExp(BinaryInput in, List<Var> vars) {
+        int kind = in.readByte();
+        if (kind == INVOKE_DYNAMIC) {
+            MethodRef bootstrapMethodRef = methodRefs.get(in.readVarInt());
+            String methodName = strings.get(in.readVarInt());
+            MethodType methodType = readMethodType(in);
+            int nBootstrapArgs = in.readVarInt();
+            List<Literal> bootstrapArgs = new ArrayList<>(nBootstrapArgs);
+            for (int i = 0; i < nBootstrapArgs; ++i) {
+                bootstrapArgs.add(readLiteral(in));
+            }
+            return new InvokeDynamic(bootstrapMethodRef, methodName,
+                    methodType, bootstrapArgs, readVars(in, vars));
+        }
+        MethodRef methodRef = methodRefs.get(in.readVarInt());
+        if (kind == INVOKE_STATIC) {
+            return new InvokeStatic(methodRef, readVars(in, vars));
+        }
+        Var base = readVar(in, vars);
+        List<Var> args = readVars(in, vars);
+        return switch (kind) {
+            case INVOKE_VIRTUAL -> new InvokeVirtual(methodRef, base, args);
+            case INVOKE_INTERFACE -> new InvokeInterface(methodRef, base, args);
+            case INVOKE_SPECIAL -> new InvokeSpecial(methodRef, base, args);
+            default -> throw new IllegalStateException(
+                    "Invalid tag of invoke expression: " + kind);
+        };
+    }
+
+    @Nullable
+    private Literal readLiteral(BinaryInput in) {
+        int tag = in.readByte();
+        return switch (tag) {
+            case NO_LITERAL -> null;
+            case INT -> IntLiteral.get(in.readSignedVarInt());
+            case LONG -> LongLiteral.get(in.readSignedVarLong());
+            case FLOAT -> FloatLiteral.get(in.readFloat());
+            case DOUBLE -> DoubleLiteral.get(in.readDouble());
+            case STRING -> StringLiteral.get(strings.get(in.readVarInt()));
+            case CLASS -> ClassLiteral.get(types.get(in.readVarInt()));
+            case IRFormat.NULL -> NullLiteral.get();
+            case METHOD_HANDLE -> {
+                MethodHandle.Kind kind = MethodHandle.Kind.get(in.readVarInt());
+                MemberRef memberRef = in.readByte() == FIELD_REF
+                        ? fieldRefs.get(in.readVarInt())
+                        : methodRefs.get(in.readVarInt());
+                yield MethodHandle.get(kind, memberRef);
+            }
+            case METHOD_TYPE -> readMethodType(in);
+            default -> throw new IllegalStateException(
+                    "Invalid tag of literal: " + tag);
+        };
+    }
+
+    private MethodType readMethodType(BinaryInput in) {
+        int nParams = in.readVarInt();
+        List<Type> paramTypes = new ArrayList<>(nParams);
+        for (int i = 0; i < nParams; ++i) {
+            paramTypes.add(types.get(in.readVarInt()));
+        }
+        return MethodType.get(paramTypes, types.get(in.readVarInt()));
+    }
+
+    private static Var readVar(BinaryInput in, List<Var> vars) {
+        return vars.get(in.readVarInt());
+    }
+
+    @Nullable
+    private static Var readNullableVar(BinaryInput in, List<Var> vars) {
+        int i = in.readVarInt();
+        return i == 0 ? null : vars.get(i - 1);
+    }
+
+    private static List<Var> readVars(BinaryInput in, List<Var> vars) {
+        int n = in.readVarInt();
+        List<Var> result = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            result.add(readVar(in, vars));
+        }
+        return result;
+    }
+
+    private Type decodeType(int position) {
+        String name = strings.get(new BinaryInput(tables, position).readVarInt());
+        if (name.equals(VoidType.VOID.getName())) {
+            return VoidType.VOID;
+        } else if (name.equals(NullType.NULL.getName())) {
+            return NullType.NULL;
+        } else if (name.equals(BottomType.BOTTOM.getName())) {
+            return BottomType.BOTTOM;
+        } else {
+            return typeSystem.getType(name);
+        }
+    }
+
+    private FieldRef decodeFieldRef(int position) {
+        BinaryInput in = new BinaryInput(tables, position);
+        JClass declaringClass = readClass(in);
+        String name = strings.get(in.readVarInt());
+        Type type = types.get(in.readVarInt());
+        return FieldRef.get(declaringClass, name, type, in.readBoolean());
+    }
+
+    private MethodRef decodeMethodRef(int position) {
+        BinaryInput in = new BinaryInput(tables, position);
+        JClass declaringClass = readClass(in);
+        String name = strings.get(in.readVarInt());
+        int nParams = in.readVarInt();
+        List<Type> paramTypes = new ArrayList<>(nParams);
+        for (int i = 0; i < nParams; ++i) {
+            paramTypes.add(types.get(in.readVarInt()));
+        }
+        Type returnType = types.get(in.readVarInt());
+        return MethodRef.get(declaringClass, name, paramTypes, returnType,
+                in.readBoolean());
+    }
+
+    @Nullable
+    private JClass readClass(BinaryInput in) {
+        int i = in.readVarInt();
+        return i == 0 ? null : ((ClassType) types.get(i - 1)).getJClass();
+    }
+
+    /**
+     * A constant table whose entries are decoded on demand.
+     */
+    private static class Table<T> {
+
+        /**
+         * Positions of the entries in the table buffer.
+         */
+        private final int[] positions;
+
+        private final Object[] entries;
+
+        private final IntFunction<T> decoder;
+
+        /**
+         * Scans the entries of the table from {@code in}, and moves
+         * {@code in} to the end of the table.
+         *
+         * @param decoder decodes the entry at given position
+         * @param skipper skips an entry in {@code in}
+         */
+        private Table(BinaryInput in, IntFunction<T> decoder,
+                      Consumer<BinaryInput> skipper) {
+            int size = in.readVarInt();
+            this.positions = new int[size];
+            for (int i = 0; i < size; ++i) {
+                positions[i] = in.position();
+                skipper.accept(in);
+            }
+            this.entries = new Object[size];
+            this.decoder = decoder;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T get(int i) {
+            Object entry = entries[i];
+            if (entry == null) {
+                entry = decoder.apply(positions[i]);
+                entries[i] = entry;
+            }
+            return (T) entry;
+        }
+    }
+}
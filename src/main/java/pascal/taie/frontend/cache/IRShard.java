@@ -0,0 +1,153 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An IR shard stores the IR of the classes loaded from a class path entry.
+ * As the encoded IR does not depend on the world, and the shard is named
+ * by the key of the entry (see {@link ShardLayout}), a shard can be shared
+ * by the worlds which load classes from the same entry, e.g., the JRE
+ * and library jars, and it is reused across projects and runs.
+ * <p>
+ * The index of a shard contains, for each class, its name and the
+ * subsignatures and positions of its concrete methods. The methods are
+ * looked up by names, as the shard is not bound to a particular world.
+ */
+final class IRShard {
+
+    private static final long MAGIC = 0x5441492d45495253L; // "TAI-EIRS"
+
+    private final IRFile file;
+
+    /**
+     * Map from class name to the position of its record in the index.
+     */
+    private final Map<String, Integer> classes;
+
+    /**
+     * Map from class name to the positions of the IR of its methods
+     * (by subsignatures), which is decoded from the index on demand.
+     */
+    private final Map<String, Map<String, Long>> methods = Maps.newConcurrentMap();
+
+    private IRShard(IRFile file) {
+        this.file = file;
+        BinaryInput in = new BinaryInput(file.getIndex(), 0);
+        int nClasses = in.readVarInt();
+        classes = Maps.newMap(nClasses);
+        for (int i = 0; i < nClasses; ++i) {
+            String className = in.readString();
+            int length = in.readVarInt();
+            classes.put(className, in.position());
+            in.skip(length);
+        }
+    }
+
+    static IRShard open(File file) throws IOException {
+        return new IRShard(IRFile.open(file, MAGIC));
+    }
+
+    /**
+     * Writes IR of concrete methods of given classes to an IR shard.
+     */
+    static void write(File file, List<JClass> classes) throws IOException {
+        try (IRFile.Writer writer = new IRFile.Writer(file, MAGIC)) {
+            BinaryOutput index = new BinaryOutput(1 << 16);
+            BinaryOutput record = new BinaryOutput(1 << 10);
+            index.writeVarInt(classes.size());
+            for (JClass jclass : classes) {
+                List<JMethod> methods = WorldCache.getConcreteMethods(jclass);
+                record.clear();
+                record.writeVarInt(methods.size());
+                for (JMethod method : methods) {
+                    record.writeString(method.getSubsignature().toString());
+                    record.writeVarLong(writer.writeIR(method.getIR()));
+                }
+                index.writeString(jclass.getName());
+                index.writeVarInt(record.size());
+                index.writeBytes(record);
+            }
+            writer.finish(index, null);
+        }
+    }
+
+    void attach(TypeSystem typeSystem) {
+        file.attach(typeSystem);
+    }
+
+    /**
+     * @return {@code true} if this shard contains the IR of all concrete
+     * methods of {@code jclass}.
+     */
+    boolean contains(JClass jclass) {
+        Map<String, Long> positions = getMethods(jclass.getName());
+        if (positions == null) {
+            return false;
+        }
+        List<JMethod> concreteMethods = WorldCache.getConcreteMethods(jclass);
+        return positions.size() == concreteMethods.size() &&
+                concreteMethods.stream().allMatch(m ->
+                        positions.containsKey(m.getSubsignature().toString()));
+    }
+
+    IR readIR(JMethod method) {
+        Map<String, Long> positions = getMethods(
+                method.getDeclaringClass().getName());
+        Long position = positions == null ? null
+                : positions.get(method.getSubsignature().toString());
+        if (position == null) {
+            throw new IllegalArgumentException(
+                    "IR of " + method + " is absent in IR shard");
+        }
+        return file.readIR(method, position);
+    }
+
+    @Nullable
+    private Map<String, Long> getMethods(String className) {
+        Integer recordPosition = classes.get(className);
+        if (recordPosition == null) {
+            return null;
+        }
+        return methods.computeIfAbsent(className, __ -> {
+            BinaryInput in = new BinaryInput(file.getIndex(), recordPosition);
+            int nMethods = in.readVarInt();
+            Map<String, Long> positions = Maps.newHybridMap();
+            for (int i = 0; i < nMethods; ++i) {
+                positions.put(in.readString(), in.readVarLong());
+            }
+            return positions;
+        });
+    }
+}
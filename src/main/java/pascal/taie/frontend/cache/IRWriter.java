@@ -0,0 +1,578 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ArrayLengthExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.InvokeInterface;
+import pascal.taie.ir.exp.InvokeSpecial;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.MethodHandle;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.NegExp;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.UnaryExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Catch;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.InstanceOf;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.LookupSwitch;
+import pascal.taie.ir.stmt.Monitor;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StmtVisitor;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.ir.stmt.Unary;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+import static pascal.taie.frontend.cache.IRFormat.*;
+
+/**
+ * Encodes IR in the binary format described in {@link IRFormat}, and
+ * collects the constant tables (of strings, types, field and method
+ * references) which are shared by the IR of all methods.
+ */
+class IRWriter {
+
+    private final Map<String, Integer> strings = Maps.newMap(1 << 16);
+
+    private final Map<Type, Integer> types = Maps.newMap(1 << 14);
+
+    private final Map<FieldRef, Integer> fieldRefs = Maps.newMap(1 << 14);
+
+    private final Map<MethodRef, Integer> methodRefs = Maps.newMap(1 << 15);
+
+    /**
+     * Writes IR of a method to {@code out}.
+     */
+    void writeIR(IR ir, BinaryOutput out) {
+        List<Var> vars = ir.getVars();
+        out.writeVarInt(vars.size());
+        for (int i = 0; i < vars.size(); ++i) {
+            Var var = vars.get(i);
+            if (var.getIndex() != i) {
+                throw new IllegalStateException("Index of " + var +
+                        " in " + ir.getMethod() + " mismatches its position");
+            }
+            out.writeVarInt(getString(var.getName()));
+            out.writeVarInt(getType(var.getType()));
+            if (var.isConst()) {
+                writeLiteral(var.getConstValue(), out);
+            } else {
+                out.writeByte(NO_LITERAL);
+            }
+        }
+        writeNullableVar(ir.getThis(), out);
+        writeVars(ir.getParams(), out);
+        writeVars(ir.getReturnVars(), out);
+        List<Stmt> stmts = ir.getStmts();
+        out.writeVarInt(stmts.size());
+        StmtWriter stmtWriter = new StmtWriter(out);
+        for (Stmt stmt : stmts) {
+            stmt.accept(stmtWriter);
+        }
+        List<ExceptionEntry> entries = ir.getExceptionEntries();
+        out.writeVarInt(entries.size());
+        for (ExceptionEntry entry : entries) {
+            out.writeVarInt(entry.start().getIndex());
+            out.writeVarInt(entry.end().getIndex());
+            out.writeVarInt(entry.handler().getIndex());
+            out.writeVarInt(getType(entry.catchType()));
+        }
+    }
+
+    /**
+     * Writes the constant tables to {@code out}.
+     */
+    void writeTables(BinaryOutput out) {
+        // the names, types and declaring classes of references have been
+        // added to the string and type tables when adding the references
+        out.writeVarInt(strings.size());
+        keysInOrder(strings).forEach(out::writeString);
+        out.writeVarInt(types.size());
+        keysInOrder(types).forEach(type ->
+                out.writeVarInt(getString(type.getName())));
+        out.writeVarInt(fieldRefs.size());
+        for (FieldRef ref : keysInOrder(fieldRefs)) {
+            writeClass(ref.getDeclaringClass(), out);
+            out.writeVarInt(getString(ref.getName()));
+            out.writeVarInt(getType(ref.getType()));
+            out.writeBoolean(ref.isStatic());
+        }
+        out.writeVarInt(methodRefs.size());
+        for (MethodRef ref : keysInOrder(methodRefs)) {
+            writeClass(ref.getDeclaringClass(), out);
+            out.writeVarInt(getString(ref.getName()));
+            out.writeVarInt(ref.getParameterTypes().size());
+            ref.getParameterTypes().forEach(t -> out.writeVarInt(getType(t)));
+            out.writeVarInt(getType(ref.getReturnType()));
+            out.writeBoolean(ref.isStatic());
+        }
+    }
+
+    private static <K> List<K> keysInOrder(Map<K, Integer> table) {
+        Object[] keys = new Object[table.size()];
+        table.forEach((k, i) -> keys[i] = k);
+        @SuppressWarnings("unchecked")
+        List<K> result = (List<K>) List.of(keys);
+        return result;
+    }
+
+    private int getString(String s) {
+        return strings.computeIfAbsent(s, __ -> strings.size());
+    }
+
+    private int getType(Type type) {
+        Integer i = types.get(type);
+        if (i == null) {
+            // type name must be in string table
+            getString(type.getName());
+            i = types.size();
+            types.put(type, i);
+        }
+        return i;
+    }
+
+    private void addClass(@Nullable JClass jclass) {
+        if (jclass != null) {
+            getType(jclass.getType());
+        }
+    }
+
+    private int getFieldRef(FieldRef ref) {
+        Integer i = fieldRefs.get(ref);
+        if (i == null) {
+            addClass(ref.getDeclaringClass());
+            getString(ref.getName());
+            getType(ref.getType());
+            i = fieldRefs.size();
+            fieldRefs.put(ref, i);
+        }
+        return i;
+    }
+
+    private int getMethodRef(MethodRef ref) {
+        Integer i = methodRefs.get(ref);
+        if (i == null) {
+            addClass(ref.getDeclaringClass());
+            getString(ref.getName());
+            ref.getParameterTypes().forEach(this::getType);
+            getType(ref.getReturnType());
+            i = methodRefs.size();
+            methodRefs.put(ref, i);
+        }
+        return i;
+    }
+
+    /**
+     * Writes the declaring class of a reference by its type, so that the
+     * encoded IR does not depend on the indexes of classes in a world.
+     */
+    private void writeClass(@Nullable JClass jclass, BinaryOutput out) {
+        out.writeVarInt(jclass == null ? 0 : types.get(jclass.getType()) + 1);
+    }
+
+    private static void writeVars(List<Var> vars, BinaryOutput out) {
+        out.writeVarInt(vars.size());
+        vars.forEach(v -> out.writeVarInt(v.getIndex()));
+    }
+
+    private static void writeNullableVar(@Nullable Var var, BinaryOutput out) {
+        out.writeVarInt(var == null ? 0 : var.getIndex() + 1);
+    }
+
+    private void writeLiteral(Literal literal, BinaryOutput out) {
+        if (literal instanceof IntLiteral l) {
+            out.writeByte(INT);
+            out.writeSignedVarInt(l.getValue());
+        } else if (literal instanceof LongLiteral l) {
+            out.writeByte(LONG);
+            out.writeSignedVarLong(l.getValue());
+        } else if (literal instanceof FloatLiteral l) {
+            out.writeByte(FLOAT);
+            out.writeFloat(l.getValue());
+        } else if (literal instanceof DoubleLiteral l) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(l.getValue());
+        } else if (literal instanceof StringLiteral l) {
+            out.writeByte(STRING);
+            out.writeVarInt(getString(l.getString()));
+        } else if (literal instanceof ClassLiteral l) {
+            out.writeByte(CLASS);
+            out.writeVarInt(getType(l.getTypeValue()));
+        } else if (literal instanceof NullLiteral) {
+            out.writeByte(NULL);
+        } else if (literal instanceof MethodHandle l) {
+            out.writeByte(METHOD_HANDLE);
+            out.writeVarInt(l.getKind().getValue());
+            if (l.isFieldRef()) {
+                out.writeByte(FIELD_REF);
+                out.writeVarInt(getFieldRef(l.getFieldRef()));
+            } else {
+                out.writeByte(METHOD_REF);
+                out.writeVarInt(getMethodRef(l.getMethodRef()));
+            }
+        } else if (literal instanceof MethodType l) {
+            out.writeByte(METHOD_TYPE);
+            writeMethodType(l, out);
+        } else {
+            throw new IllegalArgumentException(
+                    "Cannot write literal: " + literal);
+        }
+    }
+
+    private void writeMethodType(MethodType methodType, BinaryOutput out) {
+        out.writeVarInt(methodType.getParamTypes().size());
+        methodType.getParamTypes().forEach(t -> out.writeVarInt(getType(t)));
+        out.writeVarInt(getType(methodType.getReturnType()));
+    }
+
+    /**
+     * Writes each statement as its tag, line number, and operands.
+     */
+    private class StmtWriter implements StmtVisitor<Void> {
+
+        private final BinaryOutput out;
+
+        private StmtWriter(BinaryOutput out) {
+            this.out = out;
+        }
+
+        private void writeHead(int tag, Stmt stmt) {
+            out.writeByte(tag);
+            out.writeSignedVarInt(stmt.getLineNumber());
+        }
+
+        private void writeVar(Var var) {
+            out.writeVarInt(var.getIndex());
+        }
+
+        private void writeTarget(Stmt target) {
+            out.writeVarInt(target.getIndex());
+        }
+
+        @Override
+        public Void visit(New stmt) {
+            writeHead(IRFormat.NEW, stmt);
+            writeVar(stmt.getLValue());
+            NewExp newExp = stmt.getRValue();
+            out.writeVarInt(getType(newExp.getType()));
+            if (newExp instanceof NewInstance) {
+                out.writeByte(NEW_INSTANCE);
+            } else if (newExp instanceof NewArray newArray) {
+                out.writeByte(NEW_ARRAY);
+                writeVar(newArray.getLength());
+            } else if (newExp instanceof NewMultiArray newMultiArray) {
+                out.writeByte(NEW_MULTI_ARRAY);
+                writeVars(newMultiArray.getLengths(), out);
+            } else {
+                throw new IllegalArgumentException(
+                        "Cannot write new expression: " + newExp);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AssignLiteral stmt) {
+            writeHead(ASSIGN_LITERAL, stmt);
+            writeVar(stmt.getLValue());
+            writeLiteral(stmt.getRValue(), out);
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            writeHead(COPY, stmt);
+            writeVar(stmt.getLValue());
+            writeVar(stmt.getRValue());
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadArray stmt) {
+            writeHead(LOAD_ARRAY, stmt);
+            writeVar(stmt.getLValue());
+            writeVar(stmt.getArrayAccess().getBase());
+            writeVar(stmt.getArrayAccess().getIndex());
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreArray stmt) {
+            writeHead(STORE_ARRAY, stmt);
+            writeVar(stmt.getArrayAccess().getBase());
+            writeVar(stmt.getArrayAccess().getIndex());
+            writeVar(stmt.getRValue());
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            writeHead(LOAD_FIELD, stmt);
+            writeVar(stmt.getLValue());
+            writeFieldAccess(stmt.getFieldAccess());
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            writeHead(STORE_FIELD, stmt);
+            writeFieldAccess(stmt.getFieldAccess());
+            writeVar(stmt.getRValue());
+            return null;
+        }
+
+        private void writeFieldAccess(FieldAccess access) {
+            out.writeVarInt(getFieldRef(access.getFieldRef()));
+            writeNullableVar(access instanceof InstanceFieldAccess instAccess
+                    ? instAccess.getBase() : null, out);
+        }
+
+        @Override
+        public Void visit(Binary stmt) {
+            writeHead(BINARY, stmt);
+            writeVar(stmt.getLValue());
+            BinaryExp exp = stmt.getRValue();
+            if (exp instanceof ArithmeticExp e) {
+                out.writeByte(ARITHMETIC);
+                out.writeByte(e.getOperator().ordinal());
+            } else if (exp instanceof BitwiseExp e) {
+                out.writeByte(BITWISE);
+                out.writeByte(e.getOperator().ordinal());
+            } else if (exp instanceof ComparisonExp e) {
+                out.writeByte(COMPARISON);
+                out.writeByte(e.getOperator().ordinal());
+            } else if (exp instanceof ShiftExp e) {
+                out.writeByte(SHIFT);
+                out.writeByte(e.getOperator().ordinal());
+            } else {
+                throw new IllegalArgumentException(
+                        "Cannot write binary expression: " + exp);
+            }
+            writeVar(exp.getOperand1());
+            writeVar(exp.getOperand2());
+            return null;
+        }
+
+        @Override
+        public Void visit(Unary stmt) {
+            writeHead(UNARY, stmt);
+            writeVar(stmt.getLValue());
+            UnaryExp exp = stmt.getRValue();
+            if (exp instanceof NegExp) {
+                out.writeByte(NEG);
+            } else if (exp instanceof ArrayLengthExp) {
+                out.writeByte(ARRAY_LENGTH);
+            } else {
+                throw new IllegalArgumentException(
+                        "Cannot write unary expression: " + exp);
+            }
+            writeVar(exp.getOperand());
+            return null;
+        }
+
+        @Override
+        public Void visit(InstanceOf stmt) {
+            writeHead(INSTANCE_OF, stmt);
+            writeVar(stmt.getLValue());
+            writeVar(stmt.getRValue().getValue());
+            out.writeVarInt(getType(stmt.getRValue().getCheckedType()));
+            return null;
+        }
+
+        @Override
+        public Void visit(Cast stmt) {
+            writeHead(CAST, stmt);
+            writeVar(stmt.getLValue());
+            writeVar(stmt.getRValue().getValue());
+            out.writeVarInt(getType(stmt.getRValue().getCastType()));
+            return null;
+        }
+
+        @Override
+        public Void visit(Goto stmt) {
+            writeHead(GOTO, stmt);
+            writeTarget(stmt.getTarget());
+            return null;
+        }
+
+        @Override
+        public Void visit(If stmt) {
+            writeHead(IF, stmt);
+            ConditionExp cond = stmt.getCondition();
+            out.writeByte(cond.getOperator().ordinal());
+            writeVar(cond.getOperand1());
+            writeVar(cond.getOperand2());
+            writeTarget(stmt.getTarget());
+            return null;
+        }
+
+        @Override
+        public Void visit(TableSwitch stmt) {
+            writeHead(TABLE_SWITCH, stmt);
+            writeVar(stmt.getVar());
+            out.writeSignedVarInt(stmt.getLowIndex());
+            out.writeSignedVarInt(stmt.getHighIndex());
+            writeTargets(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(LookupSwitch stmt) {
+            writeHead(LOOKUP_SWITCH, stmt);
+            writeVar(stmt.getVar());
+            List<Integer> caseValues = stmt.getCaseValues();
+            out.writeVarInt(caseValues.size());
+            caseValues.forEach(out::writeSignedVarInt);
+            writeTargets(stmt);
+            return null;
+        }
+
+        private void writeTargets(SwitchStmt stmt) {
+            for (int i = 0; i < stmt.getCaseValues().size(); ++i) {
+                writeTarget(stmt.getTarget(i));
+            }
+            writeTarget(stmt.getDefaultTarget());
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            writeHead(INVOKE, stmt);
+            writeNullableVar(stmt.getResult(), out);
+            InvokeExp exp = stmt.getInvokeExp();
+            if (exp instanceof InvokeDynamic indy) {
+                out.writeByte(INVOKE_DYNAMIC);
+                out.writeVarInt(getMethodRef(indy.getBootstrapMethodRef()));
+                out.writeVarInt(getString(indy.getMethodName()));
+                writeMethodType(indy.getMethodType(), out);
+                out.writeVarInt(indy.getBootstrapArgs().size());
+                indy.getBootstrapArgs().forEach(arg -> writeLiteral(arg, out));
+            } else {
+                if (exp instanceof InvokeVirtual) {
+                    out.writeByte(INVOKE_VIRTUAL);
+                } else if (exp instanceof InvokeInterface) {
+                    out.writeByte(INVOKE_INTERFACE);
+                } else if (exp instanceof InvokeSpecial) {
+                    out.writeByte(INVOKE_SPECIAL);
+                } else if (exp instanceof InvokeStatic) {
+                    out.writeByte(INVOKE_STATIC);
+                } else {
+                    throw new IllegalArgumentException(
+                            "Cannot write invoke expression: " + exp);
+                }
+                out.writeVarInt(getMethodRef(exp.getMethodRef()));
+                if (exp instanceof InvokeInstanceExp instExp) {
+                    writeVar(instExp.getBase());
+                }
+            }
+            writeVars(exp.getArgs(), out);
+            return null;
+        }
+
+        @Override
+        public Void visit(Return stmt) {
+            writeHead(RETURN, stmt);
+            writeNullableVar(stmt.getValue(), out);
+            return null;
+        }
+
+        @Override
+        public Void visit(Throw stmt) {
+            writeHead(THROW, stmt);
+            writeVar(stmt.getExceptionRef());
+            return null;
+        }
+
+        @Override
+        public Void visit(Catch stmt) {
+            writeHead(CATCH, stmt);
+            writeVar(stmt.getExceptionRef());
+            return null;
+        }
+
+        @Override
+        public Void visit(Monitor stmt) {
+            writeHead(MONITOR, stmt);
+            out.writeBoolean(stmt.isEnter());
+            writeVar(stmt.getObjectRef());
+            return null;
+        }
+
+        @Override
+        public Void visit(Nop stmt) {
+            writeHead(IRFormat.NOP, stmt);
+            return null;
+        }
+
+        @Override
+        public Void visitDefault(Stmt stmt) {
+            throw new IllegalArgumentException("Cannot write statement: " + stmt);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link IRBuilder} of the world loaded from {@link WorldCache}.
+ * It decodes the IR of each method from the memory-mapped world file
+ * or IR shards on demand, so that loading the world cache does not
+ * pay for the IR of the methods that are never analyzed.
+ * <p>
+ * In the serialized world, this builder is just a placeholder
+ * of {@link CachedIRBuilder}, and it is attached to the IR files
+ * after the world skeleton is deserialized.
+ */
+public class MappedIRBuilder implements IRBuilder {
+
+    private transient IRFile worldFile;
+
+    private transient Map<JMethod, Long> residualIR;
+
+    private transient IRShard[] shards;
+
+    /**
+     * Shard of each class (by class index), where 0 means that
+     * the IR of the class is in {@link #residualIR}.
+     */
+    private transient int[] classShards;
+
+    void attach(IRFile worldFile, Map<JMethod, Long> residualIR,
+                IRShard[] shards, int[] classShards) {
+        this.worldFile = worldFile;
+        this.residualIR = residualIR;
+        this.shards = shards;
+        this.classShards = classShards;
+    }
+
+    @Override
+    public IR buildIR(JMethod method) {
+        int shard = classShards[method.getDeclaringClass().getIndex()];
+        if (shard > 0) {
+            return shards[shard - 1].readIR(method);
+        }
+        Long position = residualIR.get(method);
+        if (position == null) {
+            throw new IllegalArgumentException(
+                    "IR of " + method + " is absent in world cache");
+        }
+        return worldFile.readIR(method, position);
+    }
+
+    @Override
+    public void buildAll(ClassHierarchy hierarchy) {
+        hierarchy.allClasses()
+                .map(WorldCache::getConcreteMethods)
+                .flatMap(List::stream)
+                .forEach(JMethod::getIR);
+    }
+}
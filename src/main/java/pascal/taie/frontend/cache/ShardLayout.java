@@ -0,0 +1,367 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.AbstractWorldBuilder;
+import pascal.taie.config.Options;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Partitions the world cache by class path entries. Each entry, i.e.,
+ * a JRE jar, a library jar, or an application directory, has an IR shard
+ * named by the key of the entry, which is a SHA-256 digest of:
+ * <ul>
+ *     <li>the options which affect the IR, e.g., the world builder;</li>
+ *     <li>the content of the entry itself;</li>
+ *     <li>the contents of the entries that the IR of the entry may
+ *     depend on, i.e., the entries in the same or lower layers, where
+ *     the layers are JRE, library class path ({@code --class-path}),
+ *     and application class path ({@code --app-class-path}).</li>
+ * </ul>
+ * Thus, the shards of unchanged JRE and library jars are reused across
+ * projects and runs, and only the shards of changed entries are rebuilt.
+ * The world skeleton (i.e., the class hierarchy and type system), which
+ * connects the classes from all entries, is keyed by the digest of
+ * all entries and the options which affect the world.
+ * <p>
+ * The digests of jars are memoized in the cache directory by their paths,
+ * sizes and last-modified times, so that large jars are not read again
+ * in every run.
+ */
+final class ShardLayout {
+
+    private static final Logger logger = LogManager.getLogger(ShardLayout.class);
+
+    private static final String DIGESTS_FILE = "digests.txt";
+
+    /**
+     * Pseudo class path entry for the classes of the running JVM,
+     * which are loaded when prependJVM is set.
+     */
+    private static final String JRT = "jrt:/";
+
+    /**
+     * Class path entries in the order of class loading.
+     */
+    private final List<String> entries;
+
+    /**
+     * Keys of the entries, i.e., the names of their IR shards.
+     */
+    private final List<String> keys;
+
+    private final String worldKey;
+
+    /**
+     * Index of the entry which provides the classes not found in
+     * other entries, or -1 if such entry does not exist.
+     */
+    private final int fallbackEntry;
+
+    /**
+     * Map from class name to the index of the entry it is loaded from.
+     */
+    private Map<String, Integer> origins;
+
+    private ShardLayout(List<String> entries, List<String> keys,
+                        String worldKey, int fallbackEntry) {
+        this.entries = entries;
+        this.keys = keys;
+        this.worldKey = worldKey;
+        this.fallbackEntry = fallbackEntry;
+    }
+
+    static ShardLayout of(Options options, File cacheDir) throws IOException {
+        DigestMemo memo = new DigestMemo(new File(cacheDir, DIGESTS_FILE));
+        List<String> jreJars = AbstractWorldBuilder.getJREJars(options);
+        List<String> jre = new ArrayList<>(jreJars);
+        if (options.isPrependJVM()) {
+            jre.add(JRT);
+        }
+        MessageDigest digest = newDigest();
+        update(digest, "version", IRFile.VERSION);
+        update(digest, "world-builder", options.getWorldBuilderClass());
+        update(digest, "java", options.getJavaVersion());
+        update(digest, "prepend-jvm", options.isPrependJVM());
+        update(digest, "allow-phantom", options.isAllowPhantom());
+        // the key of an entry depends on the contents of all entries
+        // in the same and lower layers
+        Map<String, String> keys = Maps.newMap();
+        for (List<String> layer : List.of(jre,
+                options.getClassPath(), options.getAppClassPath())) {
+            List<String> digests = new ArrayList<>(layer.size());
+            for (String entry : layer) {
+                String entryDigest = memo.getDigest(entry);
+                update(digest, "entry", entryDigest);
+                digests.add(entryDigest);
+            }
+            String layerKey = hex(clone(digest));
+            for (int i = 0; i < layer.size(); ++i) {
+                MessageDigest key = newDigest();
+                update(key, "layer", layerKey);
+                update(key, "entry", digests.get(i));
+                keys.putIfAbsent(layer.get(i), hex(key));
+            }
+        }
+        memo.save();
+        update(digest, "main-class", options.getMainClass());
+        update(digest, "input-classes", options.getInputClasses());
+        update(digest, "native-model", options.enableNativeModel());
+        // entries are ordered as the class path given to world builders
+        // (see AbstractWorldBuilder.getClassPath()), and the classes of
+        // running JVM are loaded after the given class paths
+        List<String> entries = Streams.concat(
+                        jreJars.stream(),
+                        options.getAppClassPath().stream(),
+                        options.getClassPath().stream(),
+                        options.isPrependJVM() ? Stream.of(JRT) : Stream.empty())
+                .distinct()
+                .toList();
+        return new ShardLayout(entries,
+                entries.stream().map(keys::get).toList(),
+                hex(digest), entries.indexOf(JRT));
+    }
+
+    String getWorldKey() {
+        return worldKey;
+    }
+
+    int getShardCount() {
+        return entries.size();
+    }
+
+    String getShardFileName(int shard) {
+        return "ir-" + keys.get(shard) + ".bin";
+    }
+
+    /**
+     * @return the index of the shard which contains the class of
+     * given name, or -1 if the class is not loaded from any entry,
+     * e.g., phantom classes.
+     */
+    int getShard(String className) throws IOException {
+        if (origins == null) {
+            Map<String, Integer> result = Maps.newMap(1 << 15);
+            for (int i = 0; i < entries.size(); ++i) {
+                for (String name : listClasses(entries.get(i))) {
+                    result.putIfAbsent(name, i);
+                }
+            }
+            origins = result;
+        }
+        return origins.getOrDefault(className, fallbackEntry);
+    }
+
+    private static List<String> listClasses(String entry) throws IOException {
+        List<String> classes = new ArrayList<>();
+        Path path = Path.of(entry);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                files.map(p -> path.relativize(p).toString()
+                                .replace(File.separatorChar, '/'))
+                        .filter(ShardLayout::isClassFile)
+                        .forEach(name -> classes.add(toClassName(name)));
+            }
+        } else if (Files.isRegularFile(path) && entry.endsWith(".jar")) {
+            try (ZipFile jar = new ZipFile(path.toFile())) {
+                Enumeration<? extends ZipEntry> jarEntries = jar.entries();
+                while (jarEntries.hasMoreElements()) {
+                    String name = jarEntries.nextElement().getName();
+                    if (isClassFile(name)) {
+                        classes.add(toClassName(name));
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class")
+                && !name.startsWith("META-INF/")
+                && !name.endsWith("module-info.class");
+    }
+
+    private static String toClassName(String fileName) {
+        return fileName.substring(0, fileName.length() - ".class".length())
+                .replace('/', '.');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MessageDigest clone(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String name, Object value) {
+        digest.update((name + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes and memoizes the content digests of class path entries.
+     */
+    private static class DigestMemo {
+
+        private final File file;
+
+        /**
+         * Map from path of jar to its size, last-modified time and digest.
+         */
+        private final Map<String, String[]> digests = Maps.newLinkedHashMap();
+
+        private boolean changed = false;
+
+        private DigestMemo(File file) {
+            this.file = file;
+            if (file.exists()) {
+                try {
+                    for (String line : Files.readAllLines(file.toPath())) {
+                        String[] parts = line.split("\t", 4);
+                        if (parts.length == 4) {
+                            digests.put(parts[3], parts);
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to read {}, digests will be recomputed",
+                            file, e);
+                }
+            }
+        }
+
+        private String getDigest(String entry) throws IOException {
+            if (entry.equals(JRT)) {
+                MessageDigest digest = newDigest();
+                update(digest, "java.home", System.getProperty("java.home"));
+                update(digest, "java.runtime.version",
+                        System.getProperty("java.runtime.version"));
+                return hex(digest);
+            }
+            Path path = Path.of(entry).toAbsolutePath();
+            if (Files.isDirectory(path)) {
+                // directories are usually small application class paths
+                // which change often, thus they are not memoized
+                return digestDirectory(path);
+            }
+            if (!Files.isRegularFile(path)) {
+                MessageDigest digest = newDigest();
+                update(digest, "absent", path);
+                return hex(digest);
+            }
+            String size = Long.toString(Files.size(path));
+            String lastModified = Long.toString(
+                    Files.getLastModifiedTime(path).toMillis());
+            String[] memoized = digests.get(path.toString());
+            if (memoized != null && memoized[0].equals(size)
+                    && memoized[1].equals(lastModified)) {
+                return memoized[2];
+            }
+            MessageDigest digest = newDigest();
+            updateContent(digest, path);
+            String result = hex(digest);
+            digests.put(path.toString(),
+                    new String[]{ size, lastModified, result, path.toString() });
+            changed = true;
+            return result;
+        }
+
+        private static String digestDirectory(Path dir) throws IOException {
+            MessageDigest digest = newDigest();
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(dir)) {
+                files = paths.filter(Files::isRegularFile)
+                        .sorted()
+                        .toList();
+            }
+            for (Path file : files) {
+                update(digest, "file", dir.relativize(file).toString()
+                        .replace(File.separatorChar, '/'));
+                updateContent(digest, file);
+            }
+            return hex(digest);
+        }
+
+        private static void updateContent(MessageDigest digest, Path file)
+                throws IOException {
+            byte[] buffer = new byte[1 << 16];
+            try (InputStream in = Files.newInputStream(file)) {
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, n);
+                }
+            }
+        }
+
+        private void save() {
+            if (!changed) {
+                return;
+            }
+            try {
+                Path temp = IRFile.getTempFile(file.toPath());
+                Files.write(temp, digests.values()
+                        .stream()
+                        .map(parts -> String.join("\t", parts))
+                        .toList());
+                Files.move(temp, file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.warn("Failed to save digests to {}", file, e);
+            }
+        }
+    }
+}
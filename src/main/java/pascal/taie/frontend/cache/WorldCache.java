@@ -0,0 +1,236 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves and loads the world cache, which consists of a world file and
+ * IR shards (see {@link ShardLayout}). The world file is an {@link IRFile}
+ * whose payload is the world skeleton, i.e., the world without IR, which
+ * is serialized by Java serialization, and whose IR sections contain the
+ * residual IR, i.e., the IR of the classes which are not loaded from
+ * any class path entry. The index of the world file consists of:
+ * <ul>
+ *     <li>names of the IR shard files used by the world;</li>
+ *     <li>the shard of each class (by class index), where 0 means
+ *     that the IR of the class is residual, and i + 1 means the i-th shard;</li>
+ *     <li>positions of residual IR in the order of methods.</li>
+ * </ul>
+ * The IR of a method is decoded when it is requested for the first time,
+ * thus loading the world cache is much cheaper than deserializing
+ * the IR of the whole program.
+ */
+final class WorldCache {
+
+    private static final Logger logger = LogManager.getLogger(WorldCache.class);
+
+    private static final long MAGIC = 0x5441492d45574343L; // "TAI-EWCC"
+
+    private WorldCache() {
+    }
+
+    /**
+     * Saves the world to {@code file}, and the IR of its classes to the
+     * IR shards in {@code cacheDir}. Existing shards are reused, and only
+     * the absent shards are written, thus the IR of the classes in the
+     * reused shards is not built.
+     */
+    static void save(World world, File file, File cacheDir, ShardLayout layout)
+            throws IOException {
+        ClassHierarchy hierarchy = world.getClassHierarchy();
+        List<JClass> classes = hierarchy.allClasses().toList();
+        int[] classShards = new int[classes.size()];
+        // assign classes to shards
+        IRShard[] existingShards = new IRShard[layout.getShardCount()];
+        List<List<JClass>> newShards = new ArrayList<>();
+        for (int i = 0; i < layout.getShardCount(); ++i) {
+            File shardFile = new File(cacheDir, layout.getShardFileName(i));
+            if (shardFile.exists()) {
+                try {
+                    existingShards[i] = IRShard.open(shardFile);
+                } catch (IOException e) {
+                    logger.warn("Failed to open IR shard {}, it will be rebuilt",
+                            shardFile, e);
+                }
+            }
+            newShards.add(existingShards[i] == null ? new ArrayList<>() : null);
+        }
+        for (JClass jclass : classes) {
+            int shard = layout.getShard(jclass.getName());
+            if (shard < 0) {
+                continue;
+            }
+            if (existingShards[shard] != null) {
+                // shadowed classes may be absent in the shards
+                // built for other worlds
+                if (existingShards[shard].contains(jclass)) {
+                    classShards[jclass.getIndex()] = shard + 1;
+                }
+            } else {
+                newShards.get(shard).add(jclass);
+                classShards[jclass.getIndex()] = shard + 1;
+            }
+        }
+        // write absent shards
+        for (int i = 0; i < newShards.size(); ++i) {
+            List<JClass> shardClasses = newShards.get(i);
+            if (shardClasses != null && !shardClasses.isEmpty()) {
+                IRShard.write(new File(cacheDir, layout.getShardFileName(i)),
+                        shardClasses);
+            }
+        }
+        // write world file
+        try (IRFile.Writer writer = new IRFile.Writer(file, MAGIC)) {
+            BinaryOutput index = new BinaryOutput(1 << 16);
+            index.writeVarInt(layout.getShardCount());
+            for (int i = 0; i < layout.getShardCount(); ++i) {
+                index.writeString(layout.getShardFileName(i));
+            }
+            index.writeVarInt(classShards.length);
+            for (int shard : classShards) {
+                index.writeVarInt(shard);
+            }
+            List<JMethod> residualMethods = getResidualMethods(classes, classShards);
+            index.writeVarInt(residualMethods.size());
+            for (JMethod method : residualMethods) {
+                index.writeVarLong(writer.writeIR(method.getIR()));
+            }
+            writer.finish(index, out -> {
+                ObjectOutputStream oos = new SkeletonOutputStream(out);
+                oos.writeObject(world);
+                oos.flush();
+            });
+        }
+    }
+
+    /**
+     * Loads the world from {@code file} and IR shards in {@code cacheDir}.
+     *
+     * @throws IOException if the world file or any IR shard used
+     *                     by the world is absent or invalid.
+     */
+    static World load(File file, File cacheDir)
+            throws IOException, ClassNotFoundException {
+        IRFile worldFile = IRFile.open(file, MAGIC);
+        BinaryInput index = new BinaryInput(worldFile.getIndex(), 0);
+        IRShard[] shards = new IRShard[index.readVarInt()];
+        for (int i = 0; i < shards.length; ++i) {
+            File shardFile = new File(cacheDir, index.readString());
+            // shards are only read when they are used by some classes
+            shards[i] = shardFile.exists() ? IRShard.open(shardFile) : null;
+        }
+        int[] classShards = new int[index.readVarInt()];
+        for (int i = 0; i < classShards.length; ++i) {
+            int shard = index.readVarInt();
+            if (shard > 0 && shards[shard - 1] == null) {
+                throw new IOException("IR shard used by " + file + " is absent");
+            }
+            classShards[i] = shard;
+        }
+        // read world skeleton
+        ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(worldFile.getPayload()));
+        World world = (World) ois.readObject();
+        List<JClass> classes = world.getClassHierarchy().allClasses().toList();
+        if (classes.size() != classShards.length) {
+            throw new IOException("Mismatched index of world cache " + file);
+        }
+        // read positions of residual IR
+        List<JMethod> residualMethods = getResidualMethods(classes, classShards);
+        if (index.readVarInt() != residualMethods.size()) {
+            throw new IOException("Mismatched index of world cache " + file);
+        }
+        Map<JMethod, Long> residualIR = Maps.newMap(residualMethods.size());
+        for (JMethod method : residualMethods) {
+            residualIR.put(method, index.readVarLong());
+        }
+        TypeSystem typeSystem = world.getTypeSystem();
+        worldFile.attach(typeSystem);
+        for (IRShard shard : shards) {
+            if (shard != null) {
+                shard.attach(typeSystem);
+            }
+        }
+        ((MappedIRBuilder) world.getIRBuilder())
+                .attach(worldFile, residualIR, shards, classShards);
+        return world;
+    }
+
+    /**
+     * @return methods with residual IR. The order is determined by the
+     * class indexes and the declaration order of methods, thus it is
+     * stable across the serialization of the class hierarchy.
+     */
+    private static List<JMethod> getResidualMethods(
+            List<JClass> classes, int[] classShards) {
+        return classes.stream()
+                .filter(c -> classShards[c.getIndex()] == 0)
+                .flatMap(c -> getConcreteMethods(c).stream())
+                .toList();
+    }
+
+    /**
+     * @return methods of {@code jclass} whose IR are stored in the cache.
+     */
+    static List<JMethod> getConcreteMethods(JClass jclass) {
+        return jclass.getDeclaredMethods()
+                .stream()
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+    }
+
+    /**
+     * Serializes the world skeleton, where {@link CachedIRBuilder}
+     * is replaced by {@link MappedIRBuilder}.
+     */
+    private static class SkeletonOutputStream extends ObjectOutputStream {
+
+        private SkeletonOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            return obj instanceof CachedIRBuilder ? new MappedIRBuilder() : obj;
+        }
+    }
+}
@@ -26,11 +26,15 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JClassLoader;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import soot.Scene;
 import soot.SootClass;
 
 import java.util.Collection;
-import java.util.Map;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 
 class SootClassLoader implements JClassLoader {
 
@@ -42,7 +46,17 @@ class SootClassLoader implements JClassLoader {
 
     private transient Converter converter;
 
-    private final Map<String, JClass> classes = Maps.newMap(1024);
+    /**
+     * This map may be concurrently written during parallel class loading,
+     * thus we use concurrent map to ensure its thread-safety.
+     */
+    private final ConcurrentMap<String, JClass> classes = Maps.newConcurrentMap(1024);
+
+    /**
+     * Whether this loader is loading classes in parallel. If so, the loaded
+     * classes are added to the class hierarchy after all of them are built.
+     */
+    private boolean inParallel = false;
 
     SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom) {
         this.scene = scene;
@@ -57,21 +71,65 @@ class SootClassLoader implements JClassLoader {
             SootClass sootClass = scene.getSootClassUnsafe(name, false);
             if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
                 // TODO: handle phantom class more comprehensively
-                jclass = new JClass(this, sootClass.getName(),
+                JClass newClass = new JClass(this, sootClass.getName(),
                         sootClass.moduleName);
                 // New class must be put into classes map at first,
                 // at build(jclass) may also trigger the loading of
                 // the new created class. Not putting the class into classes
                 // may cause infinite recursion.
-                classes.put(name, jclass);
-                new SootClassBuilder(converter, sootClass).build(jclass);
-                hierarchy.addClass(jclass);
+                jclass = classes.putIfAbsent(name, newClass);
+                if (jclass == null) {
+                    // the class has not been loaded by other threads
+                    jclass = newClass;
+                    new SootClassBuilder(converter, sootClass).build(jclass);
+                    if (!inParallel) {
+                        hierarchy.addClass(jclass);
+                    }
+                }
             }
         }
         // TODO: add warning for missing classes
         return jclass;
     }
 
+    /**
+     * Loads given classes in parallel on a fork-join pool.
+     * The classes are built in parallel, and then added to the class
+     * hierarchy in the same order as loading them one by one
+     * via {@link #loadClass(String)}, so that the indexes of
+     * the classes are deterministic.
+     */
+    void loadClasses(List<SootClass> sootClasses) {
+        inParallel = true;
+        ForkJoinPool pool = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> sootClasses.parallelStream()
+                            .forEach(c -> loadClass(c.getName())))
+                    .join();
+        } finally {
+            pool.shutdown();
+            inParallel = false;
+        }
+        Set<JClass> added = Sets.newSet(classes.size());
+        sootClasses.forEach(c -> addClass(classes.get(c.getName()), added));
+    }
+
+    /**
+     * Adds {@code jclass} to the class hierarchy after its super class,
+     * interfaces, and outer class, which are loaded before {@code jclass}
+     * is completely built when loading classes one by one.
+     */
+    private void addClass(JClass jclass, Set<JClass> added) {
+        // the classes with index have been added to the class hierarchy
+        if (jclass != null && jclass.getIndex() == -1 && added.add(jclass)) {
+            addClass(jclass.getSuperClass(), added);
+            jclass.getInterfaces().forEach(i -> addClass(i, added));
+            addClass(jclass.getOuterClass(), added);
+            hierarchy.addClass(jclass);
+        }
+    }
+
     @Override
     public Collection<JClass> getLoadedClasses() {
         return classes.values();
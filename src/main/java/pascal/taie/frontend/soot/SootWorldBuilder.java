@@ -29,19 +29,18 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.AbstractWorldBuilder;
 import pascal.taie.World;
-import pascal.taie.analysis.pta.PointerAnalysis;
-import pascal.taie.analysis.pta.plugin.reflection.LogItem;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.ClassHierarchyImpl;
-import pascal.taie.language.classes.StringReps;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.language.type.TypeSystemImpl;
+import pascal.taie.util.Timer;
 import soot.G;
 import soot.PackManager;
 import soot.Scene;
 import soot.SceneTransformer;
+import soot.SootClass;
 import soot.SootResolver;
 import soot.Transform;
 
@@ -109,6 +108,10 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         if (options.isAllowPhantom()) {
             soot.options.Options.v().set_allow_phantom_refs(true);
         }
+        if (options.isLoadOnDemand()) {
+            logger.warn("Option --load-on-demand is not supported by Soot" +
+                    " frontend, the closed world is loaded instead");
+        }
         if (options.isPreBuildIR()) {
             // we need to set this option to false when pre-building IRs,
             // otherwise Soot throws RuntimeException saying
@@ -158,36 +161,12 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
      * Tai-e's ClassHierarchy depends on Soot's Scene, which does not change
      * after hierarchy's construction, thus we need to add the classes
      * in the reflection log before starting Soot.
-     * <p>
-     * TODO: this is a tentative solution. We should remove it and use other
-     *  way to load basic classes in the reflection log, so that world builder
-     *  does not depend on analyses to be executed.
      *
      * @param analyses the analyses to be executed
      * @param scene    the Soot's scene
      */
     private static void addReflectionLogClasses(List<AnalysisConfig> analyses, Scene scene) {
-        analyses.forEach(config -> {
-            if (config.getId().equals(PointerAnalysis.ID)) {
-                String path = config.getOptions().getString("reflection-log");
-                if (path != null) {
-                    LogItem.load(path).forEach(item -> {
-                        // add target class
-                        String target = item.target;
-                        String targetClass;
-                        if (target.startsWith("<")) {
-                            targetClass = StringReps.getClassNameOf(target);
-                        } else {
-                            targetClass = target;
-                        }
-                        if (StringReps.isArrayType(targetClass)) {
-                            targetClass = StringReps.getBaseTypeNameOf(target);
-                        }
-                        scene.addBasicClass(targetClass);
-                    });
-                }
-            }
-        });
+        getReflectionLogClasses(analyses).forEach(scene::addBasicClass);
     }
 
     private void build(Options options, Scene scene) {
@@ -212,7 +191,7 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         Converter converter = new Converter(loader, typeSystem);
         loader.setConverter(converter);
         // build classes in hierarchy
-        buildClasses(hierarchy, scene);
+        buildClasses(hierarchy, scene, options.isParallelClassLoading());
         // set main method
         if (options.getMainClass() != null) {
             if (scene.hasMainClass()) {
@@ -243,9 +222,24 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
     }
 
     protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
-        // TODO: parallelize?
-        new ArrayList<>(scene.getClasses()).forEach(c ->
-                hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+        buildClasses(hierarchy, scene, false);
+    }
+
+    /**
+     * Builds the classes in {@code scene}. If {@code parallel} is true,
+     * the classes are built in parallel, which is experimental as Soot
+     * is not designed to be accessed by multiple threads.
+     */
+    protected static void buildClasses(
+            ClassHierarchy hierarchy, Scene scene, boolean parallel) {
+        List<SootClass> classes = new ArrayList<>(scene.getClasses());
+        if (parallel &&
+                hierarchy.getDefaultClassLoader() instanceof SootClassLoader loader) {
+            Timer.runAndCount(() -> loader.loadClasses(classes), "Build classes");
+        } else {
+            classes.forEach(c ->
+                    hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+        }
     }
 
     private static void runSoot(String[] args) {
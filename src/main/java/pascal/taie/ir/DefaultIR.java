@@ -34,6 +34,7 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Default implementation of IR.
@@ -159,4 +160,20 @@ public class DefaultIR extends AbstractResultHolder implements IR {
     public List<ExceptionEntry> getExceptionEntries() {
         return exceptionEntries;
     }
+
+    /**
+     * Pins this IR before storing results, so that the results
+     * are not lost when the IR is evicted from {@link IRCache}.
+     */
+    @Override
+    public <R> void storeResult(String key, R result) {
+        method.pinIR();
+        super.storeResult(key, result);
+    }
+
+    @Override
+    public <R> R getResult(String key, Supplier<R> supplier) {
+        method.pinIR();
+        return super.getResult(key, supplier);
+    }
 }
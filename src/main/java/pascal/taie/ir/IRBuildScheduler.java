@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Timer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Builds IR for all methods in parallel, which is used by
+ * {@link IRBuilder#buildAll(ClassHierarchy)} of the frontends that can
+ * estimate the sizes of methods before building their IR, i.e., the ASM
+ * frontend. The Soot frontend does not use this scheduler, as Soot
+ * retrieves the method bodies lazily when building IR.
+ * <p>
+ * The methods are sorted by their sizes (e.g., lengths of bytecode)
+ * in descending order, so that the largest methods are built first.
+ * Large methods are built by individual tasks, and small methods are
+ * grouped into batches of similar total sizes. The tasks are executed
+ * by a work-stealing {@link ForkJoinPool}, so that the threads are not
+ * idle until all methods are built, even if some methods are huge,
+ * e.g., {@code <clinit>} of generated classes.
+ */
+public final class IRBuildScheduler {
+
+    private static final Logger logger = LogManager.getLogger(IRBuildScheduler.class);
+
+    /**
+     * Maximum total size of the methods in a batch.
+     */
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    /**
+     * Maximum number of methods in a batch.
+     */
+    private static final int MAX_BATCH_METHODS = 64;
+
+    /**
+     * Number of the slowest methods to be reported.
+     */
+    private static final int SLOWEST_METHODS = 5;
+
+    private IRBuildScheduler() {
+    }
+
+    /**
+     * Builds IR for all concrete and native methods in given hierarchy.
+     *
+     * @param sizeOf estimates the cost of building IR for a method,
+     *               e.g., the length of its bytecode.
+     */
+    public static void buildAll(ClassHierarchy hierarchy,
+                                ToIntFunction<JMethod> sizeOf) {
+        Timer timer = new Timer("Build IR for all methods");
+        timer.start();
+        List<JMethod> methods = hierarchy.allClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() || m.isNative())
+                .toList();
+        int nMethods = methods.size();
+        int[] sizes = new int[nMethods];
+        for (int i = 0; i < nMethods; ++i) {
+            sizes[i] = Math.max(1, sizeOf.applyAsInt(methods.get(i)));
+        }
+        int[] order = IntStream.range(0, nMethods)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> sizes[i]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] times = new long[nMethods];
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(nThreads);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        try {
+            for (int start = 0; start < nMethods; ) {
+                int end = start + 1;
+                int batchSize = sizes[order[start]];
+                while (end < nMethods && end - start < MAX_BATCH_METHODS
+                        && batchSize + sizes[order[end]] <= MAX_BATCH_SIZE) {
+                    batchSize += sizes[order[end++]];
+                }
+                int from = start, to = end;
+                tasks.add(pool.submit(() -> {
+                    for (int k = from; k < to; ++k) {
+                        int i = order[k];
+                        long begin = System.nanoTime();
+                        methods.get(i).getIR();
+                        times[i] = System.nanoTime() - begin;
+                    }
+                }));
+                start = end;
+            }
+            tasks.forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+        timer.stop();
+        logger.info(timer);
+        logMetrics(methods, times, timer, nThreads);
+    }
+
+    private static void logMetrics(List<JMethod> methods, long[] times,
+                                   Timer timer, int nThreads) {
+        long totalTime = 0;
+        for (long time : times) {
+            totalTime += time;
+        }
+        float seconds = Math.max(timer.inSecond(), 0.001F);
+        logger.info("Built IR for {} methods by {} threads: {} methods/s," +
+                        " {}s in total building time ({} parallelism), slowest methods:",
+                methods.size(), nThreads,
+                String.format("%.0f", methods.size() / seconds),
+                String.format("%.2f", totalTime / 1e9),
+                String.format("%.2f", totalTime / 1e9 / seconds));
+        IntStream.range(0, times.length)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> times[i]).reversed())
+                .limit(SLOWEST_METHODS)
+                .forEach(i -> logger.info("  {}ms: {}",
+                        String.format("%.1f", times[i] / 1e6), methods.get(i)));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import pascal.taie.language.classes.JMethod;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds the number of {@link IR}s that are strongly reachable from
+ * {@link JMethod}s which are not pinned (see {@link JMethod#pinIR()}).
+ * <p>
+ * This cache keeps the most recently used IRs in LRU order. An IR evicted
+ * from this cache is still softly reachable from its method, so that it is
+ * reclaimed only when the memory is tight, and after that it is rebuilt
+ * (or reloaded from world cache) by {@link IRBuilder} on next access.
+ */
+public class IRCache {
+
+    private final int capacity;
+
+    private final Map<JMethod, IR> recentIRs;
+
+    private long evictions = 0;
+
+    public IRCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Capacity of IR cache must be positive, given: " + capacity);
+        }
+        this.capacity = capacity;
+        this.recentIRs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<JMethod, IR> eldest) {
+                if (size() > IRCache.this.capacity) {
+                    ++evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Records that {@code ir} of {@code method} has just been accessed.
+     */
+    public synchronized void access(JMethod method, IR ir) {
+        recentIRs.put(method, ir);
+    }
+
+    /**
+     * Removes {@code method} from this cache, e.g., when its IR is pinned.
+     */
+    public synchronized void remove(JMethod method) {
+        recentIRs.remove(method);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of IRs evicted from this cache so far.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "IRCache{capacity=" + capacity + ", size=" + recentIRs.size() +
+                ", evictions=" + evictions + '}';
+    }
+}
@@ -33,12 +33,10 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.HybridBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
-import pascal.taie.util.collection.TwoKeyMap;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -57,9 +55,15 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     private JClass JavaLangObject;
 
-    private final List<JClass> classes = new ArrayList<>(1024);
+    /**
+     * Classes in this hierarchy, indexed by class indexes. Classes are only
+     * appended (under the monitor of this hierarchy), and the number of
+     * classes is published after the class is stored, so that the classes
+     * can be read without locking while new classes are being added.
+     */
+    private volatile JClass[] classes = new JClass[1024];
 
-    private int classCounter = 0;
+    private volatile int classCounter = 0;
 
     /**
      * Map from each interface to its direct subinterfaces.
@@ -82,9 +86,10 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     private final MultiMap<JClass, JClass> directInnerClasses = Maps.newMultiMap();
 
     /**
-     * Cache results of method dispatch.
+     * Cache results of method dispatch. This cache may be accessed by
+     * multiple threads, e.g., the workers of parallel pointer analysis.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final Map<JClass, Map<Subsignature, JMethod>> dispatchTable = Maps.newConcurrentMap();
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
@@ -121,8 +126,12 @@ public class ClassHierarchyImpl implements ClassHierarchy {
                 .toList();
     }
 
+    /**
+     * This method is synchronized as the classes may be added by
+     * class loaders concurrently, e.g., during parallel IR construction.
+     */
     @Override
-    public void addClass(JClass jclass) {
+    public synchronized void addClass(JClass jclass) {
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -145,8 +154,13 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             directInnerClasses.put(outer, jclass);
         }
         // set index
-        jclass.setIndex(classCounter++);
-        classes.add(jclass);
+        int index = classCounter;
+        jclass.setIndex(index);
+        if (index == classes.length) {
+            classes = Arrays.copyOf(classes, index << 1);
+        }
+        classes[index] = jclass;
+        classCounter = index + 1;
         // invalidate global hierarchy information
         // TODO - make this elegant
         allSubclasses.clear();
@@ -159,12 +173,19 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public JClass getObject(int index) {
-        return classes.get(index);
+        return classes[index];
     }
 
+    /**
+     * Returns the classes which have been added to this hierarchy when this
+     * method is called. Classes loaded on demand (and added to this hierarchy)
+     * during the iteration are not included.
+     */
     @Override
     public Stream<JClass> allClasses() {
-        return classes.stream();
+        int nClasses = classCounter;
+        JClass[] array = classes;
+        return Arrays.stream(array, 0, nClasses);
     }
 
     @Override
@@ -331,11 +352,13 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             return null;
         }
         Subsignature subsignature = methodRef.getSubsignature();
-        JMethod target = dispatchTable.get(receiverClass, subsignature);
+        Map<Subsignature, JMethod> targets = dispatchTable.computeIfAbsent(
+                receiverClass, __ -> Maps.newConcurrentMap());
+        JMethod target = targets.get(subsignature);
         if (target == null) {
             target = lookupMethod(receiverClass, subsignature, false);
             if (target != null) {
-                dispatchTable.put(receiverClass, subsignature, target);
+                targets.put(subsignature, target);
             } else {
                 logger.debug("Failed to dispatch {} on {}",
                         subsignature, receiverClass);
@@ -24,6 +24,7 @@ package pascal.taie.language.classes;
 
 import pascal.taie.World;
 import pascal.taie.ir.IR;
+import pascal.taie.ir.IRCache;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.language.annotation.Annotation;
 import pascal.taie.language.annotation.AnnotationHolder;
@@ -34,6 +35,7 @@ import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Experimental;
 
 import javax.annotation.Nullable;
+import java.lang.ref.SoftReference;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -76,7 +78,14 @@ public class JMethod extends ClassMember {
      *
      * @see pascal.taie.frontend.cache.CachedIRBuilder
      */
-    private transient IR ir;
+    private transient volatile IR ir;
+
+    /**
+     * IR of this method which is not pinned, and thus may be reclaimed
+     * when it is evicted from {@link IRCache}. It is guarded by the
+     * monitor of this method.
+     */
+    private transient SoftReference<IR> softIR;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -180,19 +189,81 @@ public class JMethod extends ClassMember {
         return methodSource;
     }
 
+    /**
+     * If {@link IRCache} is enabled (see {@link World#getIRCache()}),
+     * the IR returned by this method may be reclaimed after it is evicted
+     * from the cache, and then a new IR, whose variables and statements
+     * are different objects, will be built on next call. Clients that
+     * keep the variables or statements of the IR (e.g., pointer analysis)
+     * should call {@link #pinIR()} instead.
+     *
+     * @return IR of this method.
+     */
     public IR getIR() {
-        if (ir == null) {
-            if (isAbstract()) {
-                throw new AnalysisException("Abstract method " + this +
-                        " has no method body");
+        IR result = ir;
+        if (result != null) {
+            return result;
+        }
+        IRCache cache = World.get().getIRCache();
+        // builds the IR under the same monitor as pinIR(), so that
+        // concurrent calls (e.g., from the workers of parallel pointer
+        // analysis) never build two IRs of the same method
+        synchronized (this) {
+            result = ir;
+            if (result != null) {
+                return result;
+            }
+            if (cache == null) {
+                result = buildIR();
+                ir = result;
+                return result;
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            SoftReference<IR> ref = softIR;
+            result = ref != null ? ref.get() : null;
+            if (result == null) {
+                result = buildIR();
+                softIR = new SoftReference<>(result);
             }
+            cache.access(this, result);
+        }
+        return result;
+    }
+
+    /**
+     * Pins the IR of this method, so that it will never be reclaimed,
+     * and the subsequent calls of {@link #getIR()} always return it.
+     *
+     * @return IR of this method.
+     */
+    public IR pinIR() {
+        IR result = ir;
+        if (result == null) {
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    result = getIR();
+                    ir = result;
+                    softIR = null;
+                    IRCache cache = World.get().getIRCache();
+                    if (cache != null) {
+                        cache.remove(this);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private IR buildIR() {
+        if (isAbstract()) {
+            throw new AnalysisException("Abstract method " + this +
+                    " has no method body");
+        }
+        if (isNative()) {
+            return World.get().getNativeModel().buildNativeIR(this);
+        } else {
+            return World.get().getIRBuilder().buildIR(this);
         }
-        return ir;
     }
 
     /**
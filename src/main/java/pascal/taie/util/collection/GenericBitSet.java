@@ -61,6 +61,13 @@ public abstract class GenericBitSet<E> extends AbstractSetEx<E>
         bitSet = IBitSet.newBitSet(isSparse);
     }
 
+    /**
+     * Creates a set which is backed by the given bit set.
+     */
+    protected GenericBitSet(IBitSet bitSet) {
+        this.bitSet = bitSet;
+    }
+
     @Override
     public boolean contains(Object o) {
         checkInvariant(o);
@@ -43,6 +43,15 @@ public class IndexerBitSet<E> extends GenericBitSet<E>
         this.indexer = indexer;
     }
 
+    /**
+     * Creates a set which is backed by the given bit set, i.e., the set
+     * contains the objects whose indexes are set in {@code bitSet}.
+     */
+    public IndexerBitSet(Indexer<E> indexer, IBitSet bitSet) {
+        super(bitSet);
+        this.indexer = indexer;
+    }
+
     @Override
     protected Object getContext() {
         return indexer;
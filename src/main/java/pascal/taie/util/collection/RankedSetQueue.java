@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * A Queue implementation which contains no duplicate elements, and
+ * polls the elements in ascending order of their ranks.
+ * <p>
+ * The ranks are dense integers fixed at construction, i.e., the rank of
+ * each element is its index in the given element list. This queue keeps
+ * the ranks of the elements in a bit set, which works as a bucket queue
+ * whose buckets hold at most one element each, so that adding and polling
+ * elements take amortized constant time (instead of logarithmic time
+ * taken by ordered sets).
+ *
+ * @param <E> type of elements.
+ */
+public class RankedSetQueue<E> extends AbstractQueue<E> {
+
+    private final List<E> elements;
+
+    private final ToIntFunction<E> ranker;
+
+    private final IBitSet ranks;
+
+    private int size = 0;
+
+    /**
+     * Lower bound of the ranks in this queue, which is advanced by
+     * {@link #poll()} so that polling does not re-scan the ranks
+     * that have been polled.
+     */
+    private int lowestRank;
+
+    /**
+     * @param elements all elements that may be added to this queue,
+     *                 in ascending order of their ranks
+     * @param ranker   gives the rank of each element, i.e., its index
+     *                 in {@code elements}
+     */
+    public RankedSetQueue(List<E> elements, ToIntFunction<E> ranker) {
+        this.elements = elements;
+        this.ranker = ranker;
+        this.ranks = new RegularBitSet(elements.size());
+        this.lowestRank = elements.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private int rank = ranks.nextSetBit(lowestRank);
+
+            @Override
+            public boolean hasNext() {
+                return rank >= 0;
+            }
+
+            @Override
+            public E next() {
+                if (rank < 0) {
+                    throw new NoSuchElementException();
+                }
+                E e = elements.get(rank);
+                rank = ranks.nextSetBit(rank + 1);
+                return e;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        return offer(e);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        int rank = ranker.applyAsInt(e);
+        if (ranks.set(rank)) {
+            ++size;
+            lowestRank = Math.min(lowestRank, rank);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public E poll() {
+        if (size == 0) {
+            return null;
+        }
+        int rank = ranks.nextSetBit(lowestRank);
+        ranks.clear(rank);
+        --size;
+        lowestRank = rank + 1;
+        return elements.get(rank);
+    }
+
+    @Override
+    public E peek() {
+        return size == 0 ? null : elements.get(ranks.nextSetBit(lowestRank));
+    }
+}
@@ -71,6 +71,26 @@ public class RegularBitSet extends AbstractBitSet
         initWords(nbits);
     }
 
+    /**
+     * Creates a bit set containing all the bits in the given range of
+     * a long array. More precisely, for {@code 0 <= n < 64 * (to - from)},
+     * bit {@code n} of the resulting bit set is set if and only if
+     * {@code (words[from + n / 64] & (1L << (n % 64))) != 0}.
+     *
+     * @param words a long array containing a little-endian representation
+     *              of a sequence of bits
+     * @param from  the initial index of the range, inclusive
+     * @param to    the final index of the range, exclusive
+     * @return a bit set containing all the bits in the range
+     */
+    public static RegularBitSet valueOf(long[] words, int from, int to) {
+        RegularBitSet set = new RegularBitSet();
+        set.words = Arrays.copyOfRange(words, from, to);
+        set.wordsInUse = set.words.length;
+        set.recalculateWordsInUse();
+        return set;
+    }
+
     private void initWords(int nbits) {
         words = new long[wordIndex(nbits - 1) + 1];
     }
@@ -0,0 +1,141 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orders the nodes of a directed graph in reverse postorder over
+ * strongly connected components, i.e., the components are in
+ * topological order, and the nodes in each component are in reverse
+ * postorder of a depth-first search from given roots.
+ * <p>
+ * For a control-flow graph, the nodes of a loop are ordered after
+ * the nodes before the loop and before the nodes after the loop,
+ * and the loop header (the first node reached in the loop) is ordered
+ * first in the loop. Thus, work-list solvers that always process the
+ * node of the smallest rank stabilize a loop before leaving it.
+ * <p>
+ * The nodes are ranked by dense integers from 0 to the number of
+ * nodes minus 1, which can be used as the indexes of the nodes in
+ * {@link pascal.taie.util.collection.RankedSetQueue}.
+ *
+ * @param <N> type of nodes
+ */
+public class SCCOrder<N> {
+
+    private final List<N> order;
+
+    private final Map<N, Integer> ranks;
+
+    /**
+     * @param graph the graph
+     * @param roots the nodes from which the depth-first search starts,
+     *              e.g., the entry of a CFG. The nodes unreachable from
+     *              the roots are searched after them.
+     */
+    public SCCOrder(Graph<N> graph, Collection<N> roots) {
+        int nNodes = graph.getNumberOfNodes();
+        Map<N, Integer> postorder = computePostorder(graph, roots);
+        // SCC lists the components in reverse topological order
+        List<List<N>> components = new SCC<>(graph).getComponents();
+        Map<N, Integer> componentRanks = Maps.newMap(nNodes);
+        int nComponents = components.size();
+        for (int i = 0; i < nComponents; ++i) {
+            for (N node : components.get(i)) {
+                componentRanks.put(node, nComponents - 1 - i);
+            }
+        }
+        order = new ArrayList<>(graph.getNodes());
+        order.sort(Comparator.<N>comparingInt(componentRanks::get)
+                .thenComparing(Comparator.<N>comparingInt(postorder::get).reversed()));
+        ranks = Maps.newMap(nNodes);
+        for (int i = 0; i < order.size(); ++i) {
+            ranks.put(order.get(i), i);
+        }
+    }
+
+    private static <N> Map<N, Integer> computePostorder(
+            Graph<N> graph, Collection<N> roots) {
+        Map<N, Integer> postorder = Maps.newMap(graph.getNumberOfNodes());
+        Set<N> visited = Sets.newSet(graph.getNumberOfNodes());
+        roots.forEach(root -> visit(graph, root, visited, postorder));
+        graph.forEach(node -> visit(graph, node, visited, postorder));
+        return postorder;
+    }
+
+    private static <N> void visit(Graph<N> graph, N root,
+                                  Set<N> visited, Map<N, Integer> postorder) {
+        // use iterative (non-recursive) algorithm to avoid stack overflow
+        // for large graph
+        if (!visited.add(root)) {
+            return;
+        }
+        Deque<N> stack = new ArrayDeque<>();
+        Deque<Iterator<N>> succIters = new ArrayDeque<>();
+        stack.push(root);
+        succIters.push(graph.getSuccsOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<N> succIter = succIters.peek();
+            boolean hasUnvisitedSucc = false;
+            while (succIter.hasNext()) {
+                N succ = succIter.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    succIters.push(graph.getSuccsOf(succ).iterator());
+                    hasUnvisitedSucc = true;
+                    break;
+                }
+            }
+            if (!hasUnvisitedSucc) {
+                postorder.put(stack.pop(), postorder.size());
+                succIters.pop();
+            }
+        }
+    }
+
+    /**
+     * @return the nodes in ascending order of their ranks.
+     */
+    public List<N> get() {
+        return order;
+    }
+
+    /**
+     * @return the rank of given node.
+     */
+    public int getRank(N node) {
+        return ranks.get(node);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the facts of statements computed by solving the analyses
+ * on basic blocks are the same as the ones computed on statements.
+ */
+public class BlockSolverTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "dataflow/constprop, EdgeRefine, const-prop, edge-refine:true",
+            "dataflow/constprop, EdgeRefine, const-prop, drop-in-facts:true",
+            "dataflow/constprop, EdgeRefine, const-prop, work-list:scc",
+            "dataflow/livevar, Sort, live-var, strongly:true;work-list:scc",
+            "dataflow/livevar, Sort, live-var, strongly:true",
+            "dataflow/livevar, Fibonacci, live-var, strongly:true;drop-in-facts:true",
+            "bugfinder, NullDeref2, is-null, ''",
+    })
+    void test(String dir, String inputClass, String id, String opts) {
+        Map<String, String> expected = collectFacts(dir, inputClass, id,
+                opts + (opts.isEmpty() ? "" : ";") + "block-solver:false");
+        Map<String, String> actual = collectFacts(dir, inputClass, id,
+                opts + (opts.isEmpty() ? "" : ";") + "block-solver:true");
+        assertEquals(expected, actual);
+    }
+
+    private static Map<String, String> collectFacts(
+            String dir, String inputClass, String id, String opts) {
+        Main.main(new String[]{
+                "-pp", "-cp", "src/test/resources/" + dir,
+                "--input-classes", inputClass, "-a", id + "=" + opts
+        });
+        Map<String, String> facts = Maps.newMap();
+        World.get().getClassHierarchy()
+                .getClass(inputClass)
+                .getDeclaredMethods()
+                .forEach(m -> {
+                    IR ir = m.getIR();
+                    NodeResult<Stmt, ?> result = ir.getResult(id);
+                    for (Stmt stmt : ir) {
+                        facts.put(m + "/" + stmt.getIndex(),
+                                toString(result.getInFact(stmt)) + " -> "
+                                        + toString(result.getOutFact(stmt)));
+                    }
+                });
+        return facts;
+    }
+
+    /**
+     * Converts a fact to string whose elements are sorted, as the facts
+     * are computed in different worlds. The entries of map facts are
+     * converted explicitly, as the maps of equal facts may use different
+     * entry classes.
+     */
+    private static String toString(Object fact) {
+        if (fact instanceof SetFact<?> setFact) {
+            return setFact.stream()
+                    .map(Object::toString)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        } else if (fact instanceof MapFact<?, ?> mapFact) {
+            return mapFact.entries()
+                    .map(e -> e.getKey() + "=" + e.getValue())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        } else {
+            return String.valueOf(fact);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the in-facts which are re-computed after being dropped
+ * are the same as the ones computed by the solvers.
+ */
+public class DropInFactsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "dataflow/livevar, Sort, reach-def, ''",
+            "dataflow, AvailExp, avail-exp, ''",
+            "dataflow/livevar, Fibonacci, live-var, strongly:false",
+            "dataflow/livevar, Sort, live-var, strongly:true",
+            "dataflow/constprop, EdgeRefine, const-prop, edge-refine:true",
+    })
+    void test(String dir, String inputClass, String id, String opts) {
+        Map<String, String> expected = collectInFacts(dir, inputClass, id,
+                opts + (opts.isEmpty() ? "" : ";") + "drop-in-facts:false");
+        Map<String, String> actual = collectInFacts(dir, inputClass, id,
+                opts + (opts.isEmpty() ? "" : ";") + "drop-in-facts:true");
+        assertEquals(expected, actual);
+    }
+
+    private static Map<String, String> collectInFacts(
+            String dir, String inputClass, String id, String opts) {
+        Main.main(new String[]{
+                "-pp", "-cp", "src/test/resources/" + dir,
+                "--input-classes", inputClass, "-a", id + "=" + opts
+        });
+        Map<String, String> inFacts = Maps.newMap();
+        World.get().getClassHierarchy()
+                .getClass(inputClass)
+                .getDeclaredMethods()
+                .forEach(m -> {
+                    IR ir = m.getIR();
+                    NodeResult<Stmt, ?> result = ir.getResult(id);
+                    for (Stmt stmt : ir) {
+                        inFacts.put(m + "/" + stmt.getIndex(),
+                                toString(result.getInFact(stmt)));
+                    }
+                });
+        return inFacts;
+    }
+
+    /**
+     * Converts a fact to string whose elements are sorted, as the facts
+     * are computed in different worlds.
+     */
+    private static String toString(Object fact) {
+        if (fact instanceof SetFact<?> setFact) {
+            return setFact.stream()
+                    .map(Object::toString)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        } else if (fact instanceof MapFact<?, ?> mapFact) {
+            return mapFact.entries()
+                    .map(Object::toString)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        } else {
+            return String.valueOf(fact);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.NullType;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IFDSSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/ifds";
+
+    /**
+     * Checks the arguments of the calls to {@code tainted()} and
+     * {@code untainted()} in the test program, which are expected
+     * to be tainted and untainted respectively.
+     */
+    @Test
+    void testTaint() {
+        Main.main(new String[]{
+                "-pp", "-cp", CLASS_PATH, "-m", "TaintFlow",
+                "-a", "cg=algorithm:cha", "-a", ICFGBuilder.ID
+        });
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        IFDSResult<Stmt, Var> result = new IFDSSolver<>(new TaintProblem(), icfg)
+                .solve();
+        int checked = 0;
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof Invoke invoke) {
+                String callee = invoke.getMethodRef().getName();
+                if (callee.equals("tainted") || callee.equals("untainted")) {
+                    Var arg = invoke.getInvokeExp().getArg(0);
+                    assertEquals(callee.equals("tainted"),
+                            result.holds(invoke, arg), invoke.toString());
+                    ++checked;
+                }
+            }
+        }
+        assertEquals(10, checked);
+    }
+
+    /**
+     * Taint analysis on local variables: the results of {@code source()}
+     * are tainted, and the taints are propagated by copies, arguments
+     * and return values.
+     */
+    private static class TaintProblem implements IFDSProblem<Stmt, Var> {
+
+        private final Var zero = new Var(null, "<zero>", NullType.NULL, -1);
+
+        @Override
+        public Var zeroValue() {
+            return zero;
+        }
+
+        @Override
+        public Set<Var> transferNormalEdge(NormalEdge<Stmt> edge, Var fact) {
+            Stmt stmt = edge.source();
+            if (stmt instanceof DefinitionStmt<?, ?> def
+                    && def.getLValue() instanceof Var lhs) {
+                if (fact.equals(lhs)) {
+                    return Set.of(); // kill
+                }
+                if (stmt instanceof Copy copy && copy.getRValue().equals(fact)) {
+                    return Set.of(fact, lhs);
+                }
+            }
+            return fact == zero ? Set.of() : Set.of(fact);
+        }
+
+        @Override
+        public Set<Var> transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, Var fact) {
+            Invoke invoke = (Invoke) edge.source();
+            Var lhs = invoke.getResult();
+            if (fact == zero) {
+                return lhs != null && invoke.getMethodRef().getName().equals("source")
+                        ? Set.of(lhs) : Set.of();
+            }
+            return fact.equals(lhs) ? Set.of() : Set.of(fact);
+        }
+
+        @Override
+        public Set<Var> transferCallEdge(CallEdge<Stmt> edge, Var fact) {
+            Invoke invoke = (Invoke) edge.source();
+            List<Var> args = invoke.getInvokeExp().getArgs();
+            Set<Var> params = Sets.newHybridSet();
+            for (int i = 0; i < args.size(); ++i) {
+                if (args.get(i).equals(fact)) {
+                    params.add(edge.getCallee().getIR().getParam(i));
+                }
+            }
+            return params;
+        }
+
+        @Override
+        public Set<Var> transferReturnEdge(ReturnEdge<Stmt> edge, Var fact) {
+            Var lhs = ((Invoke) edge.getCallSite()).getResult();
+            return lhs != null && edge.getReturnVars().contains(fact)
+                    ? Set.of(lhs) : Set.of();
+        }
+    }
+}
@@ -22,9 +22,20 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.ResultProcessor;
+import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * Tests basic functionalities of pointer analysis
@@ -63,4 +74,132 @@ public class BasicTest {
         Tests.testPTA(DIR, mainClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+            "Recursion",
+            "Cycle",
+            "ComplexAssign",
+    })
+    void testParallelSolver(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "solver:parallel", "solver-threads:4");
+        // force all rounds to be propagated by multiple threads
+        Tests.testPTA(DIR, mainClass, "solver:parallel", "solver-threads:4",
+                "parallel-threshold:0");
+    }
+
+    /**
+     * Compares the results of parallel solver and default solver
+     * when analyzing the library code, which produces large rounds.
+     * The context-sensitive analysis makes the workers create contexts,
+     * context-sensitive elements and call edges concurrently.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+    })
+    void testParallelSolverWithLibrary(String mainClass) {
+        for (String cs : new String[]{"cs:ci", "cs:2-obj"}) {
+            Map<String, String> expected = collectPointsToSets(mainClass,
+                    "only-app:false", cs);
+            Map<String, String> actual = collectPointsToSets(mainClass,
+                    "only-app:false", cs, "solver:parallel", "solver-threads:4",
+                    "parallel-threshold:0");
+            assertEquals(expected, actual, cs);
+        }
+    }
+
+    private static Map<String, String> collectPointsToSets(
+            String mainClass, String... opts) {
+        Tests.testPTA(false, DIR, mainClass, opts);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Map<String, String> pointsToSets = Maps.newMap();
+        result.getVars().forEach(var -> pointsToSets.put(
+                var.getMethod() + "/" + var.getName(),
+                result.getPointsToSet(var)
+                        .stream()
+                        .map(Object::toString)
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+        return pointsToSets;
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "work-list:lrf"})
+    @MultiStringsSource({"RedBlackBST", "work-list:lrf"})
+    @MultiStringsSource({"Cycle", "work-list:lrf"})
+    @MultiStringsSource({"LinkedQueue", "work-list:topo"})
+    @MultiStringsSource({"RedBlackBST", "work-list:topo"})
+    @MultiStringsSource({"Cycle", "work-list:topo"})
+    @MultiStringsSource({"ComplexAssign", "work-list:topo"})
+    void testWorkListPolicy(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assign2",
+            "LinkedQueue",
+            "RedBlackBST",
+            "Recursion",
+            "Cycle",
+            "ComplexAssign",
+    })
+    void testCollapseCycles(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "collapse-cycles:true");
+    }
+
+    @Test
+    void testFilterOnCollapsedCycle() {
+        Tests.testPTA(false, DIR, "FilterOnCycle", "collapse-cycles:true",
+                "plugins:[pascal.taie.analysis.pta.LateFilterPlugin]");
+    }
+
+    @Test
+    void testSharedTypeFilters() {
+        Tests.testPTA(false, DIR, "Cast",
+                "plugins:[pascal.taie.analysis.pta.TypeFilterPlugin]");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "CallParamRet",
+            "Dispatch",
+            "Dispatch2",
+            "MergeParam",
+            "MultiReturn",
+            "Recursion",
+    })
+    void testBatchCallEdges(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "batch-call-edges:true");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "New",
+            "Assign2",
+            "LinkedQueue",
+            "RedBlackBST",
+            "MultiArray",
+    })
+    void testIndexBasedHeapModel(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "heap-model:index");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+    })
+    void testDumpCompressed(String mainClass) {
+        Tests.testPTA(false, DIR, mainClass, "dump:true", "dump-format:gzip");
+        File dumped = new File(World.get().getOptions().getOutputDir(),
+                ResultProcessor.RESULTS_FILE + ".gz");
+        // compare with the compressed results dumped above
+        Tests.testPTA(false, DIR, mainClass,
+                "expected-file:" + dumped.getPath().replace('\\', '/'));
+    }
+
 }
@@ -50,4 +50,40 @@ public class ContextSensitivityTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    /**
+     * Tests sharing points-to sets among pointers.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"OneObject", "cs:1-obj", "shared-pts:true"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "shared-pts:true"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "shared-pts:true"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "shared-pts:true"})
+    void testSharedPointsToSet(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * Tests managing context-sensitive elements by int-indexed tables.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"TwoCall", "cs:2-call", "cs-manager:index"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "cs-manager:index"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "cs-manager:index"})
+    void testIndexBasedCSManager(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * Tests creating contexts by {@code CompactContext.Factory}.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"TwoCall", "cs:2-call", "context-factory:compact"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "context-factory:compact"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "context-factory:compact"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "context-factory:compact",
+            "cs-manager:index"})
+    void testCompactContext(String mainClass, String... opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
 }
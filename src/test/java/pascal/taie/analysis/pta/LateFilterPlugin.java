@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Adds a filter to a pointer after it has been collapsed into a cycle
+ * of the pointer flow graph, and checks that the filter still takes
+ * effect on the objects that flow into the cycle afterwards.
+ * Works with main method of FilterOnCycle.
+ */
+public class LateFilterPlugin implements Plugin {
+
+    private Solver solver;
+
+    private CSVar s1;
+
+    private CSVar s2;
+
+    private CSVar s3;
+
+    private PointsToSet late;
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public void onPhaseFinish() {
+        if (late != null) {
+            return;
+        }
+        IR ir = World.get().getMainMethod().getIR();
+        Context context = solver.getContextSelector().getEmptyContext();
+        s1 = getCSVar(ir, context, "s1");
+        s2 = getCSVar(ir, context, "s2");
+        s3 = getCSVar(ir, context, "s3");
+        assertSame(s1.getPointsToSet(), s2.getPointsToSet(),
+                "s1 and s2 should have been collapsed");
+        late = solver.getPointsToSetOf(getCSVar(ir, context, "o"));
+        solver.addPointerFilter(s2, o -> !late.contains(o));
+        solver.addPointsTo(s3, late);
+    }
+
+    @Override
+    public void onFinish() {
+        late.forEach(o -> {
+            assertTrue(s1.getPointsToSet().contains(o));
+            assertFalse(s2.getPointsToSet().contains(o));
+            assertTrue(s3.getPointsToSet().contains(o));
+        });
+    }
+
+    private CSVar getCSVar(IR ir, Context context, String name) {
+        return ir.getVars()
+                .stream()
+                .filter(v -> v.getName().equals(name))
+                .map(v -> solver.getCSManager().getCSVar(context, v))
+                .findFirst()
+                .orElseThrow();
+    }
+}
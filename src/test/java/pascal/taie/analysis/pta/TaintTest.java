@@ -25,14 +25,21 @@ package pascal.taie.analysis.pta;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.util.MultiStringsSource;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class TaintTest {
 
@@ -97,6 +104,29 @@ public class TaintTest {
         }
     }
 
+    @ParameterizedTest
+    @MultiStringsSource({"SanitizerCycle", TAINT_CONFIG})
+    @MultiStringsSource({"SanitizerCycle", "cs:1-call", TAINT_CONFIG})
+    void testSanitizerOnCycle(String mainClass, String... opts) {
+        List<String> expected = collectTaintFlows(mainClass, opts);
+        String[] newOpts = Arrays.copyOf(opts, opts.length + 1);
+        newOpts[opts.length] = "collapse-cycles:true";
+        List<String> actual = collectTaintFlows(mainClass, newOpts);
+        assertEquals(1, expected.size());
+        assertEquals(expected, actual);
+    }
+
+    private static List<String> collectTaintFlows(
+            String mainClass, String... opts) {
+        Tests.testPTA(false, DIR, mainClass, opts);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        return taintFlows.stream()
+                .sorted()
+                .map(TaintFlow::toString)
+                .toList();
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "SimpleTaint",
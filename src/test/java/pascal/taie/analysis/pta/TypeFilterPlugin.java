@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.TypeFilter;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that the type filters obtained from {@link Solver#getTypeFilter(Type)}
+ * are shared by guard types, and that they filter the objects correctly.
+ * Works with main method of Cast.
+ */
+public class TypeFilterPlugin implements Plugin {
+
+    private Solver solver;
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public void onFinish() {
+        TypeSystem typeSystem = solver.getTypeSystem();
+        Type a = typeSystem.getClassType("A");
+        Type b = typeSystem.getClassType("B");
+        Type c = typeSystem.getClassType("C");
+        Type object = typeSystem.getClassType("java.lang.Object");
+
+        // filters of the same type are shared
+        TypeFilter filterB = solver.getTypeFilter(b);
+        assertSame(filterB, solver.getTypeFilter(b));
+        assertNotSame(filterB, solver.getTypeFilter(c));
+
+        IR ir = World.get().getMainMethod().getIR();
+        Context context = solver.getContextSelector().getEmptyContext();
+        CSVar o = getCSVar(ir, context, "o");
+        PointsToSet input = solver.getPointsToSetOf(o);
+        assertEquals(Set.of(a, b, c), typesOf(input));
+        PointerFlowEdge edge = new PointerFlowEdge(FlowKind.CAST, o, o);
+
+        // some objects are filtered out, and the results are the same
+        // when the decisions cached in the filter are reused
+        assertEquals(Set.of(b, c), typesOf(filterB.apply(edge, input)));
+        assertEquals(Set.of(b, c), typesOf(filterB.apply(edge, input)));
+        assertEquals(Set.of(a),
+                typesOf(solver.getTypeFilter(a).apply(edge, input)));
+        assertEquals(Set.of(c),
+                typesOf(solver.getTypeFilter(c).apply(edge, input)));
+
+        // all objects pass the filter, and the input is returned as is
+        assertSame(input, solver.getTypeFilter(object).apply(edge, input));
+    }
+
+    private CSVar getCSVar(IR ir, Context context, String name) {
+        return ir.getVars()
+                .stream()
+                .filter(v -> v.getName().equals(name))
+                .map(v -> solver.getCSManager().getCSVar(context, v))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Set<Type> typesOf(PointsToSet pts) {
+        return pts.objects()
+                .map(CSObj::getObject)
+                .map(Obj::getType)
+                .collect(Collectors.toSet());
+    }
+}
@@ -26,7 +26,7 @@ package pascal.taie.analysis.pta;
 import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
 import pascal.taie.World;
-import pascal.taie.frontend.cache.CachedIRBuilder;
+import pascal.taie.frontend.cache.MappedIRBuilder;
 import pascal.taie.frontend.cache.CachedWorldBuilder;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -52,7 +52,7 @@ public class WorldCacheTest {
         Main.main(args);
         World world2 = World.get();
         CachedWorldBuilder.getWorldCacheFile(world2.getOptions()).delete();
-        assertTrue(world2.getIRBuilder() instanceof CachedIRBuilder);
+        assertTrue(world2.getIRBuilder() instanceof MappedIRBuilder);
     }
 
 }
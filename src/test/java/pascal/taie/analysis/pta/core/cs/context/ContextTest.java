@@ -45,6 +45,25 @@ public class ContextTest {
         assertEquals(cde.getParent(), cd);
     }
 
+    @Test
+    void testCompactContext() {
+        testContext(new CompactContext.Factory<>());
+    }
+
+    @Test
+    void testCompactContext2() {
+        CompactContext.Factory<String> factory = new CompactContext.Factory<>();
+        Context abc = factory.make("A", "B", "C");
+        assertEquals(3, abc.getLength());
+        assertEquals("A", abc.getElementAt(0));
+        assertEquals("C", abc.getElementAt(2));
+        assertEquals("[A, B, C]", abc.toString());
+        Context bcd = factory.append(abc, "D", 3);
+        assertEquals(factory.make("B", "C", "D"), bcd);
+        assertEquals("B", bcd.getElementAt(0));
+        assertEquals(0, factory.getEmptyContext().getId());
+    }
+
     private static void testContext(ContextFactory<String> factory) {
         Context a = factory.make("A");
         Context empty1 = factory.getEmptyContext();
@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.export;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ColumnarResultTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "InstanceField",
+            "Array",
+            "StaticField",
+            "LinkedQueue",
+    })
+    void testExport(String main, @TempDir Path dir) throws IOException {
+        Path file = dir.resolve("pta-results.bin");
+        Tests.testPTA(false, "basic", main,
+                "export-file:" + file.toString().replace('\\', '/'));
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        ColumnarResult result = ColumnarResult.open(file);
+        assertEquals(pta.getObjects().size(), result.getObjects().size());
+        // check points-to sets of variables
+        int nonEmptyVars = 0;
+        for (Var var : pta.getVars()) {
+            Set<String> expected = pta.getPointsToSet(var)
+                    .stream()
+                    .map(Obj::toString)
+                    .collect(Collectors.toSet());
+            int[] pts = result.getPointsToSet(
+                    var.getMethod().getSignature(), var.getName());
+            assertEquals(expected, toStrings(result, pts), var.toString());
+            if (!expected.isEmpty()) {
+                ++nonEmptyVars;
+            }
+        }
+        assertEquals(nonEmptyVars, result.getVars().size());
+        // check call edges
+        CallGraph<Invoke, JMethod> callGraph = pta.getCallGraph();
+        assertEquals(callGraph.edges().count(), result.getCallEdges().size());
+        callGraph.edges().forEach(edge -> {
+            int caller = result.getStringId(
+                    edge.getCallSite().getContainer().getSignature());
+            int callee = result.getStringId(edge.getCallee().getSignature());
+            assertNotEquals(-1, result.getCallEdges().find(
+                    caller, edge.getCallSite().getIndex(), callee));
+        });
+    }
+
+    private static Set<String> toStrings(ColumnarResult result, int[] objs) {
+        return Arrays.stream(objs)
+                .map(o -> result.getObjects().get(o, ColumnarResult.OBJ_DESC))
+                .mapToObj(result::getString)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.plugin.assertion.AssertionChecker;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsmFrontendTest {
+
+    private static final String WORLD_BUILDER = AsmWorldBuilder.class.getName();
+
+    private static final String PTA_TEST_ROOT = "src/test/resources/pta";
+
+    @Test
+    void testWorldBuilder() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "Annotated,DefaultMethod$C",
+                "--world-builder", WORLD_BUILDER);
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        JClass annotated = hierarchy.getClass("Annotated");
+        assertNotNull(annotated);
+        assertTrue(annotated.isApplication());
+        JClass object = hierarchy.getClass("java.lang.Object");
+        assertNotNull(object);
+        assertFalse(object.isApplication());
+        // classes referenced by input classes are loaded transitively
+        JClass c = hierarchy.getClass("DefaultMethod$C");
+        assertNotNull(c);
+        assertNotNull(c.getSuperClass());
+        hierarchy.applicationClasses()
+                .flatMap(jclass -> jclass.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(AsmFrontendTest::examineIR);
+    }
+
+    private static void examineIR(JMethod method) {
+        IR ir = method.getIR();
+        assertFalse(ir.getStmts().isEmpty(), method.toString());
+        assertEquals(method.getParamCount(), ir.getParams().size());
+        assertEquals(method.isStatic(), ir.getThis() == null);
+        ir.forEach(stmt -> assertEquals(stmt, ir.getStmt(stmt.getIndex())));
+    }
+
+    /**
+     * Runs pointer analysis on the test programs with pointer analysis
+     * assertions, which are compiled to class files in advance.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "basic/Cast",
+            "basic/Clinit",
+            "basic/Cycle",
+            "basic/Dispatch2",
+            "basic/LinkedQueue",
+            "basic/MergeParam",
+            "basic/NativeModel",
+            "basic/RedBlackBST",
+    })
+    void testPTA(String program, @TempDir Path classDir) {
+        String[] splits = program.split("/");
+        String dir = splits[0], main = splits[1];
+        compile(classDir, PTA_TEST_ROOT + "/" + dir + "/" + main + ".java",
+                PTA_TEST_ROOT + "/PTAAssert.java");
+        Main.main(new String[]{
+                "-pp", "-cp", classDir.toString(), "-m", main,
+                "--world-builder", WORLD_BUILDER,
+                "-a", PointerAnalysis.ID + "=implicit-entries:false;" +
+                "only-app:true;distinguish-string-constants:all;" +
+                "plugins:[" + AssertionChecker.class.getName() + "]"
+        });
+    }
+
+    @Test
+    void testLoadOnDemand(@TempDir Path classDir) {
+        compile(classDir, PTA_TEST_ROOT + "/basic/RedBlackBST.java",
+                PTA_TEST_ROOT + "/PTAAssert.java");
+        Main.main(new String[]{
+                "-pp", "-cp", classDir.toString(), "-m", "RedBlackBST",
+                "--world-builder", WORLD_BUILDER, "--load-on-demand",
+                "-a", PointerAnalysis.ID + "=implicit-entries:false;" +
+                "only-app:true;distinguish-string-constants:all;" +
+                "plugins:[" + AssertionChecker.class.getName() + "]"
+        });
+        // only a small part of JDK classes is loaded
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        assertTrue(hierarchy.allClasses().count() < 1000);
+        assertNotNull(hierarchy.getClass("RedBlackBST"));
+    }
+
+    private static void compile(Path classDir, String... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String[] args = new String[sources.length + 4];
+        args[0] = "-g";
+        args[1] = "-proc:none";
+        args[2] = "-d";
+        args[3] = classDir.toString();
+        System.arraycopy(sources, 0, args, 4, sources.length);
+        assertEquals(0, compiler.run(null, null, null, args),
+                "failed to compile " + String.join(" ", sources));
+    }
+}
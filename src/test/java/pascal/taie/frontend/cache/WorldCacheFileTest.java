@@ -0,0 +1,144 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.config.Options;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorldCacheFileTest {
+
+    private static final List<String> CLASSES = List.of(
+            "LinkedQueue",
+            "java.lang.String",
+            "java.util.HashMap",
+            "java.util.concurrent.ConcurrentHashMap",
+            "java.lang.invoke.LambdaMetafactory"
+    );
+
+    @AfterEach
+    void tearDownEach() {
+        World.reset();
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path tempDir) throws Exception {
+        Main.buildWorld(
+                "-java", "8",
+                "-cp", "src/test/resources/pta/contextsensitivity",
+                "-m", "LinkedQueue"
+        );
+        World world1 = World.get();
+        File cacheDir = tempDir.toFile();
+        ShardLayout layout = ShardLayout.of(world1.getOptions(), cacheDir);
+        WorldCache.save(world1, new File(cacheDir, "world1.bin"), cacheDir, layout);
+        // the second world file reuses the IR shards written for the first one
+        File worldFile = new File(cacheDir, "world2.bin");
+        WorldCache.save(world1, worldFile, cacheDir, layout);
+        World world2 = WorldCache.load(worldFile, cacheDir);
+        World.reset();
+        World.set(world2);
+        assertTrue(world2.getIRBuilder() instanceof MappedIRBuilder);
+        assertEquals(world1.getMainMethod().getSignature(),
+                world2.getMainMethod().getSignature());
+        for (String className : CLASSES) {
+            JClass c1 = world1.getClassHierarchy().getClass(className);
+            JClass c2 = world2.getClassHierarchy().getClass(className);
+            assertNotNull(c1);
+            assertNotNull(c2);
+            for (JMethod m1 : c1.getDeclaredMethods()) {
+                if (!m1.isAbstract() && !m1.isNative()) {
+                    compareIR(m1.getIR(),
+                            c2.getDeclaredMethod(m1.getSubsignature()).getIR());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testShardKeys(@TempDir Path tempDir) throws Exception {
+        Path appDir = Files.createDirectories(tempDir.resolve("app"));
+        Path cacheDir = Files.createDirectories(tempDir.resolve("cache"));
+        Files.writeString(appDir.resolve("A.class"), "A");
+        Options options = Options.parse("-java", "8", "-acp", appDir.toString());
+        ShardLayout layout1 = ShardLayout.of(options, cacheDir.toFile());
+        assertEquals(layout1.getWorldKey(),
+                ShardLayout.of(options, cacheDir.toFile()).getWorldKey());
+        // change the application class path
+        Files.writeString(appDir.resolve("A.class"), "B");
+        ShardLayout layout2 = ShardLayout.of(options, cacheDir.toFile());
+        assertNotEquals(layout1.getWorldKey(), layout2.getWorldKey());
+        int app = layout1.getShard("A");
+        assertEquals(layout1.getShardCount() - 1, app);
+        for (int i = 0; i < layout1.getShardCount(); ++i) {
+            if (i == app) {
+                assertNotEquals(layout1.getShardFileName(i),
+                        layout2.getShardFileName(i));
+            } else { // shards of JRE jars are unchanged
+                assertEquals(layout1.getShardFileName(i),
+                        layout2.getShardFileName(i));
+            }
+        }
+    }
+
+    private static void compareIR(IR ir1, IR ir2) {
+        String method = ir1.getMethod().toString();
+        assertEquals(ir1.getVars().size(), ir2.getVars().size(), method);
+        for (int i = 0; i < ir1.getVars().size(); ++i) {
+            Var v1 = ir1.getVar(i), v2 = ir2.getVar(i);
+            assertEquals(v1.getName(), v2.getName(), method);
+            assertEquals(v1.getType().getName(), v2.getType().getName(), method);
+            assertEquals(String.valueOf(v1.getConstValue()),
+                    String.valueOf(v2.getConstValue()), method);
+        }
+        assertEquals(ir1.getParams().toString(), ir2.getParams().toString(), method);
+        assertEquals(ir1.getReturnVars().toString(),
+                ir2.getReturnVars().toString(), method);
+        assertEquals(ir1.getStmts().size(), ir2.getStmts().size(), method);
+        for (int i = 0; i < ir1.getStmts().size(); ++i) {
+            Stmt s1 = ir1.getStmt(i), s2 = ir2.getStmt(i);
+            assertEquals(s1.toString(), s2.toString(), method);
+            assertEquals(s1.getLineNumber(), s2.getLineNumber(), method);
+        }
+        assertEquals(ir1.getExceptionEntries().toString(),
+                ir2.getExceptionEntries().toString(), method);
+    }
+}
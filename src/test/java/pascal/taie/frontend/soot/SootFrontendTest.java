@@ -35,6 +35,7 @@ import soot.SootField;
 import soot.SootMethod;
 
 import java.util.Comparator;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -56,6 +57,31 @@ public class SootFrontendTest {
                 });
     }
 
+    @Test
+    void testParallelClassLoading() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world", "--input-classes", "AllInOne");
+        List<String> sequential = describeClasses();
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world", "--input-classes", "AllInOne",
+                "--parallel-class-loading");
+        List<String> parallel = describeClasses();
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * Describes the classes in the class hierarchy with their indexes,
+     * super classes, interfaces, and outer classes.
+     */
+    private static List<String> describeClasses() {
+        return World.get()
+                .getClassHierarchy()
+                .allClasses()
+                .map(c -> c.getIndex() + " " + c.getName()
+                        + " super: " + c.getSuperClass()
+                        + " interfaces: " + c.getInterfaces()
+                        + " outer: " + c.getOuterClass())
+                .toList();
+    }
+
     /**
      * Compare the information of JClass and SootClass.
      */
@@ -0,0 +1,121 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IRCacheTest {
+
+    @Test
+    void testPinIR() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "AllInOne", "--ir-cache-size", "2");
+        IRCache cache = World.get().getIRCache();
+        assertNotNull(cache);
+        assertEquals(2, cache.getCapacity());
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .toList();
+        methods.forEach(JMethod::getIR);
+        assertEquals(Math.max(0, methods.size() - 2), cache.getEvictions());
+        // pinned IR is always returned by getIR()
+        JMethod m = methods.get(0);
+        IR ir = m.pinIR();
+        methods.forEach(JMethod::getIR);
+        assertSame(ir, m.getIR());
+        assertSame(ir, m.pinIR());
+    }
+
+    @Test
+    void testRebuildReclaimedIR() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "AllInOne", "--ir-cache-size", "1");
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .toList();
+        assertTrue(methods.size() > 1);
+        // keeps the contents (instead of the objects) of the IRs,
+        // so that the evicted IRs are only softly reachable
+        Map<JMethod, String> contents = Maps.newMap();
+        Map<JMethod, WeakReference<IR>> builtIRs = Maps.newMap();
+        methods.forEach(m -> {
+            IR ir = m.getIR();
+            contents.put(m, toString(ir));
+            builtIRs.put(m, new WeakReference<>(ir));
+        });
+        JMethod pinned = methods.get(0);
+        IR pinnedIR = pinned.pinIR();
+        clearSoftReferences();
+        // the last accessed IR is still in the cache, and the other
+        // unpinned IRs have been reclaimed and are rebuilt on access
+        for (JMethod m : methods.subList(1, methods.size() - 1)) {
+            assertNull(builtIRs.get(m).get());
+            IR ir = m.getIR();
+            assertEquals(contents.get(m), toString(ir));
+            assertSame(ir, m.getIR());
+        }
+        assertSame(pinnedIR, pinned.getIR());
+        assertEquals(contents.get(pinned), toString(pinnedIR));
+    }
+
+    private static String toString(IR ir) {
+        return ir.getVars() + "\n" + String.join("\n",
+                ir.stmts().map(s -> s.getIndex() + ": " + s).toList());
+    }
+
+    /**
+     * Forces the collector to clear all soft references, which is
+     * guaranteed before throwing {@link OutOfMemoryError}.
+     */
+    private static void clearSoftReferences() {
+        List<long[]> chunks = new ArrayList<>();
+        try {
+            while (true) {
+                chunks.add(new long[1 << 24]);
+            }
+        } catch (OutOfMemoryError e) {
+            chunks.clear();
+        }
+    }
+}
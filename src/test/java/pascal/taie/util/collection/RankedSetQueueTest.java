@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RankedSetQueueTest {
+
+    private static final List<String> ELEMENTS = List.of("a", "b", "c", "d", "e");
+
+    private static Queue<String> newQueue() {
+        return new RankedSetQueue<>(ELEMENTS, ELEMENTS::indexOf);
+    }
+
+    @Test
+    void test() {
+        Queue<String> queue = newQueue();
+        queue.addAll(List.of("d", "b", "d", "e", "b"));
+        assertEquals(3, queue.size());
+        assertEquals(List.of("b", "d", "e"), List.copyOf(queue));
+        assertEquals("b", queue.peek());
+        assertEquals("b", queue.poll());
+        assertEquals("d", queue.poll());
+        assertEquals("e", queue.poll());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void testAddLowerRank() {
+        Queue<String> queue = newQueue();
+        queue.addAll(List.of("c", "e"));
+        assertEquals("c", queue.poll());
+        // elements of lower ranks are polled first even if they
+        // are added after polling elements of higher ranks
+        assertTrue(queue.add("a"));
+        assertTrue(queue.add("c"));
+        assertFalse(queue.add("a"));
+        assertEquals("a", queue.poll());
+        assertEquals("c", queue.poll());
+        assertEquals("e", queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -22,10 +22,28 @@
 
 package pascal.taie.util.collection;
 
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class RegularBitSetTest extends IBitSetTest {
 
     @Override
     protected IBitSet of(int... indexes) {
         return IBitSet.of(indexes);
     }
+
+    @Test
+    void testValueOf() {
+        long[] words = {-1L, 0b101L, 1L << 63, 0L, 0L};
+        assertEquals(of(0, 2, 127), RegularBitSet.valueOf(words, 1, 3));
+        assertEquals(of(63), RegularBitSet.valueOf(words, 2, 5));
+        assertEquals(64, RegularBitSet.valueOf(words, 0, 1).cardinality());
+        IBitSet empty = RegularBitSet.valueOf(words, 3, 5);
+        assertTrue(empty.isEmpty());
+        assertEquals(of(), empty);
+        assertTrue(empty.set(200));
+        assertEquals(of(200), empty);
+    }
 }
@@ -119,6 +119,29 @@ public class GraphTest {
         assertEquals(7, mg.getNumberOfNodes());
     }
 
+    @Test
+    void testSCCOrder() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-dominator.txt");
+        SCCOrder<Integer> order = new SCCOrder<>(g, List.of(1));
+        List<Integer> l = order.get();
+        assertEquals(g.getNumberOfNodes(), l.size());
+        for (int i = 0; i < l.size(); ++i) {
+            assertEquals(i, order.getRank(l.get(i)));
+        }
+        // nodes before the loop
+        assertEquals(1, l.get(0));
+        assertEquals(2, l.get(1));
+        // loop header and body
+        assertEquals(3, l.get(2));
+        assertTrue(l.indexOf(4) < l.indexOf(5));
+        assertTrue(l.indexOf(4) < l.indexOf(6));
+        assertTrue(l.indexOf(5) < l.indexOf(7));
+        assertTrue(l.indexOf(6) < l.indexOf(7));
+        assertTrue(l.indexOf(7) < l.indexOf(8));
+        // node after the loop
+        assertEquals(9, l.get(l.size() - 1));
+    }
+
     @Test
     void testDominator() {
         Graph<Integer> g = readGraph("src/test/resources/util/graph-dominator.txt");
@@ -0,0 +1,62 @@
+class TaintFlow {
+
+    public static void main(String[] args) {
+        Object a = source();
+        Object b = id(a);
+        tainted(b);
+        Object c = new Object();
+        Object d = id(c);
+        // id() is called with tainted and untainted values, and the
+        // results of the calls should be distinguished
+        untainted(d);
+        Object e = fresh(a);
+        untainted(e);
+        Object f = passTwice(a);
+        tainted(f);
+        Object g = passTwice(c);
+        untainted(g);
+        Object h = recursive(a, 3);
+        tainted(h);
+        Object i = recursive(c, 3);
+        untainted(i);
+        Object j = a;
+        j = c;
+        untainted(j);
+        sinkParam(a, c);
+    }
+
+    static Object source() {
+        return new Object();
+    }
+
+    static void tainted(Object o) {
+    }
+
+    static void untainted(Object o) {
+    }
+
+    static Object id(Object o) {
+        return o;
+    }
+
+    static Object fresh(Object o) {
+        return new Object();
+    }
+
+    static Object passTwice(Object o) {
+        Object t = id(o);
+        return id(t);
+    }
+
+    static Object recursive(Object o, int n) {
+        if (n > 0) {
+            return recursive(o, n - 1);
+        }
+        return o;
+    }
+
+    static void sinkParam(Object p, Object q) {
+        tainted(p);
+        untainted(q);
+    }
+}
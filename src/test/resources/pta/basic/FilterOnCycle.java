@@ -0,0 +1,10 @@
+class FilterOnCycle {
+    public static void main(String[] args) {
+        Object s1 = new Object();
+        Object s2 = s1;
+        Object s3 = s2;
+        s3 = new Object();
+        s1 = s3;
+        Object o = new Object();
+    }
+}
@@ -0,0 +1,12 @@
+class SanitizerCycle {
+    public static void main(String args[]) {
+        String s1 = new String();
+        String s2 = Sanitizer.sanitize(s1);
+        String s3 = s2;
+        s1 = s3;
+        SourceSink.sink(s1); // taint
+        SourceSink.sink(s2); // no taint
+
+        s3 = SourceSink.source();
+    }
+}